@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024 Adobe. All rights reserved.
+ * This file is licensed to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. You may obtain a copy
+ * of the License at http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under
+ * the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+ * OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+import com.adobe.marketing.mobile.gradle.BuildConstants
+
+plugins {
+    id("com.android.library")
+}
+
+val mavenCoreVersion: String by project
+val jmhVersion = "1.37"
+
+android {
+    namespace = "com.adobe.marketing.mobile.places.benchmark"
+
+    defaultConfig {
+        compileSdk = BuildConstants.Versions.COMPILE_SDK_VERSION
+        minSdk = BuildConstants.Versions.MIN_SDK_VERSION
+        // the places library is published as the phone flavor
+        missingDimensionStrategy("target", "phone")
+    }
+
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+    }
+}
+
+// Benchmarks run on the JVM through the unit test task and are skipped unless requested:
+// ./gradlew -p code/benchmark testDebugUnitTest -Pjmh [-Pjmh.include=<regex>]
+tasks.withType<Test>().configureEach {
+    systemProperty("jmh.enabled", project.hasProperty("jmh"))
+    project.findProperty("jmh.include")?.let { systemProperty("jmh.include", it) }
+    outputs.upToDateWhen { false }
+    testLogging.showStandardStreams = project.hasProperty("jmh")
+}
+
+dependencies {
+    testImplementation(project(":places"))
+    testImplementation("com.adobe.marketing.mobile:core:$mavenCoreVersion")
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("org.json:json:20180813")
+    testImplementation("org.mockito:mockito-core:4.5.1")
+    testImplementation("org.openjdk.jmh:jmh-core:$jmhVersion")
+    testAnnotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+}
@@ -0,0 +1,172 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/** Deterministic POI data sets shared by the benchmarks. */
+final class BenchmarkData {
+
+    static final double QUERY_LATITUDE = 37.3309;
+    static final double QUERY_LONGITUDE = -121.8939;
+    static final String LIBRARY = "benchmarkLibrary";
+
+    // share of the generated POIs the user is within
+    private static final int USER_WITHIN_RATIO = 10;
+
+    private BenchmarkData() {}
+
+    /**
+     * Creates POIs spread around the query location, each with {@code metadataSize} metadata
+     * entries.
+     */
+    static List<PlacesPOI> createPOIs(final int poiCount, final int metadataSize) {
+        final List<PlacesPOI> pois = new ArrayList<>(poiCount);
+
+        for (int i = 0; i < poiCount; i++) {
+            final PlacesPOI poi =
+                    new PlacesPOI(
+                            "poi-" + i,
+                            "Point of interest " + i,
+                            QUERY_LATITUDE + (i % 100) * 0.0005,
+                            QUERY_LONGITUDE - (i / 100) * 0.0005,
+                            100 + i % 400,
+                            LIBRARY,
+                            i % 5,
+                            createMetadata(i, metadataSize));
+            poi.setUserIsWithin(i % USER_WITHIN_RATIO == 0);
+            pois.add(poi);
+        }
+
+        return pois;
+    }
+
+    /** Returns a copy of the given POIs, so that a benchmark can hand out unshared instances. */
+    static List<PlacesPOI> copyPOIs(final List<PlacesPOI> pois) {
+        final List<PlacesPOI> copies = new ArrayList<>(pois.size());
+
+        for (final PlacesPOI poi : pois) {
+            copies.add(new PlacesPOI(poi));
+        }
+
+        return copies;
+    }
+
+    /** Creates a successful {@link PlacesQueryResponse} holding the given POIs. */
+    static PlacesQueryResponse createQueryResponse(final List<PlacesPOI> pois) {
+        final PlacesQueryResponse response = new PlacesQueryResponse();
+        response.isSuccess = true;
+        response.resultStatus = PlacesRequestError.OK;
+        response.containsUserPOIs = new ArrayList<>();
+        response.nearByPOIs = new ArrayList<>();
+        response.queryLatitude = QUERY_LATITUDE;
+        response.queryLongitude = QUERY_LONGITUDE;
+        response.queryCount = pois.size();
+
+        for (final PlacesPOI poi : pois) {
+            if (poi.containsUser()) {
+                response.containsUserPOIs.add(poi);
+            } else {
+                response.nearByPOIs.add(poi);
+            }
+        }
+
+        return response;
+    }
+
+    /** Serializes the given POIs the way the places query service returns them. */
+    static byte[] createQueryResponseBody(final List<PlacesPOI> pois) throws JSONException {
+        final JSONArray userWithin = new JSONArray();
+        final JSONArray nearby = new JSONArray();
+
+        for (final PlacesPOI poi : pois) {
+            final JSONObject poiJson = new JSONObject();
+            poiJson.put(
+                    PlacesConstants.QueryResponseJsonKeys.POI_DETAILS,
+                    new JSONArray()
+                            .put(poi.getIdentifier())
+                            .put(poi.getName())
+                            .put(String.valueOf(poi.getLatitude()))
+                            .put(String.valueOf(poi.getLongitude()))
+                            .put(poi.getRadius())
+                            .put(poi.getLibrary())
+                            .put(poi.getWeight()));
+            poiJson.put(
+                    PlacesConstants.QueryResponseJsonKeys.POI_METADATA,
+                    new JSONObject(poi.getMetadata()));
+            (poi.containsUser() ? userWithin : nearby).put(poiJson);
+        }
+
+        final JSONObject places = new JSONObject();
+        places.put(PlacesConstants.QueryResponseJsonKeys.POI_MEMBERS, userWithin);
+        places.put(PlacesConstants.QueryResponseJsonKeys.POI, nearby);
+        return new JSONObject()
+                .put(PlacesConstants.QueryResponseJsonKeys.PLACES, places)
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Returns a valid places configuration with a single library. */
+    static Map<String, Object> createConfiguration() {
+        final Map<String, Object> library = new HashMap<>();
+        library.put(PlacesConstants.EventDataKeys.Configuration.CONFIG_KEY_LIBRARY_ID, LIBRARY);
+
+        final Map<String, Object> configuration = new HashMap<>();
+        configuration.put(
+                PlacesConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_LIBRARIES,
+                Collections.singletonList(library));
+        configuration.put(
+                PlacesConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_ENDPOINT,
+                "places.adobe.com");
+        return configuration;
+    }
+
+    /** Returns the event data of a get nearby places request for {@code poiCount} POIs. */
+    static Map<String, Object> createQueryEventData(final int poiCount) {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(PlacesConstants.EventDataKeys.Places.LATITUDE, QUERY_LATITUDE);
+        eventData.put(PlacesConstants.EventDataKeys.Places.LONGITUDE, QUERY_LONGITUDE);
+        eventData.put(PlacesConstants.EventDataKeys.Places.PLACES_COUNT, poiCount);
+        return eventData;
+    }
+
+    /** Creates a region event of the given type for the given POI. */
+    static Event createRegionEvent(final String regionId, final String regionEventType) {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(PlacesConstants.EventDataKeys.Places.REGION_ID, regionId);
+        eventData.put(PlacesConstants.EventDataKeys.Places.REGION_EVENT_TYPE, regionEventType);
+        return new Event.Builder("Region event", EventType.PLACES, EventSource.REQUEST_CONTENT)
+                .setEventData(eventData)
+                .build();
+    }
+
+    private static Map<String, String> createMetadata(final int poiIndex, final int metadataSize) {
+        final Map<String, String> metadata = new HashMap<>();
+
+        for (int i = 0; i < metadataSize; i++) {
+            metadata.put("key" + i, "value-" + poiIndex + "-" + i);
+        }
+
+        return metadata;
+    }
+}
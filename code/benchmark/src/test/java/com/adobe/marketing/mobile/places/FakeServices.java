@@ -0,0 +1,226 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import com.adobe.marketing.mobile.services.DataStoring;
+import com.adobe.marketing.mobile.services.HttpConnecting;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import com.adobe.marketing.mobile.services.NetworkCallback;
+import com.adobe.marketing.mobile.services.NetworkRequest;
+import com.adobe.marketing.mobile.services.Networking;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.HashMap;
+import java.util.Map;
+
+/** In-memory stand-ins for the platform services used by the benchmarks. */
+final class FakeServices {
+
+    private FakeServices() {}
+
+    /** {@link DataStoring} keeping every named collection in memory. */
+    static final class FakeDataStoring implements DataStoring {
+
+        private final Map<String, FakeNamedCollection> collections = new HashMap<>();
+
+        @Override
+        public NamedCollection getNamedCollection(final String collectionName) {
+            FakeNamedCollection collection = collections.get(collectionName);
+
+            if (collection == null) {
+                collection = new FakeNamedCollection();
+                collections.put(collectionName, collection);
+            }
+
+            return collection;
+        }
+    }
+
+    /** {@link NamedCollection} backed by a {@link HashMap}. */
+    static final class FakeNamedCollection implements NamedCollection {
+
+        private final Map<String, Object> values = new HashMap<>();
+
+        @Override
+        public void setInt(final String key, final int value) {
+            values.put(key, value);
+        }
+
+        @Override
+        public int getInt(final String key, final int defaultValue) {
+            final Object value = values.get(key);
+            return value instanceof Integer ? (Integer) value : defaultValue;
+        }
+
+        @Override
+        public void setString(final String key, final String value) {
+            values.put(key, value);
+        }
+
+        @Override
+        public String getString(final String key, final String defaultValue) {
+            final Object value = values.get(key);
+            return value instanceof String ? (String) value : defaultValue;
+        }
+
+        @Override
+        public void setDouble(final String key, final double value) {
+            values.put(key, value);
+        }
+
+        @Override
+        public double getDouble(final String key, final double defaultValue) {
+            final Object value = values.get(key);
+            return value instanceof Double ? (Double) value : defaultValue;
+        }
+
+        @Override
+        public void setLong(final String key, final long value) {
+            values.put(key, value);
+        }
+
+        @Override
+        public long getLong(final String key, final long defaultValue) {
+            final Object value = values.get(key);
+            return value instanceof Long ? (Long) value : defaultValue;
+        }
+
+        @Override
+        public void setFloat(final String key, final float value) {
+            values.put(key, value);
+        }
+
+        @Override
+        public float getFloat(final String key, final float defaultValue) {
+            final Object value = values.get(key);
+            return value instanceof Float ? (Float) value : defaultValue;
+        }
+
+        @Override
+        public void setBoolean(final String key, final boolean value) {
+            values.put(key, value);
+        }
+
+        @Override
+        public boolean getBoolean(final String key, final boolean defaultValue) {
+            final Object value = values.get(key);
+            return value instanceof Boolean ? (Boolean) value : defaultValue;
+        }
+
+        @Override
+        public void setMap(final String key, final Map<String, String> value) {
+            values.put(key, value == null ? null : new HashMap<>(value));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map<String, String> getMap(final String key) {
+            final Object value = values.get(key);
+            return value instanceof Map ? (Map<String, String>) value : null;
+        }
+
+        @Override
+        public boolean contains(final String key) {
+            return values.containsKey(key);
+        }
+
+        @Override
+        public void remove(final String key) {
+            values.remove(key);
+        }
+
+        @Override
+        public void removeAll() {
+            values.clear();
+        }
+    }
+
+    /**
+     * {@link Networking} answering every request synchronously with the same body, or with {@code
+     * 304 Not Modified} to requests validated with its entity tag.
+     */
+    static final class FakeNetworking implements Networking {
+
+        private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
+        private final byte[] responseBody;
+        private final String entityTag;
+
+        FakeNetworking(final byte[] responseBody) {
+            this(responseBody, null);
+        }
+
+        FakeNetworking(final byte[] responseBody, final String entityTag) {
+            this.responseBody = responseBody;
+            this.entityTag = entityTag;
+        }
+
+        @Override
+        public void connectAsync(final NetworkRequest request, final NetworkCallback callback) {
+            final boolean notModified =
+                    entityTag != null
+                            && request.getHeaders() != null
+                            && entityTag.equals(request.getHeaders().get(HEADER_IF_NONE_MATCH));
+            callback.call(
+                    new FakeConnection(
+                            responseBody,
+                            entityTag,
+                            notModified
+                                    ? HttpURLConnection.HTTP_NOT_MODIFIED
+                                    : HttpURLConnection.HTTP_OK));
+        }
+    }
+
+    private static final class FakeConnection implements HttpConnecting {
+
+        private static final String HEADER_ETAG = "ETag";
+
+        private final byte[] responseBody;
+        private final String entityTag;
+        private final int responseCode;
+
+        FakeConnection(final byte[] responseBody, final String entityTag, final int responseCode) {
+            this.responseBody = responseBody;
+            this.entityTag = entityTag;
+            this.responseCode = responseCode;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(responseBody);
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return null;
+        }
+
+        @Override
+        public int getResponseCode() {
+            return responseCode;
+        }
+
+        @Override
+        public String getResponseMessage() {
+            return responseCode == HttpURLConnection.HTTP_OK ? "OK" : "Not Modified";
+        }
+
+        @Override
+        public String getResponsePropertyValue(final String responsePropertyKey) {
+            return HEADER_ETAG.equals(responsePropertyKey) ? entityTag : null;
+        }
+
+    @Override
+        public void close() {}
+    }
+}
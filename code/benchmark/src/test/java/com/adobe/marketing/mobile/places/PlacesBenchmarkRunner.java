@@ -0,0 +1,55 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Collection;
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the Places benchmarks from the unit test task, with the GC profiler attached so that the
+ * allocation rate of every benchmark is reported along with its average time.
+ *
+ * <p>Skipped unless the build is run with {@code -Pjmh}, {@code -Pjmh.include=<regex>} restricts
+ * the benchmarks that run.
+ */
+public class PlacesBenchmarkRunner {
+
+    private static final String DEFAULT_INCLUDE =
+            PlacesBenchmarkRunner.class.getPackage().getName();
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        assumeTrue(Boolean.getBoolean("jmh.enabled"));
+
+        // setup
+        final Options options =
+                new OptionsBuilder()
+                        .include(System.getProperty("jmh.include", DEFAULT_INCLUDE))
+                        .addProfiler(GCProfiler.class)
+                        .shouldFailOnError(true)
+                        .build();
+
+        // test
+        final Collection<RunResult> results = new Runner(options).run();
+
+        // verify
+        assertFalse(results.isEmpty());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import com.adobe.marketing.mobile.ExtensionApi;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures converting POIs into event data, dispatching them to all listeners as a full list or as
+ * a delta with a single changed POI, merged into the cached POIs first, and dispatching region
+ * experience events.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacesDispatcherBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int poiCount;
+
+    @Param({"0", "8"})
+    public int metadataSize;
+
+    private List<PlacesPOI> pois;
+    private List<PlacesPOI> changedPOIs;
+    private boolean dispatchChangedPOIs;
+    private LinkedHashMap<String, PlacesPOI> cachedPOIs;
+    private PlacesDispatcher dispatcher;
+    private PlacesRegion region;
+
+    @Setup
+    public void setup() {
+        pois = BenchmarkData.createPOIs(poiCount, metadataSize);
+
+        // the same POIs, the user being within the last one
+        changedPOIs = new ArrayList<>(pois);
+        final PlacesPOI changedPOI = new PlacesPOI(pois.get(poiCount - 1));
+        changedPOI.setUserIsWithin(!changedPOI.containsUser());
+        changedPOIs.set(poiCount - 1, changedPOI);
+        cachedPOIs = new LinkedHashMap<>();
+
+        // stub only, so that the mock does not record every dispatched event
+        dispatcher = new PlacesDispatcher(mock(ExtensionApi.class, withSettings().stubOnly()));
+        region =
+                new PlacesRegion(
+                        pois.get(0), PlacesRegion.PLACE_EVENT_ENTRY, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> convertPOIListToMap() {
+        return PlacesUtil.convertPOIListToMap(pois);
+    }
+
+    @Benchmark
+    public List<PlacesPOI> dispatchNearbyPlaces() {
+        dispatcher.dispatchNearbyPlaces(pois, PlacesRequestError.OK, null);
+        return pois;
+    }
+
+    @Benchmark
+    public long dispatchNearbyPlacesDelta() {
+        // alternate between the two lists so that every delta carries one changed POI
+        dispatchChangedPOIs = !dispatchChangedPOIs;
+        final List<PlacesPOI> responsePOIs = dispatchChangedPOIs ? changedPOIs : pois;
+        final PlacesPOIDiff poiDiff = PlacesPOIDiff.merge(cachedPOIs, null, responsePOIs);
+
+        if (!poiDiff.isEmpty()) {
+            cachedPOIs = poiDiff.getMergedPOIs();
+        }
+
+        return dispatcher.dispatchNearbyPlacesDelta(
+                poiDiff,
+                responsePOIs,
+                PlacesRequestError.OK,
+                PlacesConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK);
+    }
+
+    @Benchmark
+    public PlacesRegion dispatchExperienceEventToEdge() {
+        dispatcher.dispatchExperienceEventToEdge(region);
+        return region;
+    }
+}
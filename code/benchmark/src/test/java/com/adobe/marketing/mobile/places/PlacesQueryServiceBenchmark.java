@@ -0,0 +1,89 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading a places query response into {@link PlacesPOI}s, and short-circuiting a
+ * response identical to the one already processed, by body hash or by entity tag.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacesQueryServiceBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int poiCount;
+
+    @Param({"0", "8"})
+    public int metadataSize;
+
+    private PlacesQueryService queryService;
+    private PlacesQueryService validatedQueryService;
+    private String processedBodyHash;
+    private PlacesConfiguration configuration;
+    private Map<String, Object> eventData;
+    private PlacesQueryResponse lastResponse;
+
+    @Setup
+    public void setup() throws Exception {
+        final byte[] responseBody =
+                BenchmarkData.createQueryResponseBody(
+                        BenchmarkData.createPOIs(poiCount, metadataSize));
+        queryService = new PlacesQueryService(new FakeServices.FakeNetworking(responseBody));
+        configuration = new PlacesConfiguration(BenchmarkData.createConfiguration());
+        eventData = BenchmarkData.createQueryEventData(poiCount);
+
+        // process the response once, as the places state would
+        processedBodyHash = getNearbyPlaces().bodyHash;
+        validatedQueryService =
+                new PlacesQueryService(new FakeServices.FakeNetworking(responseBody, "\"etag\""));
+        validatedQueryService.getNearbyPlaces(eventData, configuration, response -> {});
+    }
+
+    @Benchmark
+    public PlacesQueryResponse getNearbyPlaces() {
+        // the fake networking answers synchronously
+        queryService.getNearbyPlaces(eventData, configuration, response -> lastResponse = response);
+        return lastResponse;
+    }
+
+    @Benchmark
+    public PlacesQueryResponse getNearbyPlaces_when_identicalBody() {
+        queryService.getNearbyPlaces(
+                eventData, configuration, processedBodyHash, response -> lastResponse = response);
+        return lastResponse;
+    }
+
+    @Benchmark
+    public PlacesQueryResponse getNearbyPlaces_when_notModified() {
+        validatedQueryService.getNearbyPlaces(
+                eventData, configuration, processedBodyHash, response -> lastResponse = response);
+        return lastResponse;
+    }
+}
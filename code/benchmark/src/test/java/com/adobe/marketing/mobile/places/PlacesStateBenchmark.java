@@ -0,0 +1,101 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import com.adobe.marketing.mobile.Event;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures caching and persisting POIs in {@link PlacesState}, and building the places shared
+ * state from them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacesStateBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int poiCount;
+
+    @Param({"0", "8"})
+    public int metadataSize;
+
+    private List<PlacesPOI> pois;
+    private PlacesState loadedState;
+    private Event entryEvent;
+    private Event exitEvent;
+    private boolean entered;
+
+    // fresh per invocation, processing a response mutates both the state and the response
+    private PlacesState emptyState;
+    private PlacesQueryResponse response;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        pois = BenchmarkData.createPOIs(poiCount, metadataSize);
+        loadedState = new PlacesState(new FakeServices.FakeDataStoring());
+        loadedState.processNetworkResponse(
+                BenchmarkData.createQueryResponse(BenchmarkData.copyPOIs(pois)));
+
+        // enter and exit a POI the user is not within yet
+        final String regionId = pois.get(pois.size() - 1).getIdentifier();
+        entryEvent = BenchmarkData.createRegionEvent(regionId, PlacesRegion.PLACE_EVENT_ENTRY);
+        exitEvent = BenchmarkData.createRegionEvent(regionId, PlacesRegion.PLACE_EVENT_EXIT);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        emptyState = new PlacesState(new FakeServices.FakeDataStoring());
+        response = BenchmarkData.createQueryResponse(BenchmarkData.copyPOIs(pois));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loadedState.shutdown();
+    }
+
+    @Benchmark
+    public PlacesState processNetworkResponse() {
+        emptyState.processNetworkResponse(response);
+        return emptyState;
+    }
+
+    @Benchmark
+    public PlacesRegion processRegionEvent() {
+        // alternate entries and exits so that every event changes the persisted state
+        entered = !entered;
+        return loadedState.processRegionEvent(entered ? entryEvent : exitEvent);
+    }
+
+    @Benchmark
+    public Map<String, Object> getPlacesSharedState() {
+        return loadedState.getPlacesSharedState();
+    }
+}
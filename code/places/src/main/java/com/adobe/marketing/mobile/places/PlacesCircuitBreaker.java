@@ -0,0 +1,109 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import com.adobe.marketing.mobile.services.Log;
+
+/**
+ * Circuit breaker of the places queries.
+ *
+ * <p>The breaker opens once the configured number of consecutive places queries failed
+ * transiently, after which the queries fail fast, without opening a connection, for the configured
+ * duration. A single query is then let through to probe the places service: the breaker closes if
+ * it succeeds, and opens again otherwise.
+ *
+ * <p>Thread safe, the outcome of the queries is recorded from the networking threads.
+ */
+final class PlacesCircuitBreaker {
+
+    private static final String CLASS_NAME = "PlacesCircuitBreaker";
+
+    enum State {
+        /** The queries are let through. */
+        CLOSED,
+        /** The queries fail fast. */
+        OPEN,
+        /** A single query probing the places service is in flight, the others fail fast. */
+        HALF_OPEN
+    }
+
+    private State state = State.CLOSED;
+    private int failureCount;
+    private long openTimestamp;
+
+    /**
+     * Returns whether a places query can be made, letting a probing query through once the breaker
+     * has been open for the provided duration.
+     *
+     * @param timestamp the current time in milliseconds
+     * @param openDuration the time in milliseconds for which the breaker stays open
+     * @return true if the query can be made, false if it must fail fast
+     */
+    synchronized boolean allowRequest(final long timestamp, final long openDuration) {
+        switch (state) {
+            case OPEN:
+                if (timestamp - openTimestamp < openDuration) {
+                    return false;
+                }
+
+                Log.debug(
+                        PlacesConstants.LOG_TAG,
+                        CLASS_NAME,
+                        "Letting a places query through to probe the places service");
+                state = State.HALF_OPEN;
+                return true;
+            case HALF_OPEN:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    /** Records a places query which reached the places service, closing the breaker. */
+    synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            Log.debug(PlacesConstants.LOG_TAG, CLASS_NAME, "The places service is reachable");
+        }
+
+        state = State.CLOSED;
+        failureCount = 0;
+    }
+
+    /**
+     * Records a places query which failed transiently, opening the breaker if the probing query
+     * failed or if the provided threshold is reached.
+     *
+     * @param timestamp the current time in milliseconds
+     * @param threshold the number of consecutive failed queries opening the breaker, the breaker
+     *     never opens when 0 or less
+     */
+    synchronized void recordFailure(final long timestamp, final int threshold) {
+        failureCount++;
+
+        if (state == State.HALF_OPEN || (threshold > 0 && failureCount >= threshold)) {
+            if (state != State.OPEN) {
+                Log.warning(
+                        PlacesConstants.LOG_TAG,
+                        CLASS_NAME,
+                        "%d consecutive places queries failed, failing the places queries fast",
+                        failureCount);
+            }
+
+            state = State.OPEN;
+            openTimestamp = timestamp;
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
@@ -25,6 +25,20 @@ class PlacesConfiguration {
     private List<PlacesLibrary> libraries;
     private String endpoint;
     private long membershipTtl;
+    private long cacheTtl;
+    private double minQueryDistance;
+    private long minQueryInterval;
+    private boolean geofenceEvaluation;
+    private double geofenceHysteresis;
+    private double geofenceMaxAccuracy;
+    private int tilePrecision;
+    private long tileTtl;
+    private long tileCacheSize;
+    private boolean nearbyDeltaEvents;
+    private boolean metricsSharedState;
+    private int networkRetries;
+    private int circuitBreakerThreshold;
+    private long circuitBreakerDuration;
     private boolean isValid;
 
     PlacesConfiguration(final Map<String, Object> configData) {
@@ -111,6 +125,121 @@ class PlacesConfiguration {
                         PlacesConstants.EventDataKeys.Configuration
                                 .CONFIG_KEY_PLACES_MEMBERSHIP_TTL,
                         PlacesConstants.DEFAULT_MEMBERSHIP_TTL);
+
+        cacheTtl =
+                DataReader.optLong(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_CACHE_TTL,
+                        PlacesConstants.DEFAULT_CACHE_TTL);
+
+        minQueryDistance =
+                DataReader.optDouble(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_MIN_QUERY_DISTANCE,
+                        PlacesConstants.DEFAULT_MIN_QUERY_DISTANCE);
+
+        minQueryInterval =
+                DataReader.optLong(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_MIN_QUERY_INTERVAL,
+                        PlacesConstants.DEFAULT_MIN_QUERY_INTERVAL);
+
+        geofenceEvaluation =
+                DataReader.optBoolean(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_GEOFENCE_EVALUATION,
+                        PlacesConstants.DEFAULT_GEOFENCE_EVALUATION);
+
+        geofenceHysteresis =
+                DataReader.optDouble(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_GEOFENCE_HYSTERESIS,
+                        PlacesConstants.DEFAULT_GEOFENCE_HYSTERESIS);
+
+        geofenceMaxAccuracy =
+                DataReader.optDouble(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_GEOFENCE_MAX_ACCURACY,
+                        PlacesConstants.DEFAULT_GEOFENCE_MAX_ACCURACY);
+
+        tilePrecision =
+                DataReader.optInt(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_TILE_PRECISION,
+                        PlacesConstants.DEFAULT_TILE_PRECISION);
+
+        if (tilePrecision < 0 || tilePrecision > PlacesGeohash.MAX_PRECISION) {
+            Log.warning(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "Constructor - Invalid tile precision %d, tile mode is disabled",
+                    tilePrecision);
+            tilePrecision = PlacesConstants.DEFAULT_TILE_PRECISION;
+        }
+
+        tileTtl =
+                DataReader.optLong(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_TILE_TTL,
+                        PlacesConstants.DEFAULT_TILE_TTL);
+
+        tileCacheSize =
+                DataReader.optLong(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_TILE_CACHE_SIZE,
+                        PlacesConstants.DEFAULT_TILE_CACHE_SIZE);
+
+        nearbyDeltaEvents =
+                DataReader.optBoolean(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_NEARBY_DELTA_EVENTS,
+                        PlacesConstants.DEFAULT_NEARBY_DELTA_EVENTS);
+
+        metricsSharedState =
+                DataReader.optBoolean(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_METRICS_SHARED_STATE,
+                        PlacesConstants.DEFAULT_METRICS_SHARED_STATE);
+
+        networkRetries =
+                DataReader.optInt(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_NETWORK_RETRIES,
+                        PlacesConstants.DEFAULT_NETWORK_RETRIES);
+
+        if (networkRetries < 0 || networkRetries > PlacesConstants.MAX_NETWORK_RETRIES) {
+            Log.warning(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "Constructor - Invalid network retries %d, using %d",
+                    networkRetries,
+                    PlacesConstants.DEFAULT_NETWORK_RETRIES);
+            networkRetries = PlacesConstants.DEFAULT_NETWORK_RETRIES;
+        }
+
+        circuitBreakerThreshold =
+                DataReader.optInt(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_CIRCUIT_BREAKER_THRESHOLD,
+                        PlacesConstants.DEFAULT_CIRCUIT_BREAKER_THRESHOLD);
+
+        circuitBreakerDuration =
+                DataReader.optLong(
+                        configData,
+                        PlacesConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_CIRCUIT_BREAKER_DURATION,
+                        PlacesConstants.DEFAULT_CIRCUIT_BREAKER_DURATION);
         isValid = true;
     }
 
@@ -137,6 +266,146 @@ class PlacesConfiguration {
         return membershipTtl;
     }
 
+    /**
+     * Returns the number of seconds for which the POIs from a nearby query may be reused to answer
+     * later queries from the local cache. A value less than or equal to zero disables the cache.
+     *
+     * @return the cache time-to-live in seconds
+     */
+    long getCacheTtl() {
+        return cacheTtl;
+    }
+
+    /**
+     * Returns the distance in meters the device has to move away from the last queried location
+     * before a new nearby query is sent to the network, while the last query is younger than
+     * {@link #getMinQueryInterval()}. A value less than or equal to zero disables the throttling.
+     *
+     * @return the minimum query distance in meters
+     */
+    double getMinQueryDistance() {
+        return minQueryDistance;
+    }
+
+    /**
+     * Returns the number of seconds after a nearby query during which the queries made closer than
+     * {@link #getMinQueryDistance()} to its location are answered from the cached POIs. A value
+     * less than or equal to zero disables the throttling.
+     *
+     * @return the minimum query interval in seconds
+     */
+    long getMinQueryInterval() {
+        return minQueryInterval;
+    }
+
+    /**
+     * Returns whether the region entries and exits are evaluated on the device, from the locations
+     * passed to the extension, against the cached POIs.
+     *
+     * @return true if the on-device geofence evaluation is enabled
+     */
+    boolean isGeofenceEvaluationEnabled() {
+        return geofenceEvaluation;
+    }
+
+    /**
+     * Returns the distance in meters the device has to move past the radius of a POI it is within
+     * before an exit is evaluated on the device.
+     *
+     * @return the geofence hysteresis in meters
+     */
+    double getGeofenceHysteresis() {
+        return geofenceHysteresis;
+    }
+
+    /**
+     * Returns the worst horizontal accuracy in meters of a location that is still evaluated on the
+     * device. A value less than or equal to zero accepts every location.
+     *
+     * @return the maximum location accuracy in meters
+     */
+    double getGeofenceMaxAccuracy() {
+        return geofenceMaxAccuracy;
+    }
+
+    /**
+     * Returns the geohash precision of the tiles the nearby queries are snapped to. A value of zero
+     * disables the tile mode.
+     *
+     * @return the tile precision, between 0 and {@link PlacesGeohash#MAX_PRECISION}
+     */
+    int getTilePrecision() {
+        return tilePrecision;
+    }
+
+    /**
+     * Returns the number of seconds for which the POIs fetched for a tile are reused.
+     *
+     * @return the tile time-to-live in seconds
+     */
+    long getTileTtl() {
+        return tileTtl;
+    }
+
+    /**
+     * Returns the byte budget of the cached tiles, beyond which the least recently used tiles are
+     * evicted.
+     *
+     * @return the tile cache size in bytes
+     */
+    long getTileCacheSize() {
+        return tileCacheSize;
+    }
+
+    /**
+     * Returns whether the nearby POIs are dispatched to all listeners as delta events, carrying the
+     * POIs added, changed and removed since the previous delta event, rather than as full lists.
+     *
+     * @return true if the nearby places delta events are enabled
+     */
+    boolean isNearbyDeltaEventsEnabled() {
+        return nearbyDeltaEvents;
+    }
+
+    /**
+     * Returns whether the metrics of the extension are published in the places shared state.
+     *
+     * @return true if the metrics are published in the places shared state
+     */
+    boolean isMetricsSharedStateEnabled() {
+        return metricsSharedState;
+    }
+
+    /**
+     * Returns the number of times a places query is retried when it fails transiently, with no
+     * connection or with a timeout, throttling or server error status.
+     *
+     * @return the number of retries, between 0 and {@link PlacesConstants#MAX_NETWORK_RETRIES}
+     */
+    int getNetworkRetries() {
+        return networkRetries;
+    }
+
+    /**
+     * Returns the number of consecutive places queries failing transiently after which the places
+     * queries fail fast, without opening a connection, for the circuit breaker duration.
+     *
+     * @return the circuit breaker threshold, the circuit breaker is disabled when 0 or less
+     */
+    int getCircuitBreakerThreshold() {
+        return circuitBreakerThreshold;
+    }
+
+    /**
+     * Returns the number of seconds for which the places queries fail fast once the circuit
+     * breaker opened, before a single query is let through to probe the places service.
+     *
+     * @return the circuit breaker duration in seconds
+     */
+    long getCircuitBreakerDuration() {
+        return circuitBreakerDuration;
+    }
+
     // hiding the default constructor
     private PlacesConfiguration() {}
 }
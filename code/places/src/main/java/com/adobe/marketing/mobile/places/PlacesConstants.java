@@ -19,6 +19,34 @@ final class PlacesConstants {
     static final int DEFAULT_NETWORK_TIMEOUT = 2;
     static final int DEFAULT_NEARBYPOI_COUNT = 20;
     static final long DEFAULT_MEMBERSHIP_TTL = 60 * 60; // 1 hour in seconds
+    static final long DEFAULT_CACHE_TTL = 0; // serving nearby queries from cache is disabled
+    static final double DEFAULT_MIN_QUERY_DISTANCE = 0; // query throttling is disabled
+    static final long DEFAULT_MIN_QUERY_INTERVAL = 0; // query throttling is disabled
+    static final boolean DEFAULT_GEOFENCE_EVALUATION = false; // on-device evaluation is disabled
+    static final double DEFAULT_GEOFENCE_HYSTERESIS = 25; // meters
+    static final double DEFAULT_GEOFENCE_MAX_ACCURACY = 250; // meters
+    static final int DEFAULT_TILE_PRECISION = 0; // tile mode is disabled
+    static final long DEFAULT_TILE_TTL = 24 * 60 * 60; // 1 day in seconds
+    static final long DEFAULT_TILE_CACHE_SIZE = 256 * 1024; // bytes
+    // number of POIs queried for each tile
+    static final int TILE_POI_COUNT = 50;
+    static final boolean DEFAULT_NEARBY_DELTA_EVENTS = false; // full lists are dispatched
+    static final boolean DEFAULT_METRICS_SHARED_STATE = false; // metrics are not shared
+    static final int DEFAULT_NETWORK_RETRIES = 2; // retries of a transiently failed places query
+    static final int MAX_NETWORK_RETRIES = 5;
+    static final int DEFAULT_CIRCUIT_BREAKER_THRESHOLD = 5; // consecutive failed places queries
+    static final long DEFAULT_CIRCUIT_BREAKER_DURATION = 30; // seconds
+    static final long NETWORK_RETRY_BASE_DELAY_MS = 250;
+    static final long NETWORK_RETRY_MAX_DELAY_MS = 4000;
+    // the network timeouts adapt to the observed latency once enough queries completed
+    static final int MIN_NETWORK_TIMEOUT = 1; // seconds
+    static final int MAX_NETWORK_TIMEOUT = 5; // seconds
+    static final int ADAPTIVE_TIMEOUT_MIN_SAMPLES = 20;
+    static final double ADAPTIVE_TIMEOUT_PERCENTILE = 95;
+    static final double ADAPTIVE_TIMEOUT_MULTIPLIER = 2;
+    static final long PERSISTENCE_FLUSH_DELAY_MS = 500;
+    // outlasts the longest connect and read timeouts of a places query attempt
+    static final long IN_FLIGHT_REQUEST_TIMEOUT_MS = (2 * MAX_NETWORK_TIMEOUT + 1) * 1000;
     static final double INVALID_LAT_LON = 999.999d;
 
     private PlacesConstants() {}
@@ -26,6 +54,8 @@ final class PlacesConstants {
     static final class DataStoreKeys {
 
         static final String NEARBYPOIS = "nearbypois";
+        static final String POI_SNAPSHOT = "poisnapshot";
+        static final String USER_WITHIN_POI_IDS = "userwithinpoiids";
         static final String CURRENT_POI = "currentpoi";
         static final String LAST_ENTERED_POI = "lastenteredpoi";
         static final String LAST_EXITED_POI = "lastexitedpoi";
@@ -33,6 +63,15 @@ final class PlacesConstants {
         static final String LAST_KNOWN_LONGITUDE = "lastknownlongitude";
         static final String AUTH_STATUS = "authstatus";
         static final String MEMBERSHIP_VALID_UNTIL = "places_membership_valid_until";
+        static final String LAST_QUERY_LATITUDE = "lastquerylatitude";
+        static final String LAST_QUERY_LONGITUDE = "lastquerylongitude";
+        static final String LAST_QUERY_RADIUS = "lastqueryradius";
+        static final String LAST_QUERY_COUNT = "lastquerycount";
+        static final String LAST_QUERY_LIBRARIES = "lastquerylibraries";
+        static final String LAST_QUERY_TIMESTAMP = "lastquerytimestamp";
+        static final String POI_SNAPSHOT_VERSION = "poisnapshotversion";
+        static final String POI_SNAPSHOT_PENDING_VERSION = "poisnapshotpendingversion";
+        static final String TILE_CACHE = "tilecache";
 
         private DataStoreKeys() {}
     }
@@ -85,10 +124,34 @@ final class PlacesConstants {
         static final String LAST_EXITED_POI = "lastexitedpoi";
         static final String AUTH_STATUS = "authstatus";
         static final String VALID_UNTIL = "validuntil";
+        static final String METRICS = "metrics";
 
         private SharedStateKeys() {}
     }
 
+    static final class MetricsKeys {
+
+        static final String NETWORK_LATENCY = "networklatency";
+        static final String PARSE_TIME = "parsetime";
+        static final String PERSIST_TIME = "persisttime";
+        static final String PROCESSED_EVENTS = "processedevents";
+        static final String CACHE_HITS = "cachehits";
+        static final String CACHE_MISSES = "cachemisses";
+        static final String SUPPRESSED_WRITES = "suppressedwrites";
+        static final String SUPPRESSED_SHARED_STATES = "suppressedsharedstates";
+        static final String DROPPED_REGION_EVENTS = "droppedregionevents";
+        static final String PERSISTED_BYTES = "persistedbytes";
+
+        // histogram keys, the durations are in milliseconds
+        static final String COUNT = "count";
+        static final String SUM = "sum";
+        static final String MAX = "max";
+        static final String BUCKET_BOUNDS = "bucketbounds";
+        static final String BUCKET_COUNTS = "bucketcounts";
+
+        private MetricsKeys() {}
+    }
+
     static final class EventName {
 
         // places response content event names
@@ -96,6 +159,7 @@ final class PlacesConstants {
         static final String RESPONSE_PROCESSREGIONEVENT = "responseprocessregionevent";
         static final String RESPONSE_GETUSERWITHINPLACES = "responsegetuserwithinplaces";
         static final String RESPONSE_GETLASTKNOWNLOCATION = "responsegetlastknownlocation";
+        static final String RESPONSE_NEARBYPLACESDELTA = "responsenearbyplacesdelta";
         static final String LOCATION_TRACKING = "Location Tracking Event";
 
         private EventName() {}
@@ -111,17 +175,32 @@ final class PlacesConstants {
             static final String PLACES_COUNT = "count";
             static final String LATITUDE = "latitude";
             static final String LONGITUDE = "longitude";
+            static final String ACCURACY = "accuracy";
 
             // Places Response Content event keys
             static final String NEAR_BY_PLACES_LIST = "nearbypois";
             static final String RESULT_STATUS = "status";
             static final String USER_WITHIN_POIS = "userwithinpois";
             static final String TRIGGERING_REGION = "triggeringregion";
+            static final String RESULT_SOURCE = "resultsource";
+
+            // nearby places delta event keys
+            static final String GENERATION = "generation";
+            static final String PREVIOUS_GENERATION = "previousgeneration";
+            static final String ADDED_POIS = "addedpois";
+            static final String CHANGED_POIS = "changedpois";
+            static final String REMOVED_POI_IDS = "removedpoiids";
+
+            // result source values
+            static final String RESULT_SOURCE_NETWORK = "network";
+            static final String RESULT_SOURCE_CACHE = "cache";
 
             // request types
             static final String REQUEST_TYPE = "requesttype";
             static final String REQUEST_TYPE_GET_NEARBY_PLACES = "requestgetnearbyplaces";
             static final String REQUEST_TYPE_PROCESS_REGION_EVENT = "requestprocessregionevent";
+            static final String REQUEST_TYPE_PROCESS_REGION_EVENTS = "requestprocessregionevents";
+            static final String REQUEST_TYPE_PROCESS_LOCATION = "requestprocesslocation";
             static final String REQUEST_TYPE_GET_USER_WITHIN_PLACES = "requestgetuserwithinplaces";
             static final String REQUEST_TYPE_GET_LAST_KNOWN_LOCATION =
                     "requestgetlastknownlocation";
@@ -135,6 +214,7 @@ final class PlacesConstants {
             static final String REGION_EVENT_TYPE = "regioneventtype";
             static final String REGION_METADATA = "regionmetadata";
             static final String REGION_TIMESTAMP = "timestamp";
+            static final String REGIONS = "regions";
 
             // last known location keys
             static final String LAST_KNOWN_LATITUDE = "lastknownlatitude";
@@ -156,6 +236,24 @@ final class PlacesConstants {
             static final String CONFIG_KEY_LIBRARY_ID = "id";
             static final String CONFIG_KEY_PLACES_ENDPOINT = "places.endpoint";
             static final String CONFIG_KEY_PLACES_MEMBERSHIP_TTL = "places.membershipttl";
+            static final String CONFIG_KEY_PLACES_CACHE_TTL = "places.cachettl";
+            static final String CONFIG_KEY_PLACES_MIN_QUERY_DISTANCE = "places.minquerydistance";
+            static final String CONFIG_KEY_PLACES_MIN_QUERY_INTERVAL = "places.minqueryinterval";
+            static final String CONFIG_KEY_PLACES_GEOFENCE_EVALUATION = "places.geofenceevaluation";
+            static final String CONFIG_KEY_PLACES_GEOFENCE_HYSTERESIS = "places.geofencehysteresis";
+            static final String CONFIG_KEY_PLACES_GEOFENCE_MAX_ACCURACY =
+                    "places.geofencemaxaccuracy";
+            static final String CONFIG_KEY_PLACES_TILE_PRECISION = "places.tileprecision";
+            static final String CONFIG_KEY_PLACES_TILE_TTL = "places.tilettl";
+            static final String CONFIG_KEY_PLACES_TILE_CACHE_SIZE = "places.tilecachesize";
+            static final String CONFIG_KEY_PLACES_NEARBY_DELTA_EVENTS = "places.nearbydeltaevents";
+            static final String CONFIG_KEY_PLACES_METRICS_SHARED_STATE =
+                    "places.metricssharedstate";
+            static final String CONFIG_KEY_PLACES_NETWORK_RETRIES = "places.networkretries";
+            static final String CONFIG_KEY_PLACES_CIRCUIT_BREAKER_THRESHOLD =
+                    "places.circuitbreakerthreshold";
+            static final String CONFIG_KEY_PLACES_CIRCUIT_BREAKER_DURATION =
+                    "places.circuitbreakerduration";
             static final String CONFIG_KEY_EXPERIENCE_EVENT_DATASET = "messaging.eventDataset";
 
             private Configuration() {}
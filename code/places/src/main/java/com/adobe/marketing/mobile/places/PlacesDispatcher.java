@@ -28,6 +28,11 @@ class PlacesDispatcher {
     private static final String CLASS_NAME = "PlacesDispatcher";
     private final ExtensionApi extensionApi;
 
+    // cached POIs of the generation last dispatched to all listeners, and that generation, the
+    // generation 0 standing for an empty list
+    private Map<String, PlacesPOI> deltaPOIs;
+    private long deltaGeneration;
+
     PlacesDispatcher(final ExtensionApi extensionApi) {
         this.extensionApi = extensionApi;
     }
@@ -36,19 +41,84 @@ class PlacesDispatcher {
             final List<PlacesPOI> poiList,
             final PlacesRequestError resultStatus,
             final Event event) {
+        dispatchNearbyPlaces(
+                poiList,
+                resultStatus,
+                event,
+                PlacesConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK);
+    }
+
+    /**
+     * Dispatches the nearby places response event.
+     *
+     * @param poiList the {@link List} of {@link PlacesPOI} to be dispatched
+     * @param resultStatus the {@link PlacesRequestError} status of the nearby query
+     * @param event the request {@link Event} to respond to, or null to dispatch to all listeners
+     * @param resultSource {@code String} identifying whether the POIs were served from the network
+     *     or from the local cache
+     */
+    void dispatchNearbyPlaces(
+            final List<PlacesPOI> poiList,
+            final PlacesRequestError resultStatus,
+            final Event event,
+            final String resultSource) {
+        dispatchNearbyPlaces(poiList, resultStatus, event, resultSource, -1);
+    }
+
+    /**
+     * Dispatches the nearby places response event, along with the generation of the last delta
+     * event, which dispatched the same POIs.
+     *
+     * @param poiList the {@link List} of {@link PlacesPOI} to be dispatched
+     * @param resultStatus the {@link PlacesRequestError} status of the nearby query
+     * @param event the request {@link Event} to respond to, or null to dispatch to all listeners
+     * @param resultSource {@code String} identifying whether the POIs were served from the network
+     *     or from the local cache
+     * @param generation the generation returned by {@link #dispatchNearbyPlacesDelta}, or a
+     *     negative value if the POIs were not dispatched as a delta
+     */
+    void dispatchNearbyPlaces(
+            final List<PlacesPOI> poiList,
+            final PlacesRequestError resultStatus,
+            final Event event,
+            final String resultSource,
+            final long generation) {
+        final PlacesTracer tracer = PlacesTracing.getTracer();
+        final long cookie = tracer.beginStage(PlacesTracer.STAGE_DISPATCH);
+
+        try {
+            dispatchNearbyPlacesEvent(poiList, resultStatus, event, resultSource, generation);
+        } finally {
+            tracer.endStage(PlacesTracer.STAGE_DISPATCH, cookie);
+        }
+    }
+
+    private void dispatchNearbyPlacesEvent(
+            final List<PlacesPOI> poiList,
+            final PlacesRequestError resultStatus,
+            final Event event,
+            final String resultSource,
+            final long generation) {
         final Map<String, Object> responseEventData = new HashMap<>();
         responseEventData.put(
                 PlacesConstants.EventDataKeys.Places.NEAR_BY_PLACES_LIST,
                 PlacesUtil.convertPOIListToMap(poiList));
         responseEventData.put(
                 PlacesConstants.EventDataKeys.Places.RESULT_STATUS, resultStatus.getValue());
+        responseEventData.put(PlacesConstants.EventDataKeys.Places.RESULT_SOURCE, resultSource);
+
+        if (generation >= 0) {
+            responseEventData.put(PlacesConstants.EventDataKeys.Places.GENERATION, generation);
+        }
+
         if (event != null) {
             Log.debug(
                     PlacesConstants.LOG_TAG,
                     CLASS_NAME,
                     "dispatchNearbyPlaces - Dispatching nearby places response event for"
-                            + " `getNearbyPointsOfInterest` API callback with %d POIs",
-                    poiList.size());
+                            + " `getNearbyPointsOfInterest` API callback with %d POIs from %s",
+                    poiList.size(),
+                    resultSource);
             final Event responseEvent =
                     new Event.Builder(
                                     PlacesConstants.EventName.RESPONSE_GETNEARBYPLACES,
@@ -63,8 +133,9 @@ class PlacesDispatcher {
                     PlacesConstants.LOG_TAG,
                     CLASS_NAME,
                     "dispatchNearbyPlaces - Dispatching nearby places response event for all other"
-                            + " listeners with %d POIs",
-                    poiList.size());
+                            + " listeners with %d POIs from %s",
+                    poiList.size(),
+                    resultSource);
             final Event responseEvent =
                     new Event.Builder(
                                     PlacesConstants.EventName.RESPONSE_GETNEARBYPLACES,
@@ -76,10 +147,132 @@ class PlacesDispatcher {
         }
     }
 
+    /**
+     * Dispatches the nearby POIs to all listeners as a delta event, relative to the POIs of the
+     * previous generation.
+     *
+     * <p>The event carries the POIs added and changed, the identifiers of the POIs removed, its
+     * generation and the generation it applies to. A listener keeping its own copy of the nearby
+     * POIs applies the event if its copy is at the previous generation, and otherwise waits for the
+     * next get nearby places response, which carries the generation of its POIs. The delta does not
+     * convey the order of the POIs. No event is dispatched if the POIs are unchanged.
+     *
+     * <p>The delta is read from the diff made when the POIs were cached. If that diff does not
+     * apply to the POIs of the previous generation, as when the cache was cleared or the previous
+     * POIs were not dispatched as a delta, all the POIs are dispatched to all listeners as a get
+     * nearby places response of the new generation instead.
+     *
+     * @param poiDiff the {@link PlacesPOIDiff} made when caching the POIs to be dispatched
+     * @param poiList the {@link List} of {@link PlacesPOI} to be dispatched
+     * @param resultStatus the {@link PlacesRequestError} status of the nearby query
+     * @param resultSource {@code String} identifying whether the POIs were served from the network
+     *     or from the local cache
+     * @return the generation of the dispatched POIs
+     */
+    synchronized long dispatchNearbyPlacesDelta(
+            final PlacesPOIDiff poiDiff,
+            final List<PlacesPOI> poiList,
+            final PlacesRequestError resultStatus,
+            final String resultSource) {
+        final PlacesTracer tracer = PlacesTracing.getTracer();
+        final long cookie = tracer.beginStage(PlacesTracer.STAGE_DISPATCH);
+
+        try {
+            return dispatchNearbyPlacesDeltaEvent(poiDiff, poiList, resultStatus, resultSource);
+        } finally {
+            tracer.endStage(PlacesTracer.STAGE_DISPATCH, cookie);
+        }
+    }
+
+    private long dispatchNearbyPlacesDeltaEvent(
+            final PlacesPOIDiff poiDiff,
+            final List<PlacesPOI> poiList,
+            final PlacesRequestError resultStatus,
+            final String resultSource) {
+        // an empty diff leaves the previous POIs cached
+        final Map<String, PlacesPOI> cachedPOIs =
+                poiDiff.isEmpty() ? poiDiff.getPreviousPOIs() : poiDiff.getMergedPOIs();
+
+        // the generation 0 stands for any empty list of POIs
+        final boolean appliesToGeneration =
+                poiDiff.getPreviousPOIs() == deltaPOIs
+                        || (deltaGeneration == 0 && poiDiff.getPreviousPOIs().isEmpty());
+
+        if (!appliesToGeneration) {
+            deltaPOIs = cachedPOIs;
+            deltaGeneration++;
+            Log.debug(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "dispatchNearbyPlacesDelta - Unable to dispatch a delta from generation %d,"
+                            + " dispatching all the nearby POIs as generation %d instead.",
+                    deltaGeneration - 1,
+                    deltaGeneration);
+            dispatchNearbyPlacesEvent(poiList, resultStatus, null, resultSource, deltaGeneration);
+            return deltaGeneration;
+        }
+
+        deltaPOIs = cachedPOIs;
+
+        if (poiDiff.getAddedPOIs().isEmpty()
+                && poiDiff.getChangedPOIs().isEmpty()
+                && poiDiff.getRemovedPOIs().isEmpty()) {
+            Log.trace(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "dispatchNearbyPlacesDelta - The nearby POIs of generation %d are unchanged.",
+                    deltaGeneration);
+            return deltaGeneration;
+        }
+
+        final List<String> removedPOIIds = new ArrayList<>(poiDiff.getRemovedPOIs().size());
+
+        for (final PlacesPOI removedPOI : poiDiff.getRemovedPOIs()) {
+            removedPOIIds.add(removedPOI.getIdentifier());
+        }
+
+        final Map<String, Object> deltaEventData = new HashMap<>();
+        deltaEventData.put(PlacesConstants.EventDataKeys.Places.GENERATION, deltaGeneration + 1);
+        deltaEventData.put(
+                PlacesConstants.EventDataKeys.Places.PREVIOUS_GENERATION, deltaGeneration);
+        deltaEventData.put(
+                PlacesConstants.EventDataKeys.Places.ADDED_POIS,
+                PlacesUtil.convertPOIListToMap(poiDiff.getAddedPOIs()));
+        deltaEventData.put(
+                PlacesConstants.EventDataKeys.Places.CHANGED_POIS,
+                PlacesUtil.convertPOIListToMap(poiDiff.getChangedPOIs()));
+        deltaEventData.put(PlacesConstants.EventDataKeys.Places.REMOVED_POI_IDS, removedPOIIds);
+        deltaEventData.put(
+                PlacesConstants.EventDataKeys.Places.RESULT_STATUS, resultStatus.getValue());
+        deltaEventData.put(PlacesConstants.EventDataKeys.Places.RESULT_SOURCE, resultSource);
+
+        deltaGeneration++;
+        Log.debug(
+                PlacesConstants.LOG_TAG,
+                CLASS_NAME,
+                "dispatchNearbyPlacesDelta - Dispatching nearby places delta event of generation %d"
+                        + " for all listeners with %d added, %d changed and %d removed POIs",
+                deltaGeneration,
+                poiDiff.getAddedPOIs().size(),
+                poiDiff.getChangedPOIs().size(),
+                removedPOIIds.size());
+        final Event deltaEvent =
+                new Event.Builder(
+                                PlacesConstants.EventName.RESPONSE_NEARBYPLACESDELTA,
+                                EventType.PLACES,
+                                EventSource.RESPONSE_CONTENT)
+                        .setEventData(deltaEventData)
+                        .build();
+        extensionApi.dispatch(deltaEvent);
+        return deltaGeneration;
+    }
+
     void dispatchRegionEvent(final PlacesRegion region) {
         if (region == null) {
             return;
         }
+        final PlacesTracer tracer = PlacesTracing.getTracer();
+        final long cookie = tracer.beginStage(PlacesTracer.STAGE_DISPATCH);
         final Map<String, Object> regionData = region.getRegionEventData();
         final Event regionEvent =
                 new Event.Builder(
@@ -94,7 +287,12 @@ class PlacesDispatcher {
                 "dispatchRegionEvent - Dispatching Places Region Event for %s with eventType %s",
                 region.getName(),
                 region.getPlaceEventType());
-        extensionApi.dispatch(regionEvent);
+
+        try {
+            extensionApi.dispatch(regionEvent);
+        } finally {
+            tracer.endStage(PlacesTracer.STAGE_DISPATCH, cookie);
+        }
     }
 
     void dispatchUserWithinPOIs(final List<PlacesPOI> poiList, final Event event) {
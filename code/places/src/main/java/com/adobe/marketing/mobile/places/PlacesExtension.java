@@ -27,9 +27,15 @@ import com.adobe.marketing.mobile.services.ServiceProvider;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.StringUtils;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * The Places module allows customers to take actions based on the location of their users. The
@@ -57,17 +63,46 @@ public class PlacesExtension extends Extension {
 
     private static final String CLASS_NAME = "PlacesExtension";
 
+    // the registered extension, whose state snapshot is read by the synchronous Places APIs
+    private static volatile PlacesExtension registeredExtension;
+
     ExtensionApi extensionApi;
     PlacesDispatcher placesDispatcher;
     PlacesQueryService queryService;
     PlacesState state;
+    PlacesInFlightRequests inFlightRequests;
+
+    PlacesMetrics metrics;
+
+    // the last published places shared state, and whether the metrics are published along with it
+    private Map<String, Object> publishedSharedState;
+    private boolean metricsSharedStateEnabled;
+
+    // serializes every access to the places state, from event handlers and network responses alike
+    Executor stateExecutor;
 
     protected PlacesExtension(final ExtensionApi extensionApi) {
         super(extensionApi);
         this.extensionApi = extensionApi;
-        state = new PlacesState(ServiceProvider.getInstance().getDataStoreService());
-        queryService = new PlacesQueryService(ServiceProvider.getInstance().getNetworkService());
+        metrics = new PlacesMetrics();
+        state =
+                new PlacesState(
+                        ServiceProvider.getInstance().getDataStoreService(),
+                        PlacesConstants.PERSISTENCE_FLUSH_DELAY_MS,
+                        metrics);
+        queryService =
+                new PlacesQueryService(
+                        ServiceProvider.getInstance().getNetworkService(), metrics);
         placesDispatcher = new PlacesDispatcher(extensionApi);
+        inFlightRequests =
+                new PlacesInFlightRequests(PlacesConstants.IN_FLIGHT_REQUEST_TIMEOUT_MS);
+        stateExecutor =
+                Executors.newSingleThreadExecutor(
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, CLASS_NAME);
+                            thread.setDaemon(true);
+                            return thread;
+                        });
     }
 
     @Override
@@ -94,11 +129,100 @@ public class PlacesExtension extends Extension {
         extensionApi.registerEventListener(
                 EventType.PLACES, EventSource.REQUEST_CONTENT, this::handlePlacesRequestEvent);
 
+        // the persisted POIs are decoded on the state executor, ahead of the first event
+        stateExecutor.execute(this::publishPersistedState);
+        registeredExtension = this;
+    }
+
+    /**
+     * Shares the places state restored from persistence, and publishes its snapshot.
+     *
+     * <p>Reading the state decodes the persisted POIs, hence this is run on the state executor
+     * rather than the thread registering the extension.
+     */
+    private void publishPersistedState() {
         // share places state if we got one
         final Map<String, Object> placesSharedState = state.getPlacesSharedState();
         if (placesSharedState != null && !placesSharedState.isEmpty()) {
             extensionApi.createSharedState(placesSharedState, null);
+            publishedSharedState = placesSharedState;
+        }
+
+        state.publishSnapshot();
+    }
+
+    @Override
+    protected void onUnregistered() {
+        if (registeredExtension == this) {
+            registeredExtension = null;
         }
+
+        // write out the POI changes still waiting to be persisted, after the pending work
+        stateExecutor.execute(state::shutdown);
+
+        if (stateExecutor instanceof ExecutorService) {
+            ((ExecutorService) stateExecutor).shutdown();
+        }
+    }
+
+    /**
+     * Returns the latest {@link PlacesStateSnapshot} of the registered {@code PlacesExtension}.
+     *
+     * @return the {@link PlacesStateSnapshot}, or {@link PlacesStateSnapshot#EMPTY} if the
+     *     extension is not registered
+     */
+    static PlacesStateSnapshot getRegisteredSnapshot() {
+        final PlacesExtension extension = registeredExtension;
+        return extension != null ? extension.state.getSnapshot() : PlacesStateSnapshot.EMPTY;
+    }
+
+    /**
+     * Reads the Points of Interest the device is within from the latest state of the registered
+     * {@code PlacesExtension}, without dispatching an event.
+     *
+     * <p>Backs {@link Places#getCurrentPointsOfInterest()}, which applications should call instead.
+     *
+     * @return {@code List} of {@code PlacesPOI}, empty if the extension is not registered
+     */
+    public static List<PlacesPOI> getUserWithinPOIsSnapshot() {
+        return getRegisteredSnapshot().getUserWithinPOIs();
+    }
+
+    /**
+     * Reads the last known location from the latest state of the registered {@code
+     * PlacesExtension}, without dispatching an event.
+     *
+     * <p>Backs {@link Places#getLastKnownLocation()}, which applications should call instead.
+     *
+     * @return the last known {@link Location}, or null if it is unknown or the extension is not
+     *     registered
+     */
+    public static Location getLastKnownLocationSnapshot() {
+        return getRegisteredSnapshot().getLastKnownLocation();
+    }
+
+    /**
+     * Reads the metrics of the registered {@code PlacesExtension}, without dispatching an event.
+     *
+     * <p>Backs {@link Places#getMetrics()}, which applications should call instead.
+     *
+     * @return the {@link PlacesMetrics#toMap()} snapshot of the metrics, or an empty map if the
+     *     extension is not registered
+     */
+    public static Map<String, Object> getMetricsSnapshot() {
+        final PlacesExtension extension = registeredExtension;
+        return extension != null ? extension.metrics.toMap() : Collections.emptyMap();
+    }
+
+    /**
+     * Sets the tracer of the Places pipeline stages.
+     *
+     * <p>Backs {@link Places#setTracer(PlacesTracer)}, which applications should call instead.
+     *
+     * @param tracer the {@link PlacesTracer}, or null to stop tracing
+     */
+    public static void setTracer(final PlacesTracer tracer) {
+        PlacesTracing.setTracer(tracer);
     }
 
     @Override
@@ -120,7 +244,31 @@ public class PlacesExtension extends Extension {
         return false;
     }
 
+    /**
+     * Handles the {@link EventType#PLACES} - {@link EventSource#REQUEST_CONTENT} events.
+     *
+     * <p>The event is processed on the state executor, in order with the other events and the
+     * network responses.
+     *
+     * @param event the places request {@link Event}
+     */
     void handlePlacesRequestEvent(@NonNull final Event event) {
+        final PlacesTracer tracer = PlacesTracing.getTracer();
+        final long queueCookie = tracer.beginStage(PlacesTracer.STAGE_QUEUE);
+        stateExecutor.execute(
+                () -> {
+                    tracer.endStage(PlacesTracer.STAGE_QUEUE, queueCookie);
+                    final long cookie = tracer.beginStage(PlacesTracer.STAGE_PROCESS_EVENT);
+
+                    try {
+                        processPlacesRequestEvent(event);
+                    } finally {
+                        tracer.endStage(PlacesTracer.STAGE_PROCESS_EVENT, cookie);
+                    }
+                });
+    }
+
+    private void processPlacesRequestEvent(@NonNull final Event event) {
         final Map<String, Object> eventData = event.getEventData();
 
         if (eventData == null || eventData.isEmpty()) {
@@ -144,6 +292,8 @@ public class PlacesExtension extends Extension {
             return;
         }
 
+        metrics.countProcessedEvent(requestType);
+
         switch (requestType) {
             case PlacesConstants.EventDataKeys.Places.REQUEST_TYPE_GET_USER_WITHIN_PLACES:
                 handleGetUserWithinPOIsEvent(event);
@@ -167,6 +317,18 @@ public class PlacesExtension extends Extension {
                     handleGeofenceEvent(event, configData);
                     break;
                 }
+            case PlacesConstants.EventDataKeys.Places.REQUEST_TYPE_PROCESS_REGION_EVENTS:
+                {
+                    final Map<String, Object> configData = retrieveConfigurationEventState(event);
+                    handleGeofenceEvents(event, configData);
+                    break;
+                }
+            case PlacesConstants.EventDataKeys.Places.REQUEST_TYPE_PROCESS_LOCATION:
+                {
+                    final Map<String, Object> configData = retrieveConfigurationEventState(event);
+                    handleProcessLocationEvent(event, configData);
+                    break;
+                }
             case PlacesConstants.EventDataKeys.Places.REQUEST_TYPE_SET_AUTHORIZATION_STATUS:
                 handleSetAuthorizationStatusEvent(event);
                 break;
@@ -192,6 +354,10 @@ public class PlacesExtension extends Extension {
      *     associated with the configuration change
      */
     void handleConfigurationResponseEvent(@NonNull final Event event) {
+        stateExecutor.execute(() -> processConfigurationResponseEvent(event));
+    }
+
+    private void processConfigurationResponseEvent(@NonNull final Event event) {
         final Map<String, Object> configData = retrieveConfigurationEventState(event);
 
         // clear the queued up events if the privacy is opted-out
@@ -320,7 +486,7 @@ public class PlacesExtension extends Extension {
         state.setAuthorizationStatus(authStatusString);
 
         // update the places shared state
-        extensionApi.createSharedState(state.getPlacesSharedState(), event);
+        publishSharedState(event);
     }
 
     /**
@@ -333,7 +499,8 @@ public class PlacesExtension extends Extension {
                 CLASS_NAME,
                 "reset - Places shared state and persisted data has been reset.");
         state.clearData();
-        extensionApi.createSharedState(new HashMap<>(), null);
+        publishedSharedState = new HashMap<>();
+        extensionApi.createSharedState(publishedSharedState, null);
     }
 
     /**
@@ -377,35 +544,333 @@ public class PlacesExtension extends Extension {
             return;
         }
 
+        // serve the request from the cached POIs when the device is still within the area
+        // covered by the previous query
+        final PlacesQueryResponse cachedResponse =
+                state.getCachedNearbyPlaces(event.getEventData(), placesConfig);
+
+        if (cachedResponse != null) {
+            metrics.countCacheHit();
+            final List<PlacesPOI> cachedPOIs = cachedResponse.getAllPOIs();
+
+            // the POIs containing the user at the requested location become the membership
+            state.processCachedResponse(cachedResponse);
+            publishSharedState(event);
+
+            placesDispatcher.dispatchNearbyPlaces(
+                    cachedPOIs,
+                    PlacesRequestError.OK,
+                    event,
+                    PlacesConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE);
+
+            // the delta listeners already have the cached POIs, as of the last generation
+            if (!placesConfig.isNearbyDeltaEventsEnabled()) {
+                placesDispatcher.dispatchNearbyPlaces(
+                        cachedPOIs,
+                        PlacesRequestError.OK,
+                        null,
+                        PlacesConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE);
+            }
+
+            return;
+        }
+
+        // throttle the request when the device has not moved far enough since the previous query
+        final PlacesQueryResponse throttledResponse =
+                state.getThrottledNearbyPlaces(event.getEventData(), placesConfig);
+
+        if (throttledResponse != null) {
+            metrics.countCacheHit();
+            final List<PlacesPOI> cachedPOIs = throttledResponse.getAllPOIs();
+            state.processCachedResponse(throttledResponse);
+            publishSharedState(event);
+
+            placesDispatcher.dispatchNearbyPlaces(
+                    cachedPOIs,
+                    PlacesRequestError.QUERY_THROTTLED,
+                    event,
+                    PlacesConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE);
+
+            // the delta listeners already have the cached POIs, as of the last generation
+            if (!placesConfig.isNearbyDeltaEventsEnabled()) {
+                placesDispatcher.dispatchNearbyPlaces(
+                        cachedPOIs,
+                        PlacesRequestError.QUERY_THROTTLED,
+                        null,
+                        PlacesConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE);
+            }
+
+            return;
+        }
+
+        // attach the request to an identical one already waiting for a response
+        final PlacesInFlightRequests.InFlightRequest inFlightRequest =
+                inFlightRequests.add(event, placesConfig);
+
+        if (inFlightRequest == null) {
+            Log.debug(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "handleGetNearByPlaceEvent - Waiting for the response of an identical get"
+                            + " nearby places request in flight.");
+            return;
+        }
+
+        // in tile mode the request is answered from the tiles covering its location, only the
+        // tiles missing from the tile cache or expired are fetched
+        final List<String> missingTiles =
+                state.getMissingTiles(event.getEventData(), placesConfig);
+
+        if (missingTiles != null) {
+            if (missingTiles.isEmpty()) {
+                metrics.countCacheHit();
+            } else {
+                metrics.countCacheMiss();
+            }
+
+            fetchTiles(missingTiles, event, placesConfig, inFlightRequest);
+            return;
+        }
+
+        metrics.countCacheMiss();
+
+        // the response is processed on the state executor rather than the networking thread, and
+        // is not parsed when it is identical to the one already processed
         queryService.getNearbyPlaces(
                 event.getEventData(),
                 placesConfig,
-                response -> {
-                    if (!response.isSuccess) {
-                        Log.debug(PlacesConstants.LOG_TAG, CLASS_NAME, response.errorMessage);
-                        placesDispatcher.dispatchNearbyPlaces(
-                                new ArrayList<>(), response.resultStatus, event);
-                        return;
-                    }
+                state.getProcessedBodyHash(),
+                response ->
+                        stateExecutor.execute(
+                                () ->
+                                        handleNearbyPlacesResponse(
+                                                response, event, placesConfig, inFlightRequest)));
+    }
 
-                    // read and set the latest membership ttl value from configuration
-                    state.setMembershiptTtl(placesConfig.getMembershipTtl());
+    /**
+     * Fetches the provided tiles in parallel, then answers the get nearby places request from the
+     * tile cache once all of them completed.
+     *
+     * @param missingTiles the geohashes of the tiles to fetch
+     * @param event the get nearby places request {@link Event}
+     * @param placesConfig the {@link PlacesConfiguration} the tiles are fetched with
+     * @param inFlightRequest the {@link PlacesInFlightRequests.InFlightRequest} led by the event
+     */
+    private void fetchTiles(
+            final List<String> missingTiles,
+            final Event event,
+            final PlacesConfiguration placesConfig,
+            final PlacesInFlightRequests.InFlightRequest inFlightRequest) {
+        if (missingTiles.isEmpty()) {
+            handleNearbyPlacesResponse(
+                    state.getTiledNearbyPlaces(event.getEventData(), placesConfig),
+                    event,
+                    placesConfig,
+                    inFlightRequest);
+            return;
+        }
 
-                    // on success, process the response - cache POIs, persist POIs and update the
-                    // shared state values
-                    state.processNetworkResponse(response);
+        // only accessed from the state executor
+        final Set<String> pendingTiles = new HashSet<>(missingTiles);
+        final List<PlacesQueryResponse> failedResponses = new ArrayList<>();
 
-                    // update the places shared state
-                    extensionApi.createSharedState(state.getPlacesSharedState(), event);
+        for (final String tile : missingTiles) {
+            queryService.getNearbyPlaces(
+                    PlacesTileCache.createTileQuery(tile),
+                    placesConfig,
+                    response ->
+                            stateExecutor.execute(
+                                    () -> {
+                                        if (response.isSuccess) {
+                                            state.cacheTile(tile, placesConfig, response);
+                                        } else {
+                                            failedResponses.add(response);
+                                        }
 
-                    // dispatch nearbyPOI for the getNearbyPOI API callback waiting with registered
-                    // onetime listener
-                    placesDispatcher.dispatchNearbyPlaces(
-                            response.getAllPOIs(), PlacesRequestError.OK, event);
-                    // dispatch nearbyPOI list for other listeners
-                    placesDispatcher.dispatchNearbyPlaces(
-                            response.getAllPOIs(), PlacesRequestError.OK, null);
-                });
+                                        pendingTiles.remove(tile);
+
+                                        if (pendingTiles.isEmpty()) {
+                                            state.persistTiles();
+                                            handleNearbyPlacesResponse(
+                                                    failedResponses.isEmpty()
+                                                            ? getFetchedTiledNearbyPlaces(
+                                                                    event, placesConfig)
+                                                            : failedResponses.get(0),
+                                                    event,
+                                                    placesConfig,
+                                                    inFlightRequest);
+                                        }
+                                    }));
+        }
+    }
+
+    /**
+     * Builds the response to a get nearby places request from the tiles, some of which were just
+     * fetched from the network.
+     *
+     * @param event the get nearby places request {@link Event}
+     * @param placesConfig the {@link PlacesConfiguration} the tiles were fetched with
+     * @return the tiled {@link PlacesQueryResponse}, not reported as served from cache
+     */
+    private PlacesQueryResponse getFetchedTiledNearbyPlaces(
+            final Event event, final PlacesConfiguration placesConfig) {
+        final PlacesQueryResponse response =
+                state.getTiledNearbyPlaces(event.getEventData(), placesConfig);
+
+        if (response != null) {
+            response.isFromCache = false;
+        }
+
+        return response;
+    }
+
+    /**
+     * Processes the response of a places query, and responds to all the get nearby places requests
+     * waiting for it.
+     *
+     * @param response the {@link PlacesQueryResponse} of the query
+     * @param event the get nearby places request {@link Event} which issued the query
+     * @param placesConfig the {@link PlacesConfiguration} the query was made with
+     * @param inFlightRequest the {@link PlacesInFlightRequests.InFlightRequest} of the query
+     */
+    private void handleNearbyPlacesResponse(
+            final PlacesQueryResponse response,
+            final Event event,
+            final PlacesConfiguration placesConfig,
+            final PlacesInFlightRequests.InFlightRequest inFlightRequest) {
+        final PlacesTracer tracer = PlacesTracing.getTracer();
+        final long cookie = tracer.beginStage(PlacesTracer.STAGE_PROCESS_RESPONSE);
+
+        try {
+            processNearbyPlacesResponse(response, event, placesConfig, inFlightRequest);
+        } finally {
+            tracer.endStage(PlacesTracer.STAGE_PROCESS_RESPONSE, cookie);
+        }
+    }
+
+    private void processNearbyPlacesResponse(
+            final PlacesQueryResponse response,
+            final Event event,
+            final PlacesConfiguration placesConfig,
+            final PlacesInFlightRequests.InFlightRequest inFlightRequest) {
+        final List<Event> requestEvents = inFlightRequests.complete(inFlightRequest);
+
+        if (!response.isSuccess) {
+            Log.debug(PlacesConstants.LOG_TAG, CLASS_NAME, response.errorMessage);
+
+            for (final Event requestEvent : requestEvents) {
+                placesDispatcher.dispatchNearbyPlaces(
+                        new ArrayList<>(), response.resultStatus, requestEvent);
+            }
+
+            return;
+        }
+
+        // read and apply the latest membership ttl and metrics settings from configuration
+        applyConfiguration(placesConfig);
+
+        if (response.isUnchanged) {
+            handleUnchangedNearbyPlacesResponse(
+                    response, requestEvents, event, placesConfig, inFlightRequest);
+            return;
+        }
+
+        // on success, process the response - cache POIs, persist POIs and update the shared state
+        // values
+        state.processNetworkResponse(response);
+
+        // update the places shared state
+        publishSharedState(event);
+
+        // a tiled response assembled only from cached tiles did not reach the network
+        final String resultSource =
+                response.isFromCache
+                        ? PlacesConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE
+                        : PlacesConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK;
+
+        if (placesConfig.isNearbyDeltaEventsEnabled()) {
+            // dispatch the changes made to the cached POIs to all listeners, then the POIs to the
+            // getNearbyPOI API callbacks along with their generation
+            final long generation =
+                    placesDispatcher.dispatchNearbyPlacesDelta(
+                            state.getLastPOIDiff(),
+                            response.getAllPOIs(),
+                            PlacesRequestError.OK,
+                            resultSource);
+
+            for (final Event requestEvent : requestEvents) {
+                placesDispatcher.dispatchNearbyPlaces(
+                        response.getAllPOIs(),
+                        PlacesRequestError.OK,
+                        requestEvent,
+                        resultSource,
+                        generation);
+            }
+
+            return;
+        }
+
+        // dispatch nearbyPOI for the getNearbyPOI API callbacks waiting with registered onetime
+        // listeners
+        for (final Event requestEvent : requestEvents) {
+            placesDispatcher.dispatchNearbyPlaces(
+                    response.getAllPOIs(), PlacesRequestError.OK, requestEvent, resultSource);
+        }
+
+        // dispatch nearbyPOI list for other listeners
+        placesDispatcher.dispatchNearbyPlaces(
+                response.getAllPOIs(), PlacesRequestError.OK, null, resultSource);
+    }
+
+    /**
+     * Responds to the get nearby places requests waiting for a response identical to the one
+     * already processed.
+     *
+     * <p>The cached POIs and the membership data are left as they are, only the membership
+     * validity is refreshed and shared. The other nearby places listeners were already notified of
+     * these POIs, hence the POIs are only dispatched to the waiting requests. If the places state
+     * changed while the query was in flight, the query is made again for the full response.
+     *
+     * @param response the unchanged {@link PlacesQueryResponse}
+     * @param requestEvents the get nearby places request {@link Event}s waiting for the response
+     * @param event the get nearby places request {@link Event} which issued the query
+     * @param placesConfig the {@link PlacesConfiguration} the query was made with
+     * @param inFlightRequest the {@link PlacesInFlightRequests.InFlightRequest} of the query
+     */
+    private void handleUnchangedNearbyPlacesResponse(
+            final PlacesQueryResponse response,
+            final List<Event> requestEvents,
+            final Event event,
+            final PlacesConfiguration placesConfig,
+            final PlacesInFlightRequests.InFlightRequest inFlightRequest) {
+        final List<PlacesPOI> pois = state.processUnchangedResponse(response);
+
+        if (pois == null) {
+            Log.debug(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "handleUnchangedNearbyPlacesResponse - Places state changed while the query"
+                            + " was in flight, querying again.");
+            queryService.getNearbyPlaces(
+                    event.getEventData(),
+                    placesConfig,
+                    fullResponse ->
+                            stateExecutor.execute(
+                                    () ->
+                                            handleNearbyPlacesResponse(
+                                                    fullResponse,
+                                                    event,
+                                                    placesConfig,
+                                                    inFlightRequest)));
+            return;
+        }
+
+        // the refreshed membership validity is part of the places shared state
+        publishSharedState(event);
+
+        for (final Event requestEvent : requestEvents) {
+            placesDispatcher.dispatchNearbyPlaces(pois, PlacesRequestError.OK, requestEvent);
+        }
     }
 
     private void handleGeofenceEvent(
@@ -425,14 +890,14 @@ public class PlacesExtension extends Extension {
             return;
         }
 
-        // read and set the latest membership ttl value from configuration
-        state.setMembershiptTtl(placesConfig.getMembershipTtl());
+        // read and apply the latest membership ttl and metrics settings from configuration
+        applyConfiguration(placesConfig);
 
         // process the region event
         final PlacesRegion regionEvent = state.processRegionEvent(event);
 
         // update the places shared state
-        extensionApi.createSharedState(state.getPlacesSharedState(), event);
+        publishSharedState(event);
 
         // dispatch the processed region event
         placesDispatcher.dispatchRegionEvent(regionEvent);
@@ -441,6 +906,179 @@ public class PlacesExtension extends Extension {
         placesDispatcher.dispatchExperienceEventToEdge(regionEvent);
     }
 
+    /**
+     * Handles the batch region event carrying all the region entries/exits of a geofencing event.
+     *
+     * <p>The regions are applied to the places state together, resulting in a single update of
+     * the persisted POIs and the places shared state. A region event is still dispatched for each
+     * of the processed regions.
+     *
+     * @param event the batch region {@link EventType#PLACES} - {@link EventSource#REQUEST_CONTENT}
+     *     event
+     * @param configData the configuration shared state
+     */
+    private void handleGeofenceEvents(
+            @NonNull final Event event, final Map<String, Object> configData) {
+        Log.trace(
+                PlacesConstants.LOG_TAG,
+                CLASS_NAME,
+                "handleGeofenceEvents - Handling batch geofence event.");
+        final PlacesConfiguration placesConfig = new PlacesConfiguration(configData);
+
+        // Bail out if privacy is opted out.
+        if (getMobilePrivacyStatus(configData) == MobilePrivacyStatus.OPT_OUT) {
+            Log.debug(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "handleGeofenceEvents - Ignoring the geofence events, Privacy opted out.");
+            return;
+        }
+
+        // read and apply the latest membership ttl and metrics settings from configuration
+        applyConfiguration(placesConfig);
+
+        // process all the region events
+        dispatchRegionEvents(state.processRegionEvents(event), event);
+    }
+
+    /**
+     * Handles a device location to be evaluated against the cached POIs.
+     *
+     * <p>When the on-device geofence evaluation is enabled in the configuration, the region entries
+     * and exits of the location are applied to the places state and dispatched the same way as the
+     * regions of a batch geofence event.
+     *
+     * @param event the process location {@link EventType#PLACES} - {@link
+     *     EventSource#REQUEST_CONTENT} event
+     * @param configData the configuration shared state
+     */
+    private void handleProcessLocationEvent(
+            @NonNull final Event event, final Map<String, Object> configData) {
+        final PlacesConfiguration placesConfig = new PlacesConfiguration(configData);
+
+        // Bail out if privacy is opted out.
+        if (getMobilePrivacyStatus(configData) == MobilePrivacyStatus.OPT_OUT) {
+            Log.debug(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "handleProcessLocationEvent - Ignoring the location, Privacy opted out.");
+            return;
+        }
+
+        if (!placesConfig.isGeofenceEvaluationEnabled()) {
+            Log.debug(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "handleProcessLocationEvent - Ignoring the location, on-device geofence"
+                            + " evaluation is not enabled.");
+            return;
+        }
+
+        // the evaluated location becomes the last known location
+        saveLastKnownLocation(event);
+
+        // read and apply the latest membership ttl and metrics settings from configuration
+        applyConfiguration(placesConfig);
+
+        final Map<String, Object> eventData = event.getEventData();
+        final PlacesGeofenceEvaluator evaluator =
+                new PlacesGeofenceEvaluator(
+                        placesConfig.getGeofenceHysteresis(),
+                        placesConfig.getGeofenceMaxAccuracy());
+        final List<PlacesRegion> regionEvents =
+                state.processLocation(
+                        DataReader.optDouble(
+                                eventData,
+                                PlacesConstants.EventDataKeys.Places.LATITUDE,
+                                PlacesConstants.INVALID_LAT_LON),
+                        DataReader.optDouble(
+                                eventData,
+                                PlacesConstants.EventDataKeys.Places.LONGITUDE,
+                                PlacesConstants.INVALID_LAT_LON),
+                        DataReader.optDouble(
+                                eventData, PlacesConstants.EventDataKeys.Places.ACCURACY, 0),
+                        event.getTimestamp(),
+                        evaluator);
+        dispatchRegionEvents(regionEvents, event);
+    }
+
+    /**
+     * Publishes the places shared state for the given {@code Event}, unless it is unchanged since
+     * the last publication, in which case dependent extensions keep reading the last published
+     * version.
+     *
+     * <p>When enabled in the configuration, the metrics of the extension are published along with
+     * the shared state. They are only refreshed when the shared state itself changes.
+     *
+     * @param event the {@link Event} the shared state is published for
+     */
+    private void publishSharedState(final Event event) {
+        final Map<String, Object> placesSharedState = state.getPlacesSharedState();
+
+        if (placesSharedState == publishedSharedState
+                || (placesSharedState != null && placesSharedState.equals(publishedSharedState))) {
+            metrics.countSuppressedSharedState();
+            Log.trace(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "publishSharedState - Places shared state is unchanged, skipping the"
+                            + " publication (%d skipped so far).",
+                    metrics.getSuppressedSharedStates());
+            return;
+        }
+
+        publishedSharedState = placesSharedState;
+
+        if (metricsSharedStateEnabled && placesSharedState != null) {
+            final Map<String, Object> sharedStateWithMetrics = new HashMap<>(placesSharedState);
+            sharedStateWithMetrics.put(PlacesConstants.SharedStateKeys.METRICS, metrics.toMap());
+            extensionApi.createSharedState(sharedStateWithMetrics, event);
+            return;
+        }
+
+        extensionApi.createSharedState(placesSharedState, event);
+    }
+
+    /**
+     * Returns the number of places shared state publications skipped because the shared state was
+     * unchanged.
+     *
+     * @return the number of skipped publications
+     */
+    long getSuppressedSharedStateCount() {
+        return metrics.getSuppressedSharedStates();
+    }
+
+    /**
+     * Applies the configuration settings which the places state and shared state depend on.
+     *
+     * @param placesConfig the {@link PlacesConfiguration} of the event being handled
+     */
+    private void applyConfiguration(final PlacesConfiguration placesConfig) {
+        state.setMembershiptTtl(placesConfig.getMembershipTtl());
+        metricsSharedStateEnabled = placesConfig.isMetricsSharedStateEnabled();
+    }
+
+    /**
+     * Updates the places shared state once for all the provided regions, and dispatches a region
+     * event for each of them.
+     *
+     * @param regionEvents the processed {@link PlacesRegion} instances
+     * @param event the {@link Event} the regions were processed for
+     */
+    private void dispatchRegionEvents(final List<PlacesRegion> regionEvents, final Event event) {
+        if (regionEvents.isEmpty()) {
+            return;
+        }
+
+        publishSharedState(event);
+
+        for (final PlacesRegion regionEvent : regionEvents) {
+            placesDispatcher.dispatchRegionEvent(regionEvent);
+            placesDispatcher.dispatchExperienceEventToEdge(regionEvent);
+        }
+    }
+
     /**
      * Retrieves the current Mobile SDK's configuration corresponding to the provided {@code Event}.
      *
@@ -0,0 +1,127 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.places;
+
+import com.adobe.marketing.mobile.services.Log;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates the region entries and exits of a device location against the cached POIs.
+ *
+ * <p>A location is only trusted to the extent of its horizontal accuracy, so the accuracy widens
+ * the band in which no transition is evaluated: the device enters a POI once it is within the POI
+ * radius by at least the accuracy, and exits it once it is farther than the radius plus the
+ * hysteresis plus the accuracy. The accuracy margin is capped to half of the POI radius, so that
+ * small POIs can still be entered with a coarse location. Locations less accurate than the
+ * configured maximum accuracy are ignored.
+ *
+ * <p>The evaluator keeps no state of its own, the POIs the user is within are the ones flagged in
+ * the cache. The transitions are returned as region {@code EventData}, to be applied the same way
+ * as the regions of a geofencing event.
+ */
+final class PlacesGeofenceEvaluator {
+
+    private static final String CLASS_NAME = "PlacesGeofenceEvaluator";
+
+    private final double hysteresisMeters;
+    private final double maxAccuracyMeters;
+
+    /**
+     * Constructor.
+     *
+     * @param hysteresisMeters distance in meters past the radius of a POI before its exit
+     * @param maxAccuracyMeters worst horizontal accuracy in meters of an evaluated location, zero
+     *     or less evaluates every location
+     */
+    PlacesGeofenceEvaluator(final double hysteresisMeters, final double maxAccuracyMeters) {
+        this.hysteresisMeters = Math.max(0, hysteresisMeters);
+        this.maxAccuracyMeters = maxAccuracyMeters;
+    }
+
+    /**
+     * Evaluates the region transitions of the provided location.
+     *
+     * @param latitude the latitude of the device
+     * @param longitude the longitude of the device
+     * @param accuracy the horizontal accuracy of the location in meters, zero or less if unknown
+     * @param poiIndex the {@link PlacesPOIIndex} of the cached POIs
+     * @param userWithinPOIs the cached {@link PlacesPOI} the user is currently within
+     * @return {@link List} of region {@code EventData}, the exits followed by the entries ordered
+     *     by ascending distance from the device
+     */
+    List<Map<String, Object>> evaluate(
+            final double latitude,
+            final double longitude,
+            final double accuracy,
+            final PlacesPOIIndex poiIndex,
+            final Collection<PlacesPOI> userWithinPOIs) {
+        final List<Map<String, Object>> regions = new ArrayList<>();
+
+        if (!PlacesUtil.isValidLat(latitude) || !PlacesUtil.isValidLon(longitude)) {
+            return regions;
+        }
+
+        final double accuracyMeters = accuracy > 0 ? accuracy : 0;
+
+        if (maxAccuracyMeters > 0 && accuracyMeters > maxAccuracyMeters) {
+            Log.trace(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "evaluate - Ignoring location with an accuracy of %.1f meters.",
+                    accuracyMeters);
+            return regions;
+        }
+
+        if (userWithinPOIs != null) {
+            for (final PlacesPOI poi : userWithinPOIs) {
+                final double exitDistance =
+                        poi.getRadius() + hysteresisMeters + accuracyMargin(poi, accuracyMeters);
+
+                if (distanceTo(poi, latitude, longitude) > exitDistance) {
+                    regions.add(createRegion(poi, PlacesRegion.PLACE_EVENT_EXIT));
+                }
+            }
+        }
+
+        if (poiIndex != null) {
+            for (final PlacesPOI poi : poiIndex.findContaining(latitude, longitude, 0)) {
+                final double entryDistance = poi.getRadius() - accuracyMargin(poi, accuracyMeters);
+
+                if (!poi.containsUser() && distanceTo(poi, latitude, longitude) <= entryDistance) {
+                    regions.add(createRegion(poi, PlacesRegion.PLACE_EVENT_ENTRY));
+                }
+            }
+        }
+
+        return regions;
+    }
+
+    private static double accuracyMargin(final PlacesPOI poi, final double accuracyMeters) {
+        return Math.min(accuracyMeters, poi.getRadius() / 2d);
+    }
+
+    private static double distanceTo(
+            final PlacesPOI poi, final double latitude, final double longitude) {
+        return PlacesUtil.distanceInMeters(
+                latitude, longitude, poi.getLatitude(), poi.getLongitude());
+    }
+
+    private static Map<String, Object> createRegion(final PlacesPOI poi, final String regionType) {
+        final Map<String, Object> region = new HashMap<>();
+        region.put(PlacesConstants.EventDataKeys.Places.REGION_ID, poi.getIdentifier());
+        region.put(PlacesConstants.EventDataKeys.Places.REGION_EVENT_TYPE, regionType);
+        return region;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.places;
+
+import androidx.annotation.NonNull;
+import com.google.android.gms.location.Geofence;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The geofence registration changes computed by a {@link PlacesGeofencePlanner}.
+ *
+ * <p>Only the difference with the currently registered geofences is part of a plan: the
+ * geofences to be removed, identified by their request id, and the geofences to be added. An
+ * added geofence can share its request id with a registered one, in which case registering it
+ * replaces the registered geofence.
+ */
+public final class PlacesGeofencePlan {
+
+    private final List<PlacesPOI> poisToAdd;
+    private final List<String> idsToRemove;
+
+    PlacesGeofencePlan(final List<PlacesPOI> poisToAdd, final List<String> idsToRemove) {
+        this.poisToAdd = Collections.unmodifiableList(poisToAdd);
+        this.idsToRemove = Collections.unmodifiableList(idsToRemove);
+    }
+
+    /**
+     * Returns the POIs whose geofence has to be registered.
+     *
+     * @return the {@link PlacesPOI} to be registered, in ranking order
+     */
+    @NonNull public List<PlacesPOI> getPOIsToAdd() {
+        return poisToAdd;
+    }
+
+    /**
+     * Returns the request ids of the geofences that have to be removed.
+     *
+     * @return the request ids to be passed to {@code GeofencingClient#removeGeofences(List)}
+     */
+    @NonNull public List<String> getIdsToRemove() {
+        return idsToRemove;
+    }
+
+    /**
+     * Builds the geofences of the POIs to be registered, monitoring both the entry and exit
+     * transitions and never expiring.
+     *
+     * @return {@link List} of {@link Geofence} to be registered
+     */
+    @NonNull public List<Geofence> getGeofencesToAdd() {
+        final List<Geofence> geofences = new ArrayList<>(poisToAdd.size());
+
+        for (final PlacesPOI poi : poisToAdd) {
+            geofences.add(
+                    new Geofence.Builder()
+                            .setRequestId(poi.getIdentifier())
+                            .setCircularRegion(
+                                    poi.getLatitude(), poi.getLongitude(), poi.getRadius())
+                            .setExpirationDuration(Geofence.NEVER_EXPIRE)
+                            .setTransitionTypes(
+                                    Geofence.GEOFENCE_TRANSITION_ENTER
+                                            | Geofence.GEOFENCE_TRANSITION_EXIT)
+                            .build());
+        }
+
+        return geofences;
+    }
+
+    /**
+     * Returns whether the registered geofences are already up to date.
+     *
+     * @return true if there is nothing to add nor remove
+     */
+    public boolean isEmpty() {
+        return poisToAdd.isEmpty() && idsToRemove.isEmpty();
+    }
+}
@@ -0,0 +1,226 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.places;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans the geofences to be registered with the operating system for a set of POIs.
+ *
+ * <p>The POIs are ranked by the distance from the device to their boundary, then by their weight
+ * and identifier, and the geofences of the best ranked {@code maxGeofences} POIs are kept
+ * registered. The planner remembers the geofences of the previous plans, so that each plan only
+ * holds the geofences to be added and removed. A registered geofence is ranked as if it were
+ * closer by the retain margin, so that POIs at a similar distance do not keep replacing each other
+ * as the device moves.
+ *
+ * <p>The planner ranks the POIs it is given, it does not read the POIs cached by the Places
+ * extension. That cache is owned by the thread of the extension and is not exposed to applications,
+ * whereas the POIs returned by {@code Places.getNearbyPointsOfInterest} are already the cached POIs
+ * nearest to the device, or the POIs just fetched for its location.
+ *
+ * <p>Typical usage, with the POIs returned by {@code Places.getNearbyPointsOfInterest}:
+ *
+ * <pre>
+ * PlacesGeofencePlan plan = planner.plan(location.getLatitude(), location.getLongitude(), pois);
+ * if (!plan.getIdsToRemove().isEmpty()) {
+ *     geofencingClient.removeGeofences(plan.getIdsToRemove());
+ * }
+ * if (!plan.getGeofencesToAdd().isEmpty()) {
+ *     geofencingClient.addGeofences(request(plan.getGeofencesToAdd()), pendingIntent);
+ * }
+ * </pre>
+ *
+ * If the registration of a plan fails, or the geofences are removed by other means, call {@link
+ * #reset()} so that the next plan registers all of its geofences again.
+ */
+public final class PlacesGeofencePlanner {
+
+    /** Maximum number of geofences an app can register with Google Play services. */
+    public static final int MAX_GEOFENCES = 100;
+
+    private final int maxGeofences;
+    private final double retainMarginInMeters;
+
+    // registered POIs by identifier
+    private final Map<String, PlacesPOI> registeredPOIs = new LinkedHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param maxGeofences the maximum number of geofences to keep registered, capped to {@link
+     *     #MAX_GEOFENCES}
+     */
+    public PlacesGeofencePlanner(final int maxGeofences) {
+        this(maxGeofences, 0);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxGeofences the maximum number of geofences to keep registered, capped to {@link
+     *     #MAX_GEOFENCES}
+     * @param retainMarginInMeters distance in meters a registered geofence is favored by, over the
+     *     geofences that are not registered yet
+     */
+    public PlacesGeofencePlanner(final int maxGeofences, final double retainMarginInMeters) {
+        this.maxGeofences = Math.max(0, Math.min(MAX_GEOFENCES, maxGeofences));
+        this.retainMarginInMeters = Math.max(0, retainMarginInMeters);
+    }
+
+    /**
+     * Plans the geofence changes for the provided device location and POIs.
+     *
+     * <p>The returned plan is expected to be applied, the planner considers its geofences
+     * registered from now on.
+     *
+     * @param latitude the latitude of the device
+     * @param longitude the longitude of the device
+     * @param pois the {@link PlacesPOI} candidates for registration
+     * @return the {@link PlacesGeofencePlan} to be applied
+     */
+    @NonNull public synchronized PlacesGeofencePlan plan(
+            final double latitude, final double longitude, final List<PlacesPOI> pois) {
+        final List<PlacesPOI> selectedPOIs = select(latitude, longitude, pois);
+        final Map<String, PlacesPOI> selectedById = new HashMap<>();
+        final List<PlacesPOI> poisToAdd = new ArrayList<>();
+        final List<String> idsToRemove = new ArrayList<>();
+
+        for (final PlacesPOI poi : selectedPOIs) {
+            selectedById.put(poi.getIdentifier(), poi);
+            final PlacesPOI registeredPOI = registeredPOIs.get(poi.getIdentifier());
+
+            // a POI whose geofence changed is registered again, replacing the previous geofence
+            if (registeredPOI == null || !hasSameGeofence(registeredPOI, poi)) {
+                poisToAdd.add(poi);
+            }
+        }
+
+        for (final String registeredId : registeredPOIs.keySet()) {
+            if (!selectedById.containsKey(registeredId)) {
+                idsToRemove.add(registeredId);
+            }
+        }
+
+        registeredPOIs.clear();
+
+        for (final PlacesPOI poi : selectedPOIs) {
+            registeredPOIs.put(poi.getIdentifier(), poi);
+        }
+
+        return new PlacesGeofencePlan(poisToAdd, idsToRemove);
+    }
+
+    /**
+     * Returns the identifiers of the POIs whose geofence is registered according to the previous
+     * plans.
+     *
+     * @return {@link List} of the registered geofence request ids
+     */
+    @NonNull public synchronized List<String> getRegisteredIds() {
+        return new ArrayList<>(registeredPOIs.keySet());
+    }
+
+    /** Forgets the registered geofences, the next plan adds all of its geofences. */
+    public synchronized void reset() {
+        registeredPOIs.clear();
+    }
+
+    private List<PlacesPOI> select(
+            final double latitude, final double longitude, final List<PlacesPOI> pois) {
+        if (pois == null
+                || maxGeofences == 0
+                || !PlacesUtil.isValidLat(latitude)
+                || !PlacesUtil.isValidLon(longitude)) {
+            return new ArrayList<>();
+        }
+
+        final List<Candidate> candidates = new ArrayList<>(pois.size());
+        final Map<String, Candidate> candidatesById = new HashMap<>();
+
+        for (final PlacesPOI poi : pois) {
+            if (poi == null
+                    || poi.getIdentifier() == null
+                    || candidatesById.containsKey(poi.getIdentifier())) {
+                continue;
+            }
+
+            double rankingDistance =
+                    Math.max(
+                            0,
+                            PlacesUtil.distanceInMeters(
+                                            latitude,
+                                            longitude,
+                                            poi.getLatitude(),
+                                            poi.getLongitude())
+                                    - poi.getRadius());
+
+            if (registeredPOIs.containsKey(poi.getIdentifier())) {
+                rankingDistance = Math.max(0, rankingDistance - retainMarginInMeters);
+            }
+
+            final Candidate candidate = new Candidate(poi, rankingDistance);
+            candidatesById.put(poi.getIdentifier(), candidate);
+            candidates.add(candidate);
+        }
+
+        Collections.sort(candidates, PlacesGeofencePlanner::compareCandidates);
+
+        final int count = Math.min(maxGeofences, candidates.size());
+        final List<PlacesPOI> selectedPOIs = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            selectedPOIs.add(candidates.get(i).poi);
+        }
+
+        return selectedPOIs;
+    }
+
+    private static int compareCandidates(final Candidate first, final Candidate second) {
+        final int distanceOrder = Double.compare(first.rankingDistance, second.rankingDistance);
+
+        if (distanceOrder != 0) {
+            return distanceOrder;
+        }
+
+        // lower weights have a higher priority
+        final int weightOrder = Integer.compare(first.poi.getWeight(), second.poi.getWeight());
+
+        if (weightOrder != 0) {
+            return weightOrder;
+        }
+
+        return first.poi.getIdentifier().compareTo(second.poi.getIdentifier());
+    }
+
+    private static boolean hasSameGeofence(final PlacesPOI first, final PlacesPOI second) {
+        return Double.compare(first.getLatitude(), second.getLatitude()) == 0
+                && Double.compare(first.getLongitude(), second.getLongitude()) == 0
+                && first.getRadius() == second.getRadius();
+    }
+
+    private static final class Candidate {
+
+        private final PlacesPOI poi;
+        private final double rankingDistance;
+
+        Candidate(final PlacesPOI poi, final double rankingDistance) {
+            this.poi = poi;
+            this.rankingDistance = rankingDistance;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Geohash encoding of locations into the tiles used to cache the nearby POIs.
+ *
+ * <p>A geohash of precision {@code n} names a tile of the latitude/longitude grid obtained by
+ * halving the longitude and latitude ranges alternately {@code 5 * n} times. Precision 5 tiles are
+ * about 4.9 km by 4.9 km, precision 6 tiles about 1.2 km by 0.6 km and precision 7 tiles about 150
+ * m by 150 m.
+ */
+final class PlacesGeohash {
+
+    static final int MAX_PRECISION = 12;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int BITS_PER_CHARACTER = 5;
+
+    private PlacesGeohash() {}
+
+    /**
+     * Encodes the provided location into the geohash of the tile containing it.
+     *
+     * @param latitude the latitude of the location
+     * @param longitude the longitude of the location
+     * @param precision the number of characters of the geohash, between 1 and {@link
+     *     #MAX_PRECISION}
+     * @return the geohash {@link String}
+     */
+    static String encode(final double latitude, final double longitude, final int precision) {
+        double minLatitude = -90;
+        double maxLatitude = 90;
+        double minLongitude = -180;
+        double maxLongitude = 180;
+        final StringBuilder geohash = new StringBuilder(precision);
+        boolean isLongitudeBit = true;
+        int bits = 0;
+        int value = 0;
+
+        while (geohash.length() < precision) {
+            if (isLongitudeBit) {
+                final double middle = (minLongitude + maxLongitude) / 2;
+
+                if (longitude >= middle) {
+                    value = (value << 1) | 1;
+                    minLongitude = middle;
+                } else {
+                    value <<= 1;
+                    maxLongitude = middle;
+                }
+            } else {
+                final double middle = (minLatitude + maxLatitude) / 2;
+
+                if (latitude >= middle) {
+                    value = (value << 1) | 1;
+                    minLatitude = middle;
+                } else {
+                    value <<= 1;
+                    maxLatitude = middle;
+                }
+            }
+
+            isLongitudeBit = !isLongitudeBit;
+
+            if (++bits == BITS_PER_CHARACTER) {
+                geohash.append(BASE32[value]);
+                bits = 0;
+                value = 0;
+            }
+        }
+
+        return geohash.toString();
+    }
+
+    /**
+     * Decodes the bounds of the tile named by the provided geohash.
+     *
+     * @param geohash a geohash {@link String}
+     * @return the {@code [minLatitude, maxLatitude, minLongitude, maxLongitude]} of the tile, or
+     *     null if the geohash is not valid
+     */
+    static double[] decodeBounds(final String geohash) {
+        if (geohash == null || geohash.isEmpty() || geohash.length() > MAX_PRECISION) {
+            return null;
+        }
+
+        final double[] bounds = {-90, 90, -180, 180};
+        boolean isLongitudeBit = true;
+
+        for (int i = 0; i < geohash.length(); i++) {
+            final int value = indexOf(geohash.charAt(i));
+
+            if (value < 0) {
+                return null;
+            }
+
+            for (int bit = BITS_PER_CHARACTER - 1; bit >= 0; bit--) {
+                final int offset = isLongitudeBit ? 2 : 0;
+                final double middle = (bounds[offset] + bounds[offset + 1]) / 2;
+
+                if (((value >> bit) & 1) == 1) {
+                    bounds[offset] = middle;
+                } else {
+                    bounds[offset + 1] = middle;
+                }
+
+                isLongitudeBit = !isLongitudeBit;
+            }
+        }
+
+        return bounds;
+    }
+
+    /**
+     * Returns the tiles covering the surroundings of the provided location: the tile containing it
+     * and its eight neighbours, starting with the containing tile.
+     *
+     * <p>Whatever its position within its tile, the location is at least one tile height and width
+     * away from the edges of the covered area. Neighbours wrap around the antimeridian, and the
+     * tiles beyond a pole are left out.
+     *
+     * @param latitude the latitude of the location
+     * @param longitude the longitude of the location
+     * @param precision the precision of the tiles
+     * @return the geohashes of the covering tiles
+     */
+    static List<String> coveringTiles(
+            final double latitude, final double longitude, final int precision) {
+        final String center = encode(latitude, longitude, precision);
+        final double[] bounds = decodeBounds(center);
+        final double tileHeight = bounds[1] - bounds[0];
+        final double tileWidth = bounds[3] - bounds[2];
+        final double centerLatitude = (bounds[0] + bounds[1]) / 2;
+        final double centerLongitude = (bounds[2] + bounds[3]) / 2;
+        final Set<String> tiles = new LinkedHashSet<>();
+        tiles.add(center);
+
+        for (int row = -1; row <= 1; row++) {
+            final double tileLatitude = centerLatitude + row * tileHeight;
+
+            if (tileLatitude < -90 || tileLatitude > 90) {
+                continue;
+            }
+
+            for (int column = -1; column <= 1; column++) {
+                double tileLongitude = centerLongitude + column * tileWidth;
+
+                if (tileLongitude >= 180) {
+                    tileLongitude -= 360;
+                } else if (tileLongitude < -180) {
+                    tileLongitude += 360;
+                }
+
+                tiles.add(encode(tileLatitude, tileLongitude, precision));
+            }
+        }
+
+        return new ArrayList<>(tiles);
+    }
+
+    private static int indexOf(final char character) {
+        for (int i = 0; i < BASE32.length; i++) {
+            if (BASE32[i] == character) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.util.DataReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Table of the get nearby places requests waiting for a places query response.
+ *
+ * <p>Requests for nearly the same location, with the same POI count and libraries, share one
+ * places query: the first request becomes the leader and issues the query, the requests arriving
+ * while it is in flight are attached to it and answered with its response.
+ */
+class PlacesInFlightRequests {
+
+    // coordinates are rounded to 4 decimal places, about 11 meters at the equator
+    private static final double COORDINATE_PRECISION = 10000d;
+
+    private final Map<String, InFlightRequest> requests = new HashMap<>();
+    private final long attemptTimeoutMillis;
+
+    /** A places query in flight, along with the request events waiting for its response. */
+    static final class InFlightRequest {
+
+        private final String key;
+        private final long expiryTimestamp;
+        private final List<Event> events = new ArrayList<>();
+
+        private InFlightRequest(final String key, final long expiryTimestamp) {
+            this.key = key;
+            this.expiryTimestamp = expiryTimestamp;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * <p>An in-flight request no longer accepts followers once its places query outlasted all of
+     * its attempts and the backoff delays between them, so that a query that never completes does
+     * not hold back the later ones.
+     *
+     * @param attemptTimeoutMillis time in milliseconds a single attempt of a places query can take
+     */
+    PlacesInFlightRequests(final long attemptTimeoutMillis) {
+        this.attemptTimeoutMillis = attemptTimeoutMillis;
+    }
+
+    /**
+     * Adds the get nearby places request to the table.
+     *
+     * @param event the get nearby places request {@link Event}
+     * @param placesConfig the current {@link PlacesConfiguration}
+     * @return the {@link InFlightRequest} led by the event, for which the caller must issue the
+     *     places query, or null if the event was attached to a request already in flight
+     */
+    synchronized InFlightRequest add(final Event event, final PlacesConfiguration placesConfig) {
+        final String key = createKey(event.getEventData(), placesConfig);
+        final long now = System.currentTimeMillis();
+        final InFlightRequest inFlightRequest = requests.get(key);
+
+        if (inFlightRequest != null && now < inFlightRequest.expiryTimestamp) {
+            inFlightRequest.events.add(event);
+            return null;
+        }
+
+        // the query is retried with the configured retries, each after a backoff delay
+        final int retries = placesConfig.getNetworkRetries();
+        final long timeoutMillis =
+                attemptTimeoutMillis * (retries + 1)
+                        + PlacesQueryService.getMaxRetryDelaysMillis(retries);
+        final InFlightRequest leader = new InFlightRequest(key, now + timeoutMillis);
+        leader.events.add(event);
+        requests.put(key, leader);
+        return leader;
+    }
+
+    /**
+     * Removes the completed request from the table.
+     *
+     * @param inFlightRequest the {@link InFlightRequest} whose places query completed
+     * @return the request events waiting for the response, starting with the leader
+     */
+    synchronized List<Event> complete(final InFlightRequest inFlightRequest) {
+        if (requests.get(inFlightRequest.key) == inFlightRequest) {
+            requests.remove(inFlightRequest.key);
+        }
+
+        return new ArrayList<>(inFlightRequest.events);
+    }
+
+    private static String createKey(
+            final Map<String, Object> eventData, final PlacesConfiguration placesConfig) {
+        final double latitude =
+                DataReader.optDouble(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.LATITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        final double longitude =
+                DataReader.optDouble(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.LONGITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        final int count =
+                DataReader.optInt(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.PLACES_COUNT,
+                        PlacesConstants.DEFAULT_NEARBYPOI_COUNT);
+
+        return String.format(
+                Locale.US,
+                "%d|%d|%d|%s",
+                Math.round(latitude * COORDINATE_PRECISION),
+                Math.round(longitude * COORDINATE_PRECISION),
+                count,
+                placesConfig.getLibrariesQueryString());
+    }
+}
@@ -0,0 +1,461 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import org.json.JSONException;
+
+/**
+ * A minimal pull parser that reads a JSON document one token at a time.
+ *
+ * <p>The reader mirrors the {@code android.util.JsonReader} API for the subset of it the Places
+ * extension needs, so that large responses can be consumed without materializing the whole
+ * document. Unlike the platform reader it is plain Java, which keeps it usable from JVM unit tests,
+ * and it reports malformed input with a {@link JSONException} like the {@code org.json} classes
+ * used elsewhere in the extension.
+ */
+final class PlacesJsonReader implements Closeable {
+
+    /** The kinds of token the reader can return from {@link #peek()}. */
+    enum Token {
+        BEGIN_OBJECT,
+        END_OBJECT,
+        BEGIN_ARRAY,
+        END_ARRAY,
+        NAME,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL,
+        END_DOCUMENT
+    }
+
+    // lexical scopes
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long consumed;
+
+    private int[] scopes = new int[32];
+    private int scopeCount;
+
+    private Token peeked;
+    private String peekedValue;
+    private final StringBuilder valueBuilder = new StringBuilder();
+
+    PlacesJsonReader(final Reader reader) {
+        this.reader = reader;
+        scopes[scopeCount++] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * Returns the type of the next token without consuming it.
+     *
+     * @return the next {@link Token}
+     * @throws IOException if the underlying reader fails
+     * @throws JSONException if the input is not valid JSON
+     */
+    Token peek() throws IOException, JSONException {
+        if (peeked != null) {
+            return peeked;
+        }
+
+        final int scope = scopes[scopeCount - 1];
+        int c;
+
+        switch (scope) {
+            case EMPTY_DOCUMENT:
+                if (nextNonWhitespace() == -1) {
+                    return peeked = Token.END_DOCUMENT;
+                }
+
+                pushBack();
+                scopes[scopeCount - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                // only the first value of the document is read, trailing content is ignored
+                return peeked = Token.END_DOCUMENT;
+            case EMPTY_ARRAY:
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+
+                // checked before pushing back, which would otherwise re-read the last character
+                if (c == -1) {
+                    throw syntaxError("Unterminated array");
+                }
+
+                if (scope == NONEMPTY_ARRAY) {
+                    if (c != ',') {
+                        throw syntaxError("Unterminated array");
+                    }
+                } else {
+                    pushBack();
+                }
+
+                scopes[scopeCount - 1] = NONEMPTY_ARRAY;
+                break;
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+
+                if (c == '}') {
+                    return peeked = Token.END_OBJECT;
+                }
+
+                if (c == -1) {
+                    throw syntaxError("Unterminated object");
+                }
+
+                if (scope == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntaxError("Unterminated object");
+                    }
+
+                    c = nextNonWhitespace();
+                }
+
+                if (c != '"') {
+                    throw syntaxError("Expected name");
+                }
+
+                peekedValue = readString();
+                scopes[scopeCount - 1] = DANGLING_NAME;
+                return peeked = Token.NAME;
+            case DANGLING_NAME:
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("Expected ':'");
+                }
+
+                scopes[scopeCount - 1] = NONEMPTY_OBJECT;
+                break;
+            default:
+                throw new IllegalStateException("Invalid reader scope " + scope);
+        }
+
+        return peekValue();
+    }
+
+    /**
+     * Returns whether the current array or object has another element.
+     *
+     * @return true if the next token is neither the end of an array, object or document
+     * @throws IOException if the underlying reader fails
+     * @throws JSONException if the input is not valid JSON
+     */
+    boolean hasNext() throws IOException, JSONException {
+        final Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    void beginObject() throws IOException, JSONException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    void endObject() throws IOException, JSONException {
+        expect(Token.END_OBJECT);
+        scopeCount--;
+    }
+
+    void beginArray() throws IOException, JSONException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    void endArray() throws IOException, JSONException {
+        expect(Token.END_ARRAY);
+        scopeCount--;
+    }
+
+    /**
+     * Consumes the next property name of the current object.
+     *
+     * @return the property name
+     * @throws IOException if the underlying reader fails
+     * @throws JSONException if the next token is not a {@link Token#NAME}
+     */
+    String nextName() throws IOException, JSONException {
+        expect(Token.NAME);
+        return peekedValue;
+    }
+
+    /**
+     * Consumes the next primitive value and returns its string form.
+     *
+     * <p>Numbers and booleans are returned as they appear in the document.
+     *
+     * @return the value as a {@code String}
+     * @throws IOException if the underlying reader fails
+     * @throws JSONException if the next token is not a string, number or boolean
+     */
+    String nextString() throws IOException, JSONException {
+        final Token token = peek();
+
+        if (token != Token.STRING && token != Token.NUMBER && token != Token.BOOLEAN) {
+            throw syntaxError("Expected a string but was " + token);
+        }
+
+        peeked = null;
+        return peekedValue;
+    }
+
+    void nextNull() throws IOException, JSONException {
+        expect(Token.NULL);
+    }
+
+    /**
+     * Consumes the next value, including all the nested values of an array or object.
+     *
+     * @throws IOException if the underlying reader fails
+     * @throws JSONException if the input is not valid JSON
+     */
+    void skipValue() throws IOException, JSONException {
+        int depth = 0;
+
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    depth++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    depth--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    depth--;
+                    break;
+                case END_DOCUMENT:
+                    throw syntaxError("Unexpected end of document");
+                default:
+                    // names and primitives
+                    peeked = null;
+                    break;
+            }
+        } while (depth > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = null;
+        scopeCount = 0;
+        reader.close();
+    }
+
+    private Token peekValue() throws IOException, JSONException {
+        final int c = nextNonWhitespace();
+
+        switch (c) {
+            case '{':
+                return peeked = Token.BEGIN_OBJECT;
+            case '[':
+                return peeked = Token.BEGIN_ARRAY;
+            case '"':
+                peekedValue = readString();
+                return peeked = Token.STRING;
+            case -1:
+                throw syntaxError("Unexpected end of input");
+            default:
+                pushBack();
+                return peekLiteral();
+        }
+    }
+
+    private Token peekLiteral() throws IOException, JSONException {
+        valueBuilder.setLength(0);
+
+        while (fillBuffer()) {
+            final char c = buffer[position];
+
+            if (Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.') {
+                valueBuilder.append(c);
+                position++;
+                consumed++;
+            } else {
+                break;
+            }
+        }
+
+        final String literal = valueBuilder.toString();
+        peekedValue = literal;
+
+        if ("true".equals(literal) || "false".equals(literal)) {
+            return peeked = Token.BOOLEAN;
+        }
+
+        if ("null".equals(literal)) {
+            peekedValue = null;
+            return peeked = Token.NULL;
+        }
+
+        if (literal.isEmpty()
+                || !(literal.charAt(0) == '-' || Character.isDigit(literal.charAt(0)))) {
+            throw syntaxError("Unexpected value '" + literal + "'");
+        }
+
+        try {
+            Double.parseDouble(literal);
+        } catch (final NumberFormatException exception) {
+            throw syntaxError("Invalid number '" + literal + "'");
+        }
+
+        return peeked = Token.NUMBER;
+    }
+
+    private String readString() throws IOException, JSONException {
+        valueBuilder.setLength(0);
+
+        while (true) {
+            final int c = read();
+
+            if (c == -1) {
+                throw syntaxError("Unterminated string");
+            } else if (c == '"') {
+                return valueBuilder.toString();
+            } else if (c == '\\') {
+                valueBuilder.append(readEscapeCharacter());
+            } else {
+                valueBuilder.append((char) c);
+            }
+        }
+    }
+
+    private char readEscapeCharacter() throws IOException, JSONException {
+        final int c = read();
+
+        switch (c) {
+            case 'u':
+                int value = 0;
+
+                for (int i = 0; i < 4; i++) {
+                    final int digit = Character.digit(read(), 16);
+
+                    if (digit == -1) {
+                        throw syntaxError("Invalid unicode escape sequence");
+                    }
+
+                    value = (value << 4) | digit;
+                }
+
+                return (char) value;
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case '"':
+            case '\\':
+            case '/':
+            case '\'':
+                return (char) c;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            final int c = read();
+
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+    }
+
+    private void pushBack() {
+        position--;
+        consumed--;
+    }
+
+    private int read() throws IOException {
+        if (!fillBuffer()) {
+            return -1;
+        }
+
+        consumed++;
+        return buffer[position++];
+    }
+
+    private boolean fillBuffer() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+
+        // keep the last character around so that it can be pushed back
+        if (limit > 0) {
+            buffer[0] = buffer[limit - 1];
+            position = 1;
+            limit = 1;
+        }
+
+        final int count = reader.read(buffer, limit, buffer.length - limit);
+
+        if (count <= 0) {
+            return false;
+        }
+
+        limit += count;
+        return true;
+    }
+
+    private void expect(final Token expected) throws IOException, JSONException {
+        final Token token = peek();
+
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+
+        peeked = null;
+    }
+
+    private void push(final int scope) {
+        if (scopeCount == scopes.length) {
+            final int[] newScopes = new int[scopeCount * 2];
+            System.arraycopy(scopes, 0, newScopes, 0, scopeCount);
+            scopes = newScopes;
+        }
+
+        scopes[scopeCount++] = scope;
+    }
+
+    private JSONException syntaxError(final String message) {
+        return new JSONException(message + " at character " + consumed);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Tracks the cached {@link PlacesPOI} objects the user is within.
+ *
+ * <p>The POIs the user is within are kept both in cache order and in priority order, so that an
+ * entry, an exit or the selection of the current POI costs O(log k) in the number of POIs the user
+ * is within rather than a scan of the cache.
+ *
+ * <p>The priority order follows {@link PlacesPOI#comparePriority(PlacesPOI)}: the lowest weight
+ * wins, then the smallest radius, and between equal POIs the one that comes last in the cache.
+ */
+final class PlacesMembershipIndex {
+
+    // position of each cached POI in the cache, by identifier
+    private final Map<String, Integer> cachePositions = new HashMap<>();
+
+    private final TreeMap<Integer, PlacesPOI> withinPOIs = new TreeMap<>();
+    private final TreeSet<PlacesPOI> withinPOIsByPriority =
+            new TreeSet<>(
+                    Comparator.comparingInt(PlacesPOI::getWeight)
+                            .thenComparingInt(PlacesPOI::getRadius)
+                            .thenComparing(this::cachePosition, Comparator.reverseOrder()));
+
+    /**
+     * Replaces the content of the index with the provided cached POIs.
+     *
+     * @param pois the cached POIs, in cache order
+     */
+    void rebuild(final Collection<PlacesPOI> pois) {
+        clear();
+
+        for (final PlacesPOI poi : pois) {
+            if (poi == null || poi.getIdentifier() == null) {
+                continue;
+            }
+
+            cachePositions.put(poi.getIdentifier(), cachePositions.size());
+            update(poi);
+        }
+    }
+
+    /**
+     * Records the current membership of the provided cached POI.
+     *
+     * @param poi a {@link PlacesPOI} of the cache whose membership may have changed
+     */
+    void update(final PlacesPOI poi) {
+        final Integer position = poi != null ? cachePositions.get(poi.getIdentifier()) : null;
+
+        if (position == null) {
+            return;
+        }
+
+        final PlacesPOI previousPOI = withinPOIs.remove(position);
+
+        if (previousPOI != null) {
+            withinPOIsByPriority.remove(previousPOI);
+        }
+
+        if (poi.containsUser()) {
+            withinPOIs.put(position, poi);
+            withinPOIsByPriority.add(poi);
+        }
+    }
+
+    /**
+     * Returns the POIs the user is within.
+     *
+     * @return a new list of the {@link PlacesPOI} the user is within, in cache order
+     */
+    List<PlacesPOI> getUserWithinPOIs() {
+        return new ArrayList<>(withinPOIs.values());
+    }
+
+    /**
+     * Returns the POI with the highest priority among the POIs the user is within.
+     *
+     * @return the highest priority {@link PlacesPOI}, or null if the user is not within any POI
+     */
+    PlacesPOI getHighestPriorityPOI() {
+        return withinPOIsByPriority.isEmpty() ? null : withinPOIsByPriority.first();
+    }
+
+    /**
+     * Returns the number of cached POIs indexed.
+     *
+     * @return the number of cached POIs
+     */
+    int size() {
+        return cachePositions.size();
+    }
+
+    /** Removes all the POIs from the index. */
+    void clear() {
+        cachePositions.clear();
+        withinPOIs.clear();
+        withinPOIsByPriority.clear();
+    }
+
+    private int cachePosition(final PlacesPOI poi) {
+        final Integer position = cachePositions.get(poi.getIdentifier());
+        return position != null ? position : -1;
+    }
+}
@@ -0,0 +1,289 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the performance metrics of the Places extension.
+ *
+ * <p>The latency of the places queries, the time spent reading their responses and the time spent
+ * writing the POIs to the datastore are recorded in {@link Histogram}s. Counters track the places
+ * request events processed per request type, the get nearby places requests served from or missing
+ * the cache, the datastore writes and shared state publications suppressed because nothing changed,
+ * the region events dropped and the characters written to the datastore.
+ *
+ * <p>The metrics are kept in memory for the lifetime of the extension. They are recorded from the
+ * extension, networking and persistence threads, hence every access is synchronized.
+ */
+final class PlacesMetrics {
+
+    // upper bounds of the histogram buckets in milliseconds, the last bucket is unbounded
+    private static final double[] BUCKET_BOUNDS_MS = {
+        0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000
+    };
+    private static final double NANOS_PER_MILLI = 1000000d;
+
+    private final Histogram networkLatency = new Histogram();
+    private final Histogram parseTime = new Histogram();
+    private final Histogram persistTime = new Histogram();
+    private final Map<String, Long> processedEvents = new HashMap<>();
+    private long cacheHits;
+    private long cacheMisses;
+    private long suppressedWrites;
+    private long suppressedSharedStates;
+    private long droppedRegionEvents;
+    private long persistedBytes;
+
+    /** Distribution of durations over fixed buckets, along with their count, sum and maximum. */
+    static final class Histogram {
+
+        private final long[] bucketCounts = new long[BUCKET_BOUNDS_MS.length + 1];
+        private long count;
+        private double sumMillis;
+        private double maxMillis;
+
+        private void record(final long durationNanos) {
+            final double millis = Math.max(durationNanos, 0) / NANOS_PER_MILLI;
+            int bucket = 0;
+
+            while (bucket < BUCKET_BOUNDS_MS.length && millis > BUCKET_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+
+            bucketCounts[bucket]++;
+            count++;
+            sumMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        double getSumMillis() {
+            return sumMillis;
+        }
+
+        double getMaxMillis() {
+            return maxMillis;
+        }
+
+        /**
+         * Returns an upper bound of the provided percentile of the recorded durations, being the
+         * upper bound of the bucket holding it, or the maximum duration for the unbounded bucket.
+         *
+         * @param percentile the percentile, between 0 and 100
+         * @return the percentile in milliseconds, 0 if no duration was recorded
+         */
+        double getPercentileMillis(final double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+
+            final double rank =
+                    Math.max(Math.ceil(count * Math.min(percentile, 100) / 100), 1);
+            long cumulativeCount = 0;
+
+            for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+                cumulativeCount += bucketCounts[i];
+
+                if (cumulativeCount >= rank) {
+                    return Math.min(BUCKET_BOUNDS_MS[i], maxMillis);
+                }
+            }
+
+            return maxMillis;
+        }
+
+        private Histogram copy() {
+            final Histogram histogram = new Histogram();
+            System.arraycopy(bucketCounts, 0, histogram.bucketCounts, 0, bucketCounts.length);
+            histogram.count = count;
+            histogram.sumMillis = sumMillis;
+            histogram.maxMillis = maxMillis;
+            return histogram;
+        }
+
+        private Map<String, Object> toMap() {
+            final List<Double> bounds = new ArrayList<>(BUCKET_BOUNDS_MS.length);
+
+            for (final double bound : BUCKET_BOUNDS_MS) {
+                bounds.add(bound);
+            }
+
+            final List<Long> counts = new ArrayList<>(bucketCounts.length);
+
+            for (final long bucketCount : bucketCounts) {
+                counts.add(bucketCount);
+            }
+
+            final Map<String, Object> map = new HashMap<>();
+            map.put(PlacesConstants.MetricsKeys.COUNT, count);
+            map.put(PlacesConstants.MetricsKeys.SUM, sumMillis);
+            map.put(PlacesConstants.MetricsKeys.MAX, maxMillis);
+            map.put(PlacesConstants.MetricsKeys.BUCKET_BOUNDS, bounds);
+            map.put(PlacesConstants.MetricsKeys.BUCKET_COUNTS, counts);
+            return map;
+        }
+    }
+
+    /**
+     * Records the time between sending a places query and receiving its response status.
+     *
+     * @param durationNanos the latency in nanoseconds
+     */
+    synchronized void recordNetworkLatency(final long durationNanos) {
+        networkLatency.record(durationNanos);
+    }
+
+    /**
+     * Records the time spent reading and parsing the body of a places query response.
+     *
+     * @param durationNanos the parse time in nanoseconds
+     */
+    synchronized void recordParseTime(final long durationNanos) {
+        parseTime.record(durationNanos);
+    }
+
+    /**
+     * Records a write of the POIs to the datastore.
+     *
+     * @param durationNanos the time spent writing in nanoseconds
+     * @param characterCount the number of characters written
+     */
+    synchronized void recordPersist(final long durationNanos, final long characterCount) {
+        persistTime.record(durationNanos);
+        persistedBytes += characterCount;
+    }
+
+    /**
+     * Counts a processed places request event.
+     *
+     * @param requestType the request type of the event
+     */
+    synchronized void countProcessedEvent(final String requestType) {
+        final Long count = processedEvents.get(requestType);
+        processedEvents.put(requestType, count != null ? count + 1 : 1);
+    }
+
+    /** Counts a get nearby places request served without querying the places service. */
+    synchronized void countCacheHit() {
+        cacheHits++;
+    }
+
+    /** Counts a get nearby places request which required a places query. */
+    synchronized void countCacheMiss() {
+        cacheMisses++;
+    }
+
+    /**
+     * Counts datastore writes skipped because the value was unchanged, or coalesced with a later
+     * write of the same key.
+     *
+     * @param count the number of suppressed writes
+     */
+    synchronized void countSuppressedWrites(final int count) {
+        suppressedWrites += count;
+    }
+
+    /** Counts a places shared state publication skipped because the shared state was unchanged. */
+    synchronized void countSuppressedSharedState() {
+        suppressedSharedStates++;
+    }
+
+    /** Counts a region event dropped because it was invalid or its POI is not cached. */
+    synchronized void countDroppedRegionEvent() {
+        droppedRegionEvents++;
+    }
+
+    synchronized long getCacheHits() {
+        return cacheHits;
+    }
+
+    synchronized long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    synchronized long getSuppressedWrites() {
+        return suppressedWrites;
+    }
+
+    synchronized long getSuppressedSharedStates() {
+        return suppressedSharedStates;
+    }
+
+    synchronized long getDroppedRegionEvents() {
+        return droppedRegionEvents;
+    }
+
+    synchronized long getPersistedBytes() {
+        return persistedBytes;
+    }
+
+    synchronized long getProcessedEvents(final String requestType) {
+        final Long count = processedEvents.get(requestType);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Returns a copy of the network latency histogram.
+     *
+     * @return the network latency {@link Histogram}
+     */
+    synchronized Histogram getNetworkLatency() {
+        return networkLatency.copy();
+    }
+
+    /**
+     * Returns a copy of the parse time histogram.
+     *
+     * @return the parse time {@link Histogram}
+     */
+    synchronized Histogram getParseTime() {
+        return parseTime.copy();
+    }
+
+    /**
+     * Returns a copy of the persist time histogram.
+     *
+     * @return the persist time {@link Histogram}
+     */
+    synchronized Histogram getPersistTime() {
+        return persistTime.copy();
+    }
+
+    /**
+     * Returns a snapshot of all the metrics, made of maps, lists, numbers and strings only so that
+     * it can be returned by the public API and published in the places shared state as is.
+     *
+     * @return an unmodifiable {@link Map} of the metrics
+     */
+    synchronized Map<String, Object> toMap() {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(PlacesConstants.MetricsKeys.NETWORK_LATENCY, networkLatency.toMap());
+        map.put(PlacesConstants.MetricsKeys.PARSE_TIME, parseTime.toMap());
+        map.put(PlacesConstants.MetricsKeys.PERSIST_TIME, persistTime.toMap());
+        map.put(PlacesConstants.MetricsKeys.PROCESSED_EVENTS, new HashMap<>(processedEvents));
+        map.put(PlacesConstants.MetricsKeys.CACHE_HITS, cacheHits);
+        map.put(PlacesConstants.MetricsKeys.CACHE_MISSES, cacheMisses);
+        map.put(PlacesConstants.MetricsKeys.SUPPRESSED_WRITES, suppressedWrites);
+        map.put(PlacesConstants.MetricsKeys.SUPPRESSED_SHARED_STATES, suppressedSharedStates);
+        map.put(PlacesConstants.MetricsKeys.DROPPED_REGION_EVENTS, droppedRegionEvents);
+        map.put(PlacesConstants.MetricsKeys.PERSISTED_BYTES, persistedBytes);
+        return Collections.unmodifiableMap(map);
+    }
+}
@@ -11,6 +11,7 @@
 
 package com.adobe.marketing.mobile.places;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import org.json.JSONException;
@@ -29,6 +30,9 @@ public class PlacesPOI {
     private int weight;
     private Map<String, String> metadata;
 
+    // map representation of the POI, memoized until one of its fields changes
+    private Map<String, Object> poiMap;
+
     /**
      * Returns the identifier of the POI.
      *
@@ -63,6 +67,7 @@ public class PlacesPOI {
      */
     public void setUserIsWithin(final boolean userIsWithin) {
         this.userIsWithin = userIsWithin;
+        poiMap = null;
     }
 
     /**
@@ -198,30 +203,37 @@ public class PlacesPOI {
 
     protected void setIdentifier(final String identifier) {
         this.identifier = identifier;
+        poiMap = null;
     }
 
     protected void setName(final String name) {
         this.name = name;
+        poiMap = null;
     }
 
     protected void setLatitude(final double latitude) {
         this.latitude = latitude;
+        poiMap = null;
     }
 
     protected void setLongitude(final double longitude) {
         this.longitude = longitude;
+        poiMap = null;
     }
 
     protected void setRadius(final int radius) {
         this.radius = radius;
+        poiMap = null;
     }
 
     protected void setMetadata(final Map<String, String> metadata) {
         this.metadata = metadata;
+        poiMap = null;
     }
 
     void setWeight(final int weight) {
         this.weight = weight;
+        poiMap = null;
     }
 
     @Override
@@ -329,17 +341,29 @@ public class PlacesPOI {
         return result;
     }
 
+    /**
+     * Returns the map representation of the POI.
+     *
+     * <p>The map is memoized until the POI changes, hence callers must not modify it.
+     *
+     * @return an unmodifiable {@link Map} of the POI fields
+     */
     Map<String, Object> toMap() {
-        final Map<String, Object> poiMap = new HashMap<>();
-        poiMap.put(PlacesConstants.POIKeys.IDENTIFIER, this.identifier);
-        poiMap.put(PlacesConstants.POIKeys.NAME, this.name);
-        poiMap.put(PlacesConstants.POIKeys.LATITUDE, this.latitude);
-        poiMap.put(PlacesConstants.POIKeys.LONGITUDE, this.longitude);
-        poiMap.put(PlacesConstants.POIKeys.RADIUS, this.radius);
-        poiMap.put(PlacesConstants.POIKeys.METADATA, this.metadata);
-        poiMap.put(PlacesConstants.POIKeys.USER_IS_WITHIN, this.userIsWithin);
-        poiMap.put(PlacesConstants.POIKeys.LIBRARY, this.library);
-        poiMap.put(PlacesConstants.POIKeys.WEIGHT, this.weight);
+        if (poiMap != null) {
+            return poiMap;
+        }
+
+        final Map<String, Object> map = new HashMap<>();
+        map.put(PlacesConstants.POIKeys.IDENTIFIER, this.identifier);
+        map.put(PlacesConstants.POIKeys.NAME, this.name);
+        map.put(PlacesConstants.POIKeys.LATITUDE, this.latitude);
+        map.put(PlacesConstants.POIKeys.LONGITUDE, this.longitude);
+        map.put(PlacesConstants.POIKeys.RADIUS, this.radius);
+        map.put(PlacesConstants.POIKeys.METADATA, this.metadata);
+        map.put(PlacesConstants.POIKeys.USER_IS_WITHIN, this.userIsWithin);
+        map.put(PlacesConstants.POIKeys.LIBRARY, this.library);
+        map.put(PlacesConstants.POIKeys.WEIGHT, this.weight);
+        poiMap = Collections.unmodifiableMap(map);
         return poiMap;
     }
 
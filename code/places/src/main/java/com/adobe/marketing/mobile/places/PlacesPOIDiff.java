@@ -0,0 +1,205 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Merges the POIs of a places query response into the cached POIs.
+ *
+ * <p>A cached POI equal to its counterpart in the response is kept instead of the response POI, so
+ * that a refresh changing nothing allocates no new cache, and the memoized map representations of
+ * the kept POIs remain valid. The POIs added, removed and changed by the refresh are collected
+ * along the way.
+ */
+final class PlacesPOIDiff {
+
+    private final Map<String, PlacesPOI> previousPOIs;
+    private final LinkedHashMap<String, PlacesPOI> mergedPOIs;
+    private final List<PlacesPOI> addedPOIs;
+    private final List<PlacesPOI> removedPOIs;
+    private final List<PlacesPOI> changedPOIs;
+    private final boolean orderChanged;
+
+    private PlacesPOIDiff(
+            final Map<String, PlacesPOI> previousPOIs,
+            final LinkedHashMap<String, PlacesPOI> mergedPOIs,
+            final List<PlacesPOI> addedPOIs,
+            final List<PlacesPOI> removedPOIs,
+            final List<PlacesPOI> changedPOIs,
+            final boolean orderChanged) {
+        this.previousPOIs = previousPOIs;
+        this.mergedPOIs = mergedPOIs;
+        this.addedPOIs = addedPOIs;
+        this.removedPOIs = removedPOIs;
+        this.changedPOIs = changedPOIs;
+        this.orderChanged = orderChanged;
+    }
+
+    /**
+     * Merges the POIs of a places query response into the cached POIs.
+     *
+     * <p>The merged POIs follow the order of the response, the user-within POIs first. A POI
+     * listed twice keeps its first position and its last value, as when caching the response
+     * directly.
+     *
+     * @param cachedPOIs the cached {@link PlacesPOI}s mapped by their identifier, not modified
+     * @param containsUserPOIs the user-within {@code PlacesPOI}s of the response, may be null
+     * @param nearbyPOIs the nearby {@code PlacesPOI}s of the response, may be null
+     * @return the {@link PlacesPOIDiff} between the cached POIs and the response
+     */
+    static PlacesPOIDiff merge(
+            final Map<String, PlacesPOI> cachedPOIs,
+            final List<PlacesPOI> containsUserPOIs,
+            final List<PlacesPOI> nearbyPOIs) {
+        return merge(cachedPOIs, containsUserPOIs, nearbyPOIs, Collections.emptySet());
+    }
+
+    /**
+     * Merges the POIs of a places query response into the cached POIs, some of which were modified
+     * in place since they were cached.
+     *
+     * <p>A modified POI found in the response is reported as changed even if it equals the response
+     * POI, as it no longer matches the POI the cache was refreshed with.
+     *
+     * @param cachedPOIs the cached {@link PlacesPOI}s mapped by their identifier, not modified
+     * @param containsUserPOIs the user-within {@code PlacesPOI}s of the response, may be null
+     * @param nearbyPOIs the nearby {@code PlacesPOI}s of the response, may be null
+     * @param modifiedPOIIds the identifiers of the cached {@code PlacesPOI}s modified in place
+     * @return the {@link PlacesPOIDiff} between the cached POIs and the response
+     */
+    static PlacesPOIDiff merge(
+            final Map<String, PlacesPOI> cachedPOIs,
+            final List<PlacesPOI> containsUserPOIs,
+            final List<PlacesPOI> nearbyPOIs,
+            final Set<String> modifiedPOIIds) {
+        final LinkedHashMap<String, PlacesPOI> mergedPOIs = new LinkedHashMap<>();
+        put(mergedPOIs, cachedPOIs, containsUserPOIs);
+        put(mergedPOIs, cachedPOIs, nearbyPOIs);
+
+        final List<PlacesPOI> addedPOIs = new ArrayList<>();
+        final List<PlacesPOI> changedPOIs = new ArrayList<>();
+
+        for (final PlacesPOI poi : mergedPOIs.values()) {
+            final PlacesPOI cachedPOI = cachedPOIs.get(poi.getIdentifier());
+
+            if (cachedPOI == null) {
+                addedPOIs.add(poi);
+            } else if (cachedPOI != poi || modifiedPOIIds.contains(poi.getIdentifier())) {
+                changedPOIs.add(poi);
+            }
+        }
+
+        final List<PlacesPOI> removedPOIs = new ArrayList<>();
+
+        for (final Map.Entry<String, PlacesPOI> entry : cachedPOIs.entrySet()) {
+            if (!mergedPOIs.containsKey(entry.getKey())) {
+                removedPOIs.add(entry.getValue());
+            }
+        }
+
+        // the cache order is the order the nearby POIs are reported in
+        boolean orderChanged = false;
+
+        if (addedPOIs.isEmpty() && removedPOIs.isEmpty()) {
+            final Iterator<String> cachedIds = cachedPOIs.keySet().iterator();
+
+            for (final String mergedId : mergedPOIs.keySet()) {
+                if (!mergedId.equals(cachedIds.next())) {
+                    orderChanged = true;
+                    break;
+                }
+            }
+        }
+
+        return new PlacesPOIDiff(
+                cachedPOIs, mergedPOIs, addedPOIs, removedPOIs, changedPOIs, orderChanged);
+    }
+
+    /**
+     * Returns the cached POIs the response was merged into.
+     *
+     * @return the {@link PlacesPOI}s cached before the response, mapped by their identifier
+     */
+    Map<String, PlacesPOI> getPreviousPOIs() {
+        return previousPOIs;
+    }
+
+    /**
+     * Returns the merged POIs, in the order of the response.
+     *
+     * @return the merged {@link PlacesPOI}s mapped by their identifier
+     */
+    LinkedHashMap<String, PlacesPOI> getMergedPOIs() {
+        return mergedPOIs;
+    }
+
+    /**
+     * Returns the POIs of the response which were not cached.
+     *
+     * @return an unmodifiable list of the added {@link PlacesPOI}s
+     */
+    List<PlacesPOI> getAddedPOIs() {
+        return Collections.unmodifiableList(addedPOIs);
+    }
+
+    /**
+     * Returns the cached POIs missing from the response.
+     *
+     * @return an unmodifiable list of the removed {@link PlacesPOI}s
+     */
+    List<PlacesPOI> getRemovedPOIs() {
+        return Collections.unmodifiableList(removedPOIs);
+    }
+
+    /**
+     * Returns the POIs of the response which differ from the cached POI with the same identifier,
+     * including in whether the user is within them, or whose cached POI was modified in place.
+     *
+     * @return an unmodifiable list of the changed {@link PlacesPOI}s, as found in the response
+     */
+    List<PlacesPOI> getChangedPOIs() {
+        return Collections.unmodifiableList(changedPOIs);
+    }
+
+    /**
+     * Returns whether the response leaves the cached POIs as they are, in the same order.
+     *
+     * @return true if no POI was added, removed, changed or moved
+     */
+    boolean isEmpty() {
+        return addedPOIs.isEmpty()
+                && removedPOIs.isEmpty()
+                && changedPOIs.isEmpty()
+                && !orderChanged;
+    }
+
+    private static void put(
+            final Map<String, PlacesPOI> mergedPOIs,
+            final Map<String, PlacesPOI> cachedPOIs,
+            final List<PlacesPOI> responsePOIs) {
+        if (responsePOIs == null) {
+            return;
+        }
+
+        for (final PlacesPOI poi : responsePOIs) {
+            final PlacesPOI cachedPOI = cachedPOIs.get(poi.getIdentifier());
+            mergedPOIs.put(poi.getIdentifier(), poi.equals(cachedPOI) ? cachedPOI : poi);
+        }
+    }
+}
@@ -0,0 +1,494 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform lat/lon grid index over {@link PlacesPOI} objects.
+ *
+ * <p>The index buckets each POI into a grid cell of {@link #CELL_SIZE_DEGREES} degrees, so that
+ * proximity lookups only visit the cells overlapping the search area instead of every POI. The
+ * geometry of the POIs is kept in a {@link PlacesPOIStore} and the cells only hold store slots, so
+ * lookups scan primitive arrays and the matching {@code PlacesPOI} objects are only collected once
+ * the result is known.
+ */
+final class PlacesPOIIndex {
+
+    private static final double CELL_SIZE_DEGREES = 0.01d;
+    private static final int LAT_CELLS = (int) Math.ceil(180d / CELL_SIZE_DEGREES);
+    private static final int LON_CELLS = (int) Math.ceil(360d / CELL_SIZE_DEGREES);
+
+    private final PlacesPOIStore store = new PlacesPOIStore();
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final Map<String, Integer> slotsById = new HashMap<>();
+
+    /**
+     * Adds the provided {@link PlacesPOI} to the index, replacing any POI already indexed with the
+     * same identifier.
+     *
+     * @param poi the {@code PlacesPOI} to be indexed
+     */
+    void add(final PlacesPOI poi) {
+        if (poi == null || poi.getIdentifier() == null) {
+            return;
+        }
+
+        remove(poi.getIdentifier());
+
+        final int slot = store.add(poi);
+        final long cellKey = cellKey(latRow(poi.getLatitude()), lonColumn(poi.getLongitude()));
+        Cell cell = cells.get(cellKey);
+
+        if (cell == null) {
+            cell = new Cell();
+            cells.put(cellKey, cell);
+        }
+
+        cell.add(slot);
+        slotsById.put(poi.getIdentifier(), slot);
+    }
+
+    /**
+     * Removes the POI with the provided identifier from the index.
+     *
+     * @param identifier the identifier of the POI to be removed
+     */
+    void remove(final String identifier) {
+        final Integer slot = slotsById.remove(identifier);
+
+        if (slot == null) {
+            return;
+        }
+
+        final long cellKey =
+                cellKey(latRow(store.getLatitude(slot)), lonColumn(store.getLongitude(slot)));
+        final Cell cell = cells.get(cellKey);
+
+        if (cell != null) {
+            cell.remove(slot);
+
+            if (cell.size == 0) {
+                cells.remove(cellKey);
+            }
+        }
+
+        store.remove(slot);
+    }
+
+    /**
+     * Clears the index and indexes all the provided POIs.
+     *
+     * @param pois {@link Collection} of {@link PlacesPOI} to be indexed
+     */
+    void rebuild(final Collection<PlacesPOI> pois) {
+        clear();
+
+        if (pois == null) {
+            return;
+        }
+
+        for (final PlacesPOI poi : pois) {
+            add(poi);
+        }
+    }
+
+    /** Removes all the POIs from the index. */
+    void clear() {
+        cells.clear();
+        slotsById.clear();
+        store.clear();
+    }
+
+    /**
+     * Returns the number of POIs in the index.
+     *
+     * @return the count of indexed POIs
+     */
+    int size() {
+        return slotsById.size();
+    }
+
+    /**
+     * Finds the POIs whose center lies within the provided distance of the given location.
+     *
+     * @param latitude the latitude of the search center
+     * @param longitude the longitude of the search center
+     * @param distanceInMeters the search radius in meters
+     * @return {@link List} of {@link PlacesPOI} ordered by ascending distance from the search
+     *     center
+     */
+    List<PlacesPOI> findWithinDistance(
+            final double latitude, final double longitude, final double distanceInMeters) {
+        if (!isValidQuery(latitude, longitude) || distanceInMeters < 0) {
+            return new ArrayList<>();
+        }
+
+        final Matches matches = new Matches();
+        scan(latitude, longitude, distanceInMeters, -1, matches);
+        matches.sortByDistance();
+        return matches.toPOIs(store, matches.size);
+    }
+
+    /**
+     * Finds the POIs whose radius, extended by the provided margin, contains the given location.
+     *
+     * @param latitude the latitude of the location
+     * @param longitude the longitude of the location
+     * @param marginInMeters distance in meters added to the radius of every POI
+     * @return {@link List} of {@link PlacesPOI} ordered by ascending distance from the location
+     */
+    List<PlacesPOI> findContaining(
+            final double latitude, final double longitude, final double marginInMeters) {
+        final double margin = Math.max(0, marginInMeters);
+
+        if (!isValidQuery(latitude, longitude)) {
+            return new ArrayList<>();
+        }
+
+        final Matches matches = new Matches();
+        scan(latitude, longitude, store.getMaxRadius() + margin, margin, matches);
+        matches.sortByDistance();
+        return matches.toPOIs(store, matches.size);
+    }
+
+    /**
+     * Finds the {@code count} POIs closest to the given location.
+     *
+     * <p>Grid rings around the location are visited until at least {@code count} candidates are
+     * found. The distance to the farthest of those candidates then bounds a {@link
+     * #findWithinDistance(double, double, double)} lookup, which guarantees that no closer POI
+     * sitting in an unvisited cell is missed. If the ring walk would visit more cells than are
+     * populated, all the indexed POIs are ranked instead.
+     *
+     * @param latitude the latitude of the search center
+     * @param longitude the longitude of the search center
+     * @param count the maximum number of POIs to be returned
+     * @return {@link List} of {@link PlacesPOI} ordered by ascending distance from the search
+     *     center
+     */
+    List<PlacesPOI> findNearest(final double latitude, final double longitude, final int count) {
+        if (count <= 0 || !isValidQuery(latitude, longitude)) {
+            return new ArrayList<>();
+        }
+
+        final double cosLatitude = Math.cos(Math.toRadians(latitude));
+        final Matches candidates = new Matches();
+
+        if (count >= size()) {
+            collectAll(latitude, longitude, cosLatitude, candidates);
+            candidates.sortByDistance();
+            return candidates.toPOIs(store, candidates.size);
+        }
+
+        final int centerRow = latRow(latitude);
+        final int centerColumn = lonColumn(longitude);
+        long examinedCells = 0;
+
+        for (int ring = 0; candidates.size < count; ring++) {
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= LAT_CELLS) {
+                    continue;
+                }
+
+                // only the outline of the ring is visited, inner cells belong to previous rings
+                final boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                final int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+
+                for (int column = centerColumn - ring;
+                        column <= centerColumn + ring;
+                        column += step) {
+                    examinedCells++;
+                    collect(
+                            cells.get(cellKey(row, wrapColumn(column))),
+                            latitude,
+                            longitude,
+                            cosLatitude,
+                            Double.POSITIVE_INFINITY,
+                            -1,
+                            candidates);
+                }
+            }
+
+            if (examinedCells > cells.size() && candidates.size < count) {
+                // sparse index, ranking every POI is cheaper than walking empty cells
+                final Matches all = new Matches();
+                collectAll(latitude, longitude, cosLatitude, all);
+                all.sortByDistance();
+                return all.toPOIs(store, count);
+            }
+        }
+
+        candidates.sortByDistance();
+
+        final Matches nearest = new Matches();
+        scan(latitude, longitude, candidates.distances[count - 1], -1, nearest);
+        nearest.sortByDistance();
+        return nearest.toPOIs(store, count);
+    }
+
+    private boolean isValidQuery(final double latitude, final double longitude) {
+        return !cells.isEmpty()
+                && PlacesUtil.isValidLat(latitude)
+                && PlacesUtil.isValidLon(longitude);
+    }
+
+    /**
+     * Collects the slots of the cells overlapping the search area around the provided location.
+     *
+     * <p>With a negative {@code marginInMeters} the POIs whose center is within {@code
+     * distanceInMeters} are matched, otherwise the POIs whose radius extended by the margin
+     * contains the location.
+     */
+    private void scan(
+            final double latitude,
+            final double longitude,
+            final double distanceInMeters,
+            final double marginInMeters,
+            final Matches matches) {
+        final double cosLatitude = Math.cos(Math.toRadians(latitude));
+        final double latDelta = Math.toDegrees(distanceInMeters / PlacesUtil.EARTH_RADIUS_METERS);
+        final double minLat = Math.max(-90d, latitude - latDelta);
+        final double maxLat = Math.min(90d, latitude + latDelta);
+        final double lonDelta = maxLongitudeDelta(latitude, minLat, maxLat, distanceInMeters);
+
+        final int minRow = latRow(minLat);
+        final int maxRow = latRow(maxLat);
+        final int firstColumn;
+        final int columnSpan;
+
+        if (lonDelta >= 180d) {
+            firstColumn = 0;
+            columnSpan = LON_CELLS;
+        } else {
+            final int westColumn =
+                    (int) Math.floor((longitude - lonDelta + 180d) / CELL_SIZE_DEGREES);
+            final int eastColumn =
+                    (int) Math.floor((longitude + lonDelta + 180d) / CELL_SIZE_DEGREES);
+            firstColumn = wrapColumn(westColumn);
+            columnSpan = Math.min(LON_CELLS, eastColumn - westColumn + 1);
+        }
+
+        final long cellsInBox = (long) (maxRow - minRow + 1) * columnSpan;
+
+        if (cellsInBox >= cells.size()) {
+            // the search box spans more cells than we have populated, scan the populated ones
+            for (final Cell cell : cells.values()) {
+                collect(
+                        cell,
+                        latitude,
+                        longitude,
+                        cosLatitude,
+                        distanceInMeters,
+                        marginInMeters,
+                        matches);
+            }
+        } else {
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int i = 0; i < columnSpan; i++) {
+                    collect(
+                            cells.get(cellKey(row, (firstColumn + i) % LON_CELLS)),
+                            latitude,
+                            longitude,
+                            cosLatitude,
+                            distanceInMeters,
+                            marginInMeters,
+                            matches);
+                }
+            }
+        }
+    }
+
+    private void collectAll(
+            final double latitude,
+            final double longitude,
+            final double cosLatitude,
+            final Matches matches) {
+        for (final Cell cell : cells.values()) {
+            collect(
+                    cell,
+                    latitude,
+                    longitude,
+                    cosLatitude,
+                    Double.POSITIVE_INFINITY,
+                    -1,
+                    matches);
+        }
+    }
+
+    private void collect(
+            final Cell cell,
+            final double latitude,
+            final double longitude,
+            final double cosLatitude,
+            final double distanceInMeters,
+            final double marginInMeters,
+            final Matches matches) {
+        if (cell == null) {
+            return;
+        }
+
+        for (int i = 0; i < cell.size; i++) {
+            final int slot = cell.slots[i];
+            final double distance = store.distanceInMeters(slot, latitude, longitude, cosLatitude);
+            final double limit =
+                    marginInMeters < 0 ? distanceInMeters : store.getRadius(slot) + marginInMeters;
+
+            if (distance <= limit) {
+                matches.add(slot, distance);
+            }
+        }
+    }
+
+    /**
+     * Calculates the largest longitude difference a point within {@code distanceInMeters} of the
+     * center can have, given that the point lies between {@code minLat} and {@code maxLat}.
+     */
+    private static double maxLongitudeDelta(
+            final double latitude,
+            final double minLat,
+            final double maxLat,
+            final double distanceInMeters) {
+        final double farthestLatitude = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        final double cosProduct =
+                Math.cos(Math.toRadians(latitude)) * Math.cos(Math.toRadians(farthestLatitude));
+
+        if (cosProduct <= 0) {
+            return 180d;
+        }
+
+        final double sinHalfAngle =
+                Math.sin(distanceInMeters / (2 * PlacesUtil.EARTH_RADIUS_METERS))
+                        / Math.sqrt(cosProduct);
+
+        if (sinHalfAngle >= 1d) {
+            return 180d;
+        }
+
+        return Math.toDegrees(2 * Math.asin(sinHalfAngle));
+    }
+
+    private static int latRow(final double latitude) {
+        return Math.min(LAT_CELLS - 1, (int) Math.floor((latitude + 90d) / CELL_SIZE_DEGREES));
+    }
+
+    private static int lonColumn(final double longitude) {
+        return wrapColumn((int) Math.floor((longitude + 180d) / CELL_SIZE_DEGREES));
+    }
+
+    private static int wrapColumn(final int column) {
+        return ((column % LON_CELLS) + LON_CELLS) % LON_CELLS;
+    }
+
+    private static long cellKey(final int row, final int column) {
+        return (long) row * LON_CELLS + column;
+    }
+
+    /** The store slots of the POIs in one grid cell, in insertion order. */
+    private static final class Cell {
+
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(final int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+
+            slots[size++] = slot;
+        }
+
+        void remove(final int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+    }
+
+    /** The slots matched by a lookup along with their distance from the search center. */
+    private static final class Matches {
+
+        private int[] slots = new int[16];
+        private double[] distances = new double[16];
+        private int size;
+
+        void add(final int slot, final double distance) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+
+            slots[size] = slot;
+            distances[size] = distance;
+            size++;
+        }
+
+        /** Stable merge sort of the matches by ascending distance. */
+        void sortByDistance() {
+            if (size < 2) {
+                return;
+            }
+
+            int[] slotBuffer = new int[size];
+            double[] distanceBuffer = new double[size];
+
+            for (int width = 1; width < size; width *= 2) {
+                for (int low = 0; low < size; low += 2 * width) {
+                    final int middle = Math.min(low + width, size);
+                    final int high = Math.min(low + 2 * width, size);
+                    int left = low;
+                    int right = middle;
+
+                    for (int i = low; i < high; i++) {
+                        if (left < middle
+                                && (right >= high
+                                        || Double.compare(distances[left], distances[right])
+                                                <= 0)) {
+                            slotBuffer[i] = slots[left];
+                            distanceBuffer[i] = distances[left++];
+                        } else {
+                            slotBuffer[i] = slots[right];
+                            distanceBuffer[i] = distances[right++];
+                        }
+                    }
+                }
+
+                final int[] sortedSlots = slotBuffer;
+                final double[] sortedDistances = distanceBuffer;
+                slotBuffer = slots;
+                distanceBuffer = distances;
+                slots = sortedSlots;
+                distances = sortedDistances;
+            }
+        }
+
+        List<PlacesPOI> toPOIs(final PlacesPOIStore store, final int limit) {
+            final int count = Math.min(limit, size);
+            final List<PlacesPOI> pois = new ArrayList<>(count);
+
+            for (int i = 0; i < count; i++) {
+                pois.add(store.get(slots[i]));
+            }
+
+            return pois;
+        }
+    }
+}
@@ -0,0 +1,406 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the cached POIs persisted by {@link PlacesState}.
+ *
+ * <p>A snapshot is made of a header, a dictionary of the library ids and metadata strings shared by
+ * the POIs, and the POIs themselves. Coordinates are stored as zigzag varints of the difference in
+ * 1e-7 degree units from the previous POI, falling back to the raw double for coordinates that do
+ * not round trip through that precision. The bytes are stored in the places datastore as a Base64
+ * string.
+ */
+final class PlacesPOISnapshot {
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 'P';
+    private static final double COORDINATE_SCALE = 1e7;
+
+    // POI flags
+    private static final int FLAG_USER_IS_WITHIN = 1;
+    private static final int FLAG_PACKED_COORDINATES = 1 << 1;
+    private static final int FLAG_HAS_NAME = 1 << 2;
+    private static final int FLAG_HAS_METADATA = 1 << 3;
+
+    private static final char[] BASE64_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    private PlacesPOISnapshot() {}
+
+    /**
+     * Encodes the provided POIs into a snapshot.
+     *
+     * @param pois the {@link PlacesPOI}s to encode
+     * @return the snapshot as a Base64 string
+     */
+    static String encode(final Collection<PlacesPOI> pois) {
+        final Map<String, Integer> dictionaryIndex = new HashMap<>();
+        final List<String> dictionary = new ArrayList<>();
+
+        for (final PlacesPOI poi : pois) {
+            intern(poi.getLibrary(), dictionaryIndex, dictionary);
+
+            if (poi.getMetadata() != null) {
+                for (final Map.Entry<String, String> entry : poi.getMetadata().entrySet()) {
+                    intern(entry.getKey(), dictionaryIndex, dictionary);
+                    intern(entry.getValue(), dictionaryIndex, dictionary);
+                }
+            }
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(64 + pois.size() * 48);
+        out.write(MAGIC);
+        out.write(FORMAT_VERSION);
+
+        writeVarint(out, dictionary.size());
+
+        for (final String value : dictionary) {
+            writeString(out, value);
+        }
+
+        writeVarint(out, pois.size());
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+
+        for (final PlacesPOI poi : pois) {
+            final long latitude = Math.round(poi.getLatitude() * COORDINATE_SCALE);
+            final long longitude = Math.round(poi.getLongitude() * COORDINATE_SCALE);
+            final boolean packCoordinates =
+                    latitude / COORDINATE_SCALE == poi.getLatitude()
+                            && longitude / COORDINATE_SCALE == poi.getLongitude();
+
+            int flags = 0;
+            flags |= poi.containsUser() ? FLAG_USER_IS_WITHIN : 0;
+            flags |= packCoordinates ? FLAG_PACKED_COORDINATES : 0;
+            flags |= poi.getName() != null ? FLAG_HAS_NAME : 0;
+            flags |= poi.getMetadata() != null ? FLAG_HAS_METADATA : 0;
+            out.write(flags);
+
+            writeString(out, poi.getIdentifier());
+
+            if (poi.getName() != null) {
+                writeString(out, poi.getName());
+            }
+
+            if (packCoordinates) {
+                writeVarint(out, zigzag(latitude - previousLatitude));
+                writeVarint(out, zigzag(longitude - previousLongitude));
+                previousLatitude = latitude;
+                previousLongitude = longitude;
+            } else {
+                writeFixed64(out, Double.doubleToLongBits(poi.getLatitude()));
+                writeFixed64(out, Double.doubleToLongBits(poi.getLongitude()));
+            }
+
+            writeVarint(out, zigzag(poi.getRadius()));
+            writeVarint(out, zigzag(poi.getWeight()));
+            writeReference(out, poi.getLibrary(), dictionaryIndex);
+
+            if (poi.getMetadata() != null) {
+                writeVarint(out, poi.getMetadata().size());
+
+                for (final Map.Entry<String, String> entry : poi.getMetadata().entrySet()) {
+                    writeReference(out, entry.getKey(), dictionaryIndex);
+                    writeReference(out, entry.getValue(), dictionaryIndex);
+                }
+            }
+        }
+
+        return toBase64(out.toByteArray());
+    }
+
+    /**
+     * Decodes the POIs of the provided snapshot.
+     *
+     * @param snapshot the Base64 string returned by {@link #encode(Collection)}
+     * @return the decoded {@link PlacesPOI}s mapped by their identifier, in snapshot order
+     * @throws IOException if the snapshot is malformed or of an unsupported version
+     */
+    static LinkedHashMap<String, PlacesPOI> decode(final String snapshot) throws IOException {
+        final Input in = new Input(fromBase64(snapshot));
+
+        if (in.readByte() != MAGIC) {
+            throw new IOException("Not a POI snapshot");
+        }
+
+        final int version = in.readByte();
+
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported POI snapshot version " + version);
+        }
+
+        final String[] dictionary = new String[in.readCount()];
+
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.readString();
+        }
+
+        final int poiCount = in.readCount();
+        final LinkedHashMap<String, PlacesPOI> pois = new LinkedHashMap<>();
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+
+        for (int i = 0; i < poiCount; i++) {
+            final int flags = in.readByte();
+            final String identifier = in.readString();
+            final String name = (flags & FLAG_HAS_NAME) != 0 ? in.readString() : null;
+            final double latitude;
+            final double longitude;
+
+            if ((flags & FLAG_PACKED_COORDINATES) != 0) {
+                previousLatitude += unzigzag(in.readVarint());
+                previousLongitude += unzigzag(in.readVarint());
+                latitude = previousLatitude / COORDINATE_SCALE;
+                longitude = previousLongitude / COORDINATE_SCALE;
+            } else {
+                latitude = Double.longBitsToDouble(in.readFixed64());
+                longitude = Double.longBitsToDouble(in.readFixed64());
+            }
+
+            final int radius = (int) unzigzag(in.readVarint());
+            final int weight = (int) unzigzag(in.readVarint());
+            final String library = in.readReference(dictionary);
+            Map<String, String> metadata = null;
+
+            if ((flags & FLAG_HAS_METADATA) != 0) {
+                final int entryCount = in.readCount();
+                metadata = new HashMap<>();
+
+                for (int j = 0; j < entryCount; j++) {
+                    metadata.put(in.readReference(dictionary), in.readReference(dictionary));
+                }
+            }
+
+            final PlacesPOI poi =
+                    new PlacesPOI(
+                            identifier,
+                            name,
+                            latitude,
+                            longitude,
+                            radius,
+                            library,
+                            weight,
+                            metadata);
+            poi.setUserIsWithin((flags & FLAG_USER_IS_WITHIN) != 0);
+            pois.put(identifier, poi);
+        }
+
+        return pois;
+    }
+
+    private static void intern(
+            final String value,
+            final Map<String, Integer> dictionaryIndex,
+            final List<String> dictionary) {
+        if (value != null && !dictionaryIndex.containsKey(value)) {
+            dictionaryIndex.put(value, dictionary.size());
+            dictionary.add(value);
+        }
+    }
+
+    private static long zigzag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(final ByteArrayOutputStream out, final long value) {
+        long remaining = value;
+
+        while ((remaining & ~0x7FL) != 0) {
+            out.write((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+
+        out.write((int) remaining);
+    }
+
+    private static void writeFixed64(final ByteArrayOutputStream out, final long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    private static void writeString(final ByteArrayOutputStream out, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    // dictionary references are offset by one, zero stands for null
+    private static void writeReference(
+            final ByteArrayOutputStream out,
+            final String value,
+            final Map<String, Integer> dictionaryIndex) {
+        writeVarint(out, value == null ? 0 : dictionaryIndex.get(value) + 1);
+    }
+
+    private static String toBase64(final byte[] bytes) {
+        final StringBuilder builder = new StringBuilder((bytes.length + 2) / 3 * 4);
+
+        for (int i = 0; i < bytes.length; i += 3) {
+            final int remaining = bytes.length - i;
+            final int chunk =
+                    (bytes[i] & 0xFF) << 16
+                            | (remaining > 1 ? (bytes[i + 1] & 0xFF) << 8 : 0)
+                            | (remaining > 2 ? bytes[i + 2] & 0xFF : 0);
+            builder.append(BASE64_ALPHABET[chunk >> 18 & 0x3F]);
+            builder.append(BASE64_ALPHABET[chunk >> 12 & 0x3F]);
+            builder.append(remaining > 1 ? BASE64_ALPHABET[chunk >> 6 & 0x3F] : '=');
+            builder.append(remaining > 2 ? BASE64_ALPHABET[chunk & 0x3F] : '=');
+        }
+
+        return builder.toString();
+    }
+
+    private static byte[] fromBase64(final String value) throws IOException {
+        final int length = value.length();
+
+        if (length % 4 != 0) {
+            throw new IOException("Invalid Base64 length");
+        }
+
+        int padding = 0;
+
+        while (padding < 2 && padding < length && value.charAt(length - 1 - padding) == '=') {
+            padding++;
+        }
+
+        final byte[] bytes = new byte[length / 4 * 3 - padding];
+        int position = 0;
+
+        for (int i = 0; i < length; i += 4) {
+            int chunk = 0;
+
+            for (int j = 0; j < 4; j++) {
+                final char c = value.charAt(i + j);
+                chunk <<= 6;
+
+                if (c != '=') {
+                    chunk |= base64Value(c);
+                }
+            }
+
+            for (int shift = 16; shift >= 0 && position < bytes.length; shift -= 8) {
+                bytes[position++] = (byte) (chunk >> shift);
+            }
+        }
+
+        return bytes;
+    }
+
+    private static int base64Value(final char c) throws IOException {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        } else if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 26;
+        } else if (c >= '0' && c <= '9') {
+            return c - '0' + 52;
+        } else if (c == '+') {
+            return 62;
+        } else if (c == '/') {
+            return 63;
+        }
+
+        throw new IOException("Invalid Base64 character " + c);
+    }
+
+    /** Bounds checked reader over the snapshot bytes. */
+    private static final class Input {
+
+        private final byte[] bytes;
+        private int position;
+
+        Input(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readByte() throws IOException {
+            if (position >= bytes.length) {
+                throw new IOException("Truncated POI snapshot");
+            }
+
+            return bytes[position++] & 0xFF;
+        }
+
+        long readVarint() throws IOException {
+            long value = 0;
+
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+
+            throw new IOException("Malformed varint in POI snapshot");
+        }
+
+        // a count can never exceed the remaining bytes, which guards the allocations
+        int readCount() throws IOException {
+            final long count = readVarint();
+
+            if (count > bytes.length - position) {
+                throw new IOException("Invalid count in POI snapshot");
+            }
+
+            return (int) count;
+        }
+
+        long readFixed64() throws IOException {
+            long value = 0;
+
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | readByte();
+            }
+
+            return value;
+        }
+
+        String readString() throws IOException {
+            final int length = readCount();
+            final String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        String readReference(final String[] dictionary) throws IOException {
+            final long reference = readVarint();
+
+            if (reference == 0) {
+                return null;
+            }
+
+            if (reference > dictionary.length) {
+                throw new IOException("Invalid dictionary reference in POI snapshot");
+            }
+
+            return dictionary[(int) reference - 1];
+        }
+    }
+}
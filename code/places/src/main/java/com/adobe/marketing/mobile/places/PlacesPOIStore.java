@@ -0,0 +1,159 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.places;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Columnar storage for the geometry of the cached {@link PlacesPOI} objects.
+ *
+ * <p>Each POI occupies a slot, and its coordinates, the cosine of its latitude and its radius are
+ * kept in primitive arrays indexed by that slot. Distance and containment checks therefore run
+ * over contiguous primitive data without dereferencing, boxing or allocating per POI, and the
+ * {@code PlacesPOI} itself is only looked up once a slot is part of a result.
+ *
+ * <p>Removed slots are only marked as free and are reclaimed by {@link #clear()}.
+ */
+final class PlacesPOIStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private PlacesPOI[] pois = new PlacesPOI[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private double[] cosLatitudes = new double[INITIAL_CAPACITY];
+    private int[] radii = new int[INITIAL_CAPACITY];
+    private final BitSet removedSlots = new BitSet();
+    private int slotCount;
+    private int maxRadius;
+
+    /**
+     * Stores the provided {@link PlacesPOI} in a new slot.
+     *
+     * @param poi the {@code PlacesPOI} to be stored
+     * @return the slot of the stored POI
+     */
+    int add(final PlacesPOI poi) {
+        if (slotCount == pois.length) {
+            final int capacity = slotCount * 2;
+            pois = Arrays.copyOf(pois, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            cosLatitudes = Arrays.copyOf(cosLatitudes, capacity);
+            radii = Arrays.copyOf(radii, capacity);
+        }
+
+        final int slot = slotCount++;
+        pois[slot] = poi;
+        latitudes[slot] = poi.getLatitude();
+        longitudes[slot] = poi.getLongitude();
+        cosLatitudes[slot] = Math.cos(Math.toRadians(poi.getLatitude()));
+        radii[slot] = poi.getRadius();
+        maxRadius = Math.max(maxRadius, poi.getRadius());
+        return slot;
+    }
+
+    /**
+     * Frees the provided slot.
+     *
+     * @param slot the slot to be freed
+     */
+    void remove(final int slot) {
+        if (slot < 0 || slot >= slotCount) {
+            return;
+        }
+
+        pois[slot] = null;
+        removedSlots.set(slot);
+    }
+
+    /** Frees all the slots. */
+    void clear() {
+        Arrays.fill(pois, 0, slotCount, null);
+        removedSlots.clear();
+        slotCount = 0;
+        maxRadius = 0;
+    }
+
+    /**
+     * Returns the number of stored POIs.
+     *
+     * @return the count of slots in use
+     */
+    int size() {
+        return slotCount - removedSlots.cardinality();
+    }
+
+    /**
+     * Returns the {@link PlacesPOI} stored in the provided slot.
+     *
+     * @param slot the slot of the POI
+     * @return the stored {@code PlacesPOI}, or null if the slot is free
+     */
+    PlacesPOI get(final int slot) {
+        return slot >= 0 && slot < slotCount ? pois[slot] : null;
+    }
+
+    /**
+     * Returns an upper bound of the radius of the stored POIs.
+     *
+     * @return the largest radius in meters stored since the last {@link #clear()}
+     */
+    int getMaxRadius() {
+        return maxRadius;
+    }
+
+    double getLatitude(final int slot) {
+        return latitudes[slot];
+    }
+
+    double getLongitude(final int slot) {
+        return longitudes[slot];
+    }
+
+    /**
+     * Calculates the distance between the provided location and the center of the POI in the
+     * given slot.
+     *
+     * <p>This yields exactly the same result as {@link PlacesUtil#distanceInMeters(double, double,
+     * double, double)} from the provided location to the POI, with the cosine of the POI latitude
+     * looked up instead of computed.
+     *
+     * @param slot the slot of the POI
+     * @param latitude the latitude of the location
+     * @param longitude the longitude of the location
+     * @param cosLatitude the cosine of {@code latitude} in radians
+     * @return the distance in meters
+     */
+    double distanceInMeters(
+            final int slot,
+            final double latitude,
+            final double longitude,
+            final double cosLatitude) {
+        final double latDelta = Math.toRadians(latitudes[slot] - latitude);
+        final double lonDelta = Math.toRadians(longitudes[slot] - longitude);
+        final double sinLat = Math.sin(latDelta / 2);
+        final double sinLon = Math.sin(lonDelta / 2);
+        final double a = sinLat * sinLat + cosLatitude * cosLatitudes[slot] * sinLon * sinLon;
+        return 2 * PlacesUtil.EARTH_RADIUS_METERS * Math.asin(Math.min(1d, Math.sqrt(a)));
+    }
+
+    /**
+     * Returns the radius of the POI in the given slot.
+     *
+     * @param slot the slot of the POI
+     * @return the radius in meters
+     */
+    int getRadius(final int slot) {
+        return radii[slot];
+    }
+}
@@ -0,0 +1,299 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue for the POI snapshot persisted by {@link PlacesState}.
+ *
+ * <p>Writes are staged until {@link #commit()} is called, so that a flush only ever sees complete
+ * batches. Committed batches are coalesced per datastore key and flushed together once the flush
+ * delay following the first commit has elapsed, so that a burst of region events results in a
+ * single write of each key. With a flush delay of zero every commit is flushed on the calling
+ * thread.
+ *
+ * <p>Every flush is stamped with a snapshot version: {@link
+ * PlacesConstants.DataStoreKeys#POI_SNAPSHOT_PENDING_VERSION} is written before the batch and
+ * {@link PlacesConstants.DataStoreKeys#POI_SNAPSHOT_VERSION} after it, so an interrupted flush can
+ * be detected on the next launch. Within a batch the writes are ordered so that the persisted
+ * current POI and user-within POI ids never refer to POIs missing from the persisted POI snapshot.
+ */
+class PlacesPersister {
+
+    private static final String CLASS_NAME = "PlacesPersister";
+
+    // marks a key to be removed from the datastore
+    private static final Object REMOVED = new Object();
+
+    // keys referring to the POIs of the POI snapshot
+    private static final String[] SNAPSHOT_REFERENCE_KEYS = {
+        PlacesConstants.DataStoreKeys.USER_WITHIN_POI_IDS, PlacesConstants.DataStoreKeys.CURRENT_POI
+    };
+
+    // keys written after the POI snapshot, in order
+    private static final String[] FLUSH_ORDER = {
+        PlacesConstants.DataStoreKeys.USER_WITHIN_POI_IDS,
+        PlacesConstants.DataStoreKeys.CURRENT_POI,
+        PlacesConstants.DataStoreKeys.LAST_ENTERED_POI,
+        PlacesConstants.DataStoreKeys.LAST_EXITED_POI,
+        PlacesConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL
+    };
+
+    private final NamedCollection dataStore;
+    private final long flushDelayMillis;
+    private final ScheduledExecutorService executor;
+    private final Object flushLock = new Object();
+    private final PlacesMetrics metrics;
+
+    // writes of the batch being built, only accessed from the thread building it
+    private final Map<String, Object> stagedWrites = new HashMap<>();
+    private Map<String, Object> pendingWrites = new HashMap<>();
+    private boolean flushScheduled;
+    private long snapshotVersion;
+
+    /**
+     * Constructor.
+     *
+     * @param dataStore the {@link NamedCollection} the POI snapshot is written to
+     * @param flushDelayMillis delay in milliseconds before pending writes are flushed, zero or less
+     *     writes through
+     */
+    PlacesPersister(final NamedCollection dataStore, final long flushDelayMillis) {
+        this(
+                dataStore,
+                flushDelayMillis,
+                createFlushExecutor(flushDelayMillis),
+                new PlacesMetrics());
+    }
+
+    PlacesPersister(
+            final NamedCollection dataStore,
+            final long flushDelayMillis,
+            final ScheduledExecutorService executor) {
+        this(dataStore, flushDelayMillis, executor, new PlacesMetrics());
+    }
+
+    PlacesPersister(
+            final NamedCollection dataStore,
+            final long flushDelayMillis,
+            final ScheduledExecutorService executor,
+            final PlacesMetrics metrics) {
+        this.dataStore = dataStore;
+        this.flushDelayMillis = executor != null ? flushDelayMillis : 0;
+        this.executor = executor;
+        this.metrics = metrics;
+        snapshotVersion = dataStore.getLong(PlacesConstants.DataStoreKeys.POI_SNAPSHOT_VERSION, 0);
+    }
+
+    /**
+     * Creates the executor of the delayed flushes.
+     *
+     * @param flushDelayMillis delay in milliseconds before pending writes are flushed
+     * @return a single daemon thread {@link ScheduledExecutorService}, or null if the writes are
+     *     not delayed
+     */
+    static ScheduledExecutorService createFlushExecutor(final long flushDelayMillis) {
+        if (flushDelayMillis <= 0) {
+            return null;
+        }
+
+        return Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    final Thread thread = new Thread(runnable, CLASS_NAME);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    void setString(final String key, final String value) {
+        stagedWrites.put(key, value);
+    }
+
+    void setLong(final String key, final long value) {
+        stagedWrites.put(key, value);
+    }
+
+    void remove(final String key) {
+        stagedWrites.put(key, REMOVED);
+    }
+
+    /**
+     * Queues the staged writes as one batch, and flushes it right away when there is no flush
+     * delay.
+     */
+    void commit() {
+        synchronized (this) {
+            int coalescedWrites = 0;
+
+            for (final String key : stagedWrites.keySet()) {
+                if (pendingWrites.containsKey(key)) {
+                    coalescedWrites++;
+                }
+            }
+
+            if (coalescedWrites > 0) {
+                metrics.countSuppressedWrites(coalescedWrites);
+            }
+
+            pendingWrites.putAll(stagedWrites);
+            stagedWrites.clear();
+
+            if (flushDelayMillis > 0) {
+                if (flushScheduled) {
+                    return;
+                }
+
+                try {
+                    executor.schedule(this::flush, flushDelayMillis, TimeUnit.MILLISECONDS);
+                    flushScheduled = true;
+                    return;
+                } catch (final RejectedExecutionException exception) {
+                    Log.debug(
+                            PlacesConstants.LOG_TAG,
+                            CLASS_NAME,
+                            "Unable to schedule a flush, writing through : %s",
+                            exception);
+                }
+            }
+        }
+
+        flush();
+    }
+
+    /**
+     * Returns whether the last flush of a previous session was interrupted before completing.
+     *
+     * @param dataStore the {@link NamedCollection} holding the POI snapshot
+     * @return true if the pending snapshot version was never committed
+     */
+    static boolean wasFlushInterrupted(final NamedCollection dataStore) {
+        return dataStore.getLong(PlacesConstants.DataStoreKeys.POI_SNAPSHOT_PENDING_VERSION, 0)
+                != dataStore.getLong(PlacesConstants.DataStoreKeys.POI_SNAPSHOT_VERSION, 0);
+    }
+
+    /** Writes all the committed batches to the datastore. */
+    void flush() {
+        synchronized (flushLock) {
+            final Map<String, Object> writes;
+
+            synchronized (this) {
+                writes = pendingWrites;
+                pendingWrites = new HashMap<>();
+                flushScheduled = false;
+            }
+
+            if (writes.isEmpty()) {
+                return;
+            }
+
+            final PlacesTracer tracer = PlacesTracing.getTracer();
+            final long cookie = tracer.beginStage(PlacesTracer.STAGE_FLUSH);
+
+            try {
+                writeBatch(writes);
+            } finally {
+                tracer.endStage(PlacesTracer.STAGE_FLUSH, cookie);
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of pending writes to the datastore, bumping the snapshot version.
+     *
+     * @param writes the pending writes, which are consumed
+     */
+    private void writeBatch(final Map<String, Object> writes) {
+        final long flushStart = System.nanoTime();
+        final int writeCount = writes.size();
+        final long characterCount = countCharacters(writes);
+        final long version = snapshotVersion + 1;
+        dataStore.setLong(PlacesConstants.DataStoreKeys.POI_SNAPSHOT_PENDING_VERSION, version);
+
+        // when the snapshot is replaced, first drop the references that are about to change
+        // so that they never point to POIs that are no longer persisted
+        if (writes.containsKey(PlacesConstants.DataStoreKeys.POI_SNAPSHOT)) {
+            for (final String key : SNAPSHOT_REFERENCE_KEYS) {
+                if (writes.containsKey(key)) {
+                    dataStore.remove(key);
+
+                    if (writes.get(key) == REMOVED) {
+                        writes.remove(key);
+                    }
+                }
+            }
+
+            write(
+                    PlacesConstants.DataStoreKeys.POI_SNAPSHOT,
+                    writes.remove(PlacesConstants.DataStoreKeys.POI_SNAPSHOT));
+        }
+
+        for (final String key : FLUSH_ORDER) {
+            if (writes.containsKey(key)) {
+                write(key, writes.remove(key));
+            }
+        }
+
+        // any other keys have no ordering constraints
+        for (final Map.Entry<String, Object> entry : writes.entrySet()) {
+            write(entry.getKey(), entry.getValue());
+        }
+
+        dataStore.setLong(PlacesConstants.DataStoreKeys.POI_SNAPSHOT_VERSION, version);
+        snapshotVersion = version;
+        metrics.recordPersist(System.nanoTime() - flushStart, characterCount);
+        Log.trace(
+                PlacesConstants.LOG_TAG,
+                CLASS_NAME,
+                "Flushed %d pending writes, snapshot version %d",
+                writeCount,
+                version);
+    }
+
+    /** Flushes the committed batches and stops the background flushes. */
+    void shutdown() {
+        flush();
+
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static long countCharacters(final Map<String, Object> writes) {
+        long characterCount = 0;
+
+        for (final Object value : writes.values()) {
+            if (value instanceof String) {
+                characterCount += ((String) value).length();
+            }
+        }
+
+        return characterCount;
+    }
+
+    private void write(final String key, final Object value) {
+        if (value == REMOVED) {
+            dataStore.remove(key);
+        } else if (value instanceof Long) {
+            dataStore.setLong(key, (Long) value);
+        } else {
+            dataStore.setString(key, (String) value);
+        }
+    }
+}
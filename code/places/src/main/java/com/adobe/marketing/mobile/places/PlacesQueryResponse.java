@@ -22,6 +22,19 @@ final class PlacesQueryResponse {
     List<PlacesPOI> nearByPOIs;
     PlacesRequestError resultStatus;
 
+    // parameters of the query that produced this response
+    double queryLatitude = PlacesConstants.INVALID_LAT_LON;
+    double queryLongitude = PlacesConstants.INVALID_LAT_LON;
+    int queryCount;
+    String queryLibraries;
+    boolean isFromCache;
+    // merged from the cached geohash tiles covering the queried location
+    boolean isTiled;
+    // hash of the response body, and whether it is identical to the last processed one, in which
+    // case the POIs are not parsed
+    String bodyHash;
+    boolean isUnchanged;
+
     void fetchFailed(final String message, final PlacesRequestError placesStatus) {
         this.errorMessage = message;
         this.isSuccess = false;
@@ -11,21 +11,31 @@
 
 package com.adobe.marketing.mobile.places;
 
+import com.adobe.marketing.mobile.services.HttpConnecting;
 import com.adobe.marketing.mobile.services.HttpMethod;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.NetworkRequest;
 import com.adobe.marketing.mobile.services.Networking;
 import com.adobe.marketing.mobile.util.DataReader;
-import com.adobe.marketing.mobile.util.StreamUtils;
-import com.adobe.marketing.mobile.util.StringUtils;
 import com.adobe.marketing.mobile.util.URLBuilder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import org.json.JSONArray;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import org.json.JSONException;
-import org.json.JSONObject;
 
 class PlacesQueryService {
 
@@ -44,10 +54,54 @@ class PlacesQueryService {
     private static final int POI_INDEX_LIBRARY = 5;
     private static final int POI_INDEX_WEIGHT = 6;
 
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String BODY_HASH_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
     private final Networking networking;
+    private final PlacesMetrics metrics;
+    private final PlacesCircuitBreaker circuitBreaker = new PlacesCircuitBreaker();
+
+    // schedules the retries of the failed places queries, created on first retry
+    private ScheduledExecutorService retryExecutor;
+
+    // validators of the last successful response, guarded by this
+    private String lastQueryURL;
+    private String lastEntityTag;
+    private String lastBodyHash;
 
     PlacesQueryService(final Networking networking) {
+        this(networking, new PlacesMetrics());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param networking the {@link Networking} service the places queries are made with
+     * @param metrics the {@link PlacesMetrics} the network latency and parse time are recorded in
+     */
+    PlacesQueryService(final Networking networking, final PlacesMetrics metrics) {
+        this(networking, metrics, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param networking the {@link Networking} service the places queries are made with
+     * @param metrics the {@link PlacesMetrics} the network latency and parse time are recorded in
+     * @param retryExecutor the {@link ScheduledExecutorService} the retries of the failed places
+     *     queries are scheduled on, or null to create one on first retry
+     */
+    PlacesQueryService(
+            final Networking networking,
+            final PlacesMetrics metrics,
+            final ScheduledExecutorService retryExecutor) {
         this.networking = networking;
+        this.metrics = metrics;
+        this.retryExecutor = retryExecutor;
     }
 
     /**
@@ -61,6 +115,29 @@ class PlacesQueryService {
             final Map<String, Object> eventData,
             final PlacesConfiguration placesConfig,
             final PlacesQueryResponseCallback responseCallback) {
+        getNearbyPlaces(eventData, placesConfig, null, responseCallback);
+    }
+
+    /**
+     * Gets the nearby places, short-circuiting the response when it is identical to the one
+     * already processed.
+     *
+     * <p>When the provided body hash is the one of the last successful response to the same query,
+     * the request is made conditional with the {@code ETag} of that response. A {@code 304 Not
+     * Modified} response, or a response whose body hashes to the provided body hash, is not parsed
+     * and is reported as a successful response with {@link PlacesQueryResponse#isUnchanged} set.
+     *
+     * @param eventData the {@link Map} containing the parameters to get nearby places.
+     * @param placesConfig an instance of valid {@link PlacesConfiguration}
+     * @param processedBodyHash the {@link PlacesQueryResponse#bodyHash} of the last response
+     *     processed, or null to always parse the response
+     * @param responseCallback the {@link PlacesQueryResponseCallback} called with the response
+     */
+    void getNearbyPlaces(
+            final Map<String, Object> eventData,
+            final PlacesConfiguration placesConfig,
+            final String processedBodyHash,
+            final PlacesQueryResponseCallback responseCallback) {
         final PlacesQueryResponse placesResponse = new PlacesQueryResponse();
 
         if (networking == null) {
@@ -84,78 +161,431 @@ class PlacesQueryService {
         // add the library query parameter
         queryURL = queryURL + placesConfig.getLibrariesQueryString();
 
+        // remember the query parameters so that the response can later serve cached queries
+        placesResponse.queryLatitude =
+                DataReader.optDouble(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.LATITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        placesResponse.queryLongitude =
+                DataReader.optDouble(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.LONGITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        placesResponse.queryCount =
+                DataReader.optInt(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.PLACES_COUNT,
+                        PlacesConstants.DEFAULT_NEARBYPOI_COUNT);
+        placesResponse.queryLibraries = placesConfig.getLibrariesQueryString();
+
+        // the response of the same query is validated with its etag, as long as the caller still
+        // holds it
+        final String entityTag = getEntityTag(queryURL, processedBodyHash);
+        Map<String, String> headers = null;
+
+        if (entityTag != null) {
+            headers = new HashMap<>();
+            headers.put(HEADER_IF_NONE_MATCH, entityTag);
+        }
+
+        // fail fast while the places service keeps failing
+        if (placesConfig.getCircuitBreakerThreshold() > 0
+                && !circuitBreaker.allowRequest(
+                        System.currentTimeMillis(),
+                        placesConfig.getCircuitBreakerDuration() * 1000)) {
+            placesResponse.fetchFailed(
+                    "Unable to get nearby places, too many recent places queries failed",
+                    PlacesRequestError.CONNECTIVITY_ERROR);
+            responseCallback.call(placesResponse);
+            return;
+        }
+
         Log.debug(PlacesConstants.LOG_TAG, CLASS_NAME, "Getting nearby places:  %s", queryURL);
-        final NetworkRequest request =
-                new NetworkRequest(
+        new Query(
                         queryURL,
-                        HttpMethod.GET,
-                        null,
-                        null,
-                        PlacesConstants.DEFAULT_NETWORK_TIMEOUT,
-                        PlacesConstants.DEFAULT_NETWORK_TIMEOUT);
-        networking.connectAsync(
-                request,
-                connection -> {
-                    if (connection == null) {
-                        placesResponse.fetchFailed(
-                                "Unable to get nearby places, connection is null",
-                                PlacesRequestError.CONNECTIVITY_ERROR);
-                        responseCallback.call(placesResponse);
-                        return;
-                    }
-
-                    if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
-                        connection.close();
-                        final String message =
-                                String.format(
-                                        "Unable to get nearby places, connection failed with status"
-                                                + " %s, message %s",
-                                        connection.getResponseCode(),
-                                        connection.getResponseMessage());
-                        placesResponse.fetchFailed(message, PlacesRequestError.CONNECTIVITY_ERROR);
-                        responseCallback.call(placesResponse);
-                        return;
-                    }
-
-                    try {
-                        final String serverResponse =
-                                StreamUtils.readAsString(connection.getInputStream());
-
-                        if (StringUtils.isNullOrEmpty(serverResponse)) {
-                            placesResponse.fetchFailed(
-                                    "Unable to get nearby places, server response is empty",
-                                    PlacesRequestError.SERVER_RESPONSE_ERROR);
-                            responseCallback.call(placesResponse);
-                            return;
-                        }
-
-                        Log.debug(
-                                PlacesConstants.LOG_TAG,
-                                CLASS_NAME,
-                                "Received Places Query Response : %s",
-                                serverResponse);
-                        final JSONObject responseJson = new JSONObject(serverResponse);
-
-                        final JSONObject placesJson =
-                                responseJson.getJSONObject(
-                                        PlacesConstants.QueryResponseJsonKeys.PLACES);
-                        placesResponse.nearByPOIs = getNearbyPOIs(placesJson);
-                        placesResponse.containsUserPOIs = getContainsUserPOIs(placesJson);
-                        placesResponse.isSuccess = true;
-                        placesResponse.resultStatus = PlacesRequestError.OK;
-                        responseCallback.call(placesResponse);
-                    } catch (final Exception exception) {
-                        final String message =
-                                String.format(
-                                        "Unable to get nearby places, Failed with exception: %s",
-                                        exception);
-                        placesResponse.fetchFailed(
-                                message, PlacesRequestError.SERVER_RESPONSE_ERROR);
-                        responseCallback.call(placesResponse);
-                    } finally {
-                        connection.close();
-                    }
-                });
+                        headers,
+                        entityTag,
+                        processedBodyHash,
+                        placesConfig.getNetworkRetries(),
+                        placesConfig.getCircuitBreakerThreshold(),
+                        placesResponse,
+                        responseCallback)
+                .connect();
+    }
+
+    /**
+     * Returns the connect and read timeouts of a places query attempt.
+     *
+     * <p>Once enough places queries completed, the timeout is a multiple of the observed network
+     * latency percentile rather than {@link PlacesConstants#DEFAULT_NETWORK_TIMEOUT}, so that the
+     * queries neither stall on fast networks nor time out too early on slow ones. The timeout
+     * doubles with each retry, as the latency of the failed attempts is not observed.
+     *
+     * @param retry the number of the retry, 0 for the first attempt
+     * @return the timeout in seconds, between {@link PlacesConstants#MIN_NETWORK_TIMEOUT} and
+     *     {@link PlacesConstants#MAX_NETWORK_TIMEOUT}
+     */
+    int getNetworkTimeout(final int retry) {
+        final PlacesMetrics.Histogram latency = metrics.getNetworkLatency();
+        double timeout = PlacesConstants.DEFAULT_NETWORK_TIMEOUT;
+
+        if (latency.getCount() >= PlacesConstants.ADAPTIVE_TIMEOUT_MIN_SAMPLES) {
+            timeout =
+                    Math.ceil(
+                            latency.getPercentileMillis(PlacesConstants.ADAPTIVE_TIMEOUT_PERCENTILE)
+                                    * PlacesConstants.ADAPTIVE_TIMEOUT_MULTIPLIER
+                                    / 1000);
+        }
+
+        timeout = Math.max(timeout, PlacesConstants.MIN_NETWORK_TIMEOUT) * Math.pow(2, retry);
+        return (int) Math.min(timeout, PlacesConstants.MAX_NETWORK_TIMEOUT);
+    }
+
+    /**
+     * Returns the delay before a retry of a places query, growing exponentially with the retries
+     * up to {@link PlacesConstants#NETWORK_RETRY_MAX_DELAY_MS}. Half of the delay is jittered so
+     * that the clients failing together do not retry together.
+     *
+     * @param retry the number of the retry, starting at 1
+     * @param jitter a random value between 0 and 1
+     * @return the delay in milliseconds
+     */
+    static long getRetryDelayMillis(final int retry, final double jitter) {
+        long delay = PlacesConstants.NETWORK_RETRY_BASE_DELAY_MS;
+
+        for (int i = 1; i < retry && delay < PlacesConstants.NETWORK_RETRY_MAX_DELAY_MS; i++) {
+            delay *= 2;
+        }
+
+        delay = Math.min(delay, PlacesConstants.NETWORK_RETRY_MAX_DELAY_MS);
+        return delay / 2 + (long) (delay / 2 * jitter);
+    }
+
+    /**
+     * Returns the longest total backoff delay of a places query retried the provided number of
+     * times.
+     *
+     * @param retries the number of retries
+     * @return the sum of the longest retry delays in milliseconds
+     */
+    static long getMaxRetryDelaysMillis(final int retries) {
+        long delays = 0;
+
+        for (int retry = 1; retry <= retries; retry++) {
+            delays += getRetryDelayMillis(retry, 1);
+        }
+
+        return delays;
+    }
+
+    PlacesCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    private synchronized ScheduledExecutorService getRetryExecutor() {
+        if (retryExecutor == null) {
+            retryExecutor =
+                    Executors.newSingleThreadScheduledExecutor(
+                            runnable -> {
+                                final Thread thread = new Thread(runnable, CLASS_NAME);
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+        }
+
+        return retryExecutor;
+    }
+
+    private static boolean isRetryable(final int responseCode) {
+        return responseCode == HttpURLConnection.HTTP_CLIENT_TIMEOUT
+                || responseCode == HTTP_TOO_MANY_REQUESTS
+                || responseCode >= HttpURLConnection.HTTP_INTERNAL_ERROR;
+    }
+
+    /**
+     * A places query, retried with an exponential backoff when it fails transiently, with no
+     * connection or with a timeout, throttling or server error status.
+     */
+    private final class Query {
+
+        private final String queryURL;
+        private final Map<String, String> headers;
+        private final String entityTag;
+        private final String processedBodyHash;
+        private final int maxRetries;
+        private final int circuitBreakerThreshold;
+        private final PlacesQueryResponse placesResponse;
+        private final PlacesQueryResponseCallback responseCallback;
+        private int retry;
+
+        private Query(
+                final String queryURL,
+                final Map<String, String> headers,
+                final String entityTag,
+                final String processedBodyHash,
+                final int maxRetries,
+                final int circuitBreakerThreshold,
+                final PlacesQueryResponse placesResponse,
+                final PlacesQueryResponseCallback responseCallback) {
+            this.queryURL = queryURL;
+            this.headers = headers;
+            this.entityTag = entityTag;
+            this.processedBodyHash = processedBodyHash;
+            this.maxRetries = maxRetries;
+            this.circuitBreakerThreshold = circuitBreakerThreshold;
+            this.placesResponse = placesResponse;
+            this.responseCallback = responseCallback;
+        }
+
+        private void connect() {
+            final int timeout = getNetworkTimeout(retry);
+            final NetworkRequest request =
+                    new NetworkRequest(queryURL, HttpMethod.GET, null, headers, timeout, timeout);
+            final PlacesTracer tracer = PlacesTracing.getTracer();
+            final long networkCookie = tracer.beginStage(PlacesTracer.STAGE_NETWORK);
+            final long requestStart = System.nanoTime();
+            networking.connectAsync(
+                    request,
+                    connection -> {
+                        tracer.endStage(PlacesTracer.STAGE_NETWORK, networkCookie);
+                        handleConnection(connection, requestStart, tracer);
+                    });
+        }
+
+        private void handleConnection(
+                final HttpConnecting connection,
+                final long requestStart,
+                final PlacesTracer tracer) {
+            if (connection == null) {
+                retryOrFail("Unable to get nearby places, connection is null");
+                return;
+            }
+
+            metrics.recordNetworkLatency(System.nanoTime() - requestStart);
+
+            if (entityTag != null
+                    && connection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                connection.close();
+                circuitBreaker.recordSuccess();
+                Log.debug(
+                        PlacesConstants.LOG_TAG,
+                        CLASS_NAME,
+                        "Places Query Response is not modified");
+                placesResponse.bodyHash = processedBodyHash;
+                placesResponse.isUnchanged = true;
+                placesResponse.isSuccess = true;
+                placesResponse.resultStatus = PlacesRequestError.OK;
+                responseCallback.call(placesResponse);
+                return;
+            }
+
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                connection.close();
+                final String message =
+                        String.format(
+                                "Unable to get nearby places, connection failed with status"
+                                        + " %s, message %s",
+                                connection.getResponseCode(),
+                                connection.getResponseMessage());
+
+                if (isRetryable(connection.getResponseCode())) {
+                    retryOrFail(message);
+                    return;
+                }
+
+                // the places service is reachable, the request itself is rejected
+                circuitBreaker.recordSuccess();
+                placesResponse.fetchFailed(message, PlacesRequestError.CONNECTIVITY_ERROR);
+                responseCallback.call(placesResponse);
+                return;
+            }
+
+            circuitBreaker.recordSuccess();
+
+            try {
+                final long readCookie = tracer.beginStage(PlacesTracer.STAGE_READ_RESPONSE);
+                final long readStart = System.nanoTime();
+
+                try {
+                    readResponse(connection.getInputStream(), processedBodyHash, placesResponse);
+                } finally {
+                    tracer.endStage(PlacesTracer.STAGE_READ_RESPONSE, readCookie);
+                }
+
+                metrics.recordParseTime(System.nanoTime() - readStart);
+
+                if (placesResponse.isSuccess) {
+                    setValidators(
+                            queryURL,
+                            connection.getResponsePropertyValue(HEADER_ETAG),
+                            placesResponse.bodyHash);
+                }
+
+                responseCallback.call(placesResponse);
+            } catch (final Exception exception) {
+                final String message =
+                        String.format(
+                                "Unable to get nearby places, Failed with exception: %s",
+                                exception);
+                placesResponse.fetchFailed(message, PlacesRequestError.SERVER_RESPONSE_ERROR);
+                responseCallback.call(placesResponse);
+            } finally {
+                connection.close();
+            }
+        }
+
+        /**
+         * Schedules a retry of the query after the backoff delay, or fails the query if it ran out
+         * of retries.
+         *
+         * @param message the error message of the failed attempt
+         */
+        private void retryOrFail(final String message) {
+            if (retry < maxRetries) {
+                retry++;
+                final long delay =
+                        getRetryDelayMillis(retry, ThreadLocalRandom.current().nextDouble());
+                Log.debug(
+                        PlacesConstants.LOG_TAG,
+                        CLASS_NAME,
+                        "%s, retrying in %d ms (%d/%d)",
+                        message,
+                        delay,
+                        retry,
+                        maxRetries);
+
+                try {
+                    getRetryExecutor().schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (final RejectedExecutionException exception) {
+                    Log.warning(
+                            PlacesConstants.LOG_TAG,
+                            CLASS_NAME,
+                            "Unable to retry the places query : %s",
+                            exception);
+                }
+            }
+
+            circuitBreaker.recordFailure(System.currentTimeMillis(), circuitBreakerThreshold);
+            placesResponse.fetchFailed(message, PlacesRequestError.CONNECTIVITY_ERROR);
+            responseCallback.call(placesResponse);
+        }
+    }
+
+    /**
+     * Reads the body of a successful places query response into the provided response, along with
+     * its hash.
+     *
+     * <p>The body is hashed while it is streamed to the parser. When it hashes to the processed
+     * body hash, the response is reported as unchanged so the caller can skip processing it again.
+     *
+     * @param responseStream the {@link InputStream} of the response body, may be null
+     * @param processedBodyHash the hash of the body last processed by the caller, or null
+     * @param placesResponse the {@link PlacesQueryResponse} to be populated
+     * @throws IOException if reading the response fails
+     * @throws JSONException if the response is not a valid places query response
+     */
+    private void readResponse(
+            final InputStream responseStream,
+            final String processedBodyHash,
+            final PlacesQueryResponse placesResponse)
+            throws IOException, JSONException {
+        if (responseStream == null) {
+            placesResponse.fetchFailed(
+                    "Unable to get nearby places, server response is empty",
+                    PlacesRequestError.SERVER_RESPONSE_ERROR);
+            return;
+        }
+
+        final MessageDigest digest = createDigest();
+        final InputStream bodyStream =
+                digest != null ? new DigestInputStream(responseStream, digest) : responseStream;
+        final PlacesJsonReader jsonReader =
+                new PlacesJsonReader(new InputStreamReader(bodyStream, StandardCharsets.UTF_8));
+
+        if (jsonReader.peek() == PlacesJsonReader.Token.END_DOCUMENT) {
+            placesResponse.fetchFailed(
+                    "Unable to get nearby places, server response is empty",
+                    PlacesRequestError.SERVER_RESPONSE_ERROR);
+            return;
+        }
+
+        readQueryResponse(jsonReader, placesResponse);
+
+        if (digest != null) {
+            // hash the whole body, including what follows the parsed response
+            skipFully(bodyStream);
+            placesResponse.bodyHash = toHex(digest.digest());
+
+            if (placesResponse.bodyHash.equals(processedBodyHash)) {
+                Log.debug(
+                        PlacesConstants.LOG_TAG,
+                        CLASS_NAME,
+                        "Places Query Response is identical to the processed one");
+                placesResponse.isUnchanged = true;
+                placesResponse.isSuccess = true;
+                placesResponse.resultStatus = PlacesRequestError.OK;
+                return;
+            }
+        }
+
+        Log.debug(
+                PlacesConstants.LOG_TAG,
+                CLASS_NAME,
+                "Received Places Query Response with %d nearby POIs and %d user-within POIs",
+                placesResponse.nearByPOIs.size(),
+                placesResponse.containsUserPOIs.size());
+        placesResponse.isSuccess = true;
+        placesResponse.resultStatus = PlacesRequestError.OK;
+    }
+
+    private synchronized String getEntityTag(
+            final String queryURL, final String processedBodyHash) {
+        return processedBodyHash != null
+                        && processedBodyHash.equals(lastBodyHash)
+                        && queryURL.equals(lastQueryURL)
+                ? lastEntityTag
+                : null;
+    }
+
+    private synchronized void setValidators(
+            final String queryURL, final String entityTag, final String bodyHash) {
+        lastQueryURL = queryURL;
+        lastEntityTag = entityTag;
+        lastBodyHash = bodyHash;
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(BODY_HASH_ALGORITHM);
+        } catch (final NoSuchAlgorithmException exception) {
+            Log.debug(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "Unable to hash the places query response : %s",
+                    exception);
+            return null;
+        }
+    }
+
+    private static void skipFully(final InputStream inputStream) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+
+        while (inputStream.read(buffer) != -1) {
+            // read through the digest, the content is not needed
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder builder = new StringBuilder(bytes.length * 2);
+
+        for (final byte value : bytes) {
+            builder.append(Character.forDigit((value >> 4) & 0xf, 16));
+            builder.append(Character.forDigit(value & 0xf, 16));
+        }
+
+        return builder.toString();
     }
 
     /**
@@ -204,150 +634,304 @@ class PlacesQueryService {
                 .build();
     }
 
-    //	/**
-    //	 * TODO: Doc Me
-    //	 *
-    //	 */
-    private List<PlacesPOI> getContainsUserPOIs(final JSONObject placesJson) throws JSONException {
-        final List<PlacesPOI> containsUserPOIList = new ArrayList<>();
+    /**
+     * Reads the places query response body, building {@link PlacesPOI} instances as their JSON is
+     * streamed in.
+     *
+     * <p>The response is expected to be in the following format, where {@code p} holds the POI
+     * details {@code [id, name, latitude, longitude, radius, library, weight]} and {@code x} the
+     * optional POI metadata:
+     *
+     * <pre>
+     * {"places": {"userWithin": [{"p": [...], "x": {...}}], "pois": [{"p": [...], "x": {...}}]}}
+     * </pre>
+     *
+     * @param jsonReader the {@link PlacesJsonReader} positioned at the start of the response
+     * @param placesResponse the {@link PlacesQueryResponse} to be populated with the parsed POIs
+     * @throws IOException if reading the response fails
+     * @throws JSONException if the response is not valid JSON or has no {@code places} object
+     */
+    private void readQueryResponse(
+            final PlacesJsonReader jsonReader, final PlacesQueryResponse placesResponse)
+            throws IOException, JSONException {
+        if (jsonReader.peek() != PlacesJsonReader.Token.BEGIN_OBJECT) {
+            throw new JSONException("Places query response is not a JSON object");
+        }
+
+        boolean hasPlaces = false;
+        jsonReader.beginObject();
 
-        final JSONArray containsUserPOIArray =
-                placesJson.optJSONArray(PlacesConstants.QueryResponseJsonKeys.POI_MEMBERS);
+        while (jsonReader.hasNext()) {
+            final String name = jsonReader.nextName();
 
-        if (containsUserPOIArray == null || containsUserPOIArray.length() == 0) {
-            return containsUserPOIList;
+            if (PlacesConstants.QueryResponseJsonKeys.PLACES.equals(name)
+                    && jsonReader.peek() == PlacesJsonReader.Token.BEGIN_OBJECT) {
+                readPlaces(jsonReader, placesResponse);
+                hasPlaces = true;
+            } else {
+                jsonReader.skipValue();
+            }
         }
 
-        for (int i = 0; i < containsUserPOIArray.length(); i++) {
-            final JSONObject poiJson = containsUserPOIArray.getJSONObject(i);
-            final PlacesPOI poi = createPlacesPOIFromJson(poiJson);
+        jsonReader.endObject();
 
-            if (poi != null) {
-                poi.setUserIsWithin(true);
-                containsUserPOIList.add(poi);
+        if (!hasPlaces) {
+            throw new JSONException("No value for " + PlacesConstants.QueryResponseJsonKeys.PLACES);
+        }
+    }
+
+    private void readPlaces(
+            final PlacesJsonReader jsonReader, final PlacesQueryResponse placesResponse)
+            throws IOException, JSONException {
+        placesResponse.nearByPOIs = new ArrayList<>();
+        placesResponse.containsUserPOIs = new ArrayList<>();
+        jsonReader.beginObject();
+
+        while (jsonReader.hasNext()) {
+            final String name = jsonReader.nextName();
+
+            if (PlacesConstants.QueryResponseJsonKeys.POI.equals(name)) {
+                readPOIArray(jsonReader, placesResponse.nearByPOIs, false);
+            } else if (PlacesConstants.QueryResponseJsonKeys.POI_MEMBERS.equals(name)) {
+                readPOIArray(jsonReader, placesResponse.containsUserPOIs, true);
+            } else {
+                jsonReader.skipValue();
             }
         }
 
-        return containsUserPOIList;
+        jsonReader.endObject();
     }
 
-    //	/**
-    //	 * TODO: Doc Me
-    //	 */
-    private List<PlacesPOI> getNearbyPOIs(final JSONObject placesJson) throws JSONException {
-        final List<PlacesPOI> nearByPOIList = new ArrayList<>();
+    private void readPOIArray(
+            final PlacesJsonReader jsonReader,
+            final List<PlacesPOI> poiList,
+            final boolean userIsWithin)
+            throws IOException, JSONException {
+        // a missing or malformed poi array is treated as an empty one
+        if (jsonReader.peek() != PlacesJsonReader.Token.BEGIN_ARRAY) {
+            jsonReader.skipValue();
+            return;
+        }
 
-        final JSONArray nearByPOIArray =
-                placesJson.optJSONArray(PlacesConstants.QueryResponseJsonKeys.POI);
+        jsonReader.beginArray();
 
-        if (nearByPOIArray == null || nearByPOIArray.length() == 0) {
-            return nearByPOIList;
-        }
+        while (jsonReader.hasNext()) {
+            if (jsonReader.peek() != PlacesJsonReader.Token.BEGIN_OBJECT) {
+                throw new JSONException("POI entry is not a JSON object");
+            }
 
-        for (int i = 0; i < nearByPOIArray.length(); i++) {
-            final JSONObject poiJson = nearByPOIArray.getJSONObject(i);
-            final PlacesPOI poi = createPlacesPOIFromJson(poiJson);
+            final PlacesPOI poi = readPOI(jsonReader);
 
             if (poi != null) {
-                poi.setUserIsWithin(false);
-                nearByPOIList.add(poi);
+                poi.setUserIsWithin(userIsWithin);
+                poiList.add(poi);
             }
         }
 
-        return nearByPOIList;
+        jsonReader.endArray();
     }
 
-    //	/**
-    //	 * TODO: Doc Me
-    //	 * hint return null when
-    //	 * 1. identifier is invalid for the poiJson
-    //	 * 2. invalid latitude/ longitude in poiJson
-    //	 * 3. poiJson is not in the expected format.
-    //	 */
-    private PlacesPOI createPlacesPOIFromJson(final JSONObject poiJson) {
-        try {
-            final JSONArray poiDetails =
-                    poiJson.getJSONArray(PlacesConstants.QueryResponseJsonKeys.POI_DETAILS);
-
-            // bail out by returning null if array length for a poi is not equal to 8
-            if (poiDetails.length() != POI_DETAIL_MIN_ARRAY_LENGTH) {
-                Log.debug(
-                        PlacesConstants.LOG_TAG,
-                        CLASS_NAME,
-                        "poiJson does not have the expected format");
-                return null;
+    /**
+     * Reads a single POI object from the response.
+     *
+     * <p>Returns null when
+     *
+     * <ol>
+     *   <li>The POI details array is missing or does not have exactly 7 elements.
+     *   <li>The identifier is missing.
+     *   <li>The latitude or longitude is missing or invalid.
+     * </ol>
+     *
+     * @param jsonReader the {@link PlacesJsonReader} positioned at the start of the POI object
+     * @return the parsed {@link PlacesPOI}, or null if the POI is invalid
+     */
+    private PlacesPOI readPOI(final PlacesJsonReader jsonReader) throws IOException, JSONException {
+        List<String> poiDetails = null;
+        Map<String, String> metadata = null;
+
+        jsonReader.beginObject();
+
+        while (jsonReader.hasNext()) {
+            final String name = jsonReader.nextName();
+            final PlacesJsonReader.Token token = jsonReader.peek();
+
+            if (PlacesConstants.QueryResponseJsonKeys.POI_DETAILS.equals(name)
+                    && token == PlacesJsonReader.Token.BEGIN_ARRAY) {
+                poiDetails = readPOIDetails(jsonReader);
+            } else if (PlacesConstants.QueryResponseJsonKeys.POI_METADATA.equals(name)
+                    && token == PlacesJsonReader.Token.BEGIN_OBJECT) {
+                metadata = readPOIMetadata(jsonReader);
+            } else {
+                jsonReader.skipValue();
             }
+        }
 
-            // retrieve the respective data from the array
-            final String identifier = poiDetails.optString(POI_INDEX_IDENTIFIER, null);
+        jsonReader.endObject();
 
-            if (identifier == null) {
-                Log.debug(
-                        PlacesConstants.LOG_TAG, CLASS_NAME, "Ignoring a POI, invalid identifier");
-                return null;
-            }
+        if (poiDetails == null) {
+            Log.warning(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "Unable to create a PlacesPOI object, POI details are missing");
+            return null;
+        }
+
+        final PlacesPOI placesPOI = createPlacesPOI(poiDetails);
 
-            final String name = poiDetails.optString(POI_INDEX_NAME, "unnamed");
+        if (placesPOI != null && metadata != null) {
+            placesPOI.setMetadata(metadata);
+        }
 
-            double latitude;
-            double longitude;
+        return placesPOI;
+    }
 
-            try {
-                latitude =
-                        Double.parseDouble(
-                                poiDetails.optString(
-                                        POI_INDEX_LATITUDE,
-                                        String.valueOf(PlacesConstants.INVALID_LAT_LON)));
-                longitude =
-                        Double.parseDouble(
-                                poiDetails.optString(
-                                        POI_INDEX_LONGITUDE,
-                                        String.valueOf(PlacesConstants.INVALID_LAT_LON)));
-            } catch (final Exception exp) {
-                // catch the numberFormat and nullPointer Exception
+    /**
+     * Reads the POI details array, returning the string form of each primitive element and null
+     * for null, array or object elements.
+     */
+    private List<String> readPOIDetails(final PlacesJsonReader jsonReader)
+            throws IOException, JSONException {
+        final List<String> poiDetails = new ArrayList<>(POI_DETAIL_MIN_ARRAY_LENGTH);
+        jsonReader.beginArray();
+
+        while (jsonReader.hasNext()) {
+            poiDetails.add(readPrimitive(jsonReader));
+        }
+
+        jsonReader.endArray();
+        return poiDetails;
+    }
+
+    /**
+     * Reads the POI metadata object. Metadata should only contain values that are primitive
+     * datatype, hence array or object values are ignored.
+     */
+    private Map<String, String> readPOIMetadata(final PlacesJsonReader jsonReader)
+            throws IOException, JSONException {
+        final Map<String, String> metadata = new HashMap<>();
+        jsonReader.beginObject();
+
+        while (jsonReader.hasNext()) {
+            final String key = jsonReader.nextName();
+            final PlacesJsonReader.Token token = jsonReader.peek();
+
+            if (token == PlacesJsonReader.Token.BEGIN_OBJECT
+                    || token == PlacesJsonReader.Token.BEGIN_ARRAY) {
                 Log.warning(
                         PlacesConstants.LOG_TAG,
                         CLASS_NAME,
-                        "Ignoring POI with identifier %s, exception occurred while reading"
-                                + " latitude/ longitude",
-                        identifier);
-                return null;
+                        String.format(
+                                "Ignoring POI metadata with key: %s which contains invalid"
+                                        + " datatype.",
+                                key));
+                jsonReader.skipValue();
+            } else if (token == PlacesJsonReader.Token.NULL) {
+                jsonReader.nextNull();
+                metadata.put(key, "null");
+            } else {
+                metadata.put(key, jsonReader.nextString());
             }
+        }
 
-            if (!(PlacesUtil.isValidLat(latitude) && PlacesUtil.isValidLon(longitude))) {
-                Log.warning(
-                        PlacesConstants.LOG_TAG,
-                        CLASS_NAME,
-                        "Ignoring POI with identifier %s, invalid latitude/ longitude",
-                        identifier);
+        jsonReader.endObject();
+        return metadata;
+    }
+
+    private String readPrimitive(final PlacesJsonReader jsonReader)
+            throws IOException, JSONException {
+        switch (jsonReader.peek()) {
+            case STRING:
+            case NUMBER:
+            case BOOLEAN:
+                return jsonReader.nextString();
+            case NULL:
+                jsonReader.nextNull();
                 return null;
-            }
+            default:
+                jsonReader.skipValue();
+                return null;
+        }
+    }
 
-            final int radius = poiDetails.optInt(POI_INDEX_RADIUS, DEFAULT_POI_RADIUS);
-            final String library = poiDetails.optString(POI_INDEX_LIBRARY, "");
-            final int weight = poiDetails.optInt(POI_INDEX_WEIGHT, DEFAULT_POI_WEIGHT);
+    /**
+     * Creates a {@link PlacesPOI} from the POI details array.
+     *
+     * <p>Returns null when the array is not in the expected format or holds an invalid identifier,
+     * latitude or longitude. Radius and weight fall back to their defaults when invalid.
+     *
+     * @param poiDetails the string form of the POI details array elements
+     * @return the {@link PlacesPOI}, or null if the details are invalid
+     */
+    private PlacesPOI createPlacesPOI(final List<String> poiDetails) {
+        // bail out by returning null if array length for a poi is not equal to 7
+        if (poiDetails.size() != POI_DETAIL_MIN_ARRAY_LENGTH) {
+            Log.debug(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "POI details do not have the expected format");
+            return null;
+        }
 
-            final PlacesPOI placesPOI =
-                    new PlacesPOI(identifier, name, latitude, longitude, radius, library, weight);
+        // retrieve the respective data from the array
+        final String identifier = poiDetails.get(POI_INDEX_IDENTIFIER);
 
-            final JSONObject poiMetadata =
-                    poiJson.optJSONObject(PlacesConstants.QueryResponseJsonKeys.POI_METADATA);
+        if (identifier == null) {
+            Log.debug(PlacesConstants.LOG_TAG, CLASS_NAME, "Ignoring a POI, invalid identifier");
+            return null;
+        }
 
-            if (poiMetadata != null) {
-                final Map<String, String> metadata =
-                        PlacesUtil.convertPOIMetadataToStringMap(poiMetadata);
-                placesPOI.setMetadata(metadata);
-            }
+        final String name = optString(poiDetails, POI_INDEX_NAME, "unnamed");
+
+        double latitude;
+        double longitude;
+
+        try {
+            latitude = Double.parseDouble(poiDetails.get(POI_INDEX_LATITUDE));
+            longitude = Double.parseDouble(poiDetails.get(POI_INDEX_LONGITUDE));
+        } catch (final Exception exp) {
+            // catch the numberFormat and nullPointer Exception
+            Log.warning(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "Ignoring POI with identifier %s, exception occurred while reading"
+                            + " latitude/ longitude",
+                    identifier);
+            return null;
+        }
 
-            return placesPOI;
-        } catch (final JSONException exception) {
+        if (!(PlacesUtil.isValidLat(latitude) && PlacesUtil.isValidLon(longitude))) {
             Log.warning(
                     PlacesConstants.LOG_TAG,
                     CLASS_NAME,
-                    String.format(
-                            "Unable to create a PlacesPOI object with json %s. JSONException: %s",
-                            poiJson, exception.getLocalizedMessage()));
+                    "Ignoring POI with identifier %s, invalid latitude/ longitude",
+                    identifier);
             return null;
         }
+
+        final int radius = optInt(poiDetails, POI_INDEX_RADIUS, DEFAULT_POI_RADIUS);
+        final String library = optString(poiDetails, POI_INDEX_LIBRARY, "");
+        final int weight = optInt(poiDetails, POI_INDEX_WEIGHT, DEFAULT_POI_WEIGHT);
+
+        return new PlacesPOI(identifier, name, latitude, longitude, radius, library, weight);
+    }
+
+    private static String optString(
+            final List<String> poiDetails, final int index, final String fallback) {
+        final String value = poiDetails.get(index);
+        return value != null ? value : fallback;
+    }
+
+    private static int optInt(final List<String> poiDetails, final int index, final int fallback) {
+        final String value = poiDetails.get(index);
+
+        if (value == null) {
+            return fallback;
+        }
+
+        try {
+            return (int) Double.parseDouble(value);
+        } catch (final NumberFormatException exception) {
+            return fallback;
+        }
     }
 }
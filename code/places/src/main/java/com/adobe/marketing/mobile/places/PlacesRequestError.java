@@ -53,7 +53,13 @@ public enum PlacesRequestError {
     PRIVACY_OPTED_OUT(6),
 
     /** UNKNOWN_ERROR - for any other unknown error */
-    UNKNOWN_ERROR(6);
+    UNKNOWN_ERROR(6),
+
+    /**
+     * QUERY_THROTTLED - when the device has not moved far enough since the last nearby query, the
+     * nearbyPointsOfInterest are served from the cached POIs instead of the network
+     */
+    QUERY_THROTTLED(7);
 
     private final int value;
 
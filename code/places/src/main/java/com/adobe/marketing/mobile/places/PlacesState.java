@@ -22,7 +22,9 @@ import com.adobe.marketing.mobile.services.NamedCollection;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.StringUtils;
 import com.adobe.marketing.mobile.util.TimeUtils;
+import java.io.IOException;
 import java.util.*;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -41,16 +43,118 @@ class PlacesState {
     long membershipValidUntil;
     long membershipTtl;
 
+    // spatial index over the cachedPOIs, kept in sync whenever the cache is refreshed
+    private final PlacesPOIIndex poiIndex = new PlacesPOIIndex();
+    private Map<String, PlacesPOI> indexedPOIs;
+
+    // the cachedPOIs the user is within, kept in sync on every entry and exit
+    private final PlacesMembershipIndex membershipIndex = new PlacesMembershipIndex();
+    private Map<String, PlacesPOI> membershipIndexedPOIs;
+
+    // area covered by the last successful nearby query, used to serve queries from cache
+    double lastQueryLatitude = PlacesConstants.INVALID_LAT_LON;
+    double lastQueryLongitude = PlacesConstants.INVALID_LAT_LON;
+    double lastQueryRadius;
+    int lastQueryCount;
+    String lastQueryLibraries;
+    long lastQueryTimestamp;
+
+    // POIs of the geohash tiles fetched in tile mode, loaded on first use
+    private PlacesTileCache tileCache;
+
+    // body hash and POIs of the last network response processed, cleared as soon as the state no
+    // longer reflects that response
+    private String processedBodyHash;
+    private List<PlacesPOI> processedResponsePOIs;
+    private List<PlacesPOI> processedNearbyPOIs;
+
+    // changes made to the cachedPOIs by the last network response processed, and the identifiers
+    // of the cachedPOIs whose membership changed since then
+    private PlacesPOIDiff lastPOIDiff;
+    private final Set<String> modifiedPOIIds = new HashSet<>();
+
+    // bookkeeping of what is already persisted, so that region events only write what changed
+    private Map<String, PlacesPOI> persistedPOIs;
+    private boolean cachedPOIsChanged;
+    private final Set<String> userWithinPOIIds = new LinkedHashSet<>();
+    private boolean userWithinPOIIdsChanged;
+    private String persistedCurrentPOI;
+    private String persistedLastEnteredPOI;
+    private String persistedLastExitedPOI;
+
+    // last shared state handed out, its fields are only rebuilt when they change
+    private Map<String, Object> sharedState;
+    private List<Map<String, Object>> sharedStateNearbyPOIs;
+
+    // read by the synchronous Places APIs from any thread, replaced after every change
+    private volatile PlacesStateSnapshot snapshot = PlacesStateSnapshot.EMPTY;
+
+    // write-behind queue for the POI snapshot
+    private PlacesPersister persister;
+
+    // records the suppressed writes and the dropped region events
+    private final PlacesMetrics metrics;
+
+    // persisted POIs not decoded yet, the cachedPOIs are materialized from them on first access
+    private String unloadedPOISnapshot;
+    private String unloadedLegacyPOIs;
+    private String unloadedUserWithinPOIIds;
+    private boolean legacyPOIsPersisted;
+
+    /**
+     * Constructor.
+     *
+     * <p>Creates a new instance of the {@link PlacesState} which persists the POIs synchronously.
+     * Attempts to load the previous session data from the places dataStore.
+     */
+    PlacesState(@NonNull final DataStoring datastore) {
+        this(datastore, 0);
+    }
+
     /**
      * Constructor.
      *
      * <p>Creates a new instance of the {@link PlacesState}. Attempts to load the previous session
      * data from the places dataStore.
+     *
+     * @param datastore the {@link DataStoring} service
+     * @param persistenceFlushDelayMillis delay in milliseconds for which changes to the persisted
+     *     POIs are coalesced before being written, zero writes them synchronously
      */
-    PlacesState(@NonNull final DataStoring datastore) {
-        // load the persisted POI's to cache variable
-        cachedPOIs = new LinkedHashMap<>();
+    PlacesState(@NonNull final DataStoring datastore, final long persistenceFlushDelayMillis) {
+        this(datastore, persistenceFlushDelayMillis, new PlacesMetrics());
+    }
+
+    /**
+     * Constructor.
+     *
+     * <p>Creates a new instance of the {@link PlacesState}. Attempts to load the previous session
+     * data from the places dataStore.
+     *
+     * @param datastore the {@link DataStoring} service
+     * @param persistenceFlushDelayMillis delay in milliseconds for which changes to the persisted
+     *     POIs are coalesced before being written, zero writes them synchronously
+     * @param metrics the {@link PlacesMetrics} the persistence and region event metrics are
+     *     recorded in
+     */
+    PlacesState(
+            @NonNull final DataStoring datastore,
+            final long persistenceFlushDelayMillis,
+            final PlacesMetrics metrics) {
+        this.metrics = metrics;
+
+        // load the persisted POI's, the cached POIs are decoded on first access
         placesDataStore = datastore.getNamedCollection(PLACES_DATA_STORE);
+
+        if (placesDataStore != null) {
+            persister =
+                    new PlacesPersister(
+                            placesDataStore,
+                            persistenceFlushDelayMillis,
+                            PlacesPersister.createFlushExecutor(persistenceFlushDelayMillis),
+                            metrics);
+        }
+
         loadPersistedPOIs();
     }
 
@@ -70,15 +174,18 @@ class PlacesState {
      */
     void processNetworkResponse(final PlacesQueryResponse response) {
         // always reset the current POI
+        final PlacesPOI previousCurrentPOI = currentPOI;
         currentPOI = null;
 
         if (response.containsUserPOIs != null && !response.containsUserPOIs.isEmpty()) {
-            // update the currentPOI and LastEnteredPOI to the first value in the query response
-            currentPOI = new PlacesPOI(response.containsUserPOIs.get(0));
+            // update the currentPOI and LastEnteredPOI to the first value in the query response,
+            // keeping the previous instances if they are unchanged
+            final PlacesPOI userWithinPOI = response.containsUserPOIs.get(0);
+            currentPOI = reusePOI(previousCurrentPOI, userWithinPOI);
             lastEnteredPOI =
-                    new PlacesPOI(
-                            response.containsUserPOIs.get(
-                                    0)); // should I update the last entered POI here?
+                    reusePOI(
+                            lastEnteredPOI,
+                            userWithinPOI); // should I update the last entered POI here?
         }
 
         // refresh the cache with POI's obtained from the response
@@ -89,6 +196,532 @@ class PlacesState {
 
         // then persist the cached POI's
         persistPOIs();
+
+        // remember the area covered by this query so that later queries can be served from cache,
+        // the POIs merged from tiles do not cover a circle around the queried location
+        if (response.isTiled) {
+            clearQueryCoverage();
+        } else {
+            updateQueryCoverage(response, response.nearByPOIs);
+        }
+        publishUserWithinPOIs();
+
+        processedBodyHash = response.bodyHash;
+        processedResponsePOIs = response.bodyHash != null ? response.getAllPOIs() : null;
+        processedNearbyPOIs = response.bodyHash != null ? response.nearByPOIs : null;
+    }
+
+    /**
+     * Returns the body hash of the last network response processed, as long as the places state
+     * still reflects it, that is until a region entry or exit, or the membership data is cleared.
+     *
+     * @return the {@link PlacesQueryResponse#bodyHash} of the processed response, or null
+     */
+    String getProcessedBodyHash() {
+        return processedBodyHash;
+    }
+
+    /**
+     * Processes a network response identical to the last one processed.
+     *
+     * <p>Processing it again would not change the cached POIs nor the membership data, hence only
+     * the membership validity and the area covered by the query are refreshed and persisted, so
+     * that later requests around the queried location can still be served from the cache.
+     *
+     * @param response the unchanged {@link PlacesQueryResponse}, which may have no POIs
+     * @return the POIs of the processed response, or null if the places state no longer reflects
+     *     the response with the body hash of the unchanged response
+     */
+    List<PlacesPOI> processUnchangedResponse(final PlacesQueryResponse response) {
+        if (response.bodyHash == null || !response.bodyHash.equals(processedBodyHash)) {
+            return null;
+        }
+
+        updateMembershipValidUntilTimestamp();
+        updateQueryCoverage(response, processedNearbyPOIs);
+
+        if (persister != null) {
+            persister.setLong(
+                    PlacesConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL, membershipValidUntil);
+            persister.commit();
+        }
+
+        return new ArrayList<>(processedResponsePOIs);
+    }
+
+    /**
+     * Applies the membership of a get nearby places response built from the cached POIs.
+     *
+     * <p>The POIs of the response were flagged as containing the user against the requested
+     * location. As with a network response, the flags are applied to the cached POIs, the first
+     * POI containing the user becomes the current and last entered POI, and the membership
+     * validity is refreshed. The POIs the user was within are evaluated against the requested
+     * location too, as they may lie beyond the POIs of the response. The cached POIs themselves
+     * and the area covered by the last query are left as they are.
+     *
+     * @param response the {@link PlacesQueryResponse} built from the cached POIs
+     */
+    void processCachedResponse(final PlacesQueryResponse response) {
+        final Map<String, PlacesPOI> pois = getCachedPOIs();
+        boolean membershipChanged = false;
+
+        for (final PlacesPOI poi : getUserWithInPOIs()) {
+            if (!containsLocation(poi, response.queryLatitude, response.queryLongitude)) {
+                setUserIsWithin(poi, false);
+                membershipChanged = true;
+            }
+        }
+
+        for (final PlacesPOI poi : response.getAllPOIs()) {
+            final PlacesPOI cachedPOI = pois.get(poi.getIdentifier());
+
+            if (cachedPOI != null && cachedPOI.containsUser() != poi.containsUser()) {
+                setUserIsWithin(cachedPOI, poi.containsUser());
+                membershipChanged = true;
+            }
+        }
+
+        // update the currentPOI and lastEnteredPOI the same way a network response does
+        final PlacesPOI previousCurrentPOI = currentPOI;
+        currentPOI = null;
+
+        if (!response.containsUserPOIs.isEmpty()) {
+            final PlacesPOI userWithinPOI = response.containsUserPOIs.get(0);
+            currentPOI = reusePOI(previousCurrentPOI, userWithinPOI);
+            lastEnteredPOI = reusePOI(lastEnteredPOI, userWithinPOI);
+        }
+
+        // the places state no longer reflects the last network response once its membership
+        // changed
+        if (membershipChanged) {
+            processedBodyHash = null;
+        }
+
+        updateMembershipValidUntilTimestamp();
+        persistPOIs();
+        publishUserWithinPOIs();
+    }
+
+    /**
+     * Attempts to answer a get nearby places request from the cached POIs.
+     *
+     * <p>The cache can answer the request only if all the below conditions are met,
+     *
+     * <ol>
+     *   <li>A positive cache ttl is configured and the last nearby query is younger than it.
+     *   <li>The last nearby query was made for the same libraries and for at least as many POIs.
+     *   <li>The requested location is inside the area covered by the last nearby query, and that
+     *       area still holds the requested count of POIs around the requested location.
+     * </ol>
+     *
+     * <p>The area covered by a query is the circle around the queried location reaching up to its
+     * farthest nearby POI. Any POI within that circle was part of the response, hence the nearest
+     * POIs of a location inside the circle are known as long as they are closer than its edge.
+     *
+     * @param eventData the get nearby places request {@code EventData}
+     * @param placesConfig the current {@link PlacesConfiguration}
+     * @return a successful {@link PlacesQueryResponse} built from the cache, or null if the request
+     *     needs to be sent to the Places Query Service
+     */
+    PlacesQueryResponse getCachedNearbyPlaces(
+            final Map<String, Object> eventData, final PlacesConfiguration placesConfig) {
+        if (placesConfig == null || placesConfig.getCacheTtl() <= 0) {
+            return null;
+        }
+
+        final double latitude =
+                DataReader.optDouble(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.LATITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        final double longitude =
+                DataReader.optDouble(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.LONGITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        final int count =
+                DataReader.optInt(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.PLACES_COUNT,
+                        PlacesConstants.DEFAULT_NEARBYPOI_COUNT);
+
+        if (!PlacesUtil.isValidLat(latitude)
+                || !PlacesUtil.isValidLon(longitude)
+                || !PlacesUtil.isValidLat(lastQueryLatitude)
+                || !PlacesUtil.isValidLon(lastQueryLongitude)
+                || count <= 0
+                || count > lastQueryCount) {
+            return null;
+        }
+
+        if (TimeUtils.getUnixTimeInSeconds() >= lastQueryTimestamp + placesConfig.getCacheTtl()) {
+            Log.trace(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "getCachedNearbyPlaces - Cached POIs are stale, a network query is needed.");
+            return null;
+        }
+
+        final String libraries = placesConfig.getLibrariesQueryString();
+
+        if (libraries == null || !libraries.equals(lastQueryLibraries)) {
+            return null;
+        }
+
+        final double remainingRadius =
+                lastQueryRadius
+                        - PlacesUtil.distanceInMeters(
+                                lastQueryLatitude, lastQueryLongitude, latitude, longitude);
+
+        if (remainingRadius < 0) {
+            return null;
+        }
+
+        // only the requested POIs are looked up, the cache can serve the request if all of them
+        // lie within the area covered by the last query
+        final List<PlacesPOI> nearestPOIs = getNearestCachedPOIs(latitude, longitude, count);
+
+        if (nearestPOIs.size() < count) {
+            return null;
+        }
+
+        final PlacesPOI farthestPOI = nearestPOIs.get(count - 1);
+
+        if (PlacesUtil.distanceInMeters(
+                        latitude, longitude, farthestPOI.getLatitude(), farthestPOI.getLongitude())
+                > remainingRadius) {
+            return null;
+        }
+
+        Log.debug(
+                PlacesConstants.LOG_TAG,
+                CLASS_NAME,
+                "getCachedNearbyPlaces - Serving %d POIs from cache.",
+                count);
+        return createCachedResponse(
+                latitude,
+                longitude,
+                count,
+                libraries,
+                nearestPOIs,
+                PlacesRequestError.OK);
+    }
+
+    /**
+     * Throttles a get nearby places request made before the device moved far enough from the last
+     * queried location.
+     *
+     * <p>The request is throttled if a positive minimum query distance and interval are configured,
+     * the last nearby query was made for the same libraries less than the minimum query interval
+     * ago, and the requested location is closer to the last queried location than the minimum
+     * query distance. A throttled request is answered with the cached POIs nearest to the requested
+     * location, even if the cache holds fewer POIs than requested.
+     *
+     * @param eventData the get nearby places request {@code EventData}
+     * @param placesConfig the current {@link PlacesConfiguration}
+     * @return a {@link PlacesQueryResponse} with the {@link PlacesRequestError#QUERY_THROTTLED}
+     *     status built from the cache, or null if the request needs to be sent to the Places Query
+     *     Service
+     */
+    PlacesQueryResponse getThrottledNearbyPlaces(
+            final Map<String, Object> eventData, final PlacesConfiguration placesConfig) {
+        if (placesConfig == null
+                || placesConfig.getMinQueryDistance() <= 0
+                || placesConfig.getMinQueryInterval() <= 0) {
+            return null;
+        }
+
+        final double latitude =
+                DataReader.optDouble(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.LATITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        final double longitude =
+                DataReader.optDouble(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.LONGITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        final int count =
+                DataReader.optInt(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.PLACES_COUNT,
+                        PlacesConstants.DEFAULT_NEARBYPOI_COUNT);
+
+        if (!PlacesUtil.isValidLat(latitude)
+                || !PlacesUtil.isValidLon(longitude)
+                || !PlacesUtil.isValidLat(lastQueryLatitude)
+                || !PlacesUtil.isValidLon(lastQueryLongitude)
+                || count <= 0) {
+            return null;
+        }
+
+        if (TimeUtils.getUnixTimeInSeconds()
+                >= lastQueryTimestamp + placesConfig.getMinQueryInterval()) {
+            return null;
+        }
+
+        final String libraries = placesConfig.getLibrariesQueryString();
+
+        if (libraries == null || !libraries.equals(lastQueryLibraries)) {
+            return null;
+        }
+
+        final double distance =
+                PlacesUtil.distanceInMeters(
+                        lastQueryLatitude, lastQueryLongitude, latitude, longitude);
+
+        if (distance >= placesConfig.getMinQueryDistance()) {
+            return null;
+        }
+
+        final List<PlacesPOI> nearestPOIs = getNearestCachedPOIs(latitude, longitude, count);
+        Log.debug(
+                PlacesConstants.LOG_TAG,
+                CLASS_NAME,
+                "getThrottledNearbyPlaces - Device moved %.1f meters since the last query, serving"
+                        + " %d POIs from cache.",
+                distance,
+                nearestPOIs.size());
+        return createCachedResponse(
+                latitude,
+                longitude,
+                count,
+                libraries,
+                nearestPOIs,
+                PlacesRequestError.QUERY_THROTTLED);
+    }
+
+    private PlacesQueryResponse createCachedResponse(
+            final double latitude,
+            final double longitude,
+            final int count,
+            final String libraries,
+            final List<PlacesPOI> cachedPOIs,
+            final PlacesRequestError resultStatus) {
+        final PlacesQueryResponse response = new PlacesQueryResponse();
+        response.isSuccess = true;
+        response.isFromCache = true;
+        response.resultStatus = resultStatus;
+        response.containsUserPOIs = new ArrayList<>();
+        response.nearByPOIs = new ArrayList<>();
+        response.queryLatitude = latitude;
+        response.queryLongitude = longitude;
+        response.queryCount = count;
+        response.queryLibraries = libraries;
+
+        for (final PlacesPOI cachedPOI : cachedPOIs) {
+            // hand out copies, the user membership is relative to the requested location
+            final PlacesPOI poi = new PlacesPOI(cachedPOI);
+            poi.setUserIsWithin(containsLocation(poi, latitude, longitude));
+
+            if (poi.containsUser()) {
+                response.containsUserPOIs.add(poi);
+            } else {
+                response.nearByPOIs.add(poi);
+            }
+        }
+
+        return response;
+    }
+
+    private static boolean containsLocation(
+            final PlacesPOI poi, final double latitude, final double longitude) {
+        return PlacesUtil.distanceInMeters(
+                        latitude, longitude, poi.getLatitude(), poi.getLongitude())
+                <= poi.getRadius();
+    }
+
+    /**
+     * Looks up the tiles covering the location of a get nearby places request in the tile cache.
+     *
+     * <p>Every covering tile found in the cache and younger than the tile ttl counts as a hit,
+     * every other one as a miss.
+     *
+     * @param eventData the get nearby places request {@code EventData}
+     * @param placesConfig the current {@link PlacesConfiguration}
+     * @return the geohashes of the covering tiles that need to be fetched, empty if the cache holds
+     *     all of them, or null if the tile mode is disabled or the requested location is invalid
+     */
+    List<String> getMissingTiles(
+            final Map<String, Object> eventData, final PlacesConfiguration placesConfig) {
+        if (placesConfig == null || placesConfig.getTilePrecision() <= 0) {
+            return null;
+        }
+
+        final double latitude =
+                DataReader.optDouble(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.LATITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        final double longitude =
+                DataReader.optDouble(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.LONGITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+
+        if (!PlacesUtil.isValidLat(latitude) || !PlacesUtil.isValidLon(longitude)) {
+            return null;
+        }
+
+        final PlacesTileCache cache = getTileCache();
+        final long timestamp = TimeUtils.getUnixTimeInSeconds();
+        final List<String> missingTiles = new ArrayList<>();
+
+        for (final String tile :
+                PlacesGeohash.coveringTiles(
+                        latitude, longitude, placesConfig.getTilePrecision())) {
+            final String key =
+                    PlacesTileCache.createKey(tile, placesConfig.getLibrariesQueryString());
+
+            if (cache.get(key, timestamp, placesConfig.getTileTtl()) == null) {
+                missingTiles.add(tile);
+            }
+        }
+
+        Log.debug(
+                PlacesConstants.LOG_TAG,
+                CLASS_NAME,
+                "getMissingTiles - %d of the tiles around the requested location need to be"
+                        + " fetched, tile cache hits %d, misses %d, evictions %d.",
+                missingTiles.size(),
+                cache.getHitCount(),
+                cache.getMissCount(),
+                cache.getEvictionCount());
+        return missingTiles;
+    }
+
+    /**
+     * Caches the POIs fetched for a tile. The tile cache is persisted by {@link #persistTiles()}.
+     *
+     * @param tile the geohash of the tile
+     * @param placesConfig the {@link PlacesConfiguration} the tile was fetched with
+     * @param response the successful {@link PlacesQueryResponse} of the tile query
+     */
+    void cacheTile(
+            final String tile,
+            final PlacesConfiguration placesConfig,
+            final PlacesQueryResponse response) {
+        final List<PlacesPOI> pois = new ArrayList<>();
+
+        if (response.containsUserPOIs != null) {
+            pois.addAll(response.containsUserPOIs);
+        }
+
+        if (response.nearByPOIs != null) {
+            pois.addAll(response.nearByPOIs);
+        }
+
+        if (pois.size() >= PlacesConstants.TILE_POI_COUNT) {
+            Log.debug(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "cacheTile - Tile %s holds more than %d POIs, some of them may be missed. A"
+                            + " higher tile precision suits this density better.",
+                    tile,
+                    PlacesConstants.TILE_POI_COUNT);
+        }
+
+        getTileCache()
+                .put(
+                        PlacesTileCache.createKey(tile, placesConfig.getLibrariesQueryString()),
+                        pois,
+                        TimeUtils.getUnixTimeInSeconds(),
+                        placesConfig.getTileCacheSize());
+    }
+
+    /** Writes the tile cache to persistence if it changed. */
+    void persistTiles() {
+        getTileCache().persist();
+    }
+
+    /**
+     * Answers a get nearby places request from the cached tiles covering the requested location.
+     *
+     * <p>The POIs of the covering tiles are merged, and the requested count of them nearest to the
+     * requested location is returned. Covering tiles missing from the cache are left out.
+     *
+     * @param eventData the get nearby places request {@code EventData}
+     * @param placesConfig the current {@link PlacesConfiguration}
+     * @return a successful {@link PlacesQueryResponse} built from the tiles, or null if the tile
+     *     mode is disabled or the requested location is invalid
+     */
+    PlacesQueryResponse getTiledNearbyPlaces(
+            final Map<String, Object> eventData, final PlacesConfiguration placesConfig) {
+        if (placesConfig == null || placesConfig.getTilePrecision() <= 0) {
+            return null;
+        }
+
+        final double latitude =
+                DataReader.optDouble(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.LATITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        final double longitude =
+                DataReader.optDouble(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.LONGITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        final int count =
+                DataReader.optInt(
+                        eventData,
+                        PlacesConstants.EventDataKeys.Places.PLACES_COUNT,
+                        PlacesConstants.DEFAULT_NEARBYPOI_COUNT);
+
+        if (!PlacesUtil.isValidLat(latitude) || !PlacesUtil.isValidLon(longitude)) {
+            return null;
+        }
+
+        // neighbouring tiles may have been queried close enough to return the same POIs
+        final String libraries = placesConfig.getLibrariesQueryString();
+        final Map<String, PlacesPOI> tilePOIs = new LinkedHashMap<>();
+
+        for (final String tile :
+                PlacesGeohash.coveringTiles(
+                        latitude, longitude, placesConfig.getTilePrecision())) {
+            final List<PlacesPOI> pois =
+                    getTileCache().peek(PlacesTileCache.createKey(tile, libraries));
+
+            if (pois == null) {
+                continue;
+            }
+
+            for (final PlacesPOI poi : pois) {
+                tilePOIs.put(poi.getIdentifier(), poi);
+            }
+        }
+
+        final List<PlacesPOI> nearestPOIs = new ArrayList<>(tilePOIs.values());
+        final Map<PlacesPOI, Double> distances = new IdentityHashMap<>();
+
+        for (final PlacesPOI poi : nearestPOIs) {
+            distances.put(
+                    poi,
+                    PlacesUtil.distanceInMeters(
+                            latitude, longitude, poi.getLatitude(), poi.getLongitude()));
+        }
+
+        Collections.sort(
+                nearestPOIs,
+                (first, second) -> Double.compare(distances.get(first), distances.get(second)));
+
+        final PlacesQueryResponse response =
+                createCachedResponse(
+                        latitude,
+                        longitude,
+                        count,
+                        libraries,
+                        nearestPOIs.subList(0, Math.max(0, Math.min(count, nearestPOIs.size()))),
+                        PlacesRequestError.OK);
+        response.isTiled = true;
+        return response;
+    }
+
+    private PlacesTileCache getTileCache() {
+        if (tileCache == null) {
+            tileCache = new PlacesTileCache(placesDataStore);
+        }
+
+        return tileCache;
     }
 
     /**
@@ -118,29 +751,125 @@ class PlacesState {
     PlacesRegion processRegionEvent(final Event event) {
         // no need to do null pointer check for event or its eventData
         // check are made prior to handing over to this method
-        final Map<String, Object> eventData = event.getEventData();
+        final PlacesRegion region = applyRegionEvent(event.getEventData(), event.getTimestamp());
+
+        if (region != null) {
+            processedBodyHash = null;
+            persistPOIs();
+            publishUserWithinPOIs();
+        }
+
+        return region;
+    }
 
+    /**
+     * Processes the {@link EventType#PLACES} {@link EventSource#REQUEST_CONTENT} batch region
+     * {@code Event} carrying all the region entry/exit transitions of a geofencing event.
+     *
+     * <p>Each region is applied as with {@link #processRegionEvent(Event)}, in order. The POI
+     * changes are persisted once after all of the regions have been applied.
+     *
+     * @param event the {@link EventType#PLACES} {@link EventSource#REQUEST_CONTENT} {@link Event}
+     * @return A list of {@link PlacesRegion} instances representing the Entry/Exit events
+     *     identified, in the order of the requested regions. Regions that could not be processed
+     *     are left out
+     */
+    List<PlacesRegion> processRegionEvents(final Event event) {
+        final List<Map> regionsData =
+                DataReader.optTypedList(
+                        Map.class,
+                        event.getEventData(),
+                        PlacesConstants.EventDataKeys.Places.REGIONS,
+                        null);
+
+        if (regionsData == null) {
+            Log.warning(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "No regions found, Ignoring to process geofence events");
+            return new ArrayList<>();
+        }
+
+        return applyRegionEvents(regionsData, event.getTimestamp());
+    }
+
+    /**
+     * Evaluates the region entries and exits of a device location against the cached POIs, and
+     * applies them as with {@link #processRegionEvents(Event)}.
+     *
+     * @param latitude the latitude of the device
+     * @param longitude the longitude of the device
+     * @param accuracy the horizontal accuracy of the location in meters, zero or less if unknown
+     * @param timestamp the timestamp of the location event
+     * @param evaluator the {@link PlacesGeofenceEvaluator} evaluating the transitions
+     * @return A list of {@link PlacesRegion} instances representing the Entry/Exit events
+     *     identified, the exits first
+     */
+    List<PlacesRegion> processLocation(
+            final double latitude,
+            final double longitude,
+            final double accuracy,
+            final long timestamp,
+            final PlacesGeofenceEvaluator evaluator) {
+        final List<Map<String, Object>> regionsData =
+                evaluator.evaluate(
+                        latitude, longitude, accuracy, getPOIIndex(), getUserWithInPOIs());
+        return applyRegionEvents(regionsData, timestamp);
+    }
+
+    private List<PlacesRegion> applyRegionEvents(
+            final List<? extends Map> regionsData, final long timestamp) {
+        final List<PlacesRegion> regions = new ArrayList<>();
+
+        for (final Map regionData : regionsData) {
+            final PlacesRegion region = applyRegionEvent(regionData, timestamp);
+
+            if (region != null) {
+                regions.add(region);
+            }
+        }
+
+        if (!regions.isEmpty()) {
+            processedBodyHash = null;
+            persistPOIs();
+            publishUserWithinPOIs();
+        }
+
+        return regions;
+    }
+
+    /**
+     * Applies a region entry/exit to the cached POIs and the membership variables, without
+     * persisting the changes.
+     *
+     * @param regionData the {@code EventData} of the region
+     * @param timestamp the timestamp of the region event
+     * @return A {@link PlacesRegion} instance representing the Entry/Exit event, or null if the
+     *     region could not be processed
+     */
+    private PlacesRegion applyRegionEvent(
+            final Map<String, Object> regionData, final long timestamp) {
         // extract the required data from eventData
         final String regionId =
                 DataReader.optString(
-                        eventData, PlacesConstants.EventDataKeys.Places.REGION_ID, null);
+                        regionData, PlacesConstants.EventDataKeys.Places.REGION_ID, null);
         final String regionType =
                 DataReader.optString(
-                        eventData,
+                        regionData,
                         PlacesConstants.EventDataKeys.Places.REGION_EVENT_TYPE,
                         PlacesRegion.PLACE_EVENT_NONE);
-
         // bail out if the event has invalid regionId
         if (StringUtils.isNullOrEmpty(regionId)) {
             Log.warning(
                     PlacesConstants.LOG_TAG,
                     "Invalid regionId, Ignoring to process geofence event",
                     regionId);
+            metrics.countDroppedRegionEvent();
             return null;
         }
 
         // identify the POI among the cachedPOIs.
-        final PlacesPOI matchedPOI = cachedPOIs.get(regionId);
+        final PlacesPOI matchedPOI = getCachedPOIs().get(regionId);
 
         // bail out if no matchedPOI is found
         if (matchedPOI == null) {
@@ -149,12 +878,13 @@ class PlacesState {
                     "Unable to find POI details for regionId : %s, Ignoring to process geofence"
                             + " event",
                     regionId);
+            metrics.countDroppedRegionEvent();
             return null;
         }
 
         // Edit the POI to containUser, create and dispatch an entry event
         if (regionType.equals(PlacesRegion.PLACE_EVENT_ENTRY)) {
-            matchedPOI.setUserIsWithin(true);
+            setUserIsWithin(matchedPOI, true);
 
             // update shared state variables
             lastEnteredPOI = matchedPOI;
@@ -162,9 +892,7 @@ class PlacesState {
 
             // update the validity of membershipPOI after every region event
             updateMembershipValidUntilTimestamp();
-            persistPOIs();
-            return new PlacesRegion(
-                    matchedPOI, PlacesRegion.PLACE_EVENT_ENTRY, event.getTimestamp());
+            return new PlacesRegion(matchedPOI, PlacesRegion.PLACE_EVENT_ENTRY, timestamp);
         }
         // Edit the POI to not containUser, create and dispatch an exit event
         else if (regionType.equals(PlacesRegion.PLACE_EVENT_EXIT)) {
@@ -173,7 +901,7 @@ class PlacesState {
                 currentPOI = null;
             }
 
-            matchedPOI.setUserIsWithin(false);
+            setUserIsWithin(matchedPOI, false);
             currentPOI = calculateCurrentPOI();
 
             // update the shared state variable
@@ -181,15 +909,14 @@ class PlacesState {
 
             // update the validity of membershipPOI after every region event
             updateMembershipValidUntilTimestamp();
-            persistPOIs();
-            return new PlacesRegion(
-                    matchedPOI, PlacesRegion.PLACE_EVENT_EXIT, event.getTimestamp());
+            return new PlacesRegion(matchedPOI, PlacesRegion.PLACE_EVENT_EXIT, timestamp);
         } else {
             Log.warning(
                     PlacesConstants.LOG_TAG,
                     CLASS_NAME,
                     "Unknown region type : %s, Ignoring process geofence event",
                     regionType);
+            metrics.countDroppedRegionEvent();
             return null;
         }
     }
@@ -198,41 +925,108 @@ class PlacesState {
      * Creates the {@code EventData} for the places shared state from the POI's cached in {@link
      * PlacesState}
      *
-     * @return an {@link Map} representing the places shared state
+     * <p>The shared state is cached, and the same instance is returned for as long as none of its
+     * fields changed. The map representations of the POIs are memoized on each {@link PlacesPOI},
+     * so a region event only rebuilds the representation of the POIs it changed.
+     *
+     * @return an unmodifiable {@link Map} representing the places shared state
      */
     Map<String, Object> getPlacesSharedState() {
-        // create and return the shared state eventData
-        final Map<String, Object> data = new HashMap<>();
-
         // ensure that our membership data is still valid, and clear it out if it's not
         if (!isMembershipDataValid()) {
             clearMembershipData();
         }
 
-        if (cachedPOIs != null && !cachedPOIs.isEmpty()) {
-            data.put(
-                    PlacesConstants.SharedStateKeys.NEARBYPOIS,
-                    PlacesUtil.convertPOIListToMap(new ArrayList<>(cachedPOIs.values())));
+        final List<Map<String, Object>> nearbyPOIs = getSharedStateNearbyPOIs();
+        final Map<String, Object> currentPOIMap = currentPOI != null ? currentPOI.toMap() : null;
+        final Map<String, Object> lastEnteredPOIMap =
+                lastEnteredPOI != null ? lastEnteredPOI.toMap() : null;
+        final Map<String, Object> lastExitedPOIMap =
+                lastExitedPOI != null ? lastExitedPOI.toMap() : null;
+
+        if (sharedState != null
+                && sharedState.get(PlacesConstants.SharedStateKeys.NEARBYPOIS) == nearbyPOIs
+                && sharedState.get(PlacesConstants.SharedStateKeys.CURRENT_POI) == currentPOIMap
+                && sharedState.get(PlacesConstants.SharedStateKeys.LAST_ENTERED_POI)
+                        == lastEnteredPOIMap
+                && sharedState.get(PlacesConstants.SharedStateKeys.LAST_EXITED_POI)
+                        == lastExitedPOIMap
+                && Objects.equals(
+                        sharedState.get(PlacesConstants.SharedStateKeys.AUTH_STATUS), authStatus)
+                && sharedState
+                        .get(PlacesConstants.SharedStateKeys.VALID_UNTIL)
+                        .equals(membershipValidUntil)) {
+            return sharedState;
+        }
+
+        // create the shared state eventData
+        final Map<String, Object> data = new HashMap<>();
+
+        if (nearbyPOIs != null) {
+            data.put(PlacesConstants.SharedStateKeys.NEARBYPOIS, nearbyPOIs);
         }
 
         if (authStatus != null) {
             data.put(PlacesConstants.SharedStateKeys.AUTH_STATUS, authStatus);
         }
 
-        if (currentPOI != null) {
-            data.put(PlacesConstants.SharedStateKeys.CURRENT_POI, currentPOI.toMap());
+        if (currentPOIMap != null) {
+            data.put(PlacesConstants.SharedStateKeys.CURRENT_POI, currentPOIMap);
         }
 
-        if (lastEnteredPOI != null) {
-            data.put(PlacesConstants.SharedStateKeys.LAST_ENTERED_POI, lastEnteredPOI.toMap());
+        if (lastEnteredPOIMap != null) {
+            data.put(PlacesConstants.SharedStateKeys.LAST_ENTERED_POI, lastEnteredPOIMap);
         }
 
-        if (lastExitedPOI != null) {
-            data.put(PlacesConstants.SharedStateKeys.LAST_EXITED_POI, lastExitedPOI.toMap());
+        if (lastExitedPOIMap != null) {
+            data.put(PlacesConstants.SharedStateKeys.LAST_EXITED_POI, lastExitedPOIMap);
         }
 
         data.put(PlacesConstants.SharedStateKeys.VALID_UNTIL, membershipValidUntil);
-        return data;
+        sharedState = Collections.unmodifiableMap(data);
+        return sharedState;
+    }
+
+    /**
+     * Returns the map representations of the cached POIs for the shared state.
+     *
+     * <p>The list is reused for as long as every cached POI still has the same memoized map
+     * representation, so that an unchanged cache costs no allocations.
+     *
+     * @return an unmodifiable list of the cached POI maps, null if there are no cached POIs
+     */
+    private List<Map<String, Object>> getSharedStateNearbyPOIs() {
+        final Map<String, PlacesPOI> pois = getCachedPOIs();
+
+        if (pois.isEmpty()) {
+            sharedStateNearbyPOIs = null;
+            return null;
+        }
+
+        if (sharedStateNearbyPOIs != null && sharedStateNearbyPOIs.size() == pois.size()) {
+            int index = 0;
+
+            for (final PlacesPOI poi : pois.values()) {
+                if (sharedStateNearbyPOIs.get(index) != poi.toMap()) {
+                    break;
+                }
+
+                index++;
+            }
+
+            if (index == pois.size()) {
+                return sharedStateNearbyPOIs;
+            }
+        }
+
+        final List<Map<String, Object>> poiMaps = new ArrayList<>(pois.size());
+
+        for (final PlacesPOI poi : pois.values()) {
+            poiMaps.add(poi.toMap());
+        }
+
+        sharedStateNearbyPOIs = Collections.unmodifiableList(poiMaps);
+        return sharedStateNearbyPOIs;
     }
 
     /**
@@ -242,15 +1036,48 @@ class PlacesState {
      *     that contains user
      */
     List<PlacesPOI> getUserWithInPOIs() {
-        final ArrayList<PlacesPOI> userWithInPOIs = new ArrayList<>();
+        return getMembershipIndex().getUserWithinPOIs();
+    }
 
-        for (final PlacesPOI eachPOI : cachedPOIs.values()) {
-            if (eachPOI.containsUser()) {
-                userWithInPOIs.add(eachPOI);
-            }
-        }
+    /**
+     * Returns the latest published {@link PlacesStateSnapshot}.
+     *
+     * <p>Unlike the rest of the {@link PlacesState}, the snapshot can be read from any thread.
+     *
+     * @return the latest {@link PlacesStateSnapshot}
+     */
+    PlacesStateSnapshot getSnapshot() {
+        return snapshot;
+    }
 
-        return userWithInPOIs;
+    /** Publishes a {@link PlacesStateSnapshot} of the user-within POIs and last known location. */
+    void publishSnapshot() {
+        final Location location = loadLastKnownLocation();
+        snapshot =
+                location != null
+                        ? snapshot.withLastKnownLocation(
+                                location.getLatitude(), location.getLongitude())
+                        : snapshot.withLastKnownLocation(
+                                PlacesConstants.INVALID_LAT_LON, PlacesConstants.INVALID_LAT_LON);
+        publishUserWithinPOIs();
+    }
+
+    private void publishUserWithinPOIs() {
+        snapshot = snapshot.withUserWithinPOIs(getUserWithInPOIs());
+    }
+
+    /**
+     * Gets the cached Points of Interest closest to the provided location.
+     *
+     * @param latitude the latitude of the location
+     * @param longitude the longitude of the location
+     * @param count the maximum number of POIs to return
+     * @return A list containing at most {@code count} cached POIs ordered by ascending distance
+     *     from the location
+     */
+    List<PlacesPOI> getNearestCachedPOIs(
+            final double latitude, final double longitude, final int count) {
+        return getPOIIndex().findNearest(latitude, longitude, count);
     }
 
     /**
@@ -262,6 +1089,8 @@ class PlacesState {
      * @param longitude {@code double} last known longitude
      */
     void saveLastKnownLocation(final double latitude, final double longitude) {
+        snapshot = snapshot.withLastKnownLocation(latitude, longitude);
+
         if (placesDataStore == null) {
             Log.warning(
                     PlacesConstants.LOG_TAG,
@@ -357,13 +1186,21 @@ class PlacesState {
     /** Clears all persisted and in-memory data for PlacesState. */
     void clearData() {
         // clear the in memory variables
-        cachedPOIs.clear();
+        processedBodyHash = null;
+        lastPOIDiff = null;
+        modifiedPOIIds.clear();
+        resetCachedPOIs();
+        poiIndex.clear();
         lastExitedPOI = null;
         lastEnteredPOI = null;
         currentPOI = null;
         membershipValidUntil = 0;
-        // then persist the empty data
+        // then persist the empty data right away
         persistPOIs();
+        flushPendingWrites();
+        clearQueryCoverage();
+        getTileCache().clear();
+        publishUserWithinPOIs();
 
         saveLastKnownLocation(PlacesConstants.INVALID_LAT_LON, PlacesConstants.INVALID_LAT_LON);
         setAuthorizationStatus(PlacesAuthorizationStatus.DEFAULT_VALUE);
@@ -372,46 +1209,125 @@ class PlacesState {
     /**
      * This method caches the nearby/containsUser from the {@link PlacesQueryResponse}.
      *
+     * <p>The response is merged into the cached POIs, keeping the cached POIs which did not change.
+     * If nothing changed, the cache is left as is and is neither re-indexed nor persisted again.
+     *
      * @param response the query response
      */
     private void cachePOIs(final PlacesQueryResponse response) {
-        // clear the existing cache
-        cachedPOIs.clear();
+        final LinkedHashMap<String, PlacesPOI> previousPOIs = getCachedPOIs();
+        lastPOIDiff =
+                PlacesPOIDiff.merge(
+                        previousPOIs,
+                        response.containsUserPOIs,
+                        response.nearByPOIs,
+                        modifiedPOIIds);
+        modifiedPOIIds.clear();
+
+        if (lastPOIDiff.isEmpty()) {
+            Log.trace(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "cachePOIs - The %d cached POIs are unchanged.",
+                    previousPOIs.size());
+            return;
+        }
 
-        // cache containsUsers POI's
-        // while caching convert the list into map<id,poiObject> for easy data handling
-        if (response.containsUserPOIs != null && !response.containsUserPOIs.isEmpty()) {
-            for (final PlacesPOI eachPOI : response.containsUserPOIs) {
-                cachedPOIs.put(eachPOI.getIdentifier(), eachPOI);
+        cachedPOIs = lastPOIDiff.getMergedPOIs();
+        cachedPOIsChanged = true;
+
+        // update the spatial index with the changes only, if it mirrors the previous cache
+        if (indexedPOIs == previousPOIs && poiIndex.size() == previousPOIs.size()) {
+            for (final PlacesPOI removedPOI : lastPOIDiff.getRemovedPOIs()) {
+                poiIndex.remove(removedPOI.getIdentifier());
+            }
+
+            for (final PlacesPOI addedPOI : lastPOIDiff.getAddedPOIs()) {
+                poiIndex.add(addedPOI);
             }
-        }
 
-        // cache NearbyPOIs
-        // while caching convert the list into map<id,poiObject> for easy data handling
-        if (response.nearByPOIs != null && !response.nearByPOIs.isEmpty()) {
-            for (final PlacesPOI eachPOI : response.nearByPOIs) {
-                cachedPOIs.put(eachPOI.getIdentifier(), eachPOI);
+            for (final PlacesPOI changedPOI : lastPOIDiff.getChangedPOIs()) {
+                poiIndex.add(changedPOI);
             }
+        } else {
+            poiIndex.rebuild(cachedPOIs.values());
         }
+
+        indexedPOIs = cachedPOIs;
+        Log.trace(
+                PlacesConstants.LOG_TAG,
+                CLASS_NAME,
+                "cachePOIs - %d POIs added, %d removed and %d changed.",
+                lastPOIDiff.getAddedPOIs().size(),
+                lastPOIDiff.getRemovedPOIs().size(),
+                lastPOIDiff.getChangedPOIs().size());
     }
 
-    private void loadPersistedPOIs() {
-        if (placesDataStore == null) {
-            Log.warning(
-                    PlacesConstants.LOG_TAG,
-                    CLASS_NAME,
-                    "Unable to load POI's from persistence, placesDataStore not available.");
-            return;
+    /**
+     * Returns the changes made to the cached POIs by the last network response processed.
+     *
+     * @return the {@link PlacesPOIDiff} of the last network response, or null if none was processed
+     *     since the places state was created or cleared
+     */
+    PlacesPOIDiff getLastPOIDiff() {
+        return lastPOIDiff;
+    }
+
+    /**
+     * Returns the previous POI if it equals the provided POI, or else a copy of the provided POI.
+     *
+     * @param previousPOI the {@link PlacesPOI} to be reused, may be null
+     * @param poi the {@code PlacesPOI} to be copied
+     * @return {@code previousPOI} or a copy of {@code poi}
+     */
+    private static PlacesPOI reusePOI(final PlacesPOI previousPOI, final PlacesPOI poi) {
+        return poi.equals(previousPOI) ? previousPOI : new PlacesPOI(poi);
+    }
+
+    /**
+     * Returns the cached POIs, decoding them from persistence on first access.
+     *
+     * @return the cached {@link PlacesPOI}s mapped by their identifier
+     */
+    LinkedHashMap<String, PlacesPOI> getCachedPOIs() {
+        if (cachedPOIs == null) {
+            materializeCachedPOIs();
         }
 
-        // attempt to load cachedPOIs
+        return cachedPOIs;
+    }
+
+    /** Replaces the cached POIs, and any persisted POIs not decoded yet, with an empty map. */
+    private void resetCachedPOIs() {
+        cachedPOIs = new LinkedHashMap<>();
+        cachedPOIsChanged = true;
+        unloadedPOISnapshot = null;
+        unloadedLegacyPOIs = null;
+        unloadedUserWithinPOIIds = null;
+    }
+
+    /**
+     * Decodes the cached POIs from the persisted POI snapshot and applies the membership changes
+     * persisted since it was written.
+     *
+     * <p>POIs persisted as JSON by earlier versions are migrated to the snapshot format.
+     */
+    private void materializeCachedPOIs() {
         cachedPOIs = new LinkedHashMap<>();
-        final String nearbyString =
-                placesDataStore.getString(PlacesConstants.DataStoreKeys.NEARBYPOIS, "");
 
-        if (!StringUtils.isNullOrEmpty(nearbyString)) {
+        if (!StringUtils.isNullOrEmpty(unloadedPOISnapshot)) {
             try {
-                final JSONObject nearbyJSON = new JSONObject(nearbyString);
+                cachedPOIs = PlacesPOISnapshot.decode(unloadedPOISnapshot);
+            } catch (final IOException exception) {
+                Log.warning(
+                        PlacesConstants.LOG_TAG,
+                        CLASS_NAME,
+                        "Unable to load cached POIs from the POI snapshot : Exception - %s",
+                        exception);
+            }
+        } else if (!StringUtils.isNullOrEmpty(unloadedLegacyPOIs)) {
+            try {
+                final JSONObject nearbyJSON = new JSONObject(unloadedLegacyPOIs);
                 final Iterator<String> keys = nearbyJSON.keys();
                 while (keys.hasNext()) {
                     String key = keys.next();
@@ -421,10 +1337,107 @@ class PlacesState {
                 Log.warning(
                         PlacesConstants.LOG_TAG,
                         "Unable to load cached POI from JSON String : %s",
-                        nearbyString);
+                        unloadedLegacyPOIs);
             }
         }
 
+        // apply the membership changes persisted since the cached POIs were last written
+        if (!StringUtils.isNullOrEmpty(unloadedUserWithinPOIIds)) {
+            try {
+                final JSONArray userWithinJSON = new JSONArray(unloadedUserWithinPOIIds);
+                final Set<String> userWithinIds = new HashSet<>();
+
+                for (int i = 0; i < userWithinJSON.length(); i++) {
+                    userWithinIds.add(userWithinJSON.getString(i));
+                }
+
+                for (final PlacesPOI poi : cachedPOIs.values()) {
+                    poi.setUserIsWithin(userWithinIds.contains(poi.getIdentifier()));
+                }
+            } catch (final JSONException exception) {
+                Log.warning(
+                        PlacesConstants.LOG_TAG,
+                        CLASS_NAME,
+                        "Unable to load user-within POI ids from persistence : Exception - %s",
+                        exception);
+            }
+        }
+
+        unloadedPOISnapshot = null;
+        unloadedLegacyPOIs = null;
+        unloadedUserWithinPOIIds = null;
+        persistedPOIs = cachedPOIs;
+        rebuildUserWithinPOIIds();
+
+        // rewrite the POIs persisted by earlier versions in the snapshot format
+        if (legacyPOIsPersisted && persister != null) {
+            Log.debug(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "Migrating %d cached POIs to the POI snapshot format.",
+                    cachedPOIs.size());
+            persistCachedPOIs();
+            persister.commit();
+        }
+    }
+
+    /**
+     * Returns the spatial index over the cached POIs.
+     *
+     * <p>The index is rebuilt if the cache map has been replaced or has diverged in size from what
+     * was last indexed.
+     *
+     * @return the {@link PlacesPOIIndex} mirroring {@link #cachedPOIs}
+     */
+    private PlacesPOIIndex getPOIIndex() {
+        final Map<String, PlacesPOI> pois = getCachedPOIs();
+
+        if (indexedPOIs != pois || poiIndex.size() != pois.size()) {
+            poiIndex.rebuild(pois.values());
+            indexedPOIs = pois;
+        }
+
+        return poiIndex;
+    }
+
+    /**
+     * Returns the membership index over the cached POIs.
+     *
+     * <p>The index is rebuilt if the cache map has been replaced or has diverged in size from what
+     * was last indexed.
+     *
+     * @return the {@link PlacesMembershipIndex} mirroring {@link #cachedPOIs}
+     */
+    private PlacesMembershipIndex getMembershipIndex() {
+        final Map<String, PlacesPOI> pois = getCachedPOIs();
+
+        if (membershipIndexedPOIs != pois || membershipIndex.size() != pois.size()) {
+            membershipIndex.rebuild(pois.values());
+            membershipIndexedPOIs = pois;
+        }
+
+        return membershipIndex;
+    }
+
+    private void loadPersistedPOIs() {
+        if (placesDataStore == null) {
+            Log.warning(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "Unable to load POI's from persistence, placesDataStore not available.");
+            return;
+        }
+
+        // defer decoding the cached POIs to their first access
+        cachedPOIs = null;
+        unloadedPOISnapshot =
+                placesDataStore.getString(PlacesConstants.DataStoreKeys.POI_SNAPSHOT, null);
+        unloadedLegacyPOIs =
+                placesDataStore.getString(PlacesConstants.DataStoreKeys.NEARBYPOIS, "");
+        legacyPOIsPersisted = !StringUtils.isNullOrEmpty(unloadedLegacyPOIs);
+        unloadedUserWithinPOIIds =
+                placesDataStore.getString(PlacesConstants.DataStoreKeys.USER_WITHIN_POI_IDS, "");
+
         // attempt to load current POI
         final String currentPOIString =
                 placesDataStore.getString(PlacesConstants.DataStoreKeys.CURRENT_POI, "");
@@ -432,6 +1445,7 @@ class PlacesState {
         if (!StringUtils.isNullOrEmpty(currentPOIString)) {
             try {
                 currentPOI = new PlacesPOI(currentPOIString);
+                persistedCurrentPOI = currentPOIString;
                 Log.debug(
                         PlacesConstants.LOG_TAG,
                         CLASS_NAME,
@@ -446,6 +1460,11 @@ class PlacesState {
             }
         }
 
+        // a current POI left behind by an interrupted write must still be one of the cached POIs
+        if (PlacesPersister.wasFlushInterrupted(placesDataStore)) {
+            validateLoadedCurrentPOI();
+        }
+
         // attempt to load last entered POI
         final String lastEnteredString =
                 placesDataStore.getString(PlacesConstants.DataStoreKeys.LAST_ENTERED_POI, "");
@@ -453,6 +1472,7 @@ class PlacesState {
         if (!StringUtils.isNullOrEmpty(lastEnteredString)) {
             try {
                 lastEnteredPOI = new PlacesPOI(lastEnteredString);
+                persistedLastEnteredPOI = lastEnteredString;
                 Log.debug(
                         PlacesConstants.LOG_TAG,
                         CLASS_NAME,
@@ -474,6 +1494,7 @@ class PlacesState {
         if (!StringUtils.isNullOrEmpty(lastExitedString)) {
             try {
                 lastExitedPOI = new PlacesPOI(lastExitedString);
+                persistedLastExitedPOI = lastExitedString;
             } catch (final JSONException exp) {
                 Log.warning(
                         PlacesConstants.LOG_TAG,
@@ -492,6 +1513,117 @@ class PlacesState {
         // load membership valid until timestamp
         membershipValidUntil =
                 placesDataStore.getLong(PlacesConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL, 0);
+
+        // load the area covered by the last nearby query
+        lastQueryLatitude =
+                placesDataStore.getDouble(
+                        PlacesConstants.DataStoreKeys.LAST_QUERY_LATITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        lastQueryLongitude =
+                placesDataStore.getDouble(
+                        PlacesConstants.DataStoreKeys.LAST_QUERY_LONGITUDE,
+                        PlacesConstants.INVALID_LAT_LON);
+        lastQueryRadius =
+                placesDataStore.getDouble(PlacesConstants.DataStoreKeys.LAST_QUERY_RADIUS, 0);
+        lastQueryCount = placesDataStore.getInt(PlacesConstants.DataStoreKeys.LAST_QUERY_COUNT, 0);
+        lastQueryLibraries =
+                placesDataStore.getString(PlacesConstants.DataStoreKeys.LAST_QUERY_LIBRARIES, null);
+        lastQueryTimestamp =
+                placesDataStore.getLong(PlacesConstants.DataStoreKeys.LAST_QUERY_TIMESTAMP, 0);
+    }
+
+    /**
+     * Replaces the loaded current POI with the highest priority cached POI the user is within,
+     * unless it already is one of them.
+     */
+    private void validateLoadedCurrentPOI() {
+        final PlacesPOI cachedCurrentPOI =
+                currentPOI != null ? getCachedPOIs().get(currentPOI.getIdentifier()) : null;
+
+        if (cachedCurrentPOI != null && cachedCurrentPOI.containsUser()) {
+            return;
+        }
+
+        Log.debug(
+                PlacesConstants.LOG_TAG,
+                CLASS_NAME,
+                "The last write of the POIs was interrupted, recalculating the current POI.");
+        currentPOI = calculateCurrentPOI();
+        persistedCurrentPOI = null;
+    }
+
+    /**
+     * Records and persists the area covered by the provided nearby query response.
+     *
+     * <p>The covered radius is the distance from the queried location to its farthest nearby POI.
+     *
+     * @param response the successful {@link PlacesQueryResponse}
+     * @param nearbyPOIs the nearby {@link PlacesPOI}s returned for the query, may be null
+     */
+    private void updateQueryCoverage(
+            final PlacesQueryResponse response, final List<PlacesPOI> nearbyPOIs) {
+        if (!PlacesUtil.isValidLat(response.queryLatitude)
+                || !PlacesUtil.isValidLon(response.queryLongitude)) {
+            clearQueryCoverage();
+            return;
+        }
+
+        double radius = 0;
+
+        if (nearbyPOIs != null) {
+            for (final PlacesPOI poi : nearbyPOIs) {
+                radius =
+                        Math.max(
+                                radius,
+                                PlacesUtil.distanceInMeters(
+                                        response.queryLatitude,
+                                        response.queryLongitude,
+                                        poi.getLatitude(),
+                                        poi.getLongitude()));
+            }
+        }
+
+        lastQueryLatitude = response.queryLatitude;
+        lastQueryLongitude = response.queryLongitude;
+        lastQueryRadius = radius;
+        lastQueryCount = response.queryCount;
+        lastQueryLibraries = response.queryLibraries;
+        lastQueryTimestamp = TimeUtils.getUnixTimeInSeconds();
+
+        if (placesDataStore == null) {
+            return;
+        }
+
+        placesDataStore.setDouble(
+                PlacesConstants.DataStoreKeys.LAST_QUERY_LATITUDE, lastQueryLatitude);
+        placesDataStore.setDouble(
+                PlacesConstants.DataStoreKeys.LAST_QUERY_LONGITUDE, lastQueryLongitude);
+        placesDataStore.setDouble(PlacesConstants.DataStoreKeys.LAST_QUERY_RADIUS, lastQueryRadius);
+        placesDataStore.setInt(PlacesConstants.DataStoreKeys.LAST_QUERY_COUNT, lastQueryCount);
+        placesDataStore.setString(
+                PlacesConstants.DataStoreKeys.LAST_QUERY_LIBRARIES, lastQueryLibraries);
+        placesDataStore.setLong(
+                PlacesConstants.DataStoreKeys.LAST_QUERY_TIMESTAMP, lastQueryTimestamp);
+    }
+
+    private void clearQueryCoverage() {
+        lastQueryLatitude = PlacesConstants.INVALID_LAT_LON;
+        lastQueryLongitude = PlacesConstants.INVALID_LAT_LON;
+        lastQueryRadius = 0;
+        lastQueryCount = 0;
+        lastQueryLibraries = null;
+        lastQueryTimestamp = 0;
+
+        if (placesDataStore == null) {
+            return;
+        }
+
+        placesDataStore.remove(PlacesConstants.DataStoreKeys.LAST_QUERY_LATITUDE);
+        placesDataStore.remove(PlacesConstants.DataStoreKeys.LAST_QUERY_LONGITUDE);
+        placesDataStore.remove(PlacesConstants.DataStoreKeys.LAST_QUERY_RADIUS);
+        placesDataStore.remove(PlacesConstants.DataStoreKeys.LAST_QUERY_COUNT);
+        placesDataStore.remove(PlacesConstants.DataStoreKeys.LAST_QUERY_LIBRARIES);
+        placesDataStore.remove(PlacesConstants.DataStoreKeys.LAST_QUERY_TIMESTAMP);
     }
 
     private void persistPOIs() {
@@ -503,81 +1635,157 @@ class PlacesState {
             return;
         }
 
-        // persist nearbyPOIs
-        if (cachedPOIs != null && !cachedPOIs.isEmpty()) {
-            try {
-                final JSONObject nearbyPOIsJSON = new JSONObject();
-                for (final String poiID : cachedPOIs.keySet()) {
-                    nearbyPOIsJSON.put(poiID, new JSONObject(cachedPOIs.get(poiID).toMap()));
-                }
-                final String jsonString = nearbyPOIsJSON.toString();
-                placesDataStore.setString(PlacesConstants.DataStoreKeys.NEARBYPOIS, jsonString);
-                Log.trace(
-                        PlacesConstants.LOG_TAG,
-                        CLASS_NAME,
-                        "nearbyPOIs persisted, %s",
-                        jsonString);
-            } catch (final Exception e) {
-                Log.warning(
-                        PlacesConstants.LOG_TAG,
-                        CLASS_NAME,
-                        String.format(
-                                "Unable to persist nearByPOIs in persistence, Exception: %s",
-                                e.getLocalizedMessage()));
+        final PlacesTracer tracer = PlacesTracing.getTracer();
+        final long cookie = tracer.beginStage(PlacesTracer.STAGE_PERSIST);
+
+        try {
+            // persist nearbyPOIs, rewriting all of them only if the cache has been refreshed
+            if (cachedPOIsChanged || persistedPOIs != cachedPOIs) {
+                persistCachedPOIs();
+            } else if (userWithinPOIIdsChanged) {
+                persistUserWithinPOIIds();
             }
-        } else {
-            placesDataStore.remove(PlacesConstants.DataStoreKeys.NEARBYPOIS);
+
+            // persist currentPOI, lastEnteredPOI and lastExitedPOI if they changed
+            persistedCurrentPOI =
+                    persistPOI(
+                            PlacesConstants.DataStoreKeys.CURRENT_POI,
+                            currentPOI,
+                            persistedCurrentPOI);
+            persistedLastEnteredPOI =
+                    persistPOI(
+                            PlacesConstants.DataStoreKeys.LAST_ENTERED_POI,
+                            lastEnteredPOI,
+                            persistedLastEnteredPOI);
+            persistedLastExitedPOI =
+                    persistPOI(
+                            PlacesConstants.DataStoreKeys.LAST_EXITED_POI,
+                            lastExitedPOI,
+                            persistedLastExitedPOI);
+
+            persister.setLong(
+                    PlacesConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL, membershipValidUntil);
+            persister.commit();
+        } finally {
+            tracer.endStage(PlacesTracer.STAGE_PERSIST, cookie);
         }
+    }
 
-        // persist currentPOI
-        if (currentPOI != null) {
-            final String jsonString = currentPOI.toJsonString();
-            placesDataStore.setString(PlacesConstants.DataStoreKeys.CURRENT_POI, jsonString);
-            Log.trace(PlacesConstants.LOG_TAG, CLASS_NAME, "currentPOI persisted, %s", jsonString);
-        } else {
-            placesDataStore.remove(PlacesConstants.DataStoreKeys.CURRENT_POI);
+    /** Writes the pending changes to the persisted POIs right away. */
+    void flushPendingWrites() {
+        if (persister != null) {
+            persister.flush();
         }
+    }
+
+    /** Writes the pending changes to the persisted POIs and stops any further delayed writes. */
+    void shutdown() {
+        if (persister != null) {
+            persister.shutdown();
+        }
+    }
+
+    /**
+     * Writes all the cached POIs to persistence.
+     *
+     * <p>The persisted POIs carry their own membership flags, hence the user-within POI ids that
+     * track the membership changes made since the previous write are removed.
+     */
+    private void persistCachedPOIs() {
+        persister.remove(PlacesConstants.DataStoreKeys.USER_WITHIN_POI_IDS);
 
-        // persist lastEnteredPOI
-        if (lastEnteredPOI != null) {
-            final String jsonString = lastEnteredPOI.toJsonString();
-            placesDataStore.setString(PlacesConstants.DataStoreKeys.LAST_ENTERED_POI, jsonString);
+        if (cachedPOIs != null && !cachedPOIs.isEmpty()) {
+            final String snapshot = PlacesPOISnapshot.encode(cachedPOIs.values());
+            persister.setString(PlacesConstants.DataStoreKeys.POI_SNAPSHOT, snapshot);
             Log.trace(
                     PlacesConstants.LOG_TAG,
                     CLASS_NAME,
-                    "lastEnteredPOI persisted, %s",
-                    jsonString);
+                    "%d nearbyPOIs persisted, snapshot of %d characters",
+                    cachedPOIs.size(),
+                    snapshot.length());
         } else {
-            placesDataStore.remove(PlacesConstants.DataStoreKeys.LAST_ENTERED_POI);
+            persister.remove(PlacesConstants.DataStoreKeys.POI_SNAPSHOT);
         }
 
-        // persist lastExitedPOI
-        if (lastExitedPOI != null) {
-            final String jsonString = lastExitedPOI.toJsonString();
-            placesDataStore.setString(PlacesConstants.DataStoreKeys.LAST_EXITED_POI, jsonString);
-            Log.trace(PlacesConstants.LOG_TAG, "lastExitedPOI persisted, %s", jsonString);
-        } else {
-            placesDataStore.remove(PlacesConstants.DataStoreKeys.LAST_EXITED_POI);
+        // the POIs persisted as JSON by earlier versions are replaced by the snapshot
+        if (legacyPOIsPersisted) {
+            persister.remove(PlacesConstants.DataStoreKeys.NEARBYPOIS);
+            legacyPOIsPersisted = false;
         }
 
-        placesDataStore.setLong(
-                PlacesConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL, membershipValidUntil);
+        persistedPOIs = cachedPOIs;
+        cachedPOIsChanged = false;
+        rebuildUserWithinPOIIds();
     }
 
-    private PlacesPOI calculateCurrentPOI() {
-        if (cachedPOIs == null) {
+    /** Writes the ids of the cached POIs the user is within to persistence. */
+    private void persistUserWithinPOIIds() {
+        final String jsonString = new JSONArray(userWithinPOIIds).toString();
+        persister.setString(PlacesConstants.DataStoreKeys.USER_WITHIN_POI_IDS, jsonString);
+        userWithinPOIIdsChanged = false;
+        Log.trace(
+                PlacesConstants.LOG_TAG, CLASS_NAME, "userWithinPOIIds persisted, %s", jsonString);
+    }
+
+    /**
+     * Writes the provided POI to persistence under the given key, unless it matches the value
+     * already persisted.
+     *
+     * @param key the datastore key of the POI
+     * @param poi the {@link PlacesPOI} to be persisted, null removes the key
+     * @param persistedValue the JSON string last persisted under the key
+     * @return the JSON string now persisted under the key
+     */
+    private String persistPOI(final String key, final PlacesPOI poi, final String persistedValue) {
+        if (poi == null) {
+            if (persistedValue != null) {
+                persister.remove(key);
+            }
+
             return null;
         }
 
-        PlacesPOI nextCurrentPOI = null;
+        final String jsonString = poi.toJsonString();
 
-        for (PlacesPOI poi : cachedPOIs.values()) {
+        if (!jsonString.equals(persistedValue)) {
+            persister.setString(key, jsonString);
+            Log.trace(PlacesConstants.LOG_TAG, CLASS_NAME, "%s persisted, %s", key, jsonString);
+        } else {
+            metrics.countSuppressedWrites(1);
+        }
+
+        return jsonString;
+    }
+
+    private void setUserIsWithin(final PlacesPOI poi, final boolean userIsWithin) {
+        poi.setUserIsWithin(userIsWithin);
+        getMembershipIndex().update(poi);
+        modifiedPOIIds.add(poi.getIdentifier());
+
+        final boolean changed =
+                userIsWithin
+                        ? userWithinPOIIds.add(poi.getIdentifier())
+                        : userWithinPOIIds.remove(poi.getIdentifier());
+        userWithinPOIIdsChanged |= changed;
+    }
+
+    private void rebuildUserWithinPOIIds() {
+        userWithinPOIIds.clear();
+        userWithinPOIIdsChanged = false;
+
+        if (cachedPOIs == null) {
+            return;
+        }
+
+        for (final PlacesPOI poi : cachedPOIs.values()) {
             if (poi.containsUser()) {
-                nextCurrentPOI = poi.comparePriority(nextCurrentPOI) ? poi : nextCurrentPOI;
+                userWithinPOIIds.add(poi.getIdentifier());
             }
         }
+    }
 
-        return nextCurrentPOI;
+    private PlacesPOI calculateCurrentPOI() {
+        return getMembershipIndex().getHighestPriorityPOI();
     }
 
     /**
@@ -591,6 +1799,7 @@ class PlacesState {
      */
     void clearMembershipData() {
         // clear out membership in memory
+        processedBodyHash = null;
         currentPOI = null;
         lastEnteredPOI = null;
         lastExitedPOI = null;
@@ -605,10 +1814,14 @@ class PlacesState {
         }
 
         // remove all the membership data from persistence
-        placesDataStore.remove(PlacesConstants.DataStoreKeys.CURRENT_POI);
-        placesDataStore.remove(PlacesConstants.DataStoreKeys.LAST_ENTERED_POI);
-        placesDataStore.remove(PlacesConstants.DataStoreKeys.LAST_EXITED_POI);
-        placesDataStore.remove(PlacesConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL);
+        persister.remove(PlacesConstants.DataStoreKeys.CURRENT_POI);
+        persister.remove(PlacesConstants.DataStoreKeys.LAST_ENTERED_POI);
+        persister.remove(PlacesConstants.DataStoreKeys.LAST_EXITED_POI);
+        persister.remove(PlacesConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL);
+        persister.commit();
+        persistedCurrentPOI = null;
+        persistedLastEnteredPOI = null;
+        persistedLastExitedPOI = null;
     }
 
     private boolean isMembershipDataValid() {
@@ -0,0 +1,109 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import android.location.Location;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable view of the {@link PlacesState} data served by the synchronous Places APIs.
+ *
+ * <p>{@link PlacesState} publishes a new snapshot after every change to the user-within POIs or to
+ * the last known location, so that the snapshot can be read from any thread without going through
+ * the event hub. The POIs are copied in and out, hence a caller can never change a snapshot.
+ */
+final class PlacesStateSnapshot {
+
+    static final PlacesStateSnapshot EMPTY =
+            new PlacesStateSnapshot(
+                    Collections.emptyList(),
+                    PlacesConstants.INVALID_LAT_LON,
+                    PlacesConstants.INVALID_LAT_LON);
+
+    private final List<PlacesPOI> userWithinPOIs;
+    private final double lastKnownLatitude;
+    private final double lastKnownLongitude;
+
+    private PlacesStateSnapshot(
+            final List<PlacesPOI> userWithinPOIs,
+            final double lastKnownLatitude,
+            final double lastKnownLongitude) {
+        this.userWithinPOIs = userWithinPOIs;
+        this.lastKnownLatitude = lastKnownLatitude;
+        this.lastKnownLongitude = lastKnownLongitude;
+    }
+
+    /**
+     * Returns a snapshot with the provided user-within POIs and the last known location of this
+     * snapshot.
+     *
+     * @param pois the POIs the user is within
+     * @return a new {@link PlacesStateSnapshot}
+     */
+    PlacesStateSnapshot withUserWithinPOIs(final List<PlacesPOI> pois) {
+        return new PlacesStateSnapshot(copyPOIs(pois), lastKnownLatitude, lastKnownLongitude);
+    }
+
+    /**
+     * Returns a snapshot with the provided last known location and the user-within POIs of this
+     * snapshot. An invalid latitude or longitude clears the last known location.
+     *
+     * @param latitude the last known latitude
+     * @param longitude the last known longitude
+     * @return a new {@link PlacesStateSnapshot}
+     */
+    PlacesStateSnapshot withLastKnownLocation(final double latitude, final double longitude) {
+        return new PlacesStateSnapshot(userWithinPOIs, latitude, longitude);
+    }
+
+    /**
+     * Returns copies of the POIs the user is within.
+     *
+     * @return a new list of {@link PlacesPOI}, empty if the user is not within any POI
+     */
+    List<PlacesPOI> getUserWithinPOIs() {
+        return copyPOIs(userWithinPOIs);
+    }
+
+    /**
+     * Returns the last known location.
+     *
+     * @return a new {@link Location}, or null if the last known location is unknown or invalid
+     */
+    Location getLastKnownLocation() {
+        if (!PlacesUtil.isValidLat(lastKnownLatitude)
+                || !PlacesUtil.isValidLon(lastKnownLongitude)) {
+            return null;
+        }
+
+        final Location location = new Location(PlacesConstants.Location.PROVIDER_TAG);
+        location.setLatitude(lastKnownLatitude);
+        location.setLongitude(lastKnownLongitude);
+        return location;
+    }
+
+    private static List<PlacesPOI> copyPOIs(final List<PlacesPOI> pois) {
+        if (pois == null || pois.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<PlacesPOI> copies = new ArrayList<>(pois.size());
+
+        for (final PlacesPOI poi : pois) {
+            copies.add(new PlacesPOI(poi));
+        }
+
+        return copies;
+    }
+}
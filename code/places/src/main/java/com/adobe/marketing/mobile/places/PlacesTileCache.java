@@ -0,0 +1,360 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Least recently used cache of the POIs of the geohash tiles queried in tile mode.
+ *
+ * <p>Each tile holds the POIs returned by a places query made from its center, encoded as a {@link
+ * PlacesPOISnapshot}. Tiles expire after the configured tile ttl, and the least recently used ones
+ * are evicted once the encoded tiles exceed the configured byte budget. The cache is persisted in
+ * the places datastore along with its hit, miss and eviction counters, which tell how well the
+ * configured tile precision suits the density of the POIs.
+ *
+ * <p>Not thread safe, it is only accessed from the places extension thread.
+ */
+final class PlacesTileCache {
+
+    private static final String CLASS_NAME = "PlacesTileCache";
+    private static final int FORMAT_VERSION = 1;
+
+    // keys of the persisted cache
+    private static final String KEY_VERSION = "v";
+    private static final String KEY_TILES = "tiles";
+    private static final String KEY_TILE = "k";
+    private static final String KEY_FETCH_TIMESTAMP = "t";
+    private static final String KEY_SNAPSHOT = "s";
+    private static final String KEY_HITS = "hits";
+    private static final String KEY_MISSES = "misses";
+    private static final String KEY_EVICTIONS = "evictions";
+
+    private final NamedCollection dataStore;
+
+    // tiles in least recently used first order
+    private final LinkedHashMap<String, Tile> tiles = new LinkedHashMap<>(16, 0.75f, true);
+    private long byteCount;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private boolean loaded;
+    private boolean changed;
+
+    private static final class Tile {
+
+        private final String snapshot;
+        private final long fetchTimestamp;
+        private List<PlacesPOI> pois;
+
+        private Tile(final String snapshot, final long fetchTimestamp, final List<PlacesPOI> pois) {
+            this.snapshot = snapshot;
+            this.fetchTimestamp = fetchTimestamp;
+            this.pois = pois;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param dataStore the {@link NamedCollection} the cache is persisted to, or null to keep it in
+     *     memory only
+     */
+    PlacesTileCache(final NamedCollection dataStore) {
+        this.dataStore = dataStore;
+    }
+
+    /**
+     * Creates the key of a tile, the same tile is cached separately for each set of libraries.
+     *
+     * @param geohash the geohash of the tile
+     * @param libraries the libraries query string of the {@link PlacesConfiguration}
+     * @return the tile key
+     */
+    static String createKey(final String geohash, final String libraries) {
+        return geohash + libraries;
+    }
+
+    /**
+     * Creates the get nearby places {@code EventData} of the places query fetching the POIs of a
+     * tile, made from the center of the tile.
+     *
+     * @param geohash the geohash of the tile
+     * @return the {@code EventData} of the tile query
+     */
+    static Map<String, Object> createTileQuery(final String geohash) {
+        final double[] bounds = PlacesGeohash.decodeBounds(geohash);
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(PlacesConstants.EventDataKeys.Places.LATITUDE, (bounds[0] + bounds[1]) / 2);
+        eventData.put(PlacesConstants.EventDataKeys.Places.LONGITUDE, (bounds[2] + bounds[3]) / 2);
+        eventData.put(
+                PlacesConstants.EventDataKeys.Places.PLACES_COUNT, PlacesConstants.TILE_POI_COUNT);
+        return eventData;
+    }
+
+    /**
+     * Looks up the POIs of a tile, counting a hit if the tile is cached and younger than the ttl,
+     * and a miss otherwise. Expired tiles are dropped.
+     *
+     * @param key the tile key
+     * @param timestamp the current time in seconds
+     * @param ttl the tile time-to-live in seconds
+     * @return the {@link PlacesPOI}s of the tile, which must not be modified, or null if the tile
+     *     needs to be fetched
+     */
+    List<PlacesPOI> get(final String key, final long timestamp, final long ttl) {
+        load();
+        final Tile tile = tiles.get(key);
+
+        if (tile != null && timestamp < tile.fetchTimestamp + ttl) {
+            final List<PlacesPOI> pois = getPOIs(key, tile);
+
+            if (pois != null) {
+                hitCount++;
+                return pois;
+            }
+        } else if (tile != null) {
+            removeTile(key);
+            changed = true;
+        }
+
+        missCount++;
+        return null;
+    }
+
+    /**
+     * Returns the POIs of a tile whatever its age, without counting a hit or a miss.
+     *
+     * @param key the tile key
+     * @return the {@link PlacesPOI}s of the tile, or null if the tile is not cached
+     */
+    List<PlacesPOI> peek(final String key) {
+        load();
+        final Tile tile = tiles.get(key);
+        return tile != null ? getPOIs(key, tile) : null;
+    }
+
+    /**
+     * Caches the POIs of a tile, then evicts the least recently used tiles until the cache fits in
+     * the byte budget. The most recent tile is kept even if it exceeds the budget on its own.
+     *
+     * @param key the tile key
+     * @param pois the {@link PlacesPOI}s of the tile
+     * @param timestamp the fetch time in seconds
+     * @param maxByteCount the byte budget of the cache
+     */
+    void put(
+            final String key,
+            final Collection<PlacesPOI> pois,
+            final long timestamp,
+            final long maxByteCount) {
+        load();
+        final List<PlacesPOI> tilePOIs = new ArrayList<>(pois.size());
+
+        for (final PlacesPOI poi : pois) {
+            // the user membership is relative to the queried location, not to the tile
+            final PlacesPOI tilePOI = new PlacesPOI(poi);
+            tilePOI.setUserIsWithin(false);
+            tilePOIs.add(tilePOI);
+        }
+
+        removeTile(key);
+        final Tile tile = new Tile(PlacesPOISnapshot.encode(tilePOIs), timestamp, tilePOIs);
+        tiles.put(key, tile);
+        byteCount += getByteCount(key, tile);
+        changed = true;
+
+        final Iterator<Map.Entry<String, Tile>> iterator = tiles.entrySet().iterator();
+
+        while (byteCount > maxByteCount && tiles.size() > 1) {
+            final Map.Entry<String, Tile> eldest = iterator.next();
+            byteCount -= getByteCount(eldest.getKey(), eldest.getValue());
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    /** Writes the cache to the datastore if it changed since the last write. */
+    void persist() {
+        if (dataStore == null || !changed) {
+            return;
+        }
+
+        try {
+            final JSONArray tileArray = new JSONArray();
+
+            for (final Map.Entry<String, Tile> entry : tiles.entrySet()) {
+                final JSONObject tileJson = new JSONObject();
+                tileJson.put(KEY_TILE, entry.getKey());
+                tileJson.put(KEY_FETCH_TIMESTAMP, entry.getValue().fetchTimestamp);
+                tileJson.put(KEY_SNAPSHOT, entry.getValue().snapshot);
+                tileArray.put(tileJson);
+            }
+
+            final JSONObject cacheJson = new JSONObject();
+            cacheJson.put(KEY_VERSION, FORMAT_VERSION);
+            cacheJson.put(KEY_TILES, tileArray);
+            cacheJson.put(KEY_HITS, hitCount);
+            cacheJson.put(KEY_MISSES, missCount);
+            cacheJson.put(KEY_EVICTIONS, evictionCount);
+            dataStore.setString(PlacesConstants.DataStoreKeys.TILE_CACHE, cacheJson.toString());
+            changed = false;
+        } catch (final JSONException exception) {
+            Log.warning(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "Unable to persist the tile cache : %s",
+                    exception);
+        }
+    }
+
+    /** Drops all the tiles and resets the counters, in memory and in the datastore. */
+    void clear() {
+        tiles.clear();
+        byteCount = 0;
+        hitCount = 0;
+        missCount = 0;
+        evictionCount = 0;
+        loaded = true;
+        changed = false;
+
+        if (dataStore != null) {
+            dataStore.remove(PlacesConstants.DataStoreKeys.TILE_CACHE);
+        }
+    }
+
+    int size() {
+        load();
+        return tiles.size();
+    }
+
+    long getByteCount() {
+        load();
+        return byteCount;
+    }
+
+    long getHitCount() {
+        load();
+        return hitCount;
+    }
+
+    long getMissCount() {
+        load();
+        return missCount;
+    }
+
+    long getEvictionCount() {
+        load();
+        return evictionCount;
+    }
+
+    private List<PlacesPOI> getPOIs(final String key, final Tile tile) {
+        if (tile.pois == null) {
+            try {
+                tile.pois = new ArrayList<>(PlacesPOISnapshot.decode(tile.snapshot).values());
+            } catch (final Exception exception) {
+                Log.warning(
+                        PlacesConstants.LOG_TAG,
+                        CLASS_NAME,
+                        "Dropping the malformed tile %s : %s",
+                        key,
+                        exception);
+                removeTile(key);
+                changed = true;
+                return null;
+            }
+        }
+
+        return tile.pois;
+    }
+
+    private void removeTile(final String key) {
+        final Tile tile = tiles.remove(key);
+
+        if (tile != null) {
+            byteCount -= getByteCount(key, tile);
+        }
+    }
+
+    private static long getByteCount(final String key, final Tile tile) {
+        return key.length() + tile.snapshot.length();
+    }
+
+    /** Loads the persisted cache on first use, the tiles are decoded when first looked up. */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+
+        loaded = true;
+        final String persistedCache =
+                dataStore != null
+                        ? dataStore.getString(PlacesConstants.DataStoreKeys.TILE_CACHE, null)
+                        : null;
+
+        if (persistedCache == null) {
+            return;
+        }
+
+        try {
+            final JSONObject cacheJson = new JSONObject(persistedCache);
+
+            if (cacheJson.getInt(KEY_VERSION) != FORMAT_VERSION) {
+                throw new JSONException("Unsupported tile cache version");
+            }
+
+            final JSONArray tileArray = cacheJson.getJSONArray(KEY_TILES);
+
+            for (int i = 0; i < tileArray.length(); i++) {
+                final JSONObject tileJson = tileArray.getJSONObject(i);
+                final String key = tileJson.getString(KEY_TILE);
+                final Tile tile =
+                        new Tile(
+                                tileJson.getString(KEY_SNAPSHOT),
+                                tileJson.getLong(KEY_FETCH_TIMESTAMP),
+                                null);
+                tiles.put(key, tile);
+                byteCount += getByteCount(key, tile);
+            }
+
+            hitCount = cacheJson.optLong(KEY_HITS, 0);
+            missCount = cacheJson.optLong(KEY_MISSES, 0);
+            evictionCount = cacheJson.optLong(KEY_EVICTIONS, 0);
+            Log.trace(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "Loaded %d cached tiles (%d bytes)",
+                    tiles.size(),
+                    byteCount);
+        } catch (final JSONException exception) {
+            Log.warning(
+                    PlacesConstants.LOG_TAG,
+                    CLASS_NAME,
+                    "Dropping the malformed persisted tile cache : %s",
+                    exception);
+            tiles.clear();
+            byteCount = 0;
+            dataStore.remove(PlacesConstants.DataStoreKeys.TILE_CACHE);
+        }
+    }
+}
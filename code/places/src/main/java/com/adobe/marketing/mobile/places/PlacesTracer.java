@@ -0,0 +1,94 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives the begin and end of each stage of the Places pipeline, to trace the time spent in each
+ * of them.
+ *
+ * <p>A stage begins and ends on the same thread, except for {@link #STAGE_QUEUE} and {@link
+ * #STAGE_NETWORK}, which end on the thread picking up the work. The cookie returned when a stage
+ * begins is passed back when it ends, so that the overlapping occurrences of a stage can be told
+ * apart. A get nearby places request goes through {@link #STAGE_QUEUE} and {@link
+ * #STAGE_PROCESS_EVENT}, then its places query through {@link #STAGE_NETWORK} and {@link
+ * #STAGE_READ_RESPONSE}, and the response is processed within {@link #STAGE_PROCESS_RESPONSE},
+ * which holds the {@link #STAGE_PERSIST} and {@link #STAGE_DISPATCH} stages.
+ *
+ * <p>The tracer is called from the Places extension, networking and persistence threads, hence an
+ * implementation must be thread safe, must not throw and should return quickly. For instance, it
+ * can record the timings to a ring buffer, or forward them to Android {@code Trace} sections:
+ *
+ * <pre>
+ * Places.setTracer(new PlacesTracer() {
+ *     private final AtomicInteger cookies = new AtomicInteger();
+ *
+ *     public long beginStage(String stage) {
+ *         final int cookie = cookies.incrementAndGet();
+ *         Trace.beginAsyncSection(stage, cookie);
+ *         return cookie;
+ *     }
+ *
+ *     public void endStage(String stage, long cookie) {
+ *         Trace.endAsyncSection(stage, (int) cookie);
+ *     }
+ * });
+ * </pre>
+ *
+ * By default, no tracer is set and tracing costs no allocation.
+ */
+public interface PlacesTracer {
+
+    /** Wait of a Places request event for the Places extension thread. */
+    String STAGE_QUEUE = "places.queue";
+
+    /** Processing of a Places request event on the Places extension thread. */
+    String STAGE_PROCESS_EVENT = "places.processevent";
+
+    /** Places query, from sending the request to receiving the response status. */
+    String STAGE_NETWORK = "places.network";
+
+    /** Reading and parsing of the body of a places query response. */
+    String STAGE_READ_RESPONSE = "places.readresponse";
+
+    /**
+     * Processing of a places query response on the Places extension thread, including the update
+     * of the places state and shared state and the response dispatches.
+     */
+    String STAGE_PROCESS_RESPONSE = "places.processresponse";
+
+    /** Staging of the changed POIs and membership data to be written to the datastore. */
+    String STAGE_PERSIST = "places.persist";
+
+    /** Write of the staged POIs and membership data to the datastore. */
+    String STAGE_FLUSH = "places.flush";
+
+    /** Dispatch of a nearby places, nearby places delta or region event. */
+    String STAGE_DISPATCH = "places.dispatch";
+
+    /**
+     * Called when a stage begins.
+     *
+     * @param stage the name of the stage, one of the {@code STAGE} constants
+     * @return a cookie identifying this occurrence of the stage
+     */
+    long beginStage(@NonNull String stage);
+
+    /**
+     * Called when a stage ends.
+     *
+     * @param stage the name of the stage, one of the {@code STAGE} constants
+     * @param cookie the cookie returned by {@link #beginStage(String)} for this occurrence
+     */
+    void endStage(@NonNull String stage, long cookie);
+}
@@ -0,0 +1,56 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Holds the {@link PlacesTracer} of the Places pipeline stages.
+ *
+ * <p>The tracer can be replaced at any time from any thread. Until one is set, a no-op tracer is
+ * used, which neither allocates nor records anything.
+ */
+final class PlacesTracing {
+
+    private static final PlacesTracer NO_OP =
+            new PlacesTracer() {
+                @Override
+                public long beginStage(@NonNull final String stage) {
+                    return 0;
+                }
+
+                @Override
+                public void endStage(@NonNull final String stage, final long cookie) {}
+            };
+
+    private static volatile PlacesTracer tracer = NO_OP;
+
+    private PlacesTracing() {}
+
+    /**
+     * Returns the current tracer.
+     *
+     * @return the {@link PlacesTracer} set with {@link #setTracer(PlacesTracer)}, or a no-op tracer
+     */
+    static PlacesTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Sets the tracer of the Places pipeline stages.
+     *
+     * @param placesTracer the {@link PlacesTracer}, or null to stop tracing
+     */
+    static void setTracer(final PlacesTracer placesTracer) {
+        tracer = placesTracer != null ? placesTracer : NO_OP;
+    }
+}
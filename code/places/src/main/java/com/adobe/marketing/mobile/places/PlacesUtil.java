@@ -30,6 +30,9 @@ public class PlacesUtil {
     private static final double MAX_LON = 180d;
     private static final double MIN_LON = -180d;
 
+    // mean earth radius, in meters
+    static final double EARTH_RADIUS_METERS = 6371008.8d;
+
     private static final String CLASS_NAME = "PlacesUtil";
 
     /**
@@ -52,6 +55,33 @@ public class PlacesUtil {
         return longitude >= MIN_LON && longitude <= MAX_LON;
     }
 
+    /**
+     * Calculates the great-circle distance between two coordinates using the haversine formula.
+     *
+     * @param fromLatitude the latitude of the first coordinate
+     * @param fromLongitude the longitude of the first coordinate
+     * @param toLatitude the latitude of the second coordinate
+     * @param toLongitude the longitude of the second coordinate
+     * @return the distance between the two coordinates in meters
+     */
+    static double distanceInMeters(
+            final double fromLatitude,
+            final double fromLongitude,
+            final double toLatitude,
+            final double toLongitude) {
+        final double latDelta = Math.toRadians(toLatitude - fromLatitude);
+        final double lonDelta = Math.toRadians(toLongitude - fromLongitude);
+        final double sinLat = Math.sin(latDelta / 2);
+        final double sinLon = Math.sin(lonDelta / 2);
+        final double a =
+                sinLat * sinLat
+                        + Math.cos(Math.toRadians(fromLatitude))
+                                * Math.cos(Math.toRadians(toLatitude))
+                                * sinLon
+                                * sinLon;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1d, Math.sqrt(a)));
+    }
+
     /**
      * Converts the list of {@link PlacesPOI} objects to list of {@link Map} representing {@code
      * PlacesPOI}.
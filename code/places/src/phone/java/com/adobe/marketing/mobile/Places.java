@@ -13,10 +13,12 @@ package com.adobe.marketing.mobile;
 
 import android.location.Location;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import com.adobe.marketing.mobile.places.PlacesAuthorizationStatus;
 import com.adobe.marketing.mobile.places.PlacesExtension;
 import com.adobe.marketing.mobile.places.PlacesPOI;
 import com.adobe.marketing.mobile.places.PlacesRequestError;
+import com.adobe.marketing.mobile.places.PlacesTracer;
 import com.adobe.marketing.mobile.places.PlacesUtil;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.DataReader;
@@ -127,7 +129,12 @@ public class Places {
             return;
         }
 
-        sendGeofenceEvents(regions);
+        // the transitions of several geofences are processed together, in a single event
+        if (regions.size() > 1) {
+            sendGeofenceBatchEvent(regions);
+        } else {
+            sendGeofenceEvents(regions);
+        }
     }
 
     /**
@@ -182,6 +189,50 @@ public class Places {
         sendGeofenceEvents(regions);
     }
 
+    /**
+     * Pass a device {@link Location} to be evaluated against the cached Points of Interest (POI).
+     *
+     * <p>When the on-device geofence evaluation is enabled with the {@code
+     * places.geofenceevaluation} configuration, the SDK detects the POIs entered and exited at the
+     * provided location, without registering geofences with the operating system. The detected
+     * entries and exits are processed the same way as the ones passed with {@link
+     * #processGeofenceEvent(GeofencingEvent)}. When the evaluation is not enabled, the location is
+     * ignored and does not become the last known location.
+     *
+     * <p>Only the POIs cached by the last {@link #getNearbyPointsOfInterest(Location, int,
+     * AdobeCallback, AdobeCallback)} call are evaluated. The accuracy of the location, when
+     * available, is taken into account before detecting an entry or exit.
+     *
+     * @param location the current {@link Location} of the device
+     */
+    public static void processLocation(@NonNull final Location location) {
+        if (location == null) {
+            Log.warning(
+                    LOG_TAG,
+                    CLASS_NAME,
+                    "Ignoring call to processLocation. Location object is null.");
+            return;
+        }
+
+        final Map<String, Object> eventDataMap = new HashMap<>();
+        eventDataMap.put(EventDataKeys.LATITUDE, location.getLatitude());
+        eventDataMap.put(EventDataKeys.LONGITUDE, location.getLongitude());
+        eventDataMap.put(EventDataKeys.REQUEST_TYPE, EventDataKeys.REQUEST_TYPE_PROCESS_LOCATION);
+
+        if (location.hasAccuracy()) {
+            eventDataMap.put(EventDataKeys.ACCURACY, (double) location.getAccuracy());
+        }
+
+        final Event event =
+                new Event.Builder(
+                                EventName.REQUEST_PROCESSLOCATION,
+                                EventType.PLACES,
+                                EventSource.REQUEST_CONTENT)
+                        .setEventData(eventDataMap)
+                        .build();
+        MobileCore.dispatchEvent(event);
+    }
+
     /**
      * Returns all Points of Interest (POI) in which the device is currently known to be within.
      *
@@ -369,6 +420,75 @@ public class Places {
                 });
     }
 
+    /**
+     * Returns all Points of Interest (POI) in which the device is currently known to be within.
+     *
+     * <p>Unlike {@link #getCurrentPointsOfInterest(AdobeCallback)}, the POIs are read directly from
+     * the latest state of the Places extension without a round trip through the event hub, hence
+     * this method can be called from any thread, including the UI thread.
+     *
+     * <p>Returns empty list when the device is not within any of the configured POIs, or when the
+     * Places extension is not registered.
+     *
+     * @return list of {@link PlacesPOI} objects that represent the POIs within which the user is
+     *     currently in
+     */
+    @NonNull public static List<PlacesPOI> getCurrentPointsOfInterest() {
+        return PlacesExtension.getUserWithinPOIsSnapshot();
+    }
+
+    /**
+     * Returns the last known Location of the device provided to the Places Extension.
+     *
+     * <p>Unlike {@link #getLastKnownLocation(AdobeCallback)}, the location is read directly from
+     * the latest state of the Places extension without a round trip through the event hub, hence
+     * this method can be called from any thread, including the UI thread.
+     *
+     * <p>Returns null, if the SDK doesn't know the last known location or if the Places extension
+     * is not registered.
+     *
+     * @return a {@link Location} object representing the last known lat/lon provided to the
+     *     extension
+     */
+    public static Location getLastKnownLocation() {
+        return PlacesExtension.getLastKnownLocationSnapshot();
+    }
+
+    /**
+     * Returns the performance metrics of the Places extension.
+     *
+     * <p>The metrics hold histograms of the places query network latency, of the time spent
+     * parsing the query responses and of the time spent persisting the POIs, in milliseconds, along
+     * with counters of the processed Places events per request type, of the get nearby places
+     * requests served from or missing the cache, of the suppressed datastore writes and shared
+     * state updates, of the dropped region events and of the persisted characters. They are read
+     * directly from the Places extension, hence this method can be called from any thread.
+     *
+     * <p>Returns an empty map when the Places extension is not registered.
+     *
+     * @return an unmodifiable {@link Map} of the metrics
+     */
+    @NonNull public static Map<String, Object> getMetrics() {
+        return PlacesExtension.getMetricsSnapshot();
+    }
+
+    /**
+     * Sets the tracer receiving the begin and end of each stage of the Places pipeline.
+     *
+     * <p>The stages cover the wait and processing of the Places request events, the places query
+     * network request and response parsing, the processing of the query responses, the
+     * persistence of the POIs and the dispatch of the response events. See {@link PlacesTracer}
+     * for the stage names and an example forwarding them to Android {@code Trace} sections.
+     *
+     * <p>The tracer is called synchronously from the Places threads, hence it must be thread safe
+     * and return quickly. Passing null stops tracing.
+     *
+     * @param tracer the {@link PlacesTracer}, or null to stop tracing
+     */
+    public static void setTracer(@Nullable final PlacesTracer tracer) {
+        PlacesExtension.setTracer(tracer);
+    }
+
     /** Clears out the client-side data for Places in shared state, local storage, and in-memory. */
     public static void clear() {
         // Create Event Data
@@ -473,6 +593,28 @@ public class Places {
         }
     }
 
+    /**
+     * Dispatches a single {@link EventType#PLACES} {@link EventSource#REQUEST_CONTENT} event to
+     * process the entries/exits of several geofences at once.
+     *
+     * @param placesRegions a {@link List} of {@link Map} containing geofence id and geofence
+     *     eventType
+     */
+    private static void sendGeofenceBatchEvent(final List<Map<String, Object>> placesRegions) {
+        final Map<String, Object> eventDataMap = new HashMap<>();
+        eventDataMap.put(
+                EventDataKeys.REQUEST_TYPE, EventDataKeys.REQUEST_TYPE_PROCESS_REGION_EVENTS);
+        eventDataMap.put(EventDataKeys.REGIONS, placesRegions);
+        final Event event =
+                new Event.Builder(
+                                EventName.REQUEST_PROCESSREGIONEVENTS,
+                                EventType.PLACES,
+                                EventSource.REQUEST_CONTENT)
+                        .setEventData(eventDataMap)
+                        .build();
+        MobileCore.dispatchEvent(event);
+    }
+
     /**
      * Converts the geofenceTransitionEventType to PlacesEventType.
      *
@@ -556,8 +698,10 @@ public class Places {
                             final PlacesRequestError status =
                                     PlacesRequestError.fromInt(resultStatusInteger);
 
-                            // call the successCallback if the status is OK
-                            if (status == PlacesRequestError.OK) {
+                            // call the successCallback if the status is OK, throttled queries
+                            // are answered with the cached POIs
+                            if (status == PlacesRequestError.OK
+                                    || status == PlacesRequestError.QUERY_THROTTLED) {
                                 callSuccessCallback(PlacesUtil.convertMapToPOIList(poiMap));
                                 return;
                             }
@@ -601,6 +745,7 @@ public class Places {
         private static final String PLACES_COUNT = "count";
         private static final String LATITUDE = "latitude";
         private static final String LONGITUDE = "longitude";
+        private static final String ACCURACY = "accuracy";
 
         // Places Response Content event keys
         private static final String NEAR_BY_PLACES_LIST = "nearbypois";
@@ -612,6 +757,8 @@ public class Places {
         static final String REQUEST_TYPE = "requesttype";
         static final String REQUEST_TYPE_GET_NEARBY_PLACES = "requestgetnearbyplaces";
         static final String REQUEST_TYPE_PROCESS_REGION_EVENT = "requestprocessregionevent";
+        static final String REQUEST_TYPE_PROCESS_REGION_EVENTS = "requestprocessregionevents";
+        static final String REQUEST_TYPE_PROCESS_LOCATION = "requestprocesslocation";
         static final String REQUEST_TYPE_GET_USER_WITHIN_PLACES = "requestgetuserwithinplaces";
         static final String REQUEST_TYPE_GET_LAST_KNOWN_LOCATION = "requestgetlastknownlocation";
         static final String REQUEST_TYPE_RESET = "requestreset";
@@ -623,6 +770,7 @@ public class Places {
         static final String REGION_EVENT_TYPE = "regioneventtype";
         static final String REGION_METADATA = "regionmetadata";
         static final String REGION_TIMESTAMP = "timestamp";
+        static final String REGIONS = "regions";
 
         // last known location keys
         static final String LAST_KNOWN_LATITUDE = "lastknownlatitude";
@@ -639,6 +787,8 @@ public class Places {
         static final String REQUEST_GETLASTKNOWNLOCATION = "requestgetlastknownlocation";
         static final String REQUEST_GETNEARBYPLACES = "requestgetnearbyplaces";
         static final String REQUEST_PROCESSREGIONEVENT = "requestprocessregionevent";
+        static final String REQUEST_PROCESSREGIONEVENTS = "requestprocessregionevents";
+        static final String REQUEST_PROCESSLOCATION = "requestprocesslocation";
         static final String REQUEST_RESET = "requestreset";
         static final String REQUEST_SETAUTHORIZATIONSTATUS = "requestsetauthorizationstatus";
 
@@ -0,0 +1,122 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PlacesCircuitBreakerTests {
+
+    private static final int THRESHOLD = 3;
+    private static final long OPEN_DURATION = 1000;
+
+    private final PlacesCircuitBreaker circuitBreaker = new PlacesCircuitBreaker();
+
+    @Test
+    public void test_allowRequest_when_closed() {
+        // test and verify
+        assertEquals(PlacesCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.allowRequest(0, OPEN_DURATION));
+    }
+
+    @Test
+    public void test_recordFailure_opensAtThreshold() {
+        // test
+        circuitBreaker.recordFailure(0, THRESHOLD);
+        circuitBreaker.recordFailure(0, THRESHOLD);
+
+        // verify
+        assertEquals(PlacesCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        // test
+        circuitBreaker.recordFailure(100, THRESHOLD);
+
+        // verify that the requests fail fast for the open duration
+        assertEquals(PlacesCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest(100, OPEN_DURATION));
+        assertFalse(circuitBreaker.allowRequest(1099, OPEN_DURATION));
+    }
+
+    @Test
+    public void test_recordSuccess_resetsFailureCount() {
+        // test
+        circuitBreaker.recordFailure(0, THRESHOLD);
+        circuitBreaker.recordFailure(0, THRESHOLD);
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure(0, THRESHOLD);
+        circuitBreaker.recordFailure(0, THRESHOLD);
+
+        // verify
+        assertEquals(PlacesCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void test_recordFailure_when_thresholdDisabled() {
+        // test
+        for (int i = 0; i < 100; i++) {
+            circuitBreaker.recordFailure(0, 0);
+        }
+
+        // verify
+        assertEquals(PlacesCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.allowRequest(0, OPEN_DURATION));
+    }
+
+    @Test
+    public void test_allowRequest_letsSingleProbeThrough() {
+        // setup
+        openCircuitBreaker(0);
+
+        // test and verify
+        assertTrue(circuitBreaker.allowRequest(1000, OPEN_DURATION));
+        assertEquals(PlacesCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest(1001, OPEN_DURATION));
+    }
+
+    @Test
+    public void test_recordSuccess_when_probeSucceeds() {
+        // setup
+        openCircuitBreaker(0);
+        circuitBreaker.allowRequest(1000, OPEN_DURATION);
+
+        // test
+        circuitBreaker.recordSuccess();
+
+        // verify
+        assertEquals(PlacesCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.allowRequest(1001, OPEN_DURATION));
+    }
+
+    @Test
+    public void test_recordFailure_when_probeFails() {
+        // setup
+        openCircuitBreaker(0);
+        circuitBreaker.allowRequest(1000, OPEN_DURATION);
+
+        // test
+        circuitBreaker.recordFailure(1500, THRESHOLD);
+
+        // verify that the breaker opens again for the whole duration
+        assertEquals(PlacesCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.allowRequest(2000, OPEN_DURATION));
+        assertTrue(circuitBreaker.allowRequest(2500, OPEN_DURATION));
+    }
+
+    private void openCircuitBreaker(final long timestamp) {
+        for (int i = 0; i < THRESHOLD; i++) {
+            circuitBreaker.recordFailure(timestamp, THRESHOLD);
+        }
+    }
+}
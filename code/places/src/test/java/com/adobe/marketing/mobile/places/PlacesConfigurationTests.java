@@ -170,6 +170,250 @@ public class PlacesConfigurationTests {
         assertEquals("&library=lib1&library=lib2", configuration.getLibrariesQueryString());
     }
 
+    @Test
+    public void testConfiguration_CacheTtl() {
+        // setup
+        final Map<String, Object> configData =
+                createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_CACHE_TTL, 300L);
+
+        // test
+        PlacesConfiguration configuration = new PlacesConfiguration(configData);
+
+        // verify
+        assertTrue(configuration.isValid());
+        assertEquals(300, configuration.getCacheTtl());
+    }
+
+    @Test
+    public void testConfiguration_WhenCacheTtlNotPresent() {
+        // test
+        PlacesConfiguration configuration =
+                new PlacesConfiguration(
+                        createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL));
+
+        // verify
+        assertTrue(configuration.isValid());
+        assertEquals(0, configuration.getCacheTtl());
+    }
+
+    @Test
+    public void testConfiguration_MinQueryDistanceAndInterval() {
+        // setup
+        final Map<String, Object> configData =
+                createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration
+                        .CONFIG_KEY_PLACES_MIN_QUERY_DISTANCE,
+                100.5);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration
+                        .CONFIG_KEY_PLACES_MIN_QUERY_INTERVAL,
+                120L);
+
+        // test
+        PlacesConfiguration configuration = new PlacesConfiguration(configData);
+
+        // verify
+        assertTrue(configuration.isValid());
+        assertEquals(100.5, configuration.getMinQueryDistance(), 0);
+        assertEquals(120, configuration.getMinQueryInterval());
+    }
+
+    @Test
+    public void testConfiguration_WhenMinQueryDistanceAndIntervalNotPresent() {
+        // test
+        PlacesConfiguration configuration =
+                new PlacesConfiguration(
+                        createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL));
+
+        // verify
+        assertTrue(configuration.isValid());
+        assertEquals(0, configuration.getMinQueryDistance(), 0);
+        assertEquals(0, configuration.getMinQueryInterval());
+    }
+
+    @Test
+    public void testConfiguration_GeofenceEvaluation() {
+        // setup
+        final Map<String, Object> configData =
+                createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration
+                        .CONFIG_KEY_PLACES_GEOFENCE_EVALUATION,
+                true);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration
+                        .CONFIG_KEY_PLACES_GEOFENCE_HYSTERESIS,
+                40.0);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration
+                        .CONFIG_KEY_PLACES_GEOFENCE_MAX_ACCURACY,
+                100.0);
+
+        // test
+        PlacesConfiguration configuration = new PlacesConfiguration(configData);
+
+        // verify
+        assertTrue(configuration.isValid());
+        assertTrue(configuration.isGeofenceEvaluationEnabled());
+        assertEquals(40, configuration.getGeofenceHysteresis(), 0);
+        assertEquals(100, configuration.getGeofenceMaxAccuracy(), 0);
+    }
+
+    @Test
+    public void testConfiguration_WhenGeofenceEvaluationNotPresent() {
+        // test
+        PlacesConfiguration configuration =
+                new PlacesConfiguration(
+                        createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL));
+
+        // verify
+        assertTrue(configuration.isValid());
+        assertFalse(configuration.isGeofenceEvaluationEnabled());
+        assertEquals(25, configuration.getGeofenceHysteresis(), 0);
+        assertEquals(250, configuration.getGeofenceMaxAccuracy(), 0);
+    }
+
+    @Test
+    public void testConfiguration_TileMode() {
+        // setup
+        final Map<String, Object> configData =
+                createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_TILE_PRECISION,
+                6);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_TILE_TTL, 3600L);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_TILE_CACHE_SIZE,
+                65536L);
+
+        // test
+        PlacesConfiguration configuration = new PlacesConfiguration(configData);
+
+        // verify
+        assertTrue(configuration.isValid());
+        assertEquals(6, configuration.getTilePrecision());
+        assertEquals(3600, configuration.getTileTtl());
+        assertEquals(65536, configuration.getTileCacheSize());
+    }
+
+    @Test
+    public void testConfiguration_WhenTileModeNotPresent() {
+        // test
+        PlacesConfiguration configuration =
+                new PlacesConfiguration(
+                        createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL));
+
+        // verify
+        assertTrue(configuration.isValid());
+        assertEquals(0, configuration.getTilePrecision());
+        assertEquals(86400, configuration.getTileTtl());
+        assertEquals(262144, configuration.getTileCacheSize());
+    }
+
+    @Test
+    public void testConfiguration_WhenTilePrecisionInvalid() {
+        // setup
+        final Map<String, Object> configData =
+                createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_TILE_PRECISION,
+                13);
+
+        // test
+        PlacesConfiguration configuration = new PlacesConfiguration(configData);
+
+        // verify that the tile mode is disabled
+        assertTrue(configuration.isValid());
+        assertEquals(0, configuration.getTilePrecision());
+    }
+
+    @Test
+    public void testConfiguration_NearbyDeltaEvents() {
+        // setup
+        final Map<String, Object> configData =
+                createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL);
+
+        // test and verify
+        assertFalse(new PlacesConfiguration(configData).isNearbyDeltaEventsEnabled());
+
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration
+                        .CONFIG_KEY_PLACES_NEARBY_DELTA_EVENTS,
+                true);
+        assertTrue(new PlacesConfiguration(configData).isNearbyDeltaEventsEnabled());
+    }
+
+    @Test
+    public void testConfiguration_MetricsSharedState() {
+        // setup
+        final Map<String, Object> configData =
+                createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL);
+
+        // test and verify
+        assertFalse(new PlacesConfiguration(configData).isMetricsSharedStateEnabled());
+
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration
+                        .CONFIG_KEY_PLACES_METRICS_SHARED_STATE,
+                true);
+        assertTrue(new PlacesConfiguration(configData).isMetricsSharedStateEnabled());
+    }
+
+    @Test
+    public void testConfiguration_NetworkRetriesAndCircuitBreaker() {
+        // setup
+        final Map<String, Object> configData =
+                createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL);
+
+        // test
+        PlacesConfiguration placesConfiguration = new PlacesConfiguration(configData);
+
+        // verify defaults
+        assertEquals(2, placesConfiguration.getNetworkRetries());
+        assertEquals(5, placesConfiguration.getCircuitBreakerThreshold());
+        assertEquals(30, placesConfiguration.getCircuitBreakerDuration());
+
+        // test
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_NETWORK_RETRIES,
+                0);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration
+                        .CONFIG_KEY_PLACES_CIRCUIT_BREAKER_THRESHOLD,
+                0);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration
+                        .CONFIG_KEY_PLACES_CIRCUIT_BREAKER_DURATION,
+                120);
+        placesConfiguration = new PlacesConfiguration(configData);
+
+        // verify
+        assertEquals(0, placesConfiguration.getNetworkRetries());
+        assertEquals(0, placesConfiguration.getCircuitBreakerThreshold());
+        assertEquals(120, placesConfiguration.getCircuitBreakerDuration());
+    }
+
+    @Test
+    public void testConfiguration_InvalidNetworkRetries() {
+        // setup
+        final Map<String, Object> configData =
+                createConfigData(1, SAMPLE_ENDPOINT, SAMPLE_MEMBERSHIP_TTL);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_NETWORK_RETRIES,
+                10);
+
+        // test
+        final PlacesConfiguration placesConfiguration = new PlacesConfiguration(configData);
+
+        // verify
+        assertTrue(placesConfiguration.isValid());
+        assertEquals(2, placesConfiguration.getNetworkRetries());
+    }
+
     private Map<String, Object> createConfigData(
             final int noOfLibraries, final String endPoint, final long membershipTtl) {
         List<Map<String, String>> libraries = new ArrayList<>();
@@ -22,8 +22,11 @@ import com.adobe.marketing.mobile.EventSource;
 import com.adobe.marketing.mobile.EventType;
 import com.adobe.marketing.mobile.ExtensionApi;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.junit.Before;
@@ -105,7 +108,12 @@ public class PlacesDispatcherTests {
                         dispatchedEvent
                                 .getEventData()
                                 .get(PlacesTestConstants.EventDataKeys.Places.RESULT_STATUS));
-        assertEquals(2, dispatchedEvent.getEventData().size());
+        assertEquals(
+                PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK,
+                dispatchedEvent
+                        .getEventData()
+                        .get(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE));
+        assertEquals(3, dispatchedEvent.getEventData().size());
         assertEquals(triggeringEvent.getUniqueIdentifier(), dispatchedEvent.getResponseID());
     }
 
@@ -145,10 +153,236 @@ public class PlacesDispatcherTests {
                         dispatchedEvent
                                 .getEventData()
                                 .get(PlacesTestConstants.EventDataKeys.Places.RESULT_STATUS));
-        assertEquals(2, dispatchedEvent.getEventData().size());
+        assertEquals(
+                PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK,
+                dispatchedEvent
+                        .getEventData()
+                        .get(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE));
+        assertEquals(3, dispatchedEvent.getEventData().size());
         assertNull(dispatchedEvent.getResponseID());
     }
 
+    @Test
+    public void test_dispatchNearbyPlaces_fromCache() {
+        List<PlacesPOI> pois = new ArrayList<PlacesPOI>();
+        pois.add(
+                new PlacesPOI(
+                        "identifier",
+                        "name",
+                        34.33,
+                        -121.55,
+                        50,
+                        SAMPLE_LIBRARY,
+                        SAMPLE_WEIGHT,
+                        null));
+
+        // test
+        placesDispatcher.dispatchNearbyPlaces(
+                pois,
+                PlacesRequestError.OK,
+                triggerEvent,
+                PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE);
+
+        // verify
+        verify(extensionApi).dispatch(dispatchedEventCaptor.capture());
+        Event dispatchedEvent = dispatchedEventCaptor.getValue();
+
+        // verify dispatchedEvent
+        assertEquals(
+                PlacesTestConstants.EventName.RESPONSE_GETNEARBYPLACES, dispatchedEvent.getName());
+        assertEquals(
+                PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE,
+                dispatchedEvent
+                        .getEventData()
+                        .get(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE));
+        assertEquals(3, dispatchedEvent.getEventData().size());
+    }
+
+    @Test
+    public void test_dispatchNearbyPlaces_withGeneration() {
+        // test
+        placesDispatcher.dispatchNearbyPlaces(
+                new ArrayList<>(),
+                PlacesRequestError.OK,
+                triggerEvent,
+                PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK,
+                4);
+
+        // verify
+        verify(extensionApi).dispatch(dispatchedEventCaptor.capture());
+        final Map<String, Object> eventData = dispatchedEventCaptor.getValue().getEventData();
+        assertEquals(4L, eventData.get(PlacesTestConstants.EventDataKeys.Places.GENERATION));
+        assertEquals(4, eventData.size());
+    }
+
+    @Test
+    public void test_dispatchNearbyPlacesDelta() {
+        // setup
+        final PlacesPOI poi1 = createPOI("poi1");
+        final PlacesPOI poi2 = createPOI("poi2");
+        final PlacesPOI poi3 = createPOI("poi3");
+        final PlacesPOIDiff firstDiff =
+                PlacesPOIDiff.merge(new LinkedHashMap<>(), null, Arrays.asList(poi1, poi2));
+
+        // test
+        final long generation =
+                placesDispatcher.dispatchNearbyPlacesDelta(
+                        firstDiff,
+                        Arrays.asList(poi1, poi2),
+                        PlacesRequestError.OK,
+                        PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK);
+
+        // verify that the first delta adds all the POIs
+        assertEquals(1, generation);
+        verify(extensionApi).dispatch(dispatchedEventCaptor.capture());
+        Event dispatchedEvent = dispatchedEventCaptor.getValue();
+        assertEquals(
+                PlacesTestConstants.EventName.RESPONSE_NEARBYPLACESDELTA,
+                dispatchedEvent.getName());
+        assertEquals(EventType.PLACES, dispatchedEvent.getType());
+        assertEquals(EventSource.RESPONSE_CONTENT, dispatchedEvent.getSource());
+        assertDelta(
+                dispatchedEvent.getEventData(),
+                1,
+                0,
+                Arrays.asList(poi1.toMap(), poi2.toMap()),
+                new ArrayList<>(),
+                new ArrayList<>());
+
+        // test
+        final PlacesPOI changedPOI2 = createPOI("poi2");
+        changedPOI2.setUserIsWithin(true);
+        final List<PlacesPOI> nextPOIs = Arrays.asList(poi3, createPOI("poi1"), changedPOI2);
+        final PlacesPOIDiff nextDiff =
+                PlacesPOIDiff.merge(firstDiff.getMergedPOIs(), null, nextPOIs);
+        reset(extensionApi);
+        final long nextGeneration =
+                placesDispatcher.dispatchNearbyPlacesDelta(
+                        nextDiff,
+                        nextPOIs,
+                        PlacesRequestError.QUERY_THROTTLED,
+                        PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE);
+
+        // verify that only the changes are dispatched
+        assertEquals(2, nextGeneration);
+        verify(extensionApi).dispatch(dispatchedEventCaptor.capture());
+        final Map<String, Object> eventData = dispatchedEventCaptor.getValue().getEventData();
+        assertDelta(
+                eventData,
+                2,
+                1,
+                Collections.singletonList(poi3.toMap()),
+                Collections.singletonList(changedPOI2.toMap()),
+                new ArrayList<>());
+        assertEquals(
+                PlacesRequestError.QUERY_THROTTLED.getValue(),
+                eventData.get(PlacesTestConstants.EventDataKeys.Places.RESULT_STATUS));
+        assertEquals(
+                PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE,
+                eventData.get(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE));
+
+        // test
+        reset(extensionApi);
+        placesDispatcher.dispatchNearbyPlacesDelta(
+                PlacesPOIDiff.merge(
+                        nextDiff.getMergedPOIs(), null, Collections.singletonList(poi3)),
+                Collections.singletonList(poi3),
+                PlacesRequestError.OK,
+                PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK);
+
+        // verify
+        verify(extensionApi).dispatch(dispatchedEventCaptor.capture());
+        assertDelta(
+                dispatchedEventCaptor.getValue().getEventData(),
+                3,
+                2,
+                new ArrayList<>(),
+                new ArrayList<>(),
+                Arrays.asList("poi1", "poi2"));
+    }
+
+    @Test
+    public void test_dispatchNearbyPlacesDelta_when_unchanged() {
+        // setup
+        final List<PlacesPOI> pois = Collections.singletonList(createPOI("poi1"));
+        final PlacesPOIDiff firstDiff = PlacesPOIDiff.merge(new LinkedHashMap<>(), null, pois);
+        placesDispatcher.dispatchNearbyPlacesDelta(
+                firstDiff,
+                pois,
+                PlacesRequestError.OK,
+                PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK);
+        reset(extensionApi);
+
+        // test
+        final List<PlacesPOI> samePOIs = Collections.singletonList(createPOI("poi1"));
+        final long generation =
+                placesDispatcher.dispatchNearbyPlacesDelta(
+                        PlacesPOIDiff.merge(firstDiff.getMergedPOIs(), null, samePOIs),
+                        samePOIs,
+                        PlacesRequestError.OK,
+                        PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK);
+
+        // verify
+        assertEquals(1, generation);
+        verifyNoInteractions(extensionApi);
+    }
+
+    @Test
+    public void test_dispatchNearbyPlacesDelta_when_noPOIs() {
+        // test
+        final long generation =
+                placesDispatcher.dispatchNearbyPlacesDelta(
+                        PlacesPOIDiff.merge(new LinkedHashMap<>(), null, new ArrayList<>()),
+                        new ArrayList<>(),
+                        PlacesRequestError.OK,
+                        PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK);
+
+        // verify that the empty generation is not dispatched
+        assertEquals(0, generation);
+        verifyNoInteractions(extensionApi);
+    }
+
+    @Test
+    public void test_dispatchNearbyPlacesDelta_when_diffNotFromPreviousGeneration() {
+        // setup
+        final List<PlacesPOI> pois = Arrays.asList(createPOI("poi1"), createPOI("poi2"));
+        placesDispatcher.dispatchNearbyPlacesDelta(
+                PlacesPOIDiff.merge(new LinkedHashMap<>(), null, pois),
+                pois,
+                PlacesRequestError.OK,
+                PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK);
+        reset(extensionApi);
+
+        // the cache was cleared since the previous generation
+        final List<PlacesPOI> nextPOIs = Collections.singletonList(createPOI("poi3"));
+
+        // test
+        final long generation =
+                placesDispatcher.dispatchNearbyPlacesDelta(
+                        PlacesPOIDiff.merge(new LinkedHashMap<>(), null, nextPOIs),
+                        nextPOIs,
+                        PlacesRequestError.OK,
+                        PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK);
+
+        // verify that all the POIs are dispatched along with the new generation
+        assertEquals(2, generation);
+        verify(extensionApi).dispatch(dispatchedEventCaptor.capture());
+        final Event dispatchedEvent = dispatchedEventCaptor.getValue();
+        assertEquals(
+                PlacesTestConstants.EventName.RESPONSE_GETNEARBYPLACES,
+                dispatchedEvent.getName());
+        assertEquals(
+                2L,
+                dispatchedEvent
+                        .getEventData()
+                        .get(PlacesTestConstants.EventDataKeys.Places.GENERATION));
+        assertEquals(
+                PlacesUtil.convertPOIListToMap(nextPOIs),
+                dispatchedEvent
+                        .getEventData()
+                        .get(PlacesTestConstants.EventDataKeys.Places.NEAR_BY_PLACES_LIST));
+    }
+
     @Test
     public void test_dispatchUserWithinPOIs() {
         List<PlacesPOI> pois = new ArrayList<PlacesPOI>();
@@ -523,6 +757,31 @@ public class PlacesDispatcherTests {
                 "xdm.placeContext.POIinteraction.poiDetail.poiID", dispatchedEvent.getMask()[1]);
     }
 
+    private PlacesPOI createPOI(final String identifier) {
+        return new PlacesPOI(
+                identifier, "name", 34.33, -121.55, 50, SAMPLE_LIBRARY, SAMPLE_WEIGHT, null);
+    }
+
+    private void assertDelta(
+            final Map<String, Object> eventData,
+            final long generation,
+            final long previousGeneration,
+            final List<Map<String, Object>> addedPOIs,
+            final List<Map<String, Object>> changedPOIs,
+            final List<String> removedPOIIds) {
+        assertEquals(
+                generation, eventData.get(PlacesTestConstants.EventDataKeys.Places.GENERATION));
+        assertEquals(
+                previousGeneration,
+                eventData.get(PlacesTestConstants.EventDataKeys.Places.PREVIOUS_GENERATION));
+        assertEquals(addedPOIs, eventData.get(PlacesTestConstants.EventDataKeys.Places.ADDED_POIS));
+        assertEquals(
+                changedPOIs, eventData.get(PlacesTestConstants.EventDataKeys.Places.CHANGED_POIS));
+        assertEquals(
+                removedPOIIds,
+                eventData.get(PlacesTestConstants.EventDataKeys.Places.REMOVED_POI_IDS));
+    }
+
     private PlacesConfiguration createPlacesConfig() {
         List<Map<String, String>> libraries = new ArrayList<>();
 
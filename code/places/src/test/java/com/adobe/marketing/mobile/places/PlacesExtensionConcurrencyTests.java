@@ -0,0 +1,257 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import com.adobe.marketing.mobile.ExtensionApi;
+import com.adobe.marketing.mobile.SharedStateResult;
+import com.adobe.marketing.mobile.SharedStateStatus;
+import com.adobe.marketing.mobile.services.DataStoring;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PlacesExtensionConcurrencyTests {
+
+    private static final int POI_COUNT = 200;
+    private static final int ITERATIONS = 500;
+
+    private PlacesExtension extension;
+    private ExecutorService networkExecutor;
+    private final AtomicInteger pendingQueries = new AtomicInteger();
+    private final AtomicInteger answeredRequests = new AtomicInteger();
+    private final AtomicInteger failedRequests = new AtomicInteger();
+    private final AtomicInteger resolvedRegions = new AtomicInteger();
+    private final AtomicInteger unresolvedRegions = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    @Before
+    public void testSetup() {
+        final ExtensionApi extensionApi = mock(ExtensionApi.class);
+        when(extensionApi.getSharedState(
+                        eq(PlacesTestConstants.EventDataKeys.Configuration.EXTENSION_NAME),
+                        any(),
+                        anyBoolean(),
+                        any()))
+                .thenReturn(new SharedStateResult(SharedStateStatus.SET, createConfiguration()));
+
+        final NamedCollection dataStore = mock(NamedCollection.class, withSettings().stubOnly());
+        final DataStoring dataStoring = mock(DataStoring.class);
+        when(dataStoring.getNamedCollection(anyString())).thenReturn(dataStore);
+
+        // the network responses are delivered on their own threads, as the networking service does
+        networkExecutor = Executors.newFixedThreadPool(4);
+        final PlacesQueryService queryService = mock(PlacesQueryService.class);
+        doAnswer(
+                        invocation -> {
+                            final PlacesQueryResponseCallback callback = invocation.getArgument(3);
+                            pendingQueries.incrementAndGet();
+                            networkExecutor.execute(
+                                    () -> {
+                                        run(() -> callback.call(createQueryResponse()));
+                                        pendingQueries.decrementAndGet();
+                                    });
+                            return null;
+                        })
+                .when(queryService)
+                .getNearbyPlaces(any(), any(), any(), any());
+
+        extension = new PlacesExtension(extensionApi);
+        extension.state = new PlacesState(dataStoring, 0);
+        extension.queryService = queryService;
+        extension.placesDispatcher =
+                new PlacesDispatcher(extensionApi) {
+                    @Override
+                    void dispatchNearbyPlaces(
+                            final List<PlacesPOI> poiList,
+                            final PlacesRequestError resultStatus,
+                            final Event event,
+                            final String resultSource,
+                            final long generation) {
+                        if (event == null) {
+                            return;
+                        }
+
+                        answeredRequests.incrementAndGet();
+
+                        if (resultStatus != PlacesRequestError.OK) {
+                            failedRequests.incrementAndGet();
+                        }
+                    }
+
+                    @Override
+                    void dispatchRegionEvent(final PlacesRegion region) {
+                        if (region != null) {
+                            resolvedRegions.incrementAndGet();
+                        } else {
+                            unresolvedRegions.incrementAndGet();
+                        }
+                    }
+
+                    @Override
+                    void dispatchExperienceEventToEdge(final PlacesRegion regionEvent) {}
+                };
+    }
+
+    @After
+    public void tearDown() {
+        networkExecutor.shutdownNow();
+        extension.onUnregistered();
+    }
+
+    @Test
+    public void test_networkResponsesAndRegionEvents_doNotRace() throws Exception {
+        // setup, cache the POIs the region events refer to
+        extension.handlePlacesRequestEvent(createNearbyPlacesEvent(0));
+        awaitQueries();
+
+        // test, refresh the POIs from the network while processing region events
+        for (int i = 1; i <= ITERATIONS; i++) {
+            final int iteration = i;
+            run(() -> extension.handlePlacesRequestEvent(createNearbyPlacesEvent(iteration)));
+            run(() -> extension.handlePlacesRequestEvent(createRegionEvent(iteration)));
+        }
+
+        awaitQueries();
+
+        // verify that every nearby request was answered from a successful query, and that every
+        // region event found its POI in the cache
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+
+        assertEquals(ITERATIONS + 1, answeredRequests.get());
+        assertEquals(0, failedRequests.get());
+        assertEquals(0, unresolvedRegions.get());
+        assertEquals(ITERATIONS, resolvedRegions.get());
+    }
+
+    private void run(final Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (final Throwable throwable) {
+            failure.compareAndSet(null, throwable);
+        }
+    }
+
+    private void awaitQueries() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+
+        do {
+            // the queries are made from the state executor, and their responses processed on it
+            awaitStateExecutor();
+
+            while (pendingQueries.get() > 0) {
+                assertTrue(System.currentTimeMillis() < deadline);
+                Thread.sleep(10);
+            }
+
+            awaitStateExecutor();
+        } while (pendingQueries.get() > 0);
+    }
+
+    private void awaitStateExecutor() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        extension.stateExecutor.execute(latch::countDown);
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+    }
+
+    private Map<String, Object> createConfiguration() {
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_GLOBAL_PRIVACY,
+                "optedin");
+        final List<Map<String, String>> libraries = new ArrayList<>();
+        final Map<String, String> library = new HashMap<>();
+        library.put(PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_LIBRARY_ID, "lib1");
+        libraries.add(library);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_LIBRARIES,
+                libraries);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_ENDPOINT,
+                "endpoint");
+        return configData;
+    }
+
+    private PlacesQueryResponse createQueryResponse() {
+        // every response refreshes the same POIs
+        final PlacesQueryResponse response = new PlacesQueryResponse();
+        response.containsUserPOIs = new ArrayList<>();
+        response.nearByPOIs = new ArrayList<>();
+
+        for (int i = 0; i < POI_COUNT; i++) {
+            response.nearByPOIs.add(
+                    new PlacesPOI(
+                            "poi" + i, "name" + i, 34.33, -121.55 + i * 0.0001, 150, "lib1", 1));
+        }
+
+        response.isSuccess = true;
+        return response;
+    }
+
+    private Event createNearbyPlacesEvent(final int iteration) {
+        // every request is for a distinct location so that none of them is coalesced or served
+        // from the cache
+        final Map<String, Object> data = new HashMap<>();
+        data.put(PlacesTestConstants.EventDataKeys.Places.LATITUDE, 10.0 + iteration * 0.1);
+        data.put(PlacesTestConstants.EventDataKeys.Places.LONGITUDE, -121.55);
+        data.put(PlacesTestConstants.EventDataKeys.Places.PLACES_COUNT, POI_COUNT);
+        data.put(
+                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE,
+                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE_GET_NEARBY_PLACES);
+
+        return new Event.Builder(
+                        "Get nearby places event", EventType.PLACES, EventSource.REQUEST_CONTENT)
+                .setEventData(data)
+                .build();
+    }
+
+    private Event createRegionEvent(final int iteration) {
+        final Map<String, Object> data = new HashMap<>();
+        data.put(PlacesTestConstants.EventDataKeys.Places.REGION_ID, "poi" + iteration % POI_COUNT);
+        data.put(
+                PlacesTestConstants.EventDataKeys.Places.REGION_EVENT_TYPE,
+                iteration % 2 == 0 ? "exit" : "entry");
+        data.put(
+                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE,
+                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE_PROCESS_REGION_EVENT);
+
+        return new Event.Builder("Geofence event", EventType.PLACES, EventSource.REQUEST_CONTENT)
+                .setEventData(data)
+                .build();
+    }
+}
@@ -14,6 +14,8 @@ package com.adobe.marketing.mobile.places;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.reset;
@@ -31,12 +33,15 @@ import com.adobe.marketing.mobile.Places;
 import com.adobe.marketing.mobile.SharedStateResult;
 import com.adobe.marketing.mobile.SharedStateStatus;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -63,9 +68,13 @@ public class PlacesExtensionTests {
         extension.placesDispatcher = placesDispatcher;
         extension.queryService = queryService;
         extension.state = state;
+        extension.stateExecutor = Runnable::run;
 
         reset(extensionApi);
         reset(state);
+
+        // the tile mode is disabled unless a test enables it
+        when(state.getMissingTiles(any(), any())).thenReturn(null);
     }
 
     @Test
@@ -102,6 +111,62 @@ public class PlacesExtensionTests {
         verify(extensionApi, times(1)).createSharedState(placesSharedState, null);
     }
 
+    @Test
+    public void test_onRegister_readsPersistedStateOnStateExecutor() {
+        // setup
+        final List<Runnable> queuedTasks = new ArrayList<>();
+        extension.stateExecutor = queuedTasks::add;
+        Map<String, Object> placesSharedState = new HashMap<>();
+        placesSharedState.put("key", "value");
+        when(state.getPlacesSharedState()).thenReturn(placesSharedState);
+
+        // test
+        extension.onRegistered();
+
+        // verify that the persisted state is not read on the registering thread
+        verify(state, times(0)).getPlacesSharedState();
+        verify(state, times(0)).publishSnapshot();
+        verify(extensionApi, times(0)).createSharedState(any(), any());
+        assertEquals(1, queuedTasks.size());
+
+        // test
+        queuedTasks.get(0).run();
+
+        // verify
+        verify(extensionApi, times(1)).createSharedState(placesSharedState, null);
+        verify(state, times(1)).publishSnapshot();
+    }
+
+    @Test
+    public void test_onRegister_publishesStateSnapshot() {
+        // setup
+        final PlacesStateSnapshot snapshot =
+                PlacesStateSnapshot.EMPTY.withLastKnownLocation(34.33, -124.33);
+        when(state.getSnapshot()).thenReturn(snapshot);
+
+        // test
+        extension.onRegistered();
+
+        // verify
+        verify(state, times(1)).publishSnapshot();
+        assertSame(snapshot, PlacesExtension.getRegisteredSnapshot());
+
+        // test
+        extension.onUnregistered();
+
+        // verify
+        assertSame(PlacesStateSnapshot.EMPTY, PlacesExtension.getRegisteredSnapshot());
+    }
+
+    @Test
+    public void test_onUnregistered() {
+        // test
+        extension.onUnregistered();
+
+        // verify that the pending POI writes are flushed
+        verify(state, times(1)).shutdown();
+    }
+
     // ========================================================================================
     // readyForEvent
     // ========================================================================================
@@ -219,12 +284,12 @@ public class PlacesExtensionTests {
         failedResponse.fetchFailed("", PlacesRequestError.SERVER_RESPONSE_ERROR);
         doAnswer(
                         invocation -> {
-                            ((PlacesQueryResponseCallback) invocation.getArguments()[2])
+                            ((PlacesQueryResponseCallback) invocation.getArguments()[3])
                                     .call(failedResponse);
                             return null;
                         })
                 .when(queryService)
-                .getNearbyPlaces(any(), any(), any());
+                .getNearbyPlaces(any(), any(), any(), any());
 
         // test
         extension.handlePlacesRequestEvent(testGetNearByPOIEvent());
@@ -245,19 +310,19 @@ public class PlacesExtensionTests {
         PlacesQueryResponse sampleQueryResponse = createSuccessQueryResponse();
         doAnswer(
                         invocation -> {
-                            ((PlacesQueryResponseCallback) invocation.getArguments()[2])
+                            ((PlacesQueryResponseCallback) invocation.getArguments()[3])
                                     .call(sampleQueryResponse);
                             return null;
                         })
                 .when(queryService)
-                .getNearbyPlaces(any(), any(), any());
+                .getNearbyPlaces(any(), any(), any(), any());
 
         // test
         Event event = testGetNearByPOIEvent();
         extension.handlePlacesRequestEvent(event);
 
         // verify interaction with QueryService
-        verify(queryService).getNearbyPlaces(any(), any(), any());
+        verify(queryService).getNearbyPlaces(any(), any(), any(), any());
 
         // verify interaction with placesState
         verify(state).processNetworkResponse(eq(sampleQueryResponse));
@@ -268,10 +333,434 @@ public class PlacesExtensionTests {
         // verify interactions with dispatcher
         verify(placesDispatcher)
                 .dispatchNearbyPlaces(
-                        eq(sampleQueryResponse.getAllPOIs()), eq(PlacesRequestError.OK), eq(event));
+                        eq(sampleQueryResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(event),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK));
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(
+                        eq(sampleQueryResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(null),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK));
+    }
+
+    @Test
+    public void getNearByPlaceEvent_when_throttled() {
+        // setup
+        setConfigurationSharedState("optedin");
+
+        PlacesQueryResponse throttledResponse = createSuccessQueryResponse();
+        throttledResponse.isFromCache = true;
+        throttledResponse.resultStatus = PlacesRequestError.QUERY_THROTTLED;
+        when(state.getThrottledNearbyPlaces(any(), any())).thenReturn(throttledResponse);
+        Map<String, Object> placesSharedState = new HashMap<>();
+        placesSharedState.put("key", "value");
+        when(state.getPlacesSharedState()).thenReturn(placesSharedState);
+
+        // test
+        Event event = testGetNearByPOIEvent();
+        extension.handlePlacesRequestEvent(event);
+
+        // verify that the network is not queried, and that the membership of the cached response
+        // is applied and shared
+        verifyNoInteractions(queryService);
+        verify(state, times(0)).processNetworkResponse(any());
+        verify(state, times(1)).processCachedResponse(throttledResponse);
+        verify(extensionApi, times(1)).createSharedState(placesSharedState, event);
+
+        // verify interactions with dispatcher
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(
+                        eq(throttledResponse.getAllPOIs()),
+                        eq(PlacesRequestError.QUERY_THROTTLED),
+                        eq(event),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE));
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(
+                        eq(throttledResponse.getAllPOIs()),
+                        eq(PlacesRequestError.QUERY_THROTTLED),
+                        eq(null),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE));
+    }
+
+    @Test
+    public void getNearByPlaceEvent_when_nearbyDeltaEventsEnabled() {
+        // setup
+        setConfigurationSharedState("optedin")
+                .put(
+                        PlacesTestConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_NEARBY_DELTA_EVENTS,
+                        true);
+
+        final PlacesQueryResponse sampleQueryResponse = createSuccessQueryResponse();
+        doAnswer(
+                        invocation -> {
+                            ((PlacesQueryResponseCallback) invocation.getArguments()[3])
+                                    .call(sampleQueryResponse);
+                            return null;
+                        })
+                .when(queryService)
+                .getNearbyPlaces(any(), any(), any(), any());
+        final PlacesPOIDiff poiDiff =
+                PlacesPOIDiff.merge(
+                        new LinkedHashMap<>(),
+                        sampleQueryResponse.containsUserPOIs,
+                        sampleQueryResponse.nearByPOIs);
+        when(state.getLastPOIDiff()).thenReturn(poiDiff);
+        when(placesDispatcher.dispatchNearbyPlacesDelta(any(), any(), any(), any()))
+                .thenReturn(3L);
+
+        // test
+        final Event event = testGetNearByPOIEvent();
+        extension.handlePlacesRequestEvent(event);
+
+        // verify that the other listeners get a delta event instead of the full list
+        verify(state).processNetworkResponse(eq(sampleQueryResponse));
+        verify(placesDispatcher)
+                .dispatchNearbyPlacesDelta(
+                        eq(poiDiff),
+                        eq(sampleQueryResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK));
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(
+                        eq(sampleQueryResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(event),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK),
+                        eq(3L));
+        verify(placesDispatcher, times(0)).dispatchNearbyPlaces(any(), any(), eq(null), any());
+    }
+
+    @Test
+    public void getNearByPlaceEvent_when_throttled_and_nearbyDeltaEventsEnabled() {
+        // setup
+        setConfigurationSharedState("optedin")
+                .put(
+                        PlacesTestConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_NEARBY_DELTA_EVENTS,
+                        true);
+
+        final PlacesQueryResponse throttledResponse = createSuccessQueryResponse();
+        throttledResponse.isFromCache = true;
+        throttledResponse.resultStatus = PlacesRequestError.QUERY_THROTTLED;
+        when(state.getThrottledNearbyPlaces(any(), any())).thenReturn(throttledResponse);
+
+        // test
+        final Event event = testGetNearByPOIEvent();
+        extension.handlePlacesRequestEvent(event);
+
+        // verify that only the request gets the cached POIs, the delta listeners already have them
+        verifyNoInteractions(queryService);
+        verify(placesDispatcher, times(0)).dispatchNearbyPlacesDelta(any(), any(), any(), any());
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(
+                        eq(throttledResponse.getAllPOIs()),
+                        eq(PlacesRequestError.QUERY_THROTTLED),
+                        eq(event),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE));
+        verify(placesDispatcher, times(0)).dispatchNearbyPlaces(any(), any(), eq(null), any());
+    }
+
+    @Test
+    public void getNearByPlaceEvent_when_identicalRequestInFlight() {
+        // setup
+        setConfigurationSharedState("optedin");
+        final Event event = testGetNearByPOIEvent();
+        final Event identicalEvent = testGetNearByPOIEvent();
+
+        // test
+        extension.handlePlacesRequestEvent(event);
+        extension.handlePlacesRequestEvent(identicalEvent);
+
+        // verify that a single query is made
+        final ArgumentCaptor<PlacesQueryResponseCallback> callbackCaptor =
+                ArgumentCaptor.forClass(PlacesQueryResponseCallback.class);
+        verify(queryService, times(1))
+                .getNearbyPlaces(any(), any(), any(), callbackCaptor.capture());
+
+        // test
+        final PlacesQueryResponse sampleQueryResponse = createSuccessQueryResponse();
+        callbackCaptor.getValue().call(sampleQueryResponse);
+
+        // verify that both requests get the response
+        verify(state, times(1)).processNetworkResponse(eq(sampleQueryResponse));
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(
+                        eq(sampleQueryResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(event),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK));
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(
+                        eq(sampleQueryResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(identicalEvent),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK));
+        verify(placesDispatcher, times(1))
+                .dispatchNearbyPlaces(
+                        eq(sampleQueryResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(null),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK));
+
+        // test that the next request queries again
+        extension.handlePlacesRequestEvent(testGetNearByPOIEvent());
+
+        // verify
+        verify(queryService, times(2)).getNearbyPlaces(any(), any(), any(), any());
+    }
+
+    @Test
+    public void getNearByPlaceEvent_when_tilesMissing() {
+        // setup
+        setConfigurationSharedState("optedin");
+
+        final PlacesQueryResponse tileResponse = createSuccessQueryResponse();
+        final PlacesQueryResponse tiledResponse = createSuccessQueryResponse();
+        tiledResponse.isTiled = true;
+        tiledResponse.isFromCache = true;
+        when(state.getMissingTiles(any(), any())).thenReturn(Arrays.asList("9q9k65", "9q9k64"));
+        when(state.getTiledNearbyPlaces(any(), any())).thenReturn(tiledResponse);
+
+        // test
+        final Event event = testGetNearByPOIEvent();
+        extension.handlePlacesRequestEvent(event);
+
+        // verify that each missing tile is queried from its center
+        final ArgumentCaptor<Map> queryCaptor = ArgumentCaptor.forClass(Map.class);
+        final ArgumentCaptor<PlacesQueryResponseCallback> callbackCaptor =
+                ArgumentCaptor.forClass(PlacesQueryResponseCallback.class);
+        verify(queryService, times(2))
+                .getNearbyPlaces(queryCaptor.capture(), any(), callbackCaptor.capture());
+        assertEquals(PlacesTileCache.createTileQuery("9q9k65"), queryCaptor.getAllValues().get(0));
+        assertEquals(PlacesTileCache.createTileQuery("9q9k64"), queryCaptor.getAllValues().get(1));
+
+        // test
+        callbackCaptor.getAllValues().get(0).call(tileResponse);
+
+        // verify that the request waits for the other tile
+        verify(state, times(1)).cacheTile(eq("9q9k65"), any(), eq(tileResponse));
+        verify(state, times(0)).processNetworkResponse(any());
+
+        // test
+        callbackCaptor.getAllValues().get(1).call(tileResponse);
+
+        // verify
+        verify(state, times(1)).cacheTile(eq("9q9k64"), any(), eq(tileResponse));
+        verify(state, times(1)).persistTiles();
+        verify(state, times(1)).processNetworkResponse(eq(tiledResponse));
+        verify(extensionApi).createSharedState(any(Map.class), eq(event));
+        assertFalse(tiledResponse.isFromCache);
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(
+                        eq(tiledResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(event),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK));
+    }
+
+    @Test
+    public void getNearByPlaceEvent_when_tileQueryFails() {
+        // setup
+        setConfigurationSharedState("optedin");
+
+        final PlacesQueryResponse failedResponse = new PlacesQueryResponse();
+        failedResponse.fetchFailed("", PlacesRequestError.CONNECTIVITY_ERROR);
+        when(state.getMissingTiles(any(), any())).thenReturn(Arrays.asList("9q9k65", "9q9k64"));
+        doAnswer(
+                        invocation -> {
+                            ((PlacesQueryResponseCallback) invocation.getArguments()[2])
+                                    .call(failedResponse);
+                            return null;
+                        })
+                .when(queryService)
+                .getNearbyPlaces(any(), any(), any());
+
+        // test
+        final Event event = testGetNearByPOIEvent();
+        extension.handlePlacesRequestEvent(event);
+
+        // verify
+        verify(state, times(0)).cacheTile(any(), any(), any());
+        verify(state, times(0)).processNetworkResponse(any());
+        verify(placesDispatcher, times(1))
+                .dispatchNearbyPlaces(
+                        eq(new ArrayList<>()),
+                        eq(PlacesRequestError.CONNECTIVITY_ERROR),
+                        eq(event));
+    }
+
+    @Test
+    public void getNearByPlaceEvent_when_responseUnchanged() {
+        // setup
+        setConfigurationSharedState("optedin");
+
+        final List<PlacesPOI> pois = createSuccessQueryResponse().getAllPOIs();
+        final PlacesQueryResponse unchangedResponse = new PlacesQueryResponse();
+        unchangedResponse.isSuccess = true;
+        unchangedResponse.isUnchanged = true;
+        unchangedResponse.bodyHash = "hash";
+        when(state.getProcessedBodyHash()).thenReturn("hash");
+        when(state.processUnchangedResponse(unchangedResponse)).thenReturn(pois);
+        doAnswer(
+                        invocation -> {
+                            ((PlacesQueryResponseCallback) invocation.getArguments()[3])
+                                    .call(unchangedResponse);
+                            return null;
+                        })
+                .when(queryService)
+                .getNearbyPlaces(any(), any(), eq("hash"), any());
+
+        // test
+        final Event event = testGetNearByPOIEvent();
+        extension.handlePlacesRequestEvent(event);
+
+        // verify that the response is not processed again
+        verify(state, times(0)).processNetworkResponse(any());
+        verify(state, times(1)).processUnchangedResponse(unchangedResponse);
+
+        // verify that the refreshed validity is shared, and only the request gets the POIs
+        verify(extensionApi).createSharedState(any(Map.class), eq(event));
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(eq(pois), eq(PlacesRequestError.OK), eq(event));
+        verify(placesDispatcher, times(0)).dispatchNearbyPlaces(any(), any(), eq(null));
+    }
+
+    @Test
+    public void getNearByPlaceEvent_when_responseUnchanged_and_stateChanged() {
+        // setup
+        setConfigurationSharedState("optedin");
+
+        final PlacesQueryResponse unchangedResponse = new PlacesQueryResponse();
+        unchangedResponse.isSuccess = true;
+        unchangedResponse.isUnchanged = true;
+        unchangedResponse.bodyHash = "hash";
+        final PlacesQueryResponse sampleQueryResponse = createSuccessQueryResponse();
+        when(state.getProcessedBodyHash()).thenReturn("hash");
+        when(state.processUnchangedResponse(unchangedResponse)).thenReturn(null);
+        doAnswer(
+                        invocation -> {
+                            ((PlacesQueryResponseCallback) invocation.getArguments()[3])
+                                    .call(unchangedResponse);
+                            return null;
+                        })
+                .when(queryService)
+                .getNearbyPlaces(any(), any(), eq("hash"), any());
+        doAnswer(
+                        invocation -> {
+                            ((PlacesQueryResponseCallback) invocation.getArguments()[2])
+                                    .call(sampleQueryResponse);
+                            return null;
+                        })
+                .when(queryService)
+                .getNearbyPlaces(any(), any(), any());
+
+        // test
+        final Event event = testGetNearByPOIEvent();
+        extension.handlePlacesRequestEvent(event);
+
+        // verify that the query is made again for the full response
+        verify(queryService, times(1)).getNearbyPlaces(any(), any(), any());
+        verify(state, times(1)).processNetworkResponse(eq(sampleQueryResponse));
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(
+                        eq(sampleQueryResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(event),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK));
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(
+                        eq(sampleQueryResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(null),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_NETWORK));
+    }
+
+    @Test
+    public void getNearByPlaceEvent_when_tilesCached() {
+        // setup
+        setConfigurationSharedState("optedin");
+
+        final PlacesQueryResponse tiledResponse = createSuccessQueryResponse();
+        tiledResponse.isTiled = true;
+        tiledResponse.isFromCache = true;
+        when(state.getMissingTiles(any(), any())).thenReturn(new ArrayList<>());
+        when(state.getTiledNearbyPlaces(any(), any())).thenReturn(tiledResponse);
+
+        // test
+        final Event event = testGetNearByPOIEvent();
+        extension.handlePlacesRequestEvent(event);
+
+        // verify that the request is answered from the tile cache without querying the network
+        verifyNoInteractions(queryService);
+        verify(state, times(1)).processNetworkResponse(eq(tiledResponse));
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(
+                        eq(tiledResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(event),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE));
+    }
+
+    @Test
+    public void getNearByPlaceEvent_when_servedFromCache() {
+        // setup
+        setConfigurationSharedState("optedin");
+
+        PlacesQueryResponse cachedResponse = createSuccessQueryResponse();
+        cachedResponse.isFromCache = true;
+        when(state.getCachedNearbyPlaces(any(), any())).thenReturn(cachedResponse);
+        Map<String, Object> placesSharedState = new HashMap<>();
+        placesSharedState.put("key", "value");
+        when(state.getPlacesSharedState()).thenReturn(placesSharedState);
+
+        // test
+        Event event = testGetNearByPOIEvent();
+        extension.handlePlacesRequestEvent(event);
+
+        // verify that the network is not queried, and that the membership of the cached response
+        // is applied and shared
+        verifyNoInteractions(queryService);
+        verify(state, times(0)).processNetworkResponse(any());
+        verify(state, times(1)).processCachedResponse(cachedResponse);
+        verify(extensionApi, times(1)).createSharedState(placesSharedState, event);
+
+        // verify interactions with dispatcher
+        verify(placesDispatcher)
+                .dispatchNearbyPlaces(
+                        eq(cachedResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(event),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE));
         verify(placesDispatcher)
                 .dispatchNearbyPlaces(
-                        eq(sampleQueryResponse.getAllPOIs()), eq(PlacesRequestError.OK), eq(null));
+                        eq(cachedResponse.getAllPOIs()),
+                        eq(PlacesRequestError.OK),
+                        eq(null),
+                        eq(PlacesTestConstants.EventDataKeys.Places.RESULT_SOURCE_CACHE));
+    }
+
+    @Test
+    public void getNearByPlaceEvent_countsCacheHitsAndMisses() {
+        // setup
+        setConfigurationSharedState("optedin");
+        PlacesQueryResponse cachedResponse = createSuccessQueryResponse();
+        cachedResponse.isFromCache = true;
+        when(state.getCachedNearbyPlaces(any(), any())).thenReturn(cachedResponse).thenReturn(null);
+
+        // test
+        extension.handlePlacesRequestEvent(testGetNearByPOIEvent());
+        extension.handlePlacesRequestEvent(testGetNearByPOIEvent());
+
+        // verify
+        assertEquals(1, extension.metrics.getCacheHits());
+        assertEquals(1, extension.metrics.getCacheMisses());
+        assertEquals(
+                2,
+                extension.metrics.getProcessedEvents(
+                        PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE_GET_NEARBY_PLACES));
     }
 
     // ========================================================================================
@@ -326,6 +815,192 @@ public class PlacesExtensionTests {
         verify(placesDispatcher).dispatchExperienceEventToEdge(eq(region));
     }
 
+    @Test
+    public void handleGeofenceEvent_when_sharedStateUnchanged() {
+        // setup
+        setConfigurationSharedState("optedin");
+        PlacesRegion region = new PlacesRegion(createPOI("poi"), "exit", 100);
+        HashMap<String, Object> placesState = new HashMap<>();
+        placesState.put("key", "value");
+
+        when(state.getPlacesSharedState())
+                .thenReturn(placesState)
+                .thenReturn(new HashMap<>(placesState));
+        when(state.processRegionEvent(any())).thenReturn(region);
+        final Event firstEvent = testGeofenceEvent();
+        final Event secondEvent = testGeofenceEvent();
+
+        // test
+        extension.handlePlacesRequestEvent(firstEvent);
+        extension.handlePlacesRequestEvent(secondEvent);
+
+        // verify that the equal shared state is not published again
+        verify(extensionApi, times(1)).createSharedState(any(), any());
+        verify(extensionApi).createSharedState(eq(placesState), eq(firstEvent));
+        assertEquals(1, extension.getSuppressedSharedStateCount());
+
+        // verify that both region events are dispatched
+        verify(placesDispatcher, times(2)).dispatchRegionEvent(eq(region));
+        verify(placesDispatcher, times(2)).dispatchExperienceEventToEdge(eq(region));
+    }
+
+    @Test
+    public void handleGeofenceEvent_when_metricsSharedStateEnabled() {
+        // setup
+        setConfigurationSharedState("optedin")
+                .put(
+                        PlacesTestConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_METRICS_SHARED_STATE,
+                        true);
+        PlacesRegion region = new PlacesRegion(createPOI("poi"), "entry", 100);
+        HashMap<String, Object> placesState = new HashMap<>();
+        placesState.put("key", "value");
+
+        when(state.getPlacesSharedState()).thenReturn(placesState);
+        when(state.processRegionEvent(any())).thenReturn(region);
+
+        // test
+        final Event event = testGeofenceEvent();
+        extension.handlePlacesRequestEvent(event);
+
+        // verify that the metrics are published along with the places shared state
+        final ArgumentCaptor<Map<String, Object>> sharedStateCaptor =
+                ArgumentCaptor.forClass(Map.class);
+        verify(extensionApi).createSharedState(sharedStateCaptor.capture(), eq(event));
+        final Map<String, Object> sharedState = sharedStateCaptor.getValue();
+        assertEquals("value", sharedState.get("key"));
+
+        final Map<String, Object> metrics =
+                (Map<String, Object>) sharedState.get(PlacesTestConstants.SharedStateKeys.METRICS);
+        final Map<String, Object> processedEvents =
+                (Map<String, Object>) metrics.get(PlacesTestConstants.MetricsKeys.PROCESSED_EVENTS);
+        assertEquals(
+                1L,
+                processedEvents.get(
+                        PlacesTestConstants.EventDataKeys.Places
+                                .REQUEST_TYPE_PROCESS_REGION_EVENT));
+    }
+
+    @Test
+    public void handleGeofenceEvents_Happy() {
+        // setup
+        setConfigurationSharedState("optedin");
+        PlacesRegion entryRegion = new PlacesRegion(createPOI("poi1"), "entry", 100);
+        PlacesRegion exitRegion = new PlacesRegion(createPOI("poi2"), "exit", 100);
+        HashMap<String, Object> placesState = new HashMap<>();
+        placesState.put("key", "value");
+
+        when(state.getPlacesSharedState()).thenReturn(placesState);
+        when(state.processRegionEvents(any())).thenReturn(Arrays.asList(entryRegion, exitRegion));
+
+        // test
+        final Event event = testGeofenceBatchEvent();
+        extension.handlePlacesRequestEvent(event);
+
+        // verify
+        verify(state).setMembershiptTtl(eq(SAMPLE_TTL));
+        verify(state, times(0)).processRegionEvent(any());
+
+        // verify that the shared state is created once
+        verify(extensionApi, times(1)).createSharedState(eq(placesState), eq(event));
+
+        // verify the dispatched events
+        verify(placesDispatcher).dispatchRegionEvent(eq(entryRegion));
+        verify(placesDispatcher).dispatchRegionEvent(eq(exitRegion));
+        verify(placesDispatcher).dispatchExperienceEventToEdge(eq(entryRegion));
+        verify(placesDispatcher).dispatchExperienceEventToEdge(eq(exitRegion));
+    }
+
+    @Test
+    public void handleGeofenceEvents_when_noRegionProcessed() {
+        // setup
+        setConfigurationSharedState("optedin");
+        when(state.processRegionEvents(any())).thenReturn(new ArrayList<>());
+
+        // test
+        extension.handlePlacesRequestEvent(testGeofenceBatchEvent());
+
+        // verify
+        verify(extensionApi, times(0)).createSharedState(any(), any());
+        verifyNoInteractions(placesDispatcher);
+    }
+
+    // ========================================================================================
+    // handleProcessLocationEvent
+    // ========================================================================================
+    @Test
+    public void handleProcessLocationEvent_Happy() {
+        // setup
+        setConfigurationSharedState("optedin")
+                .put(
+                        PlacesTestConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_GEOFENCE_EVALUATION,
+                        true);
+        PlacesRegion exitRegion = new PlacesRegion(createPOI("poi1"), "exit", 100);
+        PlacesRegion entryRegion = new PlacesRegion(createPOI("poi2"), "entry", 100);
+        HashMap<String, Object> placesState = new HashMap<>();
+        placesState.put("key", "value");
+
+        when(state.getPlacesSharedState()).thenReturn(placesState);
+        when(state.processLocation(anyDouble(), anyDouble(), anyDouble(), anyLong(), any()))
+                .thenReturn(Arrays.asList(exitRegion, entryRegion));
+
+        // test
+        final Event event = testProcessLocationEvent();
+        extension.handlePlacesRequestEvent(event);
+
+        // verify
+        verify(state).saveLastKnownLocation(eq(34.33), eq(-124.33));
+        verify(state).setMembershiptTtl(eq(SAMPLE_TTL));
+        verify(state)
+                .processLocation(
+                        eq(34.33), eq(-124.33), eq(15.0), eq(event.getTimestamp()), any());
+
+        // verify that the shared state is created once
+        verify(extensionApi, times(1)).createSharedState(eq(placesState), eq(event));
+
+        // verify the dispatched events
+        verify(placesDispatcher).dispatchRegionEvent(eq(exitRegion));
+        verify(placesDispatcher).dispatchRegionEvent(eq(entryRegion));
+        verify(placesDispatcher).dispatchExperienceEventToEdge(eq(exitRegion));
+        verify(placesDispatcher).dispatchExperienceEventToEdge(eq(entryRegion));
+    }
+
+    @Test
+    public void handleProcessLocationEvent_when_evaluationDisabled() {
+        // setup
+        setConfigurationSharedState("optedin");
+
+        // test
+        extension.handlePlacesRequestEvent(testProcessLocationEvent());
+
+        // verify that the location is neither evaluated nor saved
+        verify(state, times(0)).saveLastKnownLocation(anyDouble(), anyDouble());
+        verify(state, times(0))
+                .processLocation(anyDouble(), anyDouble(), anyDouble(), anyLong(), any());
+        verify(extensionApi, times(0)).createSharedState(any(), any());
+        verifyNoInteractions(placesDispatcher);
+    }
+
+    @Test
+    public void handleProcessLocationEvent_when_privacyOptedOut() {
+        // setup
+        setConfigurationSharedState("optedout")
+                .put(
+                        PlacesTestConstants.EventDataKeys.Configuration
+                                .CONFIG_KEY_PLACES_GEOFENCE_EVALUATION,
+                        true);
+
+        // test
+        extension.handlePlacesRequestEvent(testProcessLocationEvent());
+
+        // verify
+        verify(state, times(0)).saveLastKnownLocation(anyDouble(), anyDouble());
+        verify(state, times(0))
+                .processLocation(anyDouble(), anyDouble(), anyDouble(), anyLong(), any());
+        verifyNoInteractions(placesDispatcher);
+    }
+
     // ========================================================================================
     // handleGetUserWithinPOIsEvent
     // ========================================================================================
@@ -434,6 +1109,55 @@ public class PlacesExtensionTests {
         verify(extensionApi).createSharedState(any(), any());
     }
 
+    @Test
+    public void handleSetLocationPermissionStatusEvent_when_sharedStateUnchanged() {
+        // setup
+        HashMap<String, Object> placesState = new HashMap<>();
+        placesState.put("key", "value");
+        when(state.getPlacesSharedState()).thenReturn(placesState);
+        final Event firstEvent =
+                testSetLocationPermissionStatusEvent(
+                        PlacesAuthorizationStatus.ALWAYS.stringValue());
+        final Event secondEvent =
+                testSetLocationPermissionStatusEvent(
+                        PlacesAuthorizationStatus.ALWAYS.stringValue());
+
+        // test
+        extension.handlePlacesRequestEvent(firstEvent);
+        extension.handlePlacesRequestEvent(secondEvent);
+
+        // verify that the shared state is published once
+        verify(extensionApi, times(1)).createSharedState(any(), any());
+        verify(extensionApi).createSharedState(eq(placesState), eq(firstEvent));
+        assertEquals(1, extension.getSuppressedSharedStateCount());
+    }
+
+    @Test
+    public void handleSetLocationPermissionStatusEvent_when_sharedStateUnchangedAfterReset() {
+        // setup
+        setConfigurationSharedState("optedout");
+        HashMap<String, Object> placesState = new HashMap<>();
+        placesState.put("key", "value");
+        when(state.getPlacesSharedState()).thenReturn(placesState);
+        final Event firstEvent =
+                testSetLocationPermissionStatusEvent(
+                        PlacesAuthorizationStatus.ALWAYS.stringValue());
+        final Event secondEvent =
+                testSetLocationPermissionStatusEvent(
+                        PlacesAuthorizationStatus.ALWAYS.stringValue());
+
+        // test
+        extension.handlePlacesRequestEvent(firstEvent);
+        extension.handleConfigurationResponseEvent(emptyEvent());
+        extension.handlePlacesRequestEvent(secondEvent);
+
+        // verify that the shared state is published again after the reset
+        verify(extensionApi).createSharedState(eq(placesState), eq(firstEvent));
+        verify(extensionApi).createSharedState(eq(new HashMap<>()), eq(null));
+        verify(extensionApi).createSharedState(eq(placesState), eq(secondEvent));
+        assertEquals(0, extension.getSuppressedSharedStateCount());
+    }
+
     @Test
     public void handleSetLocationPermissionStatusEvent_InvalidStatusValue() {
         // test
@@ -598,6 +1322,45 @@ public class PlacesExtensionTests {
                 .build();
     }
 
+    private Event testGeofenceBatchEvent() {
+        List<Map<String, Object>> regions = new ArrayList<>();
+
+        for (final String regionId : Arrays.asList("poi1", "poi2")) {
+            Map<String, Object> region = new HashMap<>();
+            region.put(PlacesTestConstants.EventDataKeys.Places.REGION_ID, regionId);
+            region.put(PlacesTestConstants.EventDataKeys.Places.REGION_EVENT_TYPE, "entry");
+            regions.add(region);
+        }
+
+        HashMap<String, Object> data = new HashMap<>();
+        data.put(PlacesTestConstants.EventDataKeys.Places.REGIONS, regions);
+        data.put(
+                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE,
+                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE_PROCESS_REGION_EVENTS);
+
+        return new Event.Builder(
+                        "Geofence batch event", EventType.PLACES, EventSource.REQUEST_CONTENT)
+                .setEventData(data)
+                .build();
+    }
+
+    private Event testProcessLocationEvent() {
+        HashMap<String, Object> data = new HashMap<>();
+        data.put(PlacesTestConstants.EventDataKeys.Places.LATITUDE, 34.33);
+        data.put(PlacesTestConstants.EventDataKeys.Places.LONGITUDE, -124.33);
+        data.put(PlacesTestConstants.EventDataKeys.Places.ACCURACY, 15.0);
+        data.put(
+                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE,
+                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE_PROCESS_LOCATION);
+
+        return new Event.Builder(
+                        PlacesTestConstants.EventName.REQUEST_PROCESSLOCATION,
+                        EventType.PLACES,
+                        EventSource.REQUEST_CONTENT)
+                .setEventData(data)
+                .build();
+    }
+
     private PlacesPOI createPOI(final String id) {
         return new PlacesPOI(id, "hidden", 34.33, -121.55, 150, "libraryName", 22, null);
     }
@@ -0,0 +1,229 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PlacesGeofenceEvaluatorTests {
+
+    private static final double POI_LATITUDE = 40.7580;
+    private static final double POI_LONGITUDE = -73.9855;
+    private static final double METERS_PER_DEGREE =
+            Math.toRadians(PlacesUtil.EARTH_RADIUS_METERS);
+
+    private PlacesGeofenceEvaluator evaluator;
+    private PlacesPOIIndex index;
+    private Map<String, PlacesPOI> pois;
+    private List<PlacesPOI> userWithinPOIs;
+
+    @Before
+    public void testSetup() {
+        evaluator = new PlacesGeofenceEvaluator(25, 250);
+        index = new PlacesPOIIndex();
+        pois = new HashMap<>();
+        userWithinPOIs = new ArrayList<>();
+    }
+
+    @Test
+    public void test_evaluate_recordedTrace() {
+        // setup
+        addPOI("poi1", POI_LATITUDE, POI_LONGITUDE, 100);
+        final Random random = new Random(5);
+        final List<String> transitions = new ArrayList<>();
+
+        // walk 400 meters north across the POI and back, with a jittery location fix every
+        // 5 meters
+        for (int step = 0; step <= 320; step++) {
+            final double northing = step <= 160 ? -400 + step * 5 : 400 - (step - 160) * 5;
+            final double jitter = (random.nextDouble() * 2 - 1) * 15;
+
+            // test
+            for (final Map<String, Object> region :
+                    evaluate(northing + jitter, random.nextDouble() * 10, 10)) {
+                transitions.add(apply(region));
+            }
+        }
+
+        // verify that each crossing results in a single transition
+        final List<String> expected = new ArrayList<>();
+        expected.add("poi1 entry");
+        expected.add("poi1 exit");
+        expected.add("poi1 entry");
+        expected.add("poi1 exit");
+        assertEquals(expected, transitions);
+    }
+
+    @Test
+    public void test_evaluate_hysteresis() {
+        // setup
+        addPOI("poi1", POI_LATITUDE, POI_LONGITUDE, 100);
+        apply(evaluate(0, 0, 0).get(0));
+
+        // test and verify that leaving the radius by less than the hysteresis is no exit
+        assertTrue(evaluate(110, 0, 0).isEmpty());
+        assertTrue(evaluate(124, 0, 0).isEmpty());
+
+        // test
+        final List<Map<String, Object>> regions = evaluate(126, 0, 0);
+
+        // verify
+        assertEquals(1, regions.size());
+        assertEquals("poi1 exit", apply(regions.get(0)));
+
+        // test and verify that getting back in the hysteresis band is no entry
+        assertTrue(evaluate(110, 0, 0).isEmpty());
+    }
+
+    @Test
+    public void test_evaluate_accuracyMargin() {
+        // setup
+        addPOI("poi1", POI_LATITUDE, POI_LONGITUDE, 100);
+        addPOI("small", POI_LATITUDE + 0.01, POI_LONGITUDE, 20);
+
+        // test and verify that the location has to be within the radius by its accuracy
+        assertTrue(evaluate(80, 0, 30).isEmpty());
+        assertEquals("poi1 entry", apply(evaluate(80, 0, 10).get(0)));
+
+        // test
+        final List<Map<String, Object>> regions =
+                evaluate(0.01 * METERS_PER_DEGREE + 5, 0, 100);
+
+        // verify that exits come first, and that the margin of a small POI is capped to half of
+        // its radius
+        assertEquals(2, regions.size());
+        assertEquals("poi1 exit", apply(regions.get(0)));
+        assertEquals("small entry", apply(regions.get(1)));
+    }
+
+    @Test
+    public void test_evaluate_when_locationNotAccurateEnough() {
+        // setup
+        addPOI("poi1", POI_LATITUDE, POI_LONGITUDE, 100);
+
+        // test and verify
+        assertTrue(evaluate(0, 0, 300).isEmpty());
+
+        // test and verify that every location is evaluated without a maximum accuracy
+        evaluator = new PlacesGeofenceEvaluator(25, 0);
+        assertEquals(1, evaluate(0, 0, 300).size());
+    }
+
+    @Test
+    public void test_evaluate_when_invalidLocation() {
+        // setup
+        addPOI("poi1", POI_LATITUDE, POI_LONGITUDE, 100);
+
+        // test and verify
+        assertTrue(
+                evaluator
+                        .evaluate(
+                                PlacesConstants.INVALID_LAT_LON,
+                                PlacesConstants.INVALID_LAT_LON,
+                                0,
+                                index,
+                                userWithinPOIs)
+                        .isEmpty());
+    }
+
+    @Test
+    public void test_evaluate_largeLibrary() {
+        // setup
+        final Random random = new Random(17);
+
+        for (int i = 0; i < 20000; i++) {
+            addPOI(
+                    "poi" + i,
+                    POI_LATITUDE + random.nextGaussian() * 0.05,
+                    POI_LONGITUDE + random.nextGaussian() * 0.05,
+                    50 + random.nextInt(500));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            final double northing = random.nextGaussian() * 2000;
+            final double easting = random.nextGaussian() * 2000;
+
+            // test
+            final Set<String> entered = new HashSet<>();
+
+            for (final Map<String, Object> region : evaluate(northing, easting, 0)) {
+                entered.add(
+                        region.get(PlacesTestConstants.EventDataKeys.Places.REGION_ID)
+                                + " "
+                                + region.get(
+                                        PlacesTestConstants.EventDataKeys.Places
+                                                .REGION_EVENT_TYPE));
+            }
+
+            // verify
+            final Set<String> expected = new HashSet<>();
+            final double latitude = POI_LATITUDE + northing / METERS_PER_DEGREE;
+            final double longitude = POI_LONGITUDE + easting / METERS_PER_DEGREE;
+
+            for (final PlacesPOI poi : pois.values()) {
+                if (PlacesUtil.distanceInMeters(
+                                latitude, longitude, poi.getLatitude(), poi.getLongitude())
+                        <= poi.getRadius()) {
+                    expected.add(poi.getIdentifier() + " entry");
+                }
+            }
+
+            assertEquals(expected, entered);
+        }
+    }
+
+    private List<Map<String, Object>> evaluate(
+            final double northing, final double easting, final double accuracy) {
+        return evaluator.evaluate(
+                POI_LATITUDE + northing / METERS_PER_DEGREE,
+                POI_LONGITUDE + easting / METERS_PER_DEGREE,
+                accuracy,
+                index,
+                userWithinPOIs);
+    }
+
+    /** Applies a transition the way the places state does, and describes it. */
+    private String apply(final Map<String, Object> region) {
+        final String regionId =
+                (String) region.get(PlacesTestConstants.EventDataKeys.Places.REGION_ID);
+        final String regionType =
+                (String) region.get(PlacesTestConstants.EventDataKeys.Places.REGION_EVENT_TYPE);
+        final PlacesPOI poi = pois.get(regionId);
+        final boolean entry = PlacesRegion.PLACE_EVENT_ENTRY.equals(regionType);
+        poi.setUserIsWithin(entry);
+
+        if (entry) {
+            userWithinPOIs.add(poi);
+        } else {
+            userWithinPOIs.remove(poi);
+        }
+
+        return regionId + " " + regionType;
+    }
+
+    private void addPOI(
+            final String id, final double latitude, final double longitude, final int radius) {
+        final PlacesPOI poi =
+                new PlacesPOI(id, "name", latitude, longitude, radius, "libraryName", 1);
+        pois.put(id, poi);
+        index.add(poi);
+    }
+}
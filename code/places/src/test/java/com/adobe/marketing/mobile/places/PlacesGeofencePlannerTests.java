@@ -0,0 +1,213 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class PlacesGeofencePlannerTests {
+
+    private static final double LATITUDE = 40.7580;
+    private static final double LONGITUDE = -73.9855;
+    private static final double METERS_PER_DEGREE =
+            Math.toRadians(PlacesUtil.EARTH_RADIUS_METERS);
+
+    @Test
+    public void test_plan_ranksByDistanceToBoundary() {
+        // setup
+        final PlacesGeofencePlanner planner = new PlacesGeofencePlanner(2);
+        final List<PlacesPOI> pois =
+                Arrays.asList(
+                        createPOI("near", 300, 50, 1),
+                        createPOI("large", 600, 500, 1),
+                        createPOI("far", 1000, 50, 1));
+
+        // test
+        final PlacesGeofencePlan plan = planner.plan(LATITUDE, LONGITUDE, pois);
+
+        // verify
+        assertEquals(Arrays.asList("large", "near"), getIdentifiers(plan.getPOIsToAdd()));
+        assertTrue(plan.getIdsToRemove().isEmpty());
+        assertEquals(Arrays.asList("large", "near"), planner.getRegisteredIds());
+    }
+
+    @Test
+    public void test_plan_ranksByWeight() {
+        // setup
+        final PlacesGeofencePlanner planner = new PlacesGeofencePlanner(1);
+        final List<PlacesPOI> pois =
+                Arrays.asList(
+                        createPOI("lowPriority", 10, 100, 5),
+                        createPOI("highPriority", 20, 100, 1));
+
+        // test
+        final PlacesGeofencePlan plan = planner.plan(LATITUDE, LONGITUDE, pois);
+
+        // verify
+        assertEquals(
+                Collections.singletonList("highPriority"), getIdentifiers(plan.getPOIsToAdd()));
+    }
+
+    @Test
+    public void test_plan_returnsOnlyTheDifference() {
+        // setup
+        final PlacesGeofencePlanner planner = new PlacesGeofencePlanner(3);
+        final List<PlacesPOI> pois = new ArrayList<>();
+
+        for (int i = 0; i < 6; i++) {
+            pois.add(createPOI("poi" + i, i * 100, 10, 1));
+        }
+
+        planner.plan(LATITUDE, LONGITUDE, pois);
+
+        // test the device moving north by 160 meters
+        final PlacesGeofencePlan plan =
+                planner.plan(LATITUDE + 160 / METERS_PER_DEGREE, LONGITUDE, pois);
+
+        // verify
+        assertEquals(Collections.singletonList("poi3"), getIdentifiers(plan.getPOIsToAdd()));
+        assertEquals(Collections.singletonList("poi0"), plan.getIdsToRemove());
+
+        // test the device not moving
+        final PlacesGeofencePlan unchangedPlan =
+                planner.plan(LATITUDE + 160 / METERS_PER_DEGREE, LONGITUDE, pois);
+
+        // verify
+        assertTrue(unchangedPlan.isEmpty());
+    }
+
+    @Test
+    public void test_plan_retainMargin() {
+        // setup
+        final PlacesGeofencePlanner planner = new PlacesGeofencePlanner(1, 50);
+        final List<PlacesPOI> pois =
+                Arrays.asList(createPOI("poi1", 200, 10, 1), createPOI("poi2", 400, 10, 1));
+        planner.plan(LATITUDE, LONGITUDE, pois);
+
+        // test the device moving slightly closer to poi2
+        final PlacesGeofencePlan retainedPlan =
+                planner.plan(LATITUDE + 320 / METERS_PER_DEGREE, LONGITUDE, pois);
+
+        // verify
+        assertTrue(retainedPlan.isEmpty());
+
+        // test the device moving well past the margin
+        final PlacesGeofencePlan plan =
+                planner.plan(LATITUDE + 360 / METERS_PER_DEGREE, LONGITUDE, pois);
+
+        // verify
+        assertEquals(Collections.singletonList("poi2"), getIdentifiers(plan.getPOIsToAdd()));
+        assertEquals(Collections.singletonList("poi1"), plan.getIdsToRemove());
+    }
+
+    @Test
+    public void test_plan_when_geofenceChanged() {
+        // setup
+        final PlacesGeofencePlanner planner = new PlacesGeofencePlanner(2);
+        planner.plan(
+                LATITUDE,
+                LONGITUDE,
+                Arrays.asList(createPOI("poi1", 100, 10, 1), createPOI("poi2", 200, 10, 1)));
+
+        // test
+        final PlacesGeofencePlan plan =
+                planner.plan(
+                        LATITUDE,
+                        LONGITUDE,
+                        Arrays.asList(
+                                createPOI("poi1", 100, 10, 1), createPOI("poi2", 200, 20, 1)));
+
+        // verify that the changed geofence is registered again
+        assertEquals(Collections.singletonList("poi2"), getIdentifiers(plan.getPOIsToAdd()));
+        assertTrue(plan.getIdsToRemove().isEmpty());
+    }
+
+    @Test
+    public void test_plan_when_invalidLocation() {
+        // setup
+        final PlacesGeofencePlanner planner = new PlacesGeofencePlanner(2);
+        final List<PlacesPOI> pois = Collections.singletonList(createPOI("poi1", 100, 10, 1));
+        planner.plan(LATITUDE, LONGITUDE, pois);
+
+        // test
+        final PlacesGeofencePlan plan =
+                planner.plan(
+                        PlacesConstants.INVALID_LAT_LON, PlacesConstants.INVALID_LAT_LON, pois);
+
+        // verify
+        assertTrue(plan.getPOIsToAdd().isEmpty());
+        assertEquals(Collections.singletonList("poi1"), plan.getIdsToRemove());
+        assertTrue(planner.getRegisteredIds().isEmpty());
+    }
+
+    @Test
+    public void test_reset() {
+        // setup
+        final PlacesGeofencePlanner planner = new PlacesGeofencePlanner(2);
+        final List<PlacesPOI> pois = Collections.singletonList(createPOI("poi1", 100, 10, 1));
+        planner.plan(LATITUDE, LONGITUDE, pois);
+
+        // test
+        planner.reset();
+        final PlacesGeofencePlan plan = planner.plan(LATITUDE, LONGITUDE, pois);
+
+        // verify
+        assertEquals(Collections.singletonList("poi1"), getIdentifiers(plan.getPOIsToAdd()));
+        assertTrue(plan.getIdsToRemove().isEmpty());
+    }
+
+    @Test
+    public void test_plan_capsToMaxGeofences() {
+        // setup
+        final PlacesGeofencePlanner planner = new PlacesGeofencePlanner(500);
+        final List<PlacesPOI> pois = new ArrayList<>();
+
+        for (int i = 0; i < 150; i++) {
+            pois.add(createPOI("poi" + i, i * 10, 5, 1));
+        }
+
+        // test
+        final PlacesGeofencePlan plan = planner.plan(LATITUDE, LONGITUDE, pois);
+
+        // verify
+        assertEquals(PlacesGeofencePlanner.MAX_GEOFENCES, plan.getPOIsToAdd().size());
+        assertEquals("poi99", plan.getPOIsToAdd().get(99).getIdentifier());
+    }
+
+    private List<String> getIdentifiers(final List<PlacesPOI> pois) {
+        final List<String> identifiers = new ArrayList<>();
+
+        for (final PlacesPOI poi : pois) {
+            identifiers.add(poi.getIdentifier());
+        }
+
+        return identifiers;
+    }
+
+    /** Creates a POI the provided number of meters north of the reference location. */
+    private PlacesPOI createPOI(
+            final String id, final double northing, final int radius, final int weight) {
+        return new PlacesPOI(
+                id,
+                "name",
+                LATITUDE + northing / METERS_PER_DEGREE,
+                LONGITUDE,
+                radius,
+                "libraryName",
+                weight);
+    }
+}
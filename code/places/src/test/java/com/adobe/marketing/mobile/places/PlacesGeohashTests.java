@@ -0,0 +1,84 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+
+public class PlacesGeohashTests {
+
+    @Test
+    public void test_encode() {
+        assertEquals("u4pruydqqvj", PlacesGeohash.encode(57.64911, 10.40744, 11));
+        assertEquals("u4pru", PlacesGeohash.encode(57.64911, 10.40744, 5));
+        assertEquals("9q9k65", PlacesGeohash.encode(37.3309, -121.8939, 6));
+    }
+
+    @Test
+    public void test_decodeBounds() {
+        // test
+        final double[] bounds = PlacesGeohash.decodeBounds("u4pruydqqvj");
+
+        // verify
+        assertTrue(bounds[0] <= 57.64911 && 57.64911 <= bounds[1]);
+        assertTrue(bounds[2] <= 10.40744 && 10.40744 <= bounds[3]);
+        assertTrue(bounds[1] - bounds[0] < 0.00001);
+    }
+
+    @Test
+    public void test_decodeBounds_when_invalid() {
+        assertNull(PlacesGeohash.decodeBounds(null));
+        assertNull(PlacesGeohash.decodeBounds(""));
+        assertNull(PlacesGeohash.decodeBounds("9q9a"));
+        assertNull(PlacesGeohash.decodeBounds("9q9k659q9k659"));
+    }
+
+    @Test
+    public void test_coveringTiles() {
+        // test
+        final List<String> tiles = PlacesGeohash.coveringTiles(37.3309, -121.8939, 6);
+
+        // verify
+        assertEquals(9, tiles.size());
+        assertEquals(9, new HashSet<>(tiles).size());
+        assertEquals("9q9k65", tiles.get(0));
+
+        for (final String tile : tiles) {
+            assertEquals(6, tile.length());
+            assertTrue(tile.startsWith("9q9k"));
+        }
+    }
+
+    @Test
+    public void test_coveringTiles_when_nearAntimeridian() {
+        // test
+        final List<String> tiles = PlacesGeohash.coveringTiles(0.1, 179.999, 5);
+
+        // verify that the tiles on the other side of the antimeridian are included
+        assertEquals(9, tiles.size());
+        assertTrue(tiles.contains(PlacesGeohash.encode(0.1, -179.999, 5)));
+    }
+
+    @Test
+    public void test_coveringTiles_when_nearPole() {
+        // test
+        final List<String> tiles = PlacesGeohash.coveringTiles(89.99, 10, 3);
+
+        // verify that the tiles beyond the pole are left out
+        assertEquals(6, tiles.size());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.when;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PlacesInFlightRequestsTests {
+
+    private static final long TIMEOUT = 6000;
+
+    @Mock private PlacesConfiguration configuration;
+
+    private PlacesInFlightRequests inFlightRequests;
+
+    @Before
+    public void testSetup() {
+        when(configuration.getLibrariesQueryString()).thenReturn("&library=lib1");
+        inFlightRequests = new PlacesInFlightRequests(TIMEOUT);
+    }
+
+    @Test
+    public void test_add_attachesIdenticalRequests() {
+        // setup
+        final Event leaderEvent = nearbyEvent(37.33091, -121.89391, 10);
+        final Event followerEvent = nearbyEvent(37.33092, -121.89392, 10);
+
+        // test
+        final PlacesInFlightRequests.InFlightRequest inFlightRequest =
+                inFlightRequests.add(leaderEvent, configuration);
+
+        // verify
+        assertNotNull(inFlightRequest);
+        assertNull(inFlightRequests.add(followerEvent, configuration));
+        assertEquals(
+                Arrays.asList(leaderEvent, followerEvent),
+                inFlightRequests.complete(inFlightRequest));
+    }
+
+    @Test
+    public void test_add_when_requestsDiffer() {
+        // test and verify
+        assertNotNull(inFlightRequests.add(nearbyEvent(37.33, -121.89, 10), configuration));
+        assertNotNull(inFlightRequests.add(nearbyEvent(37.34, -121.89, 10), configuration));
+        assertNotNull(inFlightRequests.add(nearbyEvent(37.33, -121.89, 20), configuration));
+
+        // setup
+        when(configuration.getLibrariesQueryString()).thenReturn("&library=lib2");
+
+        // test and verify
+        assertNotNull(inFlightRequests.add(nearbyEvent(37.33, -121.89, 10), configuration));
+    }
+
+    @Test
+    public void test_complete_removesRequest() {
+        // setup
+        final Event event = nearbyEvent(37.33, -121.89, 10);
+        final PlacesInFlightRequests.InFlightRequest inFlightRequest =
+                inFlightRequests.add(event, configuration);
+
+        // test
+        inFlightRequests.complete(inFlightRequest);
+
+        // verify that a new request leads again
+        final Event nextEvent = nearbyEvent(37.33, -121.89, 10);
+        final PlacesInFlightRequests.InFlightRequest nextRequest =
+                inFlightRequests.add(nextEvent, configuration);
+        assertNotNull(nextRequest);
+        assertEquals(Collections.singletonList(nextEvent), inFlightRequests.complete(nextRequest));
+    }
+
+    @Test
+    public void test_add_when_requestTimedOut() {
+        // setup
+        inFlightRequests = new PlacesInFlightRequests(0);
+        final PlacesInFlightRequests.InFlightRequest staleRequest =
+                inFlightRequests.add(nearbyEvent(37.33, -121.89, 10), configuration);
+
+        // test
+        final Event event = nearbyEvent(37.33, -121.89, 10);
+        final PlacesInFlightRequests.InFlightRequest inFlightRequest =
+                inFlightRequests.add(event, configuration);
+
+        // verify
+        assertNotNull(inFlightRequest);
+        assertNotSame(staleRequest, inFlightRequest);
+
+        // completing the stale request leaves the new one in flight
+        inFlightRequests.complete(staleRequest);
+        assertEquals(Collections.singletonList(event), inFlightRequests.complete(inFlightRequest));
+    }
+
+    @Test
+    public void test_add_when_queryIsRetrying() throws Exception {
+        // setup, the query outlasts its first attempt and is being retried
+        inFlightRequests = new PlacesInFlightRequests(100);
+        when(configuration.getNetworkRetries()).thenReturn(2);
+        final Event leaderEvent = nearbyEvent(37.33, -121.89, 10);
+        final PlacesInFlightRequests.InFlightRequest inFlightRequest =
+                inFlightRequests.add(leaderEvent, configuration);
+        Thread.sleep(200);
+
+        // test
+        final Event followerEvent = nearbyEvent(37.33, -121.89, 10);
+
+        // verify that the request still attaches to the query in flight
+        assertNull(inFlightRequests.add(followerEvent, configuration));
+        assertEquals(
+                Arrays.asList(leaderEvent, followerEvent),
+                inFlightRequests.complete(inFlightRequest));
+    }
+
+    private Event nearbyEvent(final double latitude, final double longitude, final int count) {
+        final HashMap<String, Object> data = new HashMap<>();
+        data.put(PlacesTestConstants.EventDataKeys.Places.LATITUDE, latitude);
+        data.put(PlacesTestConstants.EventDataKeys.Places.LONGITUDE, longitude);
+        data.put(PlacesTestConstants.EventDataKeys.Places.PLACES_COUNT, count);
+        return new Event.Builder(
+                        "Get nearby places event", EventType.PLACES, EventSource.REQUEST_CONTENT)
+                .setEventData(data)
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import org.json.JSONException;
+import org.junit.Test;
+
+public class PlacesJsonReaderTests {
+
+    @Test
+    public void test_readObjectAndArray() throws Exception {
+        // setup
+        final PlacesJsonReader reader =
+                createReader("{\"name\": \"value\", \"list\": [1, -2.5e3, true, null]}");
+
+        // test and verify
+        reader.beginObject();
+        assertEquals("name", reader.nextName());
+        assertEquals(PlacesJsonReader.Token.STRING, reader.peek());
+        assertEquals("value", reader.nextString());
+        assertEquals("list", reader.nextName());
+        reader.beginArray();
+        assertEquals(PlacesJsonReader.Token.NUMBER, reader.peek());
+        assertEquals("1", reader.nextString());
+        assertEquals("-2.5e3", reader.nextString());
+        assertEquals(PlacesJsonReader.Token.BOOLEAN, reader.peek());
+        assertEquals("true", reader.nextString());
+        assertEquals(PlacesJsonReader.Token.NULL, reader.peek());
+        reader.nextNull();
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        assertEquals(PlacesJsonReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    @Test
+    public void test_readEscapedString() throws Exception {
+        // setup
+        final PlacesJsonReader reader = createReader("[\"a\\\"b\\\\c\\/d\\n\\u0041\"]");
+
+        // test and verify
+        reader.beginArray();
+        assertEquals("a\"b\\c/d\nA", reader.nextString());
+        reader.endArray();
+    }
+
+    @Test
+    public void test_skipValue() throws Exception {
+        // setup
+        final PlacesJsonReader reader =
+                createReader("{\"skip\": {\"a\": [1, {\"b\": []}], \"c\": null}, \"keep\": 5}");
+
+        // test and verify
+        reader.beginObject();
+        assertEquals("skip", reader.nextName());
+        reader.skipValue();
+        assertEquals("keep", reader.nextName());
+        assertEquals("5", reader.nextString());
+        reader.endObject();
+    }
+
+    @Test
+    public void test_readAcrossBufferBoundary() throws Exception {
+        // setup
+        final StringBuilder json = new StringBuilder("[");
+
+        for (int i = 0; i < 500; i++) {
+            json.append(i == 0 ? "" : ",").append("\"value").append(i).append('"');
+        }
+
+        final PlacesJsonReader reader = createReader(json.append(']').toString());
+
+        // test and verify
+        reader.beginArray();
+
+        for (int i = 0; i < 500; i++) {
+            assertEquals("value" + i, reader.nextString());
+        }
+
+        reader.endArray();
+    }
+
+    @Test
+    public void test_emptyDocument() throws Exception {
+        assertEquals(PlacesJsonReader.Token.END_DOCUMENT, createReader("").peek());
+        assertEquals(PlacesJsonReader.Token.END_DOCUMENT, createReader(" \n\t").peek());
+    }
+
+    @Test
+    public void test_malformedInput() {
+        assertMalformed("invalidJSON");
+        assertMalformed("{\"key\" 1}");
+        assertMalformed("{\"key\": 1 \"other\": 2}");
+        assertMalformed("[1 2]");
+        assertMalformed("[\"unterminated");
+        assertMalformed("[-]");
+        assertMalformed("{\"key\": [1, 2");
+        assertMalformed("[");
+        assertMalformed("{");
+        assertMalformed("{\"x\":[");
+        assertMalformed("{\"x\":{");
+        assertMalformed("{\"x\":[1,");
+        assertMalformed("{\"x\":{\"y\":1,");
+    }
+
+    private void assertMalformed(final String json) {
+        try {
+            final PlacesJsonReader reader = createReader(json);
+            reader.skipValue();
+            fail("Expected a JSONException for " + json);
+        } catch (final JSONException exception) {
+            assertTrue(exception.getMessage().contains("at character"));
+        } catch (final Exception exception) {
+            fail("Unexpected exception " + exception);
+        }
+    }
+
+    private PlacesJsonReader createReader(final String json) {
+        return new PlacesJsonReader(new StringReader(json));
+    }
+}
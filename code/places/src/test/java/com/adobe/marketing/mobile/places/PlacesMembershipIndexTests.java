@@ -0,0 +1,165 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PlacesMembershipIndexTests {
+
+    private PlacesMembershipIndex index;
+
+    @Before
+    public void testSetup() {
+        index = new PlacesMembershipIndex();
+    }
+
+    @Test
+    public void test_rebuild_indexesPOIsUserIsWithin() {
+        // setup
+        final PlacesPOI poi1 = createPOI("poi1", 1, 100, true);
+        final PlacesPOI poi2 = createPOI("poi2", 1, 100, false);
+        final PlacesPOI poi3 = createPOI("poi3", 1, 100, true);
+
+        // test
+        index.rebuild(Arrays.asList(poi1, poi2, poi3));
+
+        // verify
+        assertEquals(3, index.size());
+        assertEquals(Arrays.asList(poi1, poi3), index.getUserWithinPOIs());
+    }
+
+    @Test
+    public void test_update_keepsCacheOrder() {
+        // setup
+        final PlacesPOI poi1 = createPOI("poi1", 1, 100, false);
+        final PlacesPOI poi2 = createPOI("poi2", 1, 100, true);
+        final PlacesPOI poi3 = createPOI("poi3", 1, 100, false);
+        index.rebuild(Arrays.asList(poi1, poi2, poi3));
+
+        // test
+        poi3.setUserIsWithin(true);
+        index.update(poi3);
+        poi1.setUserIsWithin(true);
+        index.update(poi1);
+        poi2.setUserIsWithin(false);
+        index.update(poi2);
+
+        // verify
+        assertEquals(Arrays.asList(poi1, poi3), index.getUserWithinPOIs());
+    }
+
+    @Test
+    public void test_update_when_poiNotCached() {
+        // setup
+        index.rebuild(Arrays.asList(createPOI("poi1", 1, 100, false)));
+
+        // test
+        index.update(createPOI("unknown", 1, 100, true));
+        index.update(null);
+
+        // verify
+        assertTrue(index.getUserWithinPOIs().isEmpty());
+        assertNull(index.getHighestPriorityPOI());
+    }
+
+    @Test
+    public void test_getHighestPriorityPOI() {
+        // setup
+        final PlacesPOI heavy = createPOI("heavy", 5, 10, true);
+        final PlacesPOI wide = createPOI("wide", 1, 500, true);
+        final PlacesPOI narrow = createPOI("narrow", 1, 50, true);
+        final PlacesPOI narrowLast = createPOI("narrowLast", 1, 50, false);
+        index.rebuild(Arrays.asList(heavy, wide, narrow, narrowLast));
+
+        // test and verify, the lowest weight then the smallest radius wins
+        assertEquals(narrow, index.getHighestPriorityPOI());
+
+        // test and verify, between equal POIs the last one in the cache wins
+        narrowLast.setUserIsWithin(true);
+        index.update(narrowLast);
+        assertEquals(narrowLast, index.getHighestPriorityPOI());
+
+        // test and verify
+        narrow.setUserIsWithin(false);
+        index.update(narrow);
+        narrowLast.setUserIsWithin(false);
+        index.update(narrowLast);
+        assertEquals(wide, index.getHighestPriorityPOI());
+    }
+
+    @Test
+    public void test_getHighestPriorityPOI_matchesComparePriority() {
+        // setup
+        final Random random = new Random(7);
+        final List<PlacesPOI> pois = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            pois.add(
+                    createPOI(
+                            "poi" + i,
+                            random.nextInt(3),
+                            50 * (1 + random.nextInt(3)),
+                            random.nextBoolean()));
+        }
+
+        index.rebuild(pois);
+
+        for (int i = 0; i < 200; i++) {
+            // test
+            final PlacesPOI poi = pois.get(random.nextInt(pois.size()));
+            poi.setUserIsWithin(!poi.containsUser());
+            index.update(poi);
+
+            // verify
+            PlacesPOI expected = null;
+
+            for (final PlacesPOI eachPOI : pois) {
+                if (eachPOI.containsUser()) {
+                    expected = eachPOI.comparePriority(expected) ? eachPOI : expected;
+                }
+            }
+
+            assertEquals(expected, index.getHighestPriorityPOI());
+        }
+    }
+
+    @Test
+    public void test_clear() {
+        // setup
+        index.rebuild(Arrays.asList(createPOI("poi1", 1, 100, true)));
+
+        // test
+        index.clear();
+
+        // verify
+        assertEquals(0, index.size());
+        assertTrue(index.getUserWithinPOIs().isEmpty());
+        assertNull(index.getHighestPriorityPOI());
+    }
+
+    private PlacesPOI createPOI(
+            final String id, final int weight, final int radius, final boolean userIsWithin) {
+        final PlacesPOI poi =
+                new PlacesPOI(id, "name", 37.3382, -121.8863, radius, "libraryName", weight);
+        poi.setUserIsWithin(userIsWithin);
+        return poi;
+    }
+}
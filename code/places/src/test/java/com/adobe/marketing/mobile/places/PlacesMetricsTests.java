@@ -0,0 +1,149 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class PlacesMetricsTests {
+
+    private final PlacesMetrics metrics = new PlacesMetrics();
+
+    @Test
+    public void test_recordNetworkLatency() {
+        // test
+        metrics.recordNetworkLatency(TimeUnit.MICROSECONDS.toNanos(300));
+        metrics.recordNetworkLatency(TimeUnit.MILLISECONDS.toNanos(40));
+        metrics.recordNetworkLatency(TimeUnit.MILLISECONDS.toNanos(7000));
+
+        // verify
+        final PlacesMetrics.Histogram histogram = metrics.getNetworkLatency();
+        assertEquals(3, histogram.getCount());
+        assertEquals(7040.3, histogram.getSumMillis(), 0.001);
+        assertEquals(7000, histogram.getMaxMillis(), 0.001);
+
+        final Map<String, Object> histogramMap =
+                (Map<String, Object>)
+                        metrics.toMap().get(PlacesTestConstants.MetricsKeys.NETWORK_LATENCY);
+        assertEquals(3L, histogramMap.get(PlacesTestConstants.MetricsKeys.COUNT));
+        assertEquals(
+                Arrays.asList(1L, 0L, 0L, 0L, 0L, 0L, 1L, 0L, 0L, 0L, 0L, 0L, 0L, 1L),
+                histogramMap.get(PlacesTestConstants.MetricsKeys.BUCKET_COUNTS));
+        assertEquals(
+                Arrays.asList(
+                        0.5, 1.0, 2.5, 5.0, 10.0, 25.0, 50.0, 100.0, 250.0, 500.0, 1000.0, 2500.0,
+                        5000.0),
+                histogramMap.get(PlacesTestConstants.MetricsKeys.BUCKET_BOUNDS));
+    }
+
+    @Test
+    public void test_histogram_getPercentileMillis() {
+        // setup
+        for (int i = 1; i <= 100; i++) {
+            metrics.recordParseTime(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        // test
+        final PlacesMetrics.Histogram histogram = metrics.getParseTime();
+
+        // verify that the percentiles are the upper bounds of their buckets
+        assertEquals(50, histogram.getPercentileMillis(50), 0.001);
+        assertEquals(100, histogram.getPercentileMillis(95), 0.001);
+        assertEquals(1, histogram.getPercentileMillis(0), 0.001);
+    }
+
+    @Test
+    public void test_histogram_getPercentileMillis_when_unboundedBucket() {
+        // setup
+        metrics.recordParseTime(TimeUnit.MILLISECONDS.toNanos(8000));
+
+        // verify that the maximum is returned for the unbounded bucket
+        assertEquals(8000, metrics.getParseTime().getPercentileMillis(99), 0.001);
+    }
+
+    @Test
+    public void test_histogram_getPercentileMillis_when_empty() {
+        // verify
+        assertEquals(0, metrics.getPersistTime().getPercentileMillis(99), 0.001);
+    }
+
+    @Test
+    public void test_getHistogram_returnsCopy() {
+        // setup
+        final PlacesMetrics.Histogram histogram = metrics.getPersistTime();
+
+        // test
+        metrics.recordPersist(TimeUnit.MILLISECONDS.toNanos(3), 120);
+
+        // verify
+        assertEquals(0, histogram.getCount());
+        assertEquals(1, metrics.getPersistTime().getCount());
+        assertEquals(120, metrics.getPersistedBytes());
+    }
+
+    @Test
+    public void test_counters() {
+        // test
+        metrics.countProcessedEvent("requestgetnearbyplaces");
+        metrics.countProcessedEvent("requestgetnearbyplaces");
+        metrics.countProcessedEvent("requestprocessregionevent");
+        metrics.countCacheHit();
+        metrics.countCacheMiss();
+        metrics.countCacheMiss();
+        metrics.countSuppressedWrites(3);
+        metrics.countSuppressedSharedState();
+        metrics.countDroppedRegionEvent();
+
+        // verify
+        assertEquals(2, metrics.getProcessedEvents("requestgetnearbyplaces"));
+        assertEquals(1, metrics.getProcessedEvents("requestprocessregionevent"));
+        assertEquals(0, metrics.getProcessedEvents("requestreset"));
+
+        final Map<String, Object> metricsMap = metrics.toMap();
+        final Map<String, Object> processedEvents =
+                (Map<String, Object>)
+                        metricsMap.get(PlacesTestConstants.MetricsKeys.PROCESSED_EVENTS);
+        assertEquals(2L, processedEvents.get("requestgetnearbyplaces"));
+        assertEquals(1L, processedEvents.get("requestprocessregionevent"));
+        assertEquals(1L, metricsMap.get(PlacesTestConstants.MetricsKeys.CACHE_HITS));
+        assertEquals(2L, metricsMap.get(PlacesTestConstants.MetricsKeys.CACHE_MISSES));
+        assertEquals(3L, metricsMap.get(PlacesTestConstants.MetricsKeys.SUPPRESSED_WRITES));
+        assertEquals(
+                1L, metricsMap.get(PlacesTestConstants.MetricsKeys.SUPPRESSED_SHARED_STATES));
+        assertEquals(1L, metricsMap.get(PlacesTestConstants.MetricsKeys.DROPPED_REGION_EVENTS));
+        assertEquals(0L, metricsMap.get(PlacesTestConstants.MetricsKeys.PERSISTED_BYTES));
+    }
+
+    @Test
+    public void test_toMap_when_empty() {
+        // test
+        final Map<String, Object> metricsMap = metrics.toMap();
+
+        // verify
+        assertEquals(10, metricsMap.size());
+        assertTrue(
+                ((Map<String, Object>)
+                                metricsMap.get(PlacesTestConstants.MetricsKeys.PROCESSED_EVENTS))
+                        .isEmpty());
+        final Map<String, Object> histogramMap =
+                (Map<String, Object>)
+                        metricsMap.get(PlacesTestConstants.MetricsKeys.PERSIST_TIME);
+        assertEquals(0L, histogramMap.get(PlacesTestConstants.MetricsKeys.COUNT));
+        assertEquals(0.0, histogramMap.get(PlacesTestConstants.MetricsKeys.SUM));
+        assertEquals(0.0, histogramMap.get(PlacesTestConstants.MetricsKeys.MAX));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import org.junit.Test;
+
+public class PlacesPOIDiffTests {
+
+    @Test
+    public void test_merge_when_unchanged() {
+        // setup
+        final LinkedHashMap<String, PlacesPOI> cachedPOIs = createCache("poi1", "poi2", "poi3");
+
+        // test
+        final PlacesPOIDiff diff =
+                PlacesPOIDiff.merge(
+                        cachedPOIs,
+                        Collections.singletonList(createPOI("poi1")),
+                        Arrays.asList(createPOI("poi2"), createPOI("poi3")));
+
+        // verify that the cached instances are reused
+        assertTrue(diff.isEmpty());
+        assertEquals(cachedPOIs, diff.getMergedPOIs());
+
+        for (final PlacesPOI poi : diff.getMergedPOIs().values()) {
+            assertSame(cachedPOIs.get(poi.getIdentifier()), poi);
+        }
+    }
+
+    @Test
+    public void test_merge_when_cachedPOIModified() {
+        // setup
+        final LinkedHashMap<String, PlacesPOI> cachedPOIs = createCache("poi1", "poi2");
+        cachedPOIs.get("poi2").setUserIsWithin(true);
+        final PlacesPOI responsePOI = createPOI("poi2");
+        responsePOI.setUserIsWithin(true);
+
+        // test
+        final PlacesPOIDiff diff =
+                PlacesPOIDiff.merge(
+                        cachedPOIs,
+                        Collections.singletonList(responsePOI),
+                        Collections.singletonList(createPOI("poi1")),
+                        Collections.singleton("poi2"));
+
+        // verify that the modified POI is reported as changed, though the cached POI is kept
+        assertFalse(diff.isEmpty());
+        assertSame(cachedPOIs.get("poi2"), diff.getMergedPOIs().get("poi2"));
+        assertEquals(Collections.singletonList(cachedPOIs.get("poi2")), diff.getChangedPOIs());
+        assertTrue(diff.getAddedPOIs().isEmpty());
+        assertTrue(diff.getRemovedPOIs().isEmpty());
+        assertSame(cachedPOIs, diff.getPreviousPOIs());
+    }
+
+    @Test
+    public void test_merge_when_poisAddedRemovedAndChanged() {
+        // setup
+        final LinkedHashMap<String, PlacesPOI> cachedPOIs = createCache("poi1", "poi2", "poi3");
+        final PlacesPOI changedPOI = createPOI("poi2");
+        changedPOI.setUserIsWithin(true);
+        final PlacesPOI addedPOI = createPOI("poi4");
+
+        // test
+        final PlacesPOIDiff diff =
+                PlacesPOIDiff.merge(
+                        cachedPOIs,
+                        Collections.singletonList(changedPOI),
+                        Arrays.asList(createPOI("poi1"), addedPOI));
+
+        // verify
+        assertFalse(diff.isEmpty());
+        assertEquals(
+                Arrays.asList("poi2", "poi1", "poi4"),
+                new ArrayList<>(diff.getMergedPOIs().keySet()));
+        assertSame(cachedPOIs.get("poi1"), diff.getMergedPOIs().get("poi1"));
+        assertSame(changedPOI, diff.getMergedPOIs().get("poi2"));
+        assertEquals(Collections.singletonList(addedPOI), diff.getAddedPOIs());
+        assertEquals(Collections.singletonList(changedPOI), diff.getChangedPOIs());
+        assertEquals(Collections.singletonList(cachedPOIs.get("poi3")), diff.getRemovedPOIs());
+
+        // verify that the cached POIs are not modified
+        assertEquals(3, cachedPOIs.size());
+        assertFalse(cachedPOIs.get("poi2").containsUser());
+    }
+
+    @Test
+    public void test_merge_when_orderChanged() {
+        // setup
+        final LinkedHashMap<String, PlacesPOI> cachedPOIs = createCache("poi1", "poi2");
+
+        // test
+        final PlacesPOIDiff diff =
+                PlacesPOIDiff.merge(
+                        cachedPOIs, null, Arrays.asList(createPOI("poi2"), createPOI("poi1")));
+
+        // verify
+        assertFalse(diff.isEmpty());
+        assertTrue(diff.getAddedPOIs().isEmpty());
+        assertTrue(diff.getRemovedPOIs().isEmpty());
+        assertTrue(diff.getChangedPOIs().isEmpty());
+        assertEquals(
+                Arrays.asList("poi2", "poi1"), new ArrayList<>(diff.getMergedPOIs().keySet()));
+    }
+
+    @Test
+    public void test_merge_when_poiListedTwice() {
+        // setup
+        final LinkedHashMap<String, PlacesPOI> cachedPOIs = createCache("poi1");
+        final PlacesPOI nearbyPOI = createPOI("poi1");
+        final PlacesPOI userWithinPOI = createPOI("poi1");
+        userWithinPOI.setUserIsWithin(true);
+
+        // test
+        final PlacesPOIDiff diff =
+                PlacesPOIDiff.merge(
+                        cachedPOIs,
+                        Collections.singletonList(userWithinPOI),
+                        Collections.singletonList(nearbyPOI));
+
+        // verify that the last value wins, as when caching the response directly
+        assertTrue(diff.isEmpty());
+        assertSame(cachedPOIs.get("poi1"), diff.getMergedPOIs().get("poi1"));
+    }
+
+    @Test
+    public void test_merge_when_noCachedPOIs() {
+        // setup
+        final List<PlacesPOI> nearbyPOIs = Arrays.asList(createPOI("poi1"), createPOI("poi2"));
+
+        // test
+        final PlacesPOIDiff diff =
+                PlacesPOIDiff.merge(new LinkedHashMap<>(), new ArrayList<>(), nearbyPOIs);
+
+        // verify
+        assertFalse(diff.isEmpty());
+        assertEquals(nearbyPOIs, diff.getAddedPOIs());
+        assertEquals(nearbyPOIs, new ArrayList<>(diff.getMergedPOIs().values()));
+    }
+
+    @Test
+    public void test_merge_when_responseEmpty() {
+        // setup
+        final LinkedHashMap<String, PlacesPOI> cachedPOIs = createCache("poi1", "poi2");
+
+        // test
+        final PlacesPOIDiff diff = PlacesPOIDiff.merge(cachedPOIs, null, null);
+
+        // verify
+        assertFalse(diff.isEmpty());
+        assertTrue(diff.getMergedPOIs().isEmpty());
+        assertEquals(new ArrayList<>(cachedPOIs.values()), diff.getRemovedPOIs());
+    }
+
+    private LinkedHashMap<String, PlacesPOI> createCache(final String... identifiers) {
+        final LinkedHashMap<String, PlacesPOI> cachedPOIs = new LinkedHashMap<>();
+
+        for (final String identifier : identifiers) {
+            cachedPOIs.put(identifier, createPOI(identifier));
+        }
+
+        return cachedPOIs;
+    }
+
+    private PlacesPOI createPOI(final String identifier) {
+        return new PlacesPOI(identifier, "name", 37.33, -121.89, 100, "library", 1);
+    }
+}
@@ -0,0 +1,217 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PlacesPOIIndexTests {
+
+    private PlacesPOIIndex index;
+
+    @Before
+    public void testSetup() {
+        index = new PlacesPOIIndex();
+    }
+
+    @Test
+    public void test_add_replacesPOIWithSameIdentifier() {
+        // test
+        index.add(createPOI("poi1", 40.7580, -73.9855));
+        index.add(createPOI("poi1", 37.3382, -121.8863));
+
+        // verify
+        assertEquals(1, index.size());
+        assertTrue(index.findWithinDistance(40.7580, -73.9855, 1000).isEmpty());
+        assertEquals(1, index.findWithinDistance(37.3382, -121.8863, 1000).size());
+    }
+
+    @Test
+    public void test_remove() {
+        // setup
+        index.add(createPOI("poi1", 40.7580, -73.9855));
+        index.add(createPOI("poi2", 40.7590, -73.9845));
+
+        // test
+        index.remove("poi1");
+        index.remove("unknown");
+
+        // verify
+        assertEquals(1, index.size());
+        assertEquals(
+                "poi2", index.findWithinDistance(40.7580, -73.9855, 1000).get(0).getIdentifier());
+    }
+
+    @Test
+    public void test_findWithinDistance_orderedByDistance() {
+        // setup
+        index.add(createPOI("far", 40.7680, -73.9855));
+        index.add(createPOI("near", 40.7581, -73.9855));
+        index.add(createPOI("outside", 40.9580, -73.9855));
+
+        // test
+        final List<PlacesPOI> result = index.findWithinDistance(40.7580, -73.9855, 2000);
+
+        // verify
+        assertEquals(2, result.size());
+        assertEquals("near", result.get(0).getIdentifier());
+        assertEquals("far", result.get(1).getIdentifier());
+    }
+
+    @Test
+    public void test_findWithinDistance_acrossAntimeridian() {
+        // setup
+        index.add(createPOI("east", 10.0, 179.9995));
+        index.add(createPOI("west", 10.0, -179.9995));
+
+        // test
+        final List<PlacesPOI> result = index.findWithinDistance(10.0, 179.9999, 500);
+
+        // verify
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    public void test_findWithinDistance_when_invalidLocation() {
+        // setup
+        index.add(createPOI("poi1", 40.7580, -73.9855));
+
+        // test and verify
+        assertTrue(index.findWithinDistance(PlacesConstants.INVALID_LAT_LON, 0, 1000).isEmpty());
+        assertTrue(index.findWithinDistance(40.7580, -73.9855, -1).isEmpty());
+    }
+
+    @Test
+    public void test_findNearest_matchesBruteForce() {
+        // setup
+        final Random random = new Random(7);
+        final List<PlacesPOI> pois = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            final PlacesPOI poi =
+                    createPOI(
+                            "poi" + i,
+                            40.75 + random.nextGaussian() * 0.2,
+                            -73.98 + random.nextGaussian() * 0.2);
+            pois.add(poi);
+            index.add(poi);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            final double latitude = 40.75 + random.nextGaussian() * 0.3;
+            final double longitude = -73.98 + random.nextGaussian() * 0.3;
+            final int count = 1 + random.nextInt(30);
+
+            // test
+            final List<PlacesPOI> nearest = index.findNearest(latitude, longitude, count);
+
+            // verify
+            final List<PlacesPOI> expected = new ArrayList<>(pois);
+            Collections.sort(
+                    expected,
+                    (first, second) ->
+                            Double.compare(
+                                    PlacesUtil.distanceInMeters(
+                                            latitude,
+                                            longitude,
+                                            first.getLatitude(),
+                                            first.getLongitude()),
+                                    PlacesUtil.distanceInMeters(
+                                            latitude,
+                                            longitude,
+                                            second.getLatitude(),
+                                            second.getLongitude())));
+            assertEquals(expected.subList(0, count), nearest);
+        }
+    }
+
+    @Test
+    public void test_findNearest_when_countExceedsSize() {
+        // setup
+        index.add(createPOI("poi1", 40.7580, -73.9855));
+        index.add(createPOI("poi2", -33.8688, 151.2093));
+
+        // test
+        final List<PlacesPOI> result = index.findNearest(40.7580, -73.9855, 10);
+
+        // verify
+        assertEquals(2, result.size());
+        assertEquals("poi1", result.get(0).getIdentifier());
+        assertEquals("poi2", result.get(1).getIdentifier());
+    }
+
+    @Test
+    public void test_findNearest_when_sparseIndex() {
+        // setup
+        index.add(createPOI("poi1", 40.7580, -73.9855));
+        index.add(createPOI("poi2", -33.8688, 151.2093));
+        index.add(createPOI("poi3", 51.5072, -0.1276));
+
+        // test
+        final List<PlacesPOI> result = index.findNearest(48.8566, 2.3522, 1);
+
+        // verify
+        assertEquals(1, result.size());
+        assertEquals("poi3", result.get(0).getIdentifier());
+    }
+
+    @Test
+    public void test_rebuild_and_clear() {
+        // setup
+        final List<PlacesPOI> pois = new ArrayList<>();
+        pois.add(createPOI("poi1", 40.7580, -73.9855));
+        pois.add(createPOI("poi2", 40.7590, -73.9845));
+
+        // test
+        index.rebuild(pois);
+
+        // verify
+        assertEquals(2, index.size());
+
+        // test
+        index.clear();
+
+        // verify
+        assertEquals(0, index.size());
+        assertTrue(index.findNearest(40.7580, -73.9855, 1).isEmpty());
+    }
+
+    @Test
+    public void test_findContaining() {
+        // setup
+        index.add(new PlacesPOI("inside", "name", 40.7580, -73.9855, 100, "libraryName", 1));
+        index.add(new PlacesPOI("margin", "name", 40.7600, -73.9855, 200, "libraryName", 1));
+        index.add(new PlacesPOI("outside", "name", 40.7700, -73.9855, 100, "libraryName", 1));
+
+        // test
+        final List<PlacesPOI> containing = index.findContaining(40.7580, -73.9855, 0);
+        final List<PlacesPOI> containingWithMargin = index.findContaining(40.7580, -73.9855, 50);
+
+        // verify
+        assertEquals(1, containing.size());
+        assertEquals("inside", containing.get(0).getIdentifier());
+        assertEquals(2, containingWithMargin.size());
+        assertEquals("inside", containingWithMargin.get(0).getIdentifier());
+        assertEquals("margin", containingWithMargin.get(1).getIdentifier());
+    }
+
+    private PlacesPOI createPOI(final String id, final double latitude, final double longitude) {
+        return new PlacesPOI(id, "name", latitude, longitude, 100, "libraryName", 1);
+    }
+}
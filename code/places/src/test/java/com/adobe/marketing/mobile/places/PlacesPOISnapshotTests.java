@@ -0,0 +1,135 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class PlacesPOISnapshotTests {
+
+    @Test
+    public void test_encodeAndDecode() throws Exception {
+        // setup
+        final Map<String, String> metadata = new HashMap<>();
+        metadata.put("city", "San Jose");
+        metadata.put("category", "restaurant");
+        metadata.put("empty", null);
+
+        final List<PlacesPOI> pois = new ArrayList<>();
+        final PlacesPOI withinPOI =
+                new PlacesPOI("poi1", "Adobe", 37.3309, -121.8939, 150, "lib1", 1, metadata);
+        withinPOI.setUserIsWithin(true);
+        pois.add(withinPOI);
+        pois.add(new PlacesPOI("poi2", "Café", -33.868820, 151.209296, 50, "lib1", -5, null));
+        pois.add(new PlacesPOI("poi3", null, 40.758012345678, -73.98551234567891, 0, null, 0));
+
+        // test
+        final LinkedHashMap<String, PlacesPOI> decoded =
+                PlacesPOISnapshot.decode(PlacesPOISnapshot.encode(pois));
+
+        // verify
+        assertEquals(3, decoded.size());
+        assertEquals(pois.get(0), decoded.get("poi1"));
+        assertEquals(pois.get(1), decoded.get("poi2"));
+
+        final PlacesPOI poi1 = decoded.get("poi1");
+        assertTrue(poi1.containsUser());
+        assertEquals(metadata, poi1.getMetadata());
+
+        final PlacesPOI poi2 = decoded.get("poi2");
+        assertFalse(poi2.containsUser());
+        assertEquals("Café", poi2.getName());
+        assertEquals(-5, poi2.getWeight());
+        assertNull(poi2.getMetadata());
+
+        // coordinates beyond the packed precision are kept as is
+        final PlacesPOI poi3 = decoded.get("poi3");
+        assertNull(poi3.getName());
+        assertNull(poi3.getLibrary());
+        assertEquals(0, poi3.getRadius());
+        assertEquals(40.758012345678, poi3.getLatitude(), 0);
+        assertEquals(-73.98551234567891, poi3.getLongitude(), 0);
+    }
+
+    @Test
+    public void test_encode_when_noPOIs() throws Exception {
+        assertTrue(PlacesPOISnapshot.decode(PlacesPOISnapshot.encode(new ArrayList<>())).isEmpty());
+    }
+
+    @Test
+    public void test_encode_isSmallerThanJSON() throws Exception {
+        // setup
+        final List<PlacesPOI> pois = new ArrayList<>();
+        final JSONObject json = new JSONObject();
+
+        for (int i = 0; i < 100; i++) {
+            final Map<String, String> metadata = new HashMap<>();
+            metadata.put("category", i % 2 == 0 ? "restaurant" : "store");
+            final PlacesPOI poi =
+                    new PlacesPOI(
+                            "poi" + i,
+                            "name" + i,
+                            37.33 + i * 0.0001,
+                            -121.89 - i * 0.0001,
+                            100,
+                            "library",
+                            1,
+                            metadata);
+            pois.add(poi);
+            json.put(poi.getIdentifier(), new JSONObject(poi.toMap()));
+        }
+
+        // test
+        final String snapshot = PlacesPOISnapshot.encode(pois);
+
+        // verify
+        assertTrue(snapshot.length() * 2 < json.toString().length());
+        assertEquals(pois, new ArrayList<>(PlacesPOISnapshot.decode(snapshot).values()));
+    }
+
+    @Test
+    public void test_decode_when_malformed() {
+        final String snapshot =
+                PlacesPOISnapshot.encode(
+                        Collections.singletonList(
+                                new PlacesPOI("poi1", "name", 37.33, -121.89, 100, "lib", 1)));
+
+        assertMalformed("");
+        assertMalformed("not a snapshot");
+        assertMalformed("AAAA");
+        assertMalformed(snapshot.substring(0, snapshot.length() - 8));
+        // unsupported format version
+        assertMalformed("UAI=");
+    }
+
+    private void assertMalformed(final String snapshot) {
+        try {
+            PlacesPOISnapshot.decode(snapshot);
+            fail("Expected an IOException for " + snapshot);
+        } catch (final IOException exception) {
+            // expected
+        }
+    }
+}
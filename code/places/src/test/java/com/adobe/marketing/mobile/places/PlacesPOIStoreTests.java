@@ -0,0 +1,111 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PlacesPOIStoreTests {
+
+    private PlacesPOIStore store;
+
+    @Before
+    public void testSetup() {
+        store = new PlacesPOIStore();
+    }
+
+    @Test
+    public void test_add_growsStore() {
+        // test
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, store.add(createPOI("poi" + i, i * 0.5, i * -0.5, i)));
+        }
+
+        // verify
+        assertEquals(100, store.size());
+        assertEquals(99, store.getMaxRadius());
+        assertEquals("poi42", store.get(42).getIdentifier());
+        assertEquals(21, store.getLatitude(42), 0);
+        assertEquals(-21, store.getLongitude(42), 0);
+        assertEquals(42, store.getRadius(42));
+    }
+
+    @Test
+    public void test_remove_and_clear() {
+        // setup
+        final PlacesPOI poi = createPOI("poi1", 40.7580, -73.9855, 100);
+        store.add(poi);
+        final int slot = store.add(createPOI("poi2", 40.7590, -73.9845, 200));
+
+        // test
+        store.remove(slot);
+        store.remove(-1);
+        store.remove(10);
+
+        // verify
+        assertEquals(1, store.size());
+        assertSame(poi, store.get(0));
+        assertNull(store.get(slot));
+        assertNull(store.get(10));
+
+        // test
+        store.clear();
+
+        // verify
+        assertEquals(0, store.size());
+        assertEquals(0, store.getMaxRadius());
+        assertNull(store.get(0));
+        assertEquals(0, store.add(poi));
+    }
+
+    @Test
+    public void test_distanceInMeters_matchesPlacesUtil() {
+        // setup
+        final Random random = new Random(11);
+
+        for (int i = 0; i < 500; i++) {
+            store.add(
+                    createPOI(
+                            "poi" + i,
+                            random.nextDouble() * 180 - 90,
+                            random.nextDouble() * 360 - 180,
+                            100));
+        }
+
+        for (int i = 0; i < 500; i++) {
+            final double latitude = random.nextDouble() * 180 - 90;
+            final double longitude = random.nextDouble() * 360 - 180;
+            final PlacesPOI poi = store.get(i);
+
+            // test
+            final double distance =
+                    store.distanceInMeters(
+                            i, latitude, longitude, Math.cos(Math.toRadians(latitude)));
+
+            // verify
+            assertEquals(
+                    PlacesUtil.distanceInMeters(
+                            latitude, longitude, poi.getLatitude(), poi.getLongitude()),
+                    distance,
+                    0);
+        }
+    }
+
+    private PlacesPOI createPOI(
+            final String id, final double latitude, final double longitude, final int radius) {
+        return new PlacesPOI(id, "name", latitude, longitude, radius, "libraryName", 1);
+    }
+}
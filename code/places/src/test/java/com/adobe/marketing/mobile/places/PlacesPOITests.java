@@ -515,4 +515,31 @@ public class PlacesPOITests {
         assertNull(poi.toMap().get(PlacesTestConstants.POIKeys.LIBRARY));
         assertNull(poi.toMap().get(PlacesTestConstants.POIKeys.METADATA));
     }
+
+    @Test
+    public void test_toMap_memoizedUntilPOIChanges() {
+        // setup
+        PlacesPOI poi =
+                new PlacesPOI(
+                        SAMPLE_IDENTIFIER,
+                        SAMPLE_NAME,
+                        SAMPLE_LATITUDE,
+                        SAMPLE_LONGITUDE,
+                        SAMPLE_RADIUS,
+                        SAMPLE_LIBRARY,
+                        SAMPLE_WEIGHT,
+                        SAMPLE_METADATA);
+        final Map<String, Object> poiMap = poi.toMap();
+
+        // test and verify
+        assertSame(poiMap, poi.toMap());
+
+        // test
+        poi.setUserIsWithin(true);
+
+        // verify
+        assertNotSame(poiMap, poi.toMap());
+        assertFalse((boolean) poiMap.get(PlacesTestConstants.POIKeys.USER_IS_WITHIN));
+        assertTrue((boolean) poi.toMap().get(PlacesTestConstants.POIKeys.USER_IS_WITHIN));
+    }
 }
@@ -0,0 +1,210 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PlacesPersisterTests {
+
+    private static final long FLUSH_DELAY = 500;
+
+    @Mock private NamedCollection dataStore;
+
+    @Mock private ScheduledExecutorService executor;
+
+    private PlacesPersister persister;
+
+    @Before
+    public void testSetup() {
+        persister = new PlacesPersister(dataStore, FLUSH_DELAY, executor);
+    }
+
+    @Test
+    public void test_commit_when_noFlushDelay() {
+        // setup
+        persister = new PlacesPersister(dataStore, 0, null);
+
+        // test
+        persister.setString(PlacesTestConstants.DataStoreKeys.CURRENT_POI, "current");
+        persister.commit();
+
+        // verify
+        verify(dataStore, times(1))
+                .setString(PlacesTestConstants.DataStoreKeys.CURRENT_POI, "current");
+    }
+
+    @Test
+    public void test_commit_coalescesWritesUntilFlush() {
+        // test
+        persister.setString(PlacesTestConstants.DataStoreKeys.CURRENT_POI, "first");
+        persister.commit();
+        persister.setString(PlacesTestConstants.DataStoreKeys.CURRENT_POI, "second");
+        persister.setLong(PlacesTestConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL, 100);
+        persister.commit();
+
+        // verify that nothing is written before the scheduled flush
+        final ArgumentCaptor<Runnable> flushCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor, times(1))
+                .schedule(flushCaptor.capture(), eq(FLUSH_DELAY), eq(TimeUnit.MILLISECONDS));
+        verify(dataStore, times(0)).setString(anyString(), any());
+
+        // test
+        flushCaptor.getValue().run();
+
+        // verify
+        verify(dataStore, times(1))
+                .setString(PlacesTestConstants.DataStoreKeys.CURRENT_POI, "second");
+        verify(dataStore, times(0))
+                .setString(PlacesTestConstants.DataStoreKeys.CURRENT_POI, "first");
+        verify(dataStore, times(1))
+                .setLong(PlacesTestConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL, 100);
+    }
+
+    @Test
+    public void test_commit_countsCoalescedWrites() {
+        // setup
+        final PlacesMetrics metrics = new PlacesMetrics();
+        persister = new PlacesPersister(dataStore, FLUSH_DELAY, executor, metrics);
+
+        // test
+        persister.setString(PlacesTestConstants.DataStoreKeys.CURRENT_POI, "first");
+        persister.setLong(PlacesTestConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL, 50);
+        persister.commit();
+        persister.setString(PlacesTestConstants.DataStoreKeys.CURRENT_POI, "second");
+        persister.setLong(PlacesTestConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL, 100);
+        persister.setString(PlacesTestConstants.DataStoreKeys.LAST_ENTERED_POI, "entered");
+        persister.commit();
+        persister.flush();
+
+        // verify that the overwritten writes are counted, and the flush is recorded
+        assertEquals(2, metrics.getSuppressedWrites());
+        assertEquals(1, metrics.getPersistTime().getCount());
+        assertEquals("second".length() + "entered".length(), metrics.getPersistedBytes());
+    }
+
+    @Test
+    public void test_flush_when_writesNotCommitted() {
+        // test
+        persister.setString(PlacesTestConstants.DataStoreKeys.CURRENT_POI, "current");
+        persister.flush();
+
+        // verify
+        verifyNoInteractions(executor);
+        verify(dataStore, times(0)).setString(anyString(), any());
+        verify(dataStore, times(0)).setLong(anyString(), anyLong());
+    }
+
+    @Test
+    public void test_flush_writesReferencesAfterSnapshot() {
+        // setup
+        when(dataStore.getLong(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT_VERSION, 0))
+                .thenReturn(3L);
+        persister = new PlacesPersister(dataStore, FLUSH_DELAY, executor);
+
+        // test
+        persister.setString(PlacesTestConstants.DataStoreKeys.LAST_ENTERED_POI, "entered");
+        persister.setString(PlacesTestConstants.DataStoreKeys.CURRENT_POI, "current");
+        persister.remove(PlacesTestConstants.DataStoreKeys.USER_WITHIN_POI_IDS);
+        persister.setString(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT, "snapshot");
+        persister.commit();
+        persister.flush();
+
+        // verify
+        final InOrder inOrder = inOrder(dataStore);
+        inOrder.verify(dataStore)
+                .setLong(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT_PENDING_VERSION, 4);
+        inOrder.verify(dataStore).remove(PlacesTestConstants.DataStoreKeys.USER_WITHIN_POI_IDS);
+        inOrder.verify(dataStore).remove(PlacesTestConstants.DataStoreKeys.CURRENT_POI);
+        inOrder.verify(dataStore)
+                .setString(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT, "snapshot");
+        inOrder.verify(dataStore)
+                .setString(PlacesTestConstants.DataStoreKeys.CURRENT_POI, "current");
+        inOrder.verify(dataStore)
+                .setString(PlacesTestConstants.DataStoreKeys.LAST_ENTERED_POI, "entered");
+        inOrder.verify(dataStore)
+                .setLong(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT_VERSION, 4);
+        verify(dataStore, times(1)).remove(PlacesTestConstants.DataStoreKeys.USER_WITHIN_POI_IDS);
+    }
+
+    @Test
+    public void test_shutdown_flushesCommittedWrites() {
+        // setup
+        persister.setString(PlacesTestConstants.DataStoreKeys.LAST_EXITED_POI, "exited");
+        persister.commit();
+
+        // test
+        persister.shutdown();
+
+        // verify
+        verify(dataStore, times(1))
+                .setString(PlacesTestConstants.DataStoreKeys.LAST_EXITED_POI, "exited");
+        verify(executor, times(1)).shutdown();
+    }
+
+    @Test
+    public void test_commit_when_scheduleRejected() {
+        // setup
+        when(executor.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+                .thenThrow(new RejectedExecutionException());
+
+        // test
+        persister.setString(PlacesTestConstants.DataStoreKeys.LAST_EXITED_POI, "exited");
+        persister.commit();
+
+        // verify that the write goes through
+        verify(dataStore, times(1))
+                .setString(PlacesTestConstants.DataStoreKeys.LAST_EXITED_POI, "exited");
+    }
+
+    @Test
+    public void test_wasFlushInterrupted() {
+        // setup
+        when(dataStore.getLong(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT_VERSION, 0))
+                .thenReturn(4L);
+        when(dataStore.getLong(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT_PENDING_VERSION, 0))
+                .thenReturn(4L);
+
+        // test and verify
+        assertFalse(PlacesPersister.wasFlushInterrupted(dataStore));
+
+        // setup
+        when(dataStore.getLong(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT_PENDING_VERSION, 0))
+                .thenReturn(5L);
+
+        // test and verify
+        assertTrue(PlacesPersister.wasFlushInterrupted(dataStore));
+    }
+}
@@ -13,6 +13,8 @@ package com.adobe.marketing.mobile.places;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
@@ -27,7 +29,11 @@ import com.adobe.marketing.mobile.services.NetworkRequest;
 import com.adobe.marketing.mobile.services.Networking;
 import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -44,6 +50,10 @@ public class PlacesQueryServiceTests {
 
     @Mock private HttpConnecting connecting;
 
+    @Mock private HttpConnecting failedConnecting;
+
+    @Mock private ScheduledExecutorService retryExecutor;
+
     @Mock private PlacesConfiguration configuration;
 
     private static final double SAMPLE_LATITUDE = 31.44234;
@@ -494,6 +504,357 @@ public class PlacesQueryServiceTests {
                 });
     }
 
+    @Test
+    public void getNearByPlaces_when_responseWithUnknownKeysAndNestedMetadata() {
+        // setup
+        mockNetworkResponse(200, responseWithUnknownKeysAndNestedMetadata());
+
+        // test
+        queryService.getNearbyPlaces(
+                validEventData(),
+                validConfiguration(),
+                response -> {
+                    // verify
+                    assertTrue("the query service should succeed", response.isSuccess);
+                    assertEquals(0, response.containsUserPOIs.size());
+                    assertEquals(1, response.nearByPOIs.size());
+
+                    final PlacesPOI poi = response.nearByPOIs.get(0);
+                    assertEquals("poiId", poi.getIdentifier());
+                    assertEquals("Caf\u00e9 \"Central\"", poi.getName());
+                    assertEquals(40.75, poi.getLatitude(), 0);
+                    assertEquals(-73.98, poi.getLongitude(), 0);
+                    assertEquals(100, poi.getRadius());
+                    assertEquals("", poi.getLibrary());
+                    assertEquals(1000, poi.getWeight());
+                    assertEquals(2, poi.getMetadata().size());
+                    assertEquals("US", poi.getMetadata().get("country"));
+                    assertEquals("4", poi.getMetadata().get("floor"));
+                });
+    }
+
+    @Test
+    public void getNearByPlaces_when_truncatedResponse() {
+        // setup
+        mockNetworkResponse(200, validQueryResponse().substring(0, 200));
+
+        // test
+        queryService.getNearbyPlaces(
+                validEventData(),
+                validConfiguration(),
+                response -> {
+                    // verify
+                    assertFalse("the query service should not succeed", response.isSuccess);
+                    assertEquals(PlacesRequestError.SERVER_RESPONSE_ERROR, response.resultStatus);
+                    assertTrue(
+                            "has correct error message",
+                            response.errorMessage.contains(
+                                    "Unable to get nearby places, Failed with exception:"
+                                            + " org.json.JSONException:"));
+                });
+    }
+
+    @Test
+    public void getNearByPlaces_when_ValidResponse_hasBodyHash() {
+        // setup
+        mockNetworkResponse(200, validQueryResponse(), null);
+        final List<PlacesQueryResponse> responses = new ArrayList<>();
+
+        // test
+        queryService.getNearbyPlaces(validEventData(), validConfiguration(), responses::add);
+        queryService.getNearbyPlaces(validEventData(), validConfiguration(), responses::add);
+
+        // verify
+        assertEquals(2, responses.size());
+        assertNotNull(responses.get(0).bodyHash);
+        assertEquals(responses.get(0).bodyHash, responses.get(1).bodyHash);
+        assertFalse(responses.get(1).isUnchanged);
+        assertEquals(1, responses.get(1).nearByPOIs.size());
+    }
+
+    @Test
+    public void getNearByPlaces_recordsMetrics() {
+        // setup
+        final PlacesMetrics metrics = new PlacesMetrics();
+        queryService = new PlacesQueryService(networking, metrics);
+        mockNetworkResponse(200, validQueryResponse(), null);
+        final List<PlacesQueryResponse> responses = new ArrayList<>();
+
+        // test
+        queryService.getNearbyPlaces(validEventData(), validConfiguration(), responses::add);
+
+        // verify
+        assertTrue(responses.get(0).isSuccess);
+        assertEquals(1, metrics.getNetworkLatency().getCount());
+        assertEquals(1, metrics.getParseTime().getCount());
+    }
+
+    @Test
+    public void getNearByPlaces_when_nullConnection_doesNotRecordMetrics() {
+        // setup
+        final PlacesMetrics metrics = new PlacesMetrics();
+        queryService = new PlacesQueryService(networking, metrics);
+        doAnswer(
+                        invocation -> {
+                            ((NetworkCallback) invocation.getArguments()[1]).call(null);
+                            return null;
+                        })
+                .when(networking)
+                .connectAsync(any(), any());
+
+        // test
+        queryService.getNearbyPlaces(validEventData(), validConfiguration(), response -> {});
+
+        // verify
+        assertEquals(0, metrics.getNetworkLatency().getCount());
+        assertEquals(0, metrics.getParseTime().getCount());
+    }
+
+    @Test
+    public void getNearByPlaces_when_processedBodyHash_sendsEntityTag() {
+        // setup
+        mockNetworkResponse(200, validQueryResponse(), "\"v1\"");
+        final List<PlacesQueryResponse> responses = new ArrayList<>();
+        queryService.getNearbyPlaces(validEventData(), validConfiguration(), responses::add);
+        final String bodyHash = responses.get(0).bodyHash;
+        mockNetworkResponse(304, "", null);
+
+        // test
+        queryService.getNearbyPlaces(
+                validEventData(), validConfiguration(), bodyHash, responses::add);
+
+        // verify
+        final ArgumentCaptor<NetworkRequest> requestCaptor =
+                ArgumentCaptor.forClass(NetworkRequest.class);
+        verify(networking, times(2)).connectAsync(requestCaptor.capture(), any());
+        assertNull(requestCaptor.getAllValues().get(0).getHeaders());
+        assertEquals(
+                "\"v1\"", requestCaptor.getAllValues().get(1).getHeaders().get("If-None-Match"));
+
+        final PlacesQueryResponse response = responses.get(1);
+        assertTrue(response.isSuccess);
+        assertTrue(response.isUnchanged);
+        assertEquals(PlacesRequestError.OK, response.resultStatus);
+        assertEquals(bodyHash, response.bodyHash);
+    }
+
+    @Test
+    public void getNearByPlaces_when_otherBodyHash_doesNotSendEntityTag() {
+        // setup
+        mockNetworkResponse(200, validQueryResponse(), "\"v1\"");
+        final List<PlacesQueryResponse> responses = new ArrayList<>();
+
+        // test
+        queryService.getNearbyPlaces(validEventData(), validConfiguration(), responses::add);
+        queryService.getNearbyPlaces(
+                validEventData(), validConfiguration(), "otherHash", responses::add);
+
+        // verify
+        final ArgumentCaptor<NetworkRequest> requestCaptor =
+                ArgumentCaptor.forClass(NetworkRequest.class);
+        verify(networking, times(2)).connectAsync(requestCaptor.capture(), any());
+        assertNull(requestCaptor.getAllValues().get(1).getHeaders());
+        assertFalse(responses.get(1).isUnchanged);
+        assertEquals(1, responses.get(1).nearByPOIs.size());
+        assertEquals(responses.get(0).bodyHash, responses.get(1).bodyHash);
+    }
+
+    @Test
+    public void getNearByPlaces_when_identicalBody_isUnchanged() {
+        // setup
+        mockNetworkResponse(200, validQueryResponse(), null);
+        final List<PlacesQueryResponse> responses = new ArrayList<>();
+        queryService.getNearbyPlaces(validEventData(), validConfiguration(), responses::add);
+        final String bodyHash = responses.get(0).bodyHash;
+
+        // test
+        queryService.getNearbyPlaces(
+                validEventData(), validConfiguration(), bodyHash, responses::add);
+
+        // verify
+        final PlacesQueryResponse response = responses.get(1);
+        assertTrue(response.isSuccess);
+        assertTrue(response.isUnchanged);
+        assertEquals(bodyHash, response.bodyHash);
+        assertEquals(1, response.nearByPOIs.size());
+    }
+
+    @Test
+    public void getNearByPlaces_when_notModifiedWithoutEntityTag() {
+        // setup
+        mockNetworkResponse(304, "", null);
+
+        // test
+        queryService.getNearbyPlaces(
+                validEventData(),
+                validConfiguration(),
+                "bodyHash",
+                response -> {
+                    // verify that an unsolicited 304 is not mistaken for an unchanged response
+                    assertFalse(response.isSuccess);
+                    assertFalse(response.isUnchanged);
+                    assertEquals(PlacesRequestError.CONNECTIVITY_ERROR, response.resultStatus);
+                });
+    }
+
+    @Test
+    public void getNearByPlaces_when_retryableStatus_retries() {
+        // setup
+        queryService = new PlacesQueryService(networking, new PlacesMetrics(), retryExecutor);
+        final PlacesConfiguration configuration = validConfiguration();
+        when(configuration.getNetworkRetries()).thenReturn(2);
+        mockFailedThenValidResponse(503);
+        final List<PlacesQueryResponse> responses = new ArrayList<>();
+
+        // test
+        queryService.getNearbyPlaces(validEventData(), configuration, responses::add);
+
+        // verify that the retry is scheduled after the backoff delay
+        final ArgumentCaptor<Runnable> retryCaptor = ArgumentCaptor.forClass(Runnable.class);
+        final ArgumentCaptor<Long> delayCaptor = ArgumentCaptor.forClass(Long.class);
+        verify(retryExecutor)
+                .schedule(retryCaptor.capture(), delayCaptor.capture(), eq(TimeUnit.MILLISECONDS));
+        assertTrue(delayCaptor.getValue() >= PlacesQueryService.getRetryDelayMillis(1, 0));
+        assertTrue(delayCaptor.getValue() <= PlacesQueryService.getRetryDelayMillis(1, 1));
+        assertTrue(responses.isEmpty());
+
+        // test
+        retryCaptor.getValue().run();
+
+        // verify that the retry uses longer timeouts
+        final ArgumentCaptor<NetworkRequest> requestCaptor =
+                ArgumentCaptor.forClass(NetworkRequest.class);
+        verify(networking, times(2)).connectAsync(requestCaptor.capture(), any());
+        assertEquals(
+                PlacesTestConstants.DEFAULT_NETWORK_TIMEOUT,
+                requestCaptor.getAllValues().get(0).getConnectTimeout());
+        assertEquals(
+                PlacesTestConstants.DEFAULT_NETWORK_TIMEOUT * 2,
+                requestCaptor.getAllValues().get(1).getConnectTimeout());
+        assertEquals(1, responses.size());
+        assertTrue(responses.get(0).isSuccess);
+        assertEquals(
+                PlacesCircuitBreaker.State.CLOSED, queryService.getCircuitBreaker().getState());
+    }
+
+    @Test
+    public void getNearByPlaces_when_nonRetryableStatus_doesNotRetry() {
+        // setup
+        queryService = new PlacesQueryService(networking, new PlacesMetrics(), retryExecutor);
+        final PlacesConfiguration configuration = validConfiguration();
+        when(configuration.getNetworkRetries()).thenReturn(2);
+        when(configuration.getCircuitBreakerThreshold()).thenReturn(1);
+        mockNetworkResponse(404, "");
+        final List<PlacesQueryResponse> responses = new ArrayList<>();
+
+        // test
+        queryService.getNearbyPlaces(validEventData(), configuration, responses::add);
+
+        // verify
+        verifyNoInteractions(retryExecutor);
+        assertEquals(1, responses.size());
+        assertEquals(PlacesRequestError.CONNECTIVITY_ERROR, responses.get(0).resultStatus);
+        assertEquals(
+                PlacesCircuitBreaker.State.CLOSED, queryService.getCircuitBreaker().getState());
+    }
+
+    @Test
+    public void getNearByPlaces_when_retriesExhausted_opensCircuitBreaker() {
+        // setup
+        queryService = new PlacesQueryService(networking, new PlacesMetrics(), retryExecutor);
+        final PlacesConfiguration configuration = validConfiguration();
+        when(configuration.getNetworkRetries()).thenReturn(1);
+        when(configuration.getCircuitBreakerThreshold()).thenReturn(1);
+        when(configuration.getCircuitBreakerDuration()).thenReturn(60L);
+        mockNetworkResponse(500, "");
+        final List<PlacesQueryResponse> responses = new ArrayList<>();
+
+        // test
+        queryService.getNearbyPlaces(validEventData(), configuration, responses::add);
+        final ArgumentCaptor<Runnable> retryCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(retryExecutor).schedule(retryCaptor.capture(), anyLong(), any());
+        retryCaptor.getValue().run();
+
+        // verify
+        verify(networking, times(2)).connectAsync(any(), any());
+        assertEquals(1, responses.size());
+        assertEquals(PlacesRequestError.CONNECTIVITY_ERROR, responses.get(0).resultStatus);
+        assertEquals(
+                "Unable to get nearby places, connection failed with status 500, message null",
+                responses.get(0).errorMessage);
+        assertEquals(PlacesCircuitBreaker.State.OPEN, queryService.getCircuitBreaker().getState());
+
+        // test
+        queryService.getNearbyPlaces(validEventData(), configuration, responses::add);
+
+        // verify that the query fails fast without opening a connection
+        verify(networking, times(2)).connectAsync(any(), any());
+        assertEquals(2, responses.size());
+        assertEquals(PlacesRequestError.CONNECTIVITY_ERROR, responses.get(1).resultStatus);
+        assertEquals(
+                "Unable to get nearby places, too many recent places queries failed",
+                responses.get(1).errorMessage);
+    }
+
+    @Test
+    public void getNearByPlaces_when_circuitBreakerDisabled_doesNotFailFast() {
+        // setup
+        final PlacesConfiguration configuration = validConfiguration();
+        when(configuration.getCircuitBreakerThreshold()).thenReturn(0);
+        mockNetworkResponse(503, "");
+
+        // test
+        for (int i = 0; i < 10; i++) {
+            queryService.getNearbyPlaces(validEventData(), configuration, response -> {});
+        }
+
+        // verify
+        verify(networking, times(10)).connectAsync(any(), any());
+        assertEquals(
+                PlacesCircuitBreaker.State.CLOSED, queryService.getCircuitBreaker().getState());
+    }
+
+    @Test
+    public void getNetworkTimeout_adaptsToObservedLatency() {
+        // setup
+        final PlacesMetrics metrics = new PlacesMetrics();
+        queryService = new PlacesQueryService(networking, metrics);
+
+        // verify that the default timeout is used until enough queries completed
+        assertEquals(
+                PlacesTestConstants.DEFAULT_NETWORK_TIMEOUT, queryService.getNetworkTimeout(0));
+
+        // test
+        for (int i = 0; i < 20; i++) {
+            metrics.recordNetworkLatency(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+
+        // verify that the timeout is twice the 95th percentile latency, at least 1 second
+        assertEquals(1, queryService.getNetworkTimeout(0));
+        assertEquals(2, queryService.getNetworkTimeout(1));
+        assertEquals(5, queryService.getNetworkTimeout(4));
+
+        // test
+        for (int i = 0; i < 200; i++) {
+            metrics.recordNetworkLatency(TimeUnit.MILLISECONDS.toNanos(3000));
+        }
+
+        // verify that the timeout is capped
+        assertEquals(5, queryService.getNetworkTimeout(0));
+    }
+
+    @Test
+    public void getRetryDelayMillis_isBounded() {
+        // test and verify
+        assertEquals(125, PlacesQueryService.getRetryDelayMillis(1, 0));
+        assertEquals(250, PlacesQueryService.getRetryDelayMillis(1, 1));
+        assertEquals(250, PlacesQueryService.getRetryDelayMillis(2, 0));
+        assertEquals(2000, PlacesQueryService.getRetryDelayMillis(4, 1));
+        assertEquals(4000, PlacesQueryService.getRetryDelayMillis(100, 1));
+        assertEquals(0, PlacesQueryService.getMaxRetryDelaysMillis(0));
+        assertEquals(750, PlacesQueryService.getMaxRetryDelaysMillis(2));
+    }
+
     private PlacesConfiguration validConfiguration() {
         when(configuration.getLibrariesQueryString()).thenReturn("&library=lib1&library=lib2");
         when(configuration.getEndpoint()).thenReturn("endPoint");
@@ -527,6 +888,46 @@ public class PlacesQueryServiceTests {
                 .connectAsync(any(), any());
     }
 
+    private void mockFailedThenValidResponse(final int responseCode) {
+        when(failedConnecting.getResponseCode()).thenReturn(responseCode);
+        when(connecting.getResponseCode()).thenReturn(200);
+        when(connecting.getInputStream())
+                .thenReturn(
+                        new ByteArrayInputStream(
+                                validQueryResponse().getBytes(StandardCharsets.UTF_8)));
+        doAnswer(
+                        invocation -> {
+                            ((NetworkCallback) invocation.getArguments()[1])
+                                    .call(failedConnecting);
+                            return null;
+                        })
+                .doAnswer(
+                        invocation -> {
+                            ((NetworkCallback) invocation.getArguments()[1]).call(connecting);
+                            return null;
+                        })
+                .when(networking)
+                .connectAsync(any(), any());
+    }
+
+    private void mockNetworkResponse(
+            final int responseCode, final String response, final String entityTag) {
+        when(connecting.getResponseCode()).thenReturn(responseCode);
+        when(connecting.getResponsePropertyValue("ETag")).thenReturn(entityTag);
+        when(connecting.getInputStream())
+                .thenAnswer(
+                        invocation ->
+                                new ByteArrayInputStream(
+                                        response.getBytes(StandardCharsets.UTF_8)));
+        doAnswer(
+                        invocation -> {
+                            ((NetworkCallback) invocation.getArguments()[1]).call(connecting);
+                            return null;
+                        })
+                .when(networking)
+                .connectAsync(any(), any());
+    }
+
     private String validQueryResponse() {
         return ("{\n"
                 + "  \"places\": {\n"
@@ -578,6 +979,34 @@ public class PlacesQueryServiceTests {
                 + "}");
     }
 
+    private String responseWithUnknownKeysAndNestedMetadata() {
+        return ("{\n"
+                + "  \"input\": {\"nested\": [1, {\"places\": null}]},\n"
+                + "  \"places\": {\n"
+                + "    \"unknown\": [{\"p\": []}],\n"
+                + "    \"pois\": [\n"
+                + "      {\n"
+                + "        \"x\": {\n"
+                + "          \"country\": \"US\",\n"
+                + "          \"floor\": 4,\n"
+                + "          \"tags\": [\"a\", \"b\"],\n"
+                + "          \"address\": {\"city\": \"New York\"}\n"
+                + "        },\n"
+                + "        \"p\": [\n"
+                + "          \"poiId\",\n"
+                + "          \"Caf\\u00e9 \\\"Central\\\"\",\n"
+                + "          40.75,\n"
+                + "          \"-73.98\",\n"
+                + "          \"invalidRadius\",\n"
+                + "          null,\n"
+                + "          null\n"
+                + "        ]\n"
+                + "      }\n"
+                + "    ]\n"
+                + "  }\n"
+                + "}");
+    }
+
     private String poiWithInValidRadius() {
         return ("{\n"
                 + "  \"places\": {\n"
@@ -13,7 +13,11 @@ package com.adobe.marketing.mobile.places;
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockConstruction;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
@@ -27,11 +31,12 @@ import com.adobe.marketing.mobile.EventSource;
 import com.adobe.marketing.mobile.EventType;
 import com.adobe.marketing.mobile.services.DataStoring;
 import com.adobe.marketing.mobile.services.NamedCollection;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -39,6 +44,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockedConstruction;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -82,16 +88,90 @@ public class PlacesStateTests {
         assertEquals("currentPOI", placesState.currentPOI.getIdentifier());
         assertEquals("lastExitedPOI", placesState.lastExitedPOI.getIdentifier());
         assertEquals("lastEnteredPOI", placesState.lastEnteredPOI.getIdentifier());
-        assertEquals(2, placesState.cachedPOIs.size());
+        assertEquals(2, placesState.getCachedPOIs().size());
         assertEquals(PlacesAuthorizationStatus.ALWAYS.stringValue(), placesState.authStatus);
         assertEquals(SAMPLE_MEMBERSHIP_VALID_UNTIL_TIMESTAMP, placesState.membershipValidUntil);
     }
 
+    @Test
+    public void placesState_Constructor_appliesPersistedMembershipChanges() {
+        // setup
+        persistSampleData();
+        when(placesDataStore.getString(
+                        PlacesTestConstants.DataStoreKeys.USER_WITHIN_POI_IDS, ""))
+                .thenReturn("[\"cachedPOI2\"]");
+
+        // test
+        placesState = new PlacesState(dataStoring);
+
+        // verify
+        assertFalse(placesState.getCachedPOIs().get("cachedPOI1").containsUser());
+        assertTrue(placesState.getCachedPOIs().get("cachedPOI2").containsUser());
+    }
+
+    @Test
+    public void placesState_Constructor_migratesJSONPOIsOnFirstAccess() throws Exception {
+        // setup
+        persistSampleData();
+
+        // test
+        placesState = new PlacesState(dataStoring);
+
+        // verify that the cached POIs are not decoded yet
+        assertNull(placesState.cachedPOIs);
+        verifyNearbyPOINotPersisted();
+
+        // test
+        final Map<String, PlacesPOI> cachedPOIs = placesState.getCachedPOIs();
+
+        // verify that the POIs are rewritten in the snapshot format
+        assertEquals(2, cachedPOIs.size());
+        assertEquals(cachedPOIs, getPersistedCachedPOI());
+        verify(placesDataStore, times(1)).remove(PlacesTestConstants.DataStoreKeys.NEARBYPOIS);
+    }
+
+    @Test
+    public void placesState_Constructor_loadsPOISnapshot() {
+        // setup
+        persistSampleData();
+        when(placesDataStore.getString(PlacesTestConstants.DataStoreKeys.NEARBYPOIS, ""))
+                .thenReturn("");
+        when(placesDataStore.getString(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT, null))
+                .thenReturn(PlacesPOISnapshot.encode(getSampleCachePOIs().values()));
+
+        // test
+        placesState = new PlacesState(dataStoring);
+
+        // verify
+        assertEquals(getSampleCachePOIs(), placesState.getCachedPOIs());
+        assertTrue(placesState.getCachedPOIs().get("cachedPOI1").containsUser());
+        verifyNearbyPOINotPersisted();
+        verify(placesDataStore, times(0)).remove(PlacesTestConstants.DataStoreKeys.NEARBYPOIS);
+    }
+
+    @Test
+    public void placesState_Constructor_when_lastWriteInterrupted() {
+        // setup
+        persistSampleData();
+        when(placesDataStore.getLong(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT_VERSION, 0))
+                .thenReturn(4L);
+        when(placesDataStore.getLong(
+                        PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT_PENDING_VERSION, 0))
+                .thenReturn(5L);
+
+        // test
+        placesState = new PlacesState(dataStoring);
+
+        // verify that the current POI missing from the cached POIs is recalculated
+        assertEquals("cachedPOI1", placesState.currentPOI.getIdentifier());
+        assertEquals("lastEnteredPOI", placesState.lastEnteredPOI.getIdentifier());
+    }
+
     // ========================================================================================
     // processNetworkResponse
     // ========================================================================================
     @Test
-    public void processNetworkResponse_happy() throws JSONException {
+    public void processNetworkResponse_happy() throws Exception {
         // test
         placesState.processNetworkResponse(GetSampleSuccessPlacesResponse(2, 2));
 
@@ -206,6 +286,188 @@ public class PlacesStateTests {
         assertEquals(getUnixTimeInSeconds() + 500, getPersistedMembershipValidUntilTimestamp(), 1);
     }
 
+    @Test
+    public void processNetworkResponse_when_responseUnchanged_keepsCachedPOIs() throws Exception {
+        // setup
+        placesState.processNetworkResponse(GetSampleSuccessPlacesResponse(1, 2));
+        final Map<String, PlacesPOI> cachedPOIs = placesState.cachedPOIs;
+        final PlacesPOI currentPOI = placesState.currentPOI;
+        reset(placesDataStore);
+
+        // test
+        placesState.processNetworkResponse(GetSampleSuccessPlacesResponse(1, 2));
+
+        // verify that neither the cache nor its POIs are replaced
+        assertTrue(placesState.getLastPOIDiff().isEmpty());
+        assertSame(cachedPOIs, placesState.cachedPOIs);
+        assertSame(currentPOI, placesState.currentPOI);
+
+        // verify that the cached POIs are not written again
+        verifyNearbyPOINotPersisted();
+        verifyCurrentPOINotPersisted();
+        verifyLastEnteredPOINotPersisted();
+    }
+
+    @Test
+    public void processNetworkResponse_when_regionEventProcessed_reportsPOIChanged() {
+        // setup
+        placesState.processNetworkResponse(GetSampleSuccessPlacesResponse(1, 2));
+        placesState.processRegionEvent(prepareRegionEvent("nearByPOI0", "entry"));
+
+        // the next response agrees with the region event
+        final PlacesQueryResponse response = GetSampleSuccessPlacesResponse(1, 2);
+        response.nearByPOIs.get(0).setUserIsWithin(true);
+
+        // test
+        placesState.processNetworkResponse(response);
+
+        // verify that the POI changed since the previous response is part of the diff
+        final PlacesPOIDiff diff = placesState.getLastPOIDiff();
+        assertEquals(1, diff.getChangedPOIs().size());
+        assertEquals("nearByPOI0", diff.getChangedPOIs().get(0).getIdentifier());
+
+        // test
+        final PlacesQueryResponse sameResponse = GetSampleSuccessPlacesResponse(1, 2);
+        sameResponse.nearByPOIs.get(0).setUserIsWithin(true);
+        placesState.processNetworkResponse(sameResponse);
+
+        // verify that the change is reported once
+        assertTrue(placesState.getLastPOIDiff().isEmpty());
+    }
+
+    @Test
+    public void processNetworkResponse_reusesUnchangedPOIs() throws Exception {
+        // setup
+        placesState.processNetworkResponse(GetSampleSuccessPlacesResponse(1, 2));
+        final Map<String, PlacesPOI> cachedPOIs = placesState.cachedPOIs;
+
+        // test
+        placesState.processNetworkResponse(GetSampleSuccessPlacesResponse(1, 3));
+
+        // verify
+        final PlacesPOIDiff diff = placesState.getLastPOIDiff();
+        assertEquals(1, diff.getAddedPOIs().size());
+        assertEquals("nearByPOI2", diff.getAddedPOIs().get(0).getIdentifier());
+        assertTrue(diff.getRemovedPOIs().isEmpty());
+        assertTrue(diff.getChangedPOIs().isEmpty());
+
+        assertEquals(4, placesState.cachedPOIs.size());
+        assertSame(cachedPOIs.get("nearByPOI0"), placesState.cachedPOIs.get("nearByPOI0"));
+        assertSame(
+                cachedPOIs.get("containsUserPOI 0"),
+                placesState.cachedPOIs.get("containsUserPOI 0"));
+        assertEquals(4, placesState.getNearestCachedPOIs(34.33, -121.55, 10).size());
+        verify(placesDataStore, times(2))
+                .setString(eq(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT), any());
+    }
+
+    // ========================================================================================
+    // processUnchangedResponse
+    // ========================================================================================
+    @Test
+    public void processUnchangedResponse_refreshesMembershipValidUntil() {
+        // setup
+        final PlacesQueryResponse response = GetSampleSuccessPlacesResponse(1, 2);
+        response.bodyHash = "hash";
+        placesState.processNetworkResponse(response);
+        placesState.membershipTtl = 500;
+        placesState.membershipValidUntil = 0;
+
+        // test
+        final List<PlacesPOI> pois = placesState.processUnchangedResponse(response);
+
+        // verify that the POIs of the processed response are returned
+        assertEquals("hash", placesState.getProcessedBodyHash());
+        assertEquals(response.getAllPOIs(), pois);
+        assertEquals(3, placesState.cachedPOIs.size());
+        assertEquals("containsUserPOI 0", placesState.currentPOI.getIdentifier());
+
+        // verify that only the membership validity is refreshed
+        assertEquals(getUnixTimeInSeconds() + 500, placesState.membershipValidUntil, 1);
+        final ArgumentCaptor<Long> validUntilCaptor = ArgumentCaptor.forClass(Long.class);
+        verify(placesDataStore, times(2))
+                .setLong(
+                        eq(PlacesTestConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL),
+                        validUntilCaptor.capture());
+        assertEquals(getUnixTimeInSeconds() + 500, validUntilCaptor.getValue(), 1);
+        verify(placesDataStore, times(1))
+                .setString(eq(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT), any());
+    }
+
+    @Test
+    public void processUnchangedResponse_refreshesQueryCoverage() {
+        // setup
+        final PlacesQueryResponse response = getSpreadOutPlacesResponse();
+        response.bodyHash = "hash";
+        placesState.processNetworkResponse(response);
+        placesState.lastQueryTimestamp = getUnixTimeInSeconds() - 301;
+
+        // the unchanged response of a query made a bit further has no POIs
+        final PlacesQueryResponse unchangedResponse = new PlacesQueryResponse();
+        unchangedResponse.isSuccess = true;
+        unchangedResponse.isUnchanged = true;
+        unchangedResponse.bodyHash = "hash";
+        unchangedResponse.queryLatitude = 34.331;
+        unchangedResponse.queryLongitude = -121.55;
+        unchangedResponse.queryCount = 10;
+        unchangedResponse.queryLibraries = "&library=libraryName";
+
+        // test
+        assertNotNull(placesState.processUnchangedResponse(unchangedResponse));
+
+        // verify that the covered area moved to the new query and is fresh again
+        assertEquals(34.331, placesState.lastQueryLatitude, 0);
+        assertEquals(getUnixTimeInSeconds(), placesState.lastQueryTimestamp, 1);
+        assertTrue(placesState.lastQueryRadius > 0);
+        assertNotNull(
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.331, -121.55, 2), createCacheConfig(300)));
+    }
+
+    @Test
+    public void processUnchangedResponse_when_otherBodyHash() {
+        // setup
+        final PlacesQueryResponse response = GetSampleSuccessPlacesResponse(1, 2);
+        response.bodyHash = "hash";
+        placesState.processNetworkResponse(response);
+
+        // test and verify
+        final PlacesQueryResponse otherResponse = GetSampleSuccessPlacesResponse(1, 2);
+        otherResponse.bodyHash = "otherHash";
+        assertNull(placesState.processUnchangedResponse(otherResponse));
+        otherResponse.bodyHash = null;
+        assertNull(placesState.processUnchangedResponse(otherResponse));
+    }
+
+    @Test
+    public void processUnchangedResponse_when_regionEventProcessed() {
+        // setup
+        final PlacesQueryResponse response = GetSampleSuccessPlacesResponse(1, 2);
+        response.bodyHash = "hash";
+        placesState.processNetworkResponse(response);
+
+        // test
+        placesState.processRegionEvent(prepareRegionEvent("nearByPOI0", "entry"));
+
+        // verify that the membership no longer matches the response
+        assertNull(placesState.getProcessedBodyHash());
+        assertNull(placesState.processUnchangedResponse(response));
+    }
+
+    @Test
+    public void processUnchangedResponse_when_dataCleared() {
+        // setup
+        final PlacesQueryResponse response = GetSampleSuccessPlacesResponse(1, 2);
+        response.bodyHash = "hash";
+        placesState.processNetworkResponse(response);
+
+        // test
+        placesState.clearData();
+
+        // verify
+        assertNull(placesState.processUnchangedResponse(response));
+    }
+
     // ========================================================================================
     // processRegionEvent
     // ========================================================================================
@@ -250,6 +512,56 @@ public class PlacesStateTests {
         assertNull(returnedRegion);
     }
 
+    @Test
+    public void processRegionEvent_recordsMetrics() throws Exception {
+        // setup
+        final PlacesMetrics metrics = new PlacesMetrics();
+        placesState = new PlacesState(dataStoring, 0, metrics);
+        placesState.cachedPOIs = new LinkedHashMap<>();
+        placesState.cachedPOIs.put("poi1", createPOI("poi1", 1));
+
+        // test
+        placesState.processRegionEvent(prepareRegionEvent(null, "entry"));
+        placesState.processRegionEvent(prepareRegionEvent("unknownPOI", "entry"));
+        placesState.processRegionEvent(prepareRegionEvent("poi1", "none"));
+        placesState.processRegionEvent(prepareRegionEvent("poi1", "entry"));
+        placesState.processRegionEvent(prepareRegionEvent("poi1", "entry"));
+
+        // verify that the invalid region events are counted as dropped
+        assertEquals(3, metrics.getDroppedRegionEvents());
+
+        // verify that the unchanged current and last entered POIs are not written again
+        assertEquals(2, metrics.getSuppressedWrites());
+        assertEquals(2, metrics.getPersistTime().getCount());
+    }
+
+    @Test
+    public void processRegionEvent_tracesPersistAndFlush() throws Exception {
+        // setup
+        placesState = new PlacesState(dataStoring, 0);
+        placesState.cachedPOIs = new LinkedHashMap<>();
+        placesState.cachedPOIs.put("poi1", createPOI("poi1", 1));
+        final PlacesTracer tracer = mock(PlacesTracer.class);
+        when(tracer.beginStage(PlacesTracer.STAGE_PERSIST)).thenReturn(1L);
+        when(tracer.beginStage(PlacesTracer.STAGE_FLUSH)).thenReturn(2L);
+        PlacesTracing.setTracer(tracer);
+
+        try {
+            // test
+            placesState.processRegionEvent(prepareRegionEvent("poi1", "entry"));
+        } finally {
+            PlacesTracing.setTracer(null);
+        }
+
+        // verify that the datastore writes are traced within the persist stage
+        final InOrder inOrder = inOrder(tracer);
+        inOrder.verify(tracer).beginStage(PlacesTracer.STAGE_PERSIST);
+        inOrder.verify(tracer).beginStage(PlacesTracer.STAGE_FLUSH);
+        inOrder.verify(tracer).endStage(PlacesTracer.STAGE_FLUSH, 2L);
+        inOrder.verify(tracer).endStage(PlacesTracer.STAGE_PERSIST, 1L);
+        inOrder.verifyNoMoreInteractions();
+    }
+
     @Test
     public void processRegionEvent_when_regionEntryEvent() throws Exception {
         // setup in memory variables
@@ -587,6 +899,63 @@ public class PlacesStateTests {
         assertEquals(2, getPersistedCachedPOI().size());
     }
 
+    @Test
+    public void processRegionEvent_afterNetworkResponse_persistsOnlyMembershipChanges()
+            throws Exception {
+        // setup
+        placesState.processNetworkResponse(GetSampleSuccessPlacesResponse(1, 2));
+        reset(placesDataStore);
+
+        // test
+        placesState.processRegionEvent(prepareRegionEvent("nearByPOI0", "entry"));
+
+        // verify that the cached POIs are not rewritten
+        verifyNearbyPOINotPersisted();
+        verifyLastExcitedPOINotPersisted();
+        assertEquals("nearByPOI0", getPersistedCurrentPOI().getIdentifier());
+        assertEquals("nearByPOI0", getPersistedLastEnteredPOI().getIdentifier());
+        verify(placesDataStore, times(1))
+                .setString(
+                        PlacesTestConstants.DataStoreKeys.USER_WITHIN_POI_IDS,
+                        "[\"containsUserPOI 0\",\"nearByPOI0\"]");
+    }
+
+    @Test
+    public void processRegionEvent_afterNetworkResponse_when_membershipUnchanged()
+            throws Exception {
+        // setup
+        placesState.processNetworkResponse(GetSampleSuccessPlacesResponse(1, 2));
+        reset(placesDataStore);
+
+        // test
+        placesState.processRegionEvent(prepareRegionEvent("nearByPOI0", "exit"));
+
+        // verify that only the last exited POI is written
+        verifyNearbyPOINotPersisted();
+        verifyCurrentPOINotPersisted();
+        verifyLastEnteredPOINotPersisted();
+        verify(placesDataStore, times(0))
+                .setString(eq(PlacesTestConstants.DataStoreKeys.USER_WITHIN_POI_IDS), any());
+        assertEquals("nearByPOI0", getPersistedLastExitedPOI().getIdentifier());
+    }
+
+    @Test
+    public void processNetworkResponse_removesPersistedMembershipChanges() throws Exception {
+        // setup
+        placesState.processNetworkResponse(GetSampleSuccessPlacesResponse(1, 2));
+        placesState.processRegionEvent(prepareRegionEvent("nearByPOI0", "entry"));
+        reset(placesDataStore);
+
+        // test
+        placesState.processNetworkResponse(GetSampleSuccessPlacesResponse(1, 2));
+
+        // verify
+        verify(placesDataStore, times(1))
+                .remove(PlacesTestConstants.DataStoreKeys.USER_WITHIN_POI_IDS);
+        assertEquals(3, getPersistedCachedPOI().size());
+        assertFalse(getPersistedCachedPOI().get("nearByPOI0").containsUser());
+    }
+
     @Test
     public void processRegionEvent_when_regionExitEvent_weightPreferenceForNextPOI()
             throws Exception {
@@ -650,6 +1019,131 @@ public class PlacesStateTests {
         assertFalse(placesState.cachedPOIs.get("highWeight").containsUser());
     }
 
+    // ========================================================================================
+    // processRegionEvents
+    // ========================================================================================
+    @Test
+    public void processRegionEvents_appliesAllRegionsWithSingleWrite() {
+        // setup
+        final PlacesPOI poi1 = createPOI("poi1", 1);
+        final PlacesPOI poi2 = createPOI("poi2", 2);
+        final PlacesPOI poi3 = createPOI("poi3", 3);
+        placesState.cachedPOIs.put("poi1", poi1);
+        placesState.cachedPOIs.put("poi2", poi2);
+        placesState.cachedPOIs.put("poi3", poi3);
+
+        // test
+        final List<PlacesRegion> regions =
+                placesState.processRegionEvents(
+                        prepareRegionBatchEvent(
+                                new String[][] {
+                                    {"poi1", "entry"},
+                                    {"poi2", "entry"},
+                                    {"unknownPOI", "entry"},
+                                    {"poi1", "exit"}
+                                }));
+
+        // verify that the processed regions are returned in order
+        assertEquals(3, regions.size());
+        assertEquals("poi1", regions.get(0).getIdentifier());
+        assertEquals("entry", regions.get(0).getPlaceEventType());
+        assertEquals("poi2", regions.get(1).getIdentifier());
+        assertEquals("poi1", regions.get(2).getIdentifier());
+        assertEquals("exit", regions.get(2).getPlaceEventType());
+
+        // verify memory variables
+        assertFalse(poi1.containsUser());
+        assertTrue(poi2.containsUser());
+        assertFalse(poi3.containsUser());
+        assertEquals("poi2", placesState.currentPOI.getIdentifier());
+        assertEquals("poi2", placesState.lastEnteredPOI.getIdentifier());
+        assertEquals("poi1", placesState.lastExitedPOI.getIdentifier());
+        assertEquals(1, placesState.getSnapshot().getUserWithinPOIs().size());
+
+        // verify that the changes are persisted once
+        assertEquals("poi2", getPersistedCurrentPOI().getIdentifier());
+        assertEquals("poi1", getPersistedLastExitedPOI().getIdentifier());
+        verify(placesDataStore, times(1))
+                .setLong(eq(PlacesTestConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL), anyLong());
+    }
+
+    @Test
+    public void processRegionEvents_when_noRegions() {
+        // setup
+        reset(placesDataStore);
+        final Event event =
+                new Event.Builder(
+                                "Process Region Events",
+                                EventType.PLACES,
+                                EventSource.REQUEST_CONTENT)
+                        .setEventData(new HashMap<>())
+                        .build();
+
+        // test
+        final List<PlacesRegion> regions = placesState.processRegionEvents(event);
+
+        // verify
+        assertTrue(regions.isEmpty());
+        verifyNoInteractions(placesDataStore);
+    }
+
+    // ========================================================================================
+    // processLocation
+    // ========================================================================================
+    @Test
+    public void processLocation_appliesEvaluatedRegions() {
+        // setup
+        final PlacesPOI poi1 = createPOI("poi1", 1);
+        final PlacesPOI poi2 =
+                new PlacesPOI("poi2", "hidden", 34.34, -121.55, 150, "libraryName", 1, null);
+        poi2.setUserIsWithin(true);
+        placesState.cachedPOIs.put("poi1", poi1);
+        placesState.cachedPOIs.put("poi2", poi2);
+
+        // test
+        final List<PlacesRegion> regions =
+                placesState.processLocation(
+                        34.33, -121.55, 10, 100, new PlacesGeofenceEvaluator(25, 250));
+
+        // verify that the exit is applied before the entry
+        assertEquals(2, regions.size());
+        assertEquals("poi2", regions.get(0).getIdentifier());
+        assertEquals("exit", regions.get(0).getPlaceEventType());
+        assertEquals("poi1", regions.get(1).getIdentifier());
+        assertEquals("entry", regions.get(1).getPlaceEventType());
+        assertEquals(100, regions.get(1).getTimestamp());
+
+        // verify memory variables
+        assertTrue(poi1.containsUser());
+        assertFalse(poi2.containsUser());
+        assertEquals("poi1", placesState.currentPOI.getIdentifier());
+        assertEquals("poi1", placesState.lastEnteredPOI.getIdentifier());
+        assertEquals("poi2", placesState.lastExitedPOI.getIdentifier());
+
+        // verify that the changes are persisted once
+        verify(placesDataStore, times(1))
+                .setLong(eq(PlacesTestConstants.DataStoreKeys.MEMBERSHIP_VALID_UNTIL), anyLong());
+    }
+
+    @Test
+    public void processLocation_when_noTransition() {
+        // setup
+        final PlacesPOI poi1 = createPOI("poi1", 1);
+        poi1.setUserIsWithin(true);
+        placesState.cachedPOIs.put("poi1", poi1);
+        reset(placesDataStore);
+
+        // test
+        final List<PlacesRegion> regions =
+                placesState.processLocation(
+                        34.33, -121.55, 10, 100, new PlacesGeofenceEvaluator(25, 250));
+
+        // verify
+        assertTrue(regions.isEmpty());
+        assertTrue(poi1.containsUser());
+        verifyNoInteractions(placesDataStore);
+    }
+
     // ========================================================================================
     // getPlacesSharedState
     // ========================================================================================
@@ -694,6 +1188,38 @@ public class PlacesStateTests {
                 1);
     }
 
+    @Test
+    public void getPlacesSharedState_reusesUnchangedFields() {
+        // setup
+        placesState.cachedPOIs = getSampleCachePOIs();
+        placesState.currentPOI = sampleCurrentPOI;
+        placesState.membershipValidUntil = getUnixTimeInSeconds() + 20; // 20 secs from now
+        final Map<String, Object> data = placesState.getPlacesSharedState();
+
+        // test and verify
+        assertSame(data, placesState.getPlacesSharedState());
+
+        // test
+        placesState.cachedPOIs.get("cachedPOI2").setUserIsWithin(true);
+        final Map<String, Object> updatedData = placesState.getPlacesSharedState();
+
+        // verify that only the changed POI is rebuilt
+        assertNotSame(data, updatedData);
+        assertSame(
+                data.get(PlacesTestConstants.SharedStateKeys.CURRENT_POI),
+                updatedData.get(PlacesTestConstants.SharedStateKeys.CURRENT_POI));
+        final List<?> nearbyPOIs =
+                (List<?>) data.get(PlacesTestConstants.SharedStateKeys.NEARBYPOIS);
+        final List<?> updatedNearbyPOIs =
+                (List<?>) updatedData.get(PlacesTestConstants.SharedStateKeys.NEARBYPOIS);
+        assertSame(nearbyPOIs.get(0), updatedNearbyPOIs.get(0));
+        assertNotSame(nearbyPOIs.get(1), updatedNearbyPOIs.get(1));
+        assertEquals(
+                true,
+                ((Map<?, ?>) updatedNearbyPOIs.get(1))
+                        .get(PlacesTestConstants.POIKeys.USER_IS_WITHIN));
+    }
+
     @Test
     public void getPlacesSharedState_when_allVariableNull() throws Exception {
         // setup
@@ -913,6 +1439,510 @@ public class PlacesStateTests {
         assertEquals("cachedPOI1", placesState.getUserWithInPOIs().get(0).getIdentifier());
     }
 
+    // ========================================================================================
+    // getSnapshot
+    // ========================================================================================
+    @Test
+    public void getSnapshot_publishedAfterEveryPOIChange() {
+        // setup
+        final PlacesStateSnapshot initialSnapshot = placesState.getSnapshot();
+        final PlacesQueryResponse response = GetSampleSuccessPlacesResponse(2, 2);
+        response.containsUserPOIs.forEach(poi -> poi.setUserIsWithin(true));
+
+        // test
+        placesState.processNetworkResponse(response);
+        final PlacesStateSnapshot networkSnapshot = placesState.getSnapshot();
+        placesState.processRegionEvent(prepareRegionEvent("containsUserPOI 0", "exit"));
+        final PlacesStateSnapshot exitSnapshot = placesState.getSnapshot();
+
+        // verify that every change publishes a new snapshot and leaves the previous ones intact
+        assertEquals(0, initialSnapshot.getUserWithinPOIs().size());
+        assertEquals(2, networkSnapshot.getUserWithinPOIs().size());
+        assertEquals(1, exitSnapshot.getUserWithinPOIs().size());
+        assertEquals(
+                "containsUserPOI 1", exitSnapshot.getUserWithinPOIs().get(0).getIdentifier());
+
+        // test
+        placesState.clearData();
+
+        // verify
+        assertEquals(0, placesState.getSnapshot().getUserWithinPOIs().size());
+        assertEquals(1, exitSnapshot.getUserWithinPOIs().size());
+    }
+
+    @Test
+    public void getSnapshot_returnsCopiesOfThePOIs() {
+        // setup
+        final PlacesQueryResponse response = GetSampleSuccessPlacesResponse(1, 0);
+        response.containsUserPOIs.get(0).setUserIsWithin(true);
+        placesState.processNetworkResponse(response);
+
+        // test
+        placesState.getSnapshot().getUserWithinPOIs().get(0).setUserIsWithin(false);
+        placesState.getSnapshot().getUserWithinPOIs().clear();
+
+        // verify
+        assertEquals(1, placesState.getSnapshot().getUserWithinPOIs().size());
+        assertTrue(placesState.getSnapshot().getUserWithinPOIs().get(0).containsUser());
+        assertTrue(placesState.cachedPOIs.get("containsUserPOI 0").containsUser());
+    }
+
+    @Test
+    public void getSnapshot_lastKnownLocation() {
+        // setup
+        MockedConstruction<Location> mockedLocationConstruction = mockConstruction(Location.class);
+
+        // test
+        placesState.saveLastKnownLocation(34.2, 12.3);
+        final Location location = placesState.getSnapshot().getLastKnownLocation();
+
+        // verify
+        assertNotNull(location);
+        verify(location).setLatitude(34.2);
+        verify(location).setLongitude(12.3);
+
+        // test
+        placesState.saveLastKnownLocation(355.2, -6612.3);
+
+        // verify
+        assertNull(placesState.getSnapshot().getLastKnownLocation());
+
+        mockedLocationConstruction.close();
+    }
+
+    // ========================================================================================
+    // getNearestCachedPOIs
+    // ========================================================================================
+    @Test
+    public void getNearestCachedPOIs_afterNetworkResponse() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+
+        // test
+        final List<PlacesPOI> result = placesState.getNearestCachedPOIs(34.40, -121.55, 2);
+
+        // verify
+        assertEquals(2, result.size());
+        assertEquals("far", result.get(0).getIdentifier());
+        assertEquals("near", result.get(1).getIdentifier());
+    }
+
+    @Test
+    public void getNearestCachedPOIs_when_cacheReplaced() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+        placesState.cachedPOIs = getSampleCachePOIs();
+
+        // test
+        final List<PlacesPOI> result = placesState.getNearestCachedPOIs(34.33, -121.55, 5);
+
+        // verify
+        assertEquals(2, result.size());
+        assertEquals("cachedPOI1", result.get(0).getIdentifier());
+    }
+
+    @Test
+    public void getNearestCachedPOIs_when_dataCleared() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+
+        // test
+        placesState.clearData();
+
+        // verify
+        assertEquals(0, placesState.getNearestCachedPOIs(34.33, -121.55, 5).size());
+    }
+
+    // ========================================================================================
+    // getCachedNearbyPlaces
+    // ========================================================================================
+    @Test
+    public void getCachedNearbyPlaces_when_locationWithinCoveredArea() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+
+        // test
+        final PlacesQueryResponse response =
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.3301, -121.55, 2), createCacheConfig(300));
+
+        // verify
+        assertNotNull(response);
+        assertTrue(response.isSuccess);
+        assertTrue(response.isFromCache);
+        assertEquals(PlacesRequestError.OK, response.resultStatus);
+        assertEquals(1, response.containsUserPOIs.size());
+        assertEquals("center", response.containsUserPOIs.get(0).getIdentifier());
+        assertTrue(response.containsUserPOIs.get(0).containsUser());
+        assertEquals(1, response.nearByPOIs.size());
+        assertEquals("near", response.nearByPOIs.get(0).getIdentifier());
+        assertFalse(response.nearByPOIs.get(0).containsUser());
+    }
+
+    @Test
+    public void getCachedNearbyPlaces_doesNotModifyCachedPOIs() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+
+        // test
+        final PlacesQueryResponse response =
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.332, -121.55, 2), createCacheConfig(300));
+
+        // verify
+        assertNotNull(response);
+        assertTrue(response.containsUserPOIs.get(0).containsUser());
+        assertFalse(placesState.cachedPOIs.get("near").containsUser());
+    }
+
+    @Test
+    public void getCachedNearbyPlaces_when_cacheTtlDisabled() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+
+        // test and verify
+        assertNull(
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.55, 2), createCacheConfig(0)));
+    }
+
+    @Test
+    public void getCachedNearbyPlaces_when_cacheStale() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+        placesState.lastQueryTimestamp = getUnixTimeInSeconds() - 301;
+
+        // test and verify
+        assertNull(
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.55, 2), createCacheConfig(300)));
+    }
+
+    @Test
+    public void getCachedNearbyPlaces_when_locationOutsideCoveredArea() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+
+        // test and verify
+        assertNull(
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.40, -121.55, 2), createCacheConfig(300)));
+    }
+
+    @Test
+    public void getCachedNearbyPlaces_when_requestedPOIsMayLieOutsideCoveredArea() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+
+        // test and verify
+        assertNotNull(
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.56, 2), createCacheConfig(300)));
+        assertNull(
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.56, 3), createCacheConfig(300)));
+    }
+
+    @Test
+    public void getCachedNearbyPlaces_when_requestedCountExceedsLastQuery() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+
+        // test and verify
+        assertNull(
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.55, 11), createCacheConfig(300)));
+    }
+
+    @Test
+    public void getCachedNearbyPlaces_when_librariesChanged() {
+        // setup
+        final PlacesQueryResponse networkResponse = getSpreadOutPlacesResponse();
+        networkResponse.queryLibraries = "&library=otherLibrary";
+        placesState.processNetworkResponse(networkResponse);
+
+        // test and verify
+        assertNull(
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.55, 2), createCacheConfig(300)));
+    }
+
+    @Test
+    public void getCachedNearbyPlaces_when_dataCleared() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+        placesState.clearData();
+
+        // test and verify
+        assertNull(
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.55, 2), createCacheConfig(300)));
+        verify(placesDataStore, times(1))
+                .remove(PlacesTestConstants.DataStoreKeys.LAST_QUERY_TIMESTAMP);
+    }
+
+    // ========================================================================================
+    // getThrottledNearbyPlaces
+    // ========================================================================================
+    @Test
+    public void getThrottledNearbyPlaces_when_deviceHasNotMoved() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+
+        // test
+        final PlacesQueryResponse response =
+                placesState.getThrottledNearbyPlaces(
+                        createNearbyRequestData(34.3301, -121.55, 20),
+                        createThrottleConfig(50, 60));
+
+        // verify that the cached POIs are served even though fewer than requested
+        assertNotNull(response);
+        assertTrue(response.isSuccess);
+        assertTrue(response.isFromCache);
+        assertEquals(PlacesRequestError.QUERY_THROTTLED, response.resultStatus);
+        assertEquals(1, response.containsUserPOIs.size());
+        assertEquals("center", response.containsUserPOIs.get(0).getIdentifier());
+        assertEquals(2, response.nearByPOIs.size());
+        assertEquals("near", response.nearByPOIs.get(0).getIdentifier());
+        assertEquals("far", response.nearByPOIs.get(1).getIdentifier());
+    }
+
+    @Test
+    public void getThrottledNearbyPlaces_when_deviceMovedFarEnough() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+
+        // test and verify
+        assertNull(
+                placesState.getThrottledNearbyPlaces(
+                        createNearbyRequestData(34.332, -121.55, 2), createThrottleConfig(50, 60)));
+    }
+
+    @Test
+    public void getThrottledNearbyPlaces_when_intervalElapsed() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+        placesState.lastQueryTimestamp = getUnixTimeInSeconds() - 61;
+
+        // test and verify
+        assertNull(
+                placesState.getThrottledNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.55, 2), createThrottleConfig(50, 60)));
+    }
+
+    @Test
+    public void getThrottledNearbyPlaces_when_throttlingDisabled() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+
+        // test and verify
+        assertNull(
+                placesState.getThrottledNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.55, 2), createThrottleConfig(0, 60)));
+        assertNull(
+                placesState.getThrottledNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.55, 2), createThrottleConfig(50, 0)));
+    }
+
+    @Test
+    public void getThrottledNearbyPlaces_when_noPreviousQuery() {
+        // test and verify
+        assertNull(
+                placesState.getThrottledNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.55, 2), createThrottleConfig(50, 60)));
+    }
+
+    // ========================================================================================
+    // processCachedResponse
+    // ========================================================================================
+    @Test
+    public void processCachedResponse_when_userMovedIntoAnotherPOI() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+        final PlacesQueryResponse response =
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.332, -121.55, 2), createCacheConfig(300));
+
+        // test
+        placesState.processCachedResponse(response);
+
+        // verify that the membership matches the POIs flagged in the response
+        assertEquals("near", response.containsUserPOIs.get(0).getIdentifier());
+        assertEquals("near", placesState.currentPOI.getIdentifier());
+        assertEquals("near", placesState.lastEnteredPOI.getIdentifier());
+        assertTrue(placesState.cachedPOIs.get("near").containsUser());
+        assertFalse(placesState.cachedPOIs.get("center").containsUser());
+        assertEquals(1, placesState.getUserWithInPOIs().size());
+        assertEquals("near", placesState.getUserWithInPOIs().get(0).getIdentifier());
+        assertEquals(1, placesState.getSnapshot().getUserWithinPOIs().size());
+        assertEquals(
+                "near", placesState.getSnapshot().getUserWithinPOIs().get(0).getIdentifier());
+    }
+
+    @Test
+    public void processCachedResponse_when_userLeftAllPOIs() {
+        // setup
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+        final PlacesQueryResponse response =
+                placesState.getThrottledNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.5525, 1),
+                        createThrottleConfig(500, 60));
+
+        // test
+        placesState.processCachedResponse(response);
+
+        // verify that the POI left is no longer the current POI, but stays the last entered one
+        assertTrue(response.containsUserPOIs.isEmpty());
+        assertNull(placesState.currentPOI);
+        assertEquals("center", placesState.lastEnteredPOI.getIdentifier());
+        assertFalse(placesState.cachedPOIs.get("center").containsUser());
+        assertTrue(placesState.getUserWithInPOIs().isEmpty());
+    }
+
+    @Test
+    public void processCachedResponse_when_userLeftPOIBeyondResponse() {
+        // setup, the response only holds the POI nearest to the requested location
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+        final PlacesQueryResponse response =
+                placesState.getThrottledNearbyPlaces(
+                        createNearbyRequestData(34.3318, -121.55, 1),
+                        createThrottleConfig(500, 60));
+
+        // test
+        placesState.processCachedResponse(response);
+
+        // verify that the POI the user was within is evaluated as well
+        assertEquals(1, response.getAllPOIs().size());
+        assertEquals("near", response.containsUserPOIs.get(0).getIdentifier());
+        assertTrue(placesState.cachedPOIs.get("near").containsUser());
+        assertFalse(placesState.cachedPOIs.get("center").containsUser());
+        assertEquals(1, placesState.getUserWithInPOIs().size());
+    }
+
+    @Test
+    public void processNetworkResponse_persistsQueryCoverage() {
+        // test
+        placesState.processNetworkResponse(getSpreadOutPlacesResponse());
+
+        // verify
+        verify(placesDataStore, times(1))
+                .setDouble(PlacesTestConstants.DataStoreKeys.LAST_QUERY_LATITUDE, 34.33);
+        verify(placesDataStore, times(1))
+                .setDouble(PlacesTestConstants.DataStoreKeys.LAST_QUERY_LONGITUDE, -121.55);
+        verify(placesDataStore, times(1))
+                .setInt(PlacesTestConstants.DataStoreKeys.LAST_QUERY_COUNT, 10);
+        verify(placesDataStore, times(1))
+                .setString(
+                        PlacesTestConstants.DataStoreKeys.LAST_QUERY_LIBRARIES,
+                        "&library=libraryName");
+        assertEquals(
+                PlacesUtil.distanceInMeters(34.33, -121.55, 34.38, -121.55),
+                placesState.lastQueryRadius,
+                0.001);
+    }
+
+    // ========================================================================================
+    // getMissingTiles / getTiledNearbyPlaces
+    // ========================================================================================
+    @Test
+    public void getMissingTiles_when_tileModeDisabled() {
+        // test and verify
+        assertNull(
+                placesState.getMissingTiles(
+                        createNearbyRequestData(34.33, -121.55, 2), createCacheConfig(300)));
+        assertNull(
+                placesState.getTiledNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.55, 2), createCacheConfig(300)));
+    }
+
+    @Test
+    public void getMissingTiles_when_invalidLocation() {
+        // test and verify
+        assertNull(
+                placesState.getMissingTiles(
+                        createNearbyRequestData(91, -121.55, 2), createTileConfig(6)));
+    }
+
+    @Test
+    public void getTiledNearbyPlaces_mergesCachedTiles() {
+        // setup
+        final Map<String, Object> requestData = createNearbyRequestData(34.33, -121.55, 3);
+        final PlacesConfiguration tileConfig = createTileConfig(6);
+        final List<String> missingTiles = placesState.getMissingTiles(requestData, tileConfig);
+        assertEquals(9, missingTiles.size());
+
+        // every tile holds a POI at its center and a POI at the requested location
+        for (int i = 0; i < missingTiles.size(); i++) {
+            final Map<String, Object> tileQuery =
+                    PlacesTileCache.createTileQuery(missingTiles.get(i));
+            final PlacesQueryResponse tileResponse = new PlacesQueryResponse();
+            tileResponse.isSuccess = true;
+            tileResponse.containsUserPOIs = new ArrayList<>();
+            tileResponse.nearByPOIs = new ArrayList<>();
+            tileResponse.nearByPOIs.add(
+                    new PlacesPOI(
+                            "tile" + i,
+                            "hidden",
+                            (double)
+                                    tileQuery.get(
+                                            PlacesTestConstants.EventDataKeys.Places.LATITUDE),
+                            (double)
+                                    tileQuery.get(
+                                            PlacesTestConstants.EventDataKeys.Places.LONGITUDE),
+                            100,
+                            "libraryName",
+                            2));
+            tileResponse.nearByPOIs.add(
+                    new PlacesPOI("center", "hidden", 34.33, -121.55, 150, "libraryName", 2));
+            placesState.cacheTile(missingTiles.get(i), tileConfig, tileResponse);
+        }
+
+        // test
+        final List<String> tilesAfterCaching = placesState.getMissingTiles(requestData, tileConfig);
+        final PlacesQueryResponse response =
+                placesState.getTiledNearbyPlaces(requestData, tileConfig);
+
+        // verify
+        assertTrue(tilesAfterCaching.isEmpty());
+        assertTrue(response.isSuccess);
+        assertTrue(response.isTiled);
+        assertEquals(1, response.containsUserPOIs.size());
+        assertEquals("center", response.containsUserPOIs.get(0).getIdentifier());
+        assertEquals(2, response.nearByPOIs.size());
+        // the tile containing the requested location comes first in the missing tiles
+        assertEquals("tile0", response.nearByPOIs.get(0).getIdentifier());
+
+        // test
+        placesState.processNetworkResponse(response);
+
+        // verify that the merged tiles are not used as the covered area of a query
+        assertNull(
+                placesState.getCachedNearbyPlaces(
+                        createNearbyRequestData(34.33, -121.55, 1), createCacheConfig(300)));
+    }
+
+    @Test
+    public void getMissingTiles_when_dataCleared() {
+        // setup
+        final Map<String, Object> requestData = createNearbyRequestData(34.33, -121.55, 3);
+        final PlacesConfiguration tileConfig = createTileConfig(6);
+
+        for (final String tile : placesState.getMissingTiles(requestData, tileConfig)) {
+            placesState.cacheTile(tile, tileConfig, getSpreadOutPlacesResponse());
+        }
+
+        placesState.persistTiles();
+
+        // test
+        placesState.clearData();
+
+        // verify
+        assertEquals(9, placesState.getMissingTiles(requestData, tileConfig).size());
+        verify(placesDataStore, times(1))
+                .setString(eq(PlacesTestConstants.DataStoreKeys.TILE_CACHE), anyString());
+        verify(placesDataStore, times(1)).remove(PlacesTestConstants.DataStoreKeys.TILE_CACHE);
+    }
+
     // ========================================================================================
     // privacyOptedOut
     // ========================================================================================
@@ -975,6 +2005,28 @@ public class PlacesStateTests {
         return event;
     }
 
+    private Event prepareRegionBatchEvent(final String[][] regionIDsAndTypes) {
+        final List<Map<String, Object>> regions = new ArrayList<>();
+
+        for (final String[] regionIDAndType : regionIDsAndTypes) {
+            final Map<String, Object> region = new HashMap<>();
+            region.put(PlacesTestConstants.EventDataKeys.Places.REGION_ID, regionIDAndType[0]);
+            region.put(
+                    PlacesTestConstants.EventDataKeys.Places.REGION_EVENT_TYPE, regionIDAndType[1]);
+            regions.add(region);
+        }
+
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(PlacesTestConstants.EventDataKeys.Places.REGIONS, regions);
+        eventData.put(
+                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE,
+                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE_PROCESS_REGION_EVENTS);
+        return new Event.Builder(
+                        "Process Region Events", EventType.PLACES, EventSource.REQUEST_CONTENT)
+                .setEventData(eventData)
+                .build();
+    }
+
     private LinkedHashMap<String, PlacesPOI> getSampleCachePOIs() {
         LinkedHashMap<String, PlacesPOI> sampleCachedPOIs = new LinkedHashMap<String, PlacesPOI>();
         PlacesPOI poi1 = new PlacesPOI(createPOI("cachedPOI1", 2));
@@ -1025,21 +2077,13 @@ public class PlacesStateTests {
                 .thenReturn(SAMPLE_MEMBERSHIP_VALID_UNTIL_TIMESTAMP);
     }
 
-    private LinkedHashMap<String, PlacesPOI> getPersistedCachedPOI() throws JSONException {
+    private LinkedHashMap<String, PlacesPOI> getPersistedCachedPOI() throws IOException {
         ArgumentCaptor<String> persistenceValueCaptor = ArgumentCaptor.forClass(String.class);
         verify(placesDataStore, times(1))
                 .setString(
-                        eq(PlacesTestConstants.DataStoreKeys.NEARBYPOIS),
+                        eq(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT),
                         persistenceValueCaptor.capture());
-        final LinkedHashMap<String, PlacesPOI> cachedPOIs = new LinkedHashMap<>();
-        final String nearbyString = persistenceValueCaptor.getValue();
-        final JSONObject nearbyJSON = new JSONObject(nearbyString);
-        final Iterator<String> keys = nearbyJSON.keys();
-        while (keys.hasNext()) {
-            String key = keys.next();
-            cachedPOIs.put(key, new PlacesPOI(nearbyJSON.getJSONObject(key)));
-        }
-        return cachedPOIs;
+        return PlacesPOISnapshot.decode(persistenceValueCaptor.getValue());
     }
 
     private PlacesPOI getPersistedLastEnteredPOI() throws JSONException {
@@ -1104,7 +2148,7 @@ public class PlacesStateTests {
 
     private void verifyNearbyPOINotPersisted() {
         verify(placesDataStore, times(0))
-                .setString(eq(PlacesTestConstants.DataStoreKeys.NEARBYPOIS), any());
+                .setString(eq(PlacesTestConstants.DataStoreKeys.POI_SNAPSHOT), any());
     }
 
     private void verifyAuthStatusNotPersisted() {
@@ -1149,6 +2193,102 @@ public class PlacesStateTests {
         return response;
     }
 
+    private PlacesQueryResponse getSpreadOutPlacesResponse() {
+        PlacesQueryResponse response = new PlacesQueryResponse();
+        response.containsUserPOIs = new ArrayList<PlacesPOI>();
+        response.containsUserPOIs.add(
+                new PlacesPOI("center", "hidden", 34.33, -121.55, 150, "libraryName", 2, null));
+        response.nearByPOIs = new ArrayList<PlacesPOI>();
+        response.nearByPOIs.add(
+                new PlacesPOI("near", "hidden", 34.332, -121.55, 150, "libraryName", 2, null));
+        response.nearByPOIs.add(
+                new PlacesPOI("far", "hidden", 34.38, -121.55, 150, "libraryName", 2, null));
+        response.isSuccess = true;
+        response.queryLatitude = 34.33;
+        response.queryLongitude = -121.55;
+        response.queryCount = 10;
+        response.queryLibraries = "&library=libraryName";
+        return response;
+    }
+
+    private Map<String, Object> createNearbyRequestData(
+            final double latitude, final double longitude, final int count) {
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(PlacesTestConstants.EventDataKeys.Places.LATITUDE, latitude);
+        eventData.put(PlacesTestConstants.EventDataKeys.Places.LONGITUDE, longitude);
+        eventData.put(PlacesTestConstants.EventDataKeys.Places.PLACES_COUNT, count);
+        return eventData;
+    }
+
+    private PlacesConfiguration createCacheConfig(final long cacheTtl) {
+        final Map<String, String> library = new HashMap<>();
+        library.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_LIBRARY_ID,
+                "libraryName");
+        final List<Map<String, String>> libraries = new ArrayList<>();
+        libraries.add(library);
+
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_LIBRARIES,
+                libraries);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_ENDPOINT,
+                "placesedge.com");
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_CACHE_TTL,
+                cacheTtl);
+        return new PlacesConfiguration(configData);
+    }
+
+    private PlacesConfiguration createTileConfig(final int tilePrecision) {
+        final Map<String, String> library = new HashMap<>();
+        library.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_LIBRARY_ID,
+                "libraryName");
+        final List<Map<String, String>> libraries = new ArrayList<>();
+        libraries.add(library);
+
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_LIBRARIES,
+                libraries);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_ENDPOINT,
+                "placesedge.com");
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_TILE_PRECISION,
+                tilePrecision);
+        return new PlacesConfiguration(configData);
+    }
+
+    private PlacesConfiguration createThrottleConfig(
+            final double minQueryDistance, final long minQueryInterval) {
+        final Map<String, String> library = new HashMap<>();
+        library.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_LIBRARY_ID,
+                "libraryName");
+        final List<Map<String, String>> libraries = new ArrayList<>();
+        libraries.add(library);
+
+        final Map<String, Object> configData = new HashMap<>();
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_LIBRARIES,
+                libraries);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration.CONFIG_KEY_PLACES_ENDPOINT,
+                "placesedge.com");
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration
+                        .CONFIG_KEY_PLACES_MIN_QUERY_DISTANCE,
+                minQueryDistance);
+        configData.put(
+                PlacesTestConstants.EventDataKeys.Configuration
+                        .CONFIG_KEY_PLACES_MIN_QUERY_INTERVAL,
+                minQueryInterval);
+        return new PlacesConfiguration(configData);
+    }
+
     private long getUnixTimeInSeconds() {
         return System.currentTimeMillis() / 1000;
     }
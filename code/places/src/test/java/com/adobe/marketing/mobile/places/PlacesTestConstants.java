@@ -27,6 +27,8 @@ final class PlacesTestConstants {
     static final class DataStoreKeys {
 
         static final String NEARBYPOIS = "nearbypois";
+        static final String POI_SNAPSHOT = "poisnapshot";
+        static final String USER_WITHIN_POI_IDS = "userwithinpoiids";
         static final String CURRENT_POI = "currentpoi";
         static final String LAST_ENTERED_POI = "lastenteredpoi";
         static final String LAST_EXITED_POI = "lastexitedpoi";
@@ -34,6 +36,15 @@ final class PlacesTestConstants {
         static final String LAST_KNOWN_LONGITUDE = "lastknownlongitude";
         static final String AUTH_STATUS = "authstatus";
         static final String MEMBERSHIP_VALID_UNTIL = "places_membership_valid_until";
+        static final String LAST_QUERY_LATITUDE = "lastquerylatitude";
+        static final String LAST_QUERY_LONGITUDE = "lastquerylongitude";
+        static final String LAST_QUERY_RADIUS = "lastqueryradius";
+        static final String LAST_QUERY_COUNT = "lastquerycount";
+        static final String LAST_QUERY_LIBRARIES = "lastquerylibraries";
+        static final String LAST_QUERY_TIMESTAMP = "lastquerytimestamp";
+        static final String POI_SNAPSHOT_VERSION = "poisnapshotversion";
+        static final String POI_SNAPSHOT_PENDING_VERSION = "poisnapshotpendingversion";
+        static final String TILE_CACHE = "tilecache";
 
         private DataStoreKeys() {}
     }
@@ -86,10 +97,32 @@ final class PlacesTestConstants {
         static final String LAST_EXITED_POI = "lastexitedpoi";
         static final String AUTH_STATUS = "authstatus";
         static final String VALID_UNTIL = "validuntil";
+        static final String METRICS = "metrics";
 
         private SharedStateKeys() {}
     }
 
+    static final class MetricsKeys {
+
+        static final String NETWORK_LATENCY = "networklatency";
+        static final String PARSE_TIME = "parsetime";
+        static final String PERSIST_TIME = "persisttime";
+        static final String PROCESSED_EVENTS = "processedevents";
+        static final String CACHE_HITS = "cachehits";
+        static final String CACHE_MISSES = "cachemisses";
+        static final String SUPPRESSED_WRITES = "suppressedwrites";
+        static final String SUPPRESSED_SHARED_STATES = "suppressedsharedstates";
+        static final String DROPPED_REGION_EVENTS = "droppedregionevents";
+        static final String PERSISTED_BYTES = "persistedbytes";
+        static final String COUNT = "count";
+        static final String SUM = "sum";
+        static final String MAX = "max";
+        static final String BUCKET_BOUNDS = "bucketbounds";
+        static final String BUCKET_COUNTS = "bucketcounts";
+
+        private MetricsKeys() {}
+    }
+
     static final class EventName {
 
         // places request content event names
@@ -97,6 +130,8 @@ final class PlacesTestConstants {
         static final String REQUEST_GETLASTKNOWNLOCATION = "requestgetlastknownlocation";
         static final String REQUEST_GETNEARBYPLACES = "requestgetnearbyplaces";
         static final String REQUEST_PROCESSREGIONEVENT = "requestprocessregionevent";
+        static final String REQUEST_PROCESSREGIONEVENTS = "requestprocessregionevents";
+        static final String REQUEST_PROCESSLOCATION = "requestprocesslocation";
         static final String REQUEST_RESET = "requestreset";
         static final String REQUEST_SETAUTHORIZATIONSTATUS = "requestsetauthorizationstatus";
 
@@ -105,6 +140,7 @@ final class PlacesTestConstants {
         static final String RESPONSE_PROCESSREGIONEVENT = "responseprocessregionevent";
         static final String RESPONSE_GETUSERWITHINPLACES = "responsegetuserwithinplaces";
         static final String RESPONSE_GETLASTKNOWNLOCATION = "responsegetlastknownlocation";
+        static final String RESPONSE_NEARBYPLACESDELTA = "responsenearbyplacesdelta";
 
         private EventName() {}
     }
@@ -123,17 +159,32 @@ final class PlacesTestConstants {
             static final String PLACES_COUNT = "count";
             static final String LATITUDE = "latitude";
             static final String LONGITUDE = "longitude";
+            static final String ACCURACY = "accuracy";
 
             // Places Response Content event keys
             static final String NEAR_BY_PLACES_LIST = "nearbypois";
             static final String RESULT_STATUS = "status";
             static final String USER_WITHIN_POIS = "userwithinpois";
             static final String TRIGGERING_REGION = "triggeringregion";
+            static final String RESULT_SOURCE = "resultsource";
+
+            // nearby places delta event keys
+            static final String GENERATION = "generation";
+            static final String PREVIOUS_GENERATION = "previousgeneration";
+            static final String ADDED_POIS = "addedpois";
+            static final String CHANGED_POIS = "changedpois";
+            static final String REMOVED_POI_IDS = "removedpoiids";
+
+            // result source values
+            static final String RESULT_SOURCE_NETWORK = "network";
+            static final String RESULT_SOURCE_CACHE = "cache";
 
             // request types
             static final String REQUEST_TYPE = "requesttype";
             static final String REQUEST_TYPE_GET_NEARBY_PLACES = "requestgetnearbyplaces";
             static final String REQUEST_TYPE_PROCESS_REGION_EVENT = "requestprocessregionevent";
+            static final String REQUEST_TYPE_PROCESS_REGION_EVENTS = "requestprocessregionevents";
+            static final String REQUEST_TYPE_PROCESS_LOCATION = "requestprocesslocation";
             static final String REQUEST_TYPE_GET_USER_WITHIN_PLACES = "requestgetuserwithinplaces";
             static final String REQUEST_TYPE_GET_LAST_KNOWN_LOCATION =
                     "requestgetlastknownlocation";
@@ -147,6 +198,7 @@ final class PlacesTestConstants {
             static final String REGION_EVENT_TYPE = "regioneventtype";
             static final String REGION_METADATA = "regionmetadata";
             static final String REGION_TIMESTAMP = "timestamp";
+            static final String REGIONS = "regions";
 
             // last known location keys
             static final String LAST_KNOWN_LATITUDE = "lastknownlatitude";
@@ -168,6 +220,24 @@ final class PlacesTestConstants {
             static final String CONFIG_KEY_LIBRARY_ID = "id";
             static final String CONFIG_KEY_PLACES_ENDPOINT = "places.endpoint";
             static final String CONFIG_KEY_PLACES_MEMBERSHIP_TTL = "places.membershipttl";
+            static final String CONFIG_KEY_PLACES_CACHE_TTL = "places.cachettl";
+            static final String CONFIG_KEY_PLACES_MIN_QUERY_DISTANCE = "places.minquerydistance";
+            static final String CONFIG_KEY_PLACES_MIN_QUERY_INTERVAL = "places.minqueryinterval";
+            static final String CONFIG_KEY_PLACES_GEOFENCE_EVALUATION = "places.geofenceevaluation";
+            static final String CONFIG_KEY_PLACES_GEOFENCE_HYSTERESIS = "places.geofencehysteresis";
+            static final String CONFIG_KEY_PLACES_GEOFENCE_MAX_ACCURACY =
+                    "places.geofencemaxaccuracy";
+            static final String CONFIG_KEY_PLACES_TILE_PRECISION = "places.tileprecision";
+            static final String CONFIG_KEY_PLACES_TILE_TTL = "places.tilettl";
+            static final String CONFIG_KEY_PLACES_TILE_CACHE_SIZE = "places.tilecachesize";
+            static final String CONFIG_KEY_PLACES_NEARBY_DELTA_EVENTS = "places.nearbydeltaevents";
+            static final String CONFIG_KEY_PLACES_METRICS_SHARED_STATE =
+                    "places.metricssharedstate";
+            static final String CONFIG_KEY_PLACES_NETWORK_RETRIES = "places.networkretries";
+            static final String CONFIG_KEY_PLACES_CIRCUIT_BREAKER_THRESHOLD =
+                    "places.circuitbreakerthreshold";
+            static final String CONFIG_KEY_PLACES_CIRCUIT_BREAKER_DURATION =
+                    "places.circuitbreakerduration";
             static final String CONFIG_KEY_EXPERIENCE_EVENT_DATASET = "messaging.eventDataset";
 
             private Configuration() {}
@@ -672,64 +672,52 @@ public class PlacesTests {
                         Geofence.GEOFENCE_TRANSITION_EXIT,
                         Arrays.asList(mockGeofence1(), mockGeofence2())));
 
-        // verify
-        mockedMobileCore.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()), times(2));
-        final Event exitEvent1 = eventCaptor.getAllValues().get(0);
-        final Event exitEvent2 = eventCaptor.getAllValues().get(1);
+        // verify that a single batch event is dispatched
+        mockedMobileCore.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()), times(1));
+        final Event batchEvent = eventCaptor.getValue();
 
-        // verify first exit event dispatched
         assertEquals(
                 "event has correct name",
-                PlacesTestConstants.EventName.REQUEST_PROCESSREGIONEVENT,
-                exitEvent1.getName());
-        assertEquals("event has correct event type", EventType.PLACES, exitEvent1.getType());
+                PlacesTestConstants.EventName.REQUEST_PROCESSREGIONEVENTS,
+                batchEvent.getName());
+        assertEquals("event has correct event type", EventType.PLACES, batchEvent.getType());
         assertEquals(
                 "event has correct event source",
                 EventSource.REQUEST_CONTENT,
-                exitEvent1.getSource());
+                batchEvent.getSource());
         assertEquals(
                 "event has the correct request type",
-                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE_PROCESS_REGION_EVENT,
-                exitEvent1
+                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE_PROCESS_REGION_EVENTS,
+                batchEvent
                         .getEventData()
                         .get(PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE));
+
+        final List<Map<String, Object>> regions =
+                (List<Map<String, Object>>)
+                        batchEvent
+                                .getEventData()
+                                .get(PlacesTestConstants.EventDataKeys.Places.REGIONS);
+        assertEquals("event has all the regions", 2, regions.size());
+
+        // verify first exit region
         assertEquals(
-                "event has the correct regionId",
+                "region has the correct regionId",
                 "geofence1",
-                exitEvent1.getEventData().get(PlacesTestConstants.EventDataKeys.Places.REGION_ID));
+                regions.get(0).get(PlacesTestConstants.EventDataKeys.Places.REGION_ID));
         assertEquals(
-                "event has the correct region transition type",
+                "region has the correct region transition type",
                 "exit",
-                exitEvent1
-                        .getEventData()
-                        .get(PlacesTestConstants.EventDataKeys.Places.REGION_EVENT_TYPE));
+                regions.get(0).get(PlacesTestConstants.EventDataKeys.Places.REGION_EVENT_TYPE));
 
-        // verify second exit event dispatched
-        assertEquals(
-                "event has correct name",
-                PlacesTestConstants.EventName.REQUEST_PROCESSREGIONEVENT,
-                exitEvent2.getName());
-        assertEquals("event has correct event type", EventType.PLACES, exitEvent2.getType());
-        assertEquals(
-                "event has correct event source",
-                EventSource.REQUEST_CONTENT,
-                exitEvent2.getSource());
-        assertEquals(
-                "event has the correct request type",
-                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE_PROCESS_REGION_EVENT,
-                exitEvent2
-                        .getEventData()
-                        .get(PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE));
+        // verify second exit region
         assertEquals(
-                "event has the correct regionId",
+                "region has the correct regionId",
                 "geofence2",
-                exitEvent2.getEventData().get(PlacesTestConstants.EventDataKeys.Places.REGION_ID));
+                regions.get(1).get(PlacesTestConstants.EventDataKeys.Places.REGION_ID));
         assertEquals(
-                "event has the correct region transition type",
+                "region has the correct region transition type",
                 "exit",
-                exitEvent2
-                        .getEventData()
-                        .get(PlacesTestConstants.EventDataKeys.Places.REGION_EVENT_TYPE));
+                regions.get(1).get(PlacesTestConstants.EventDataKeys.Places.REGION_EVENT_TYPE));
     }
 
     // ========================================================================================
@@ -794,6 +782,77 @@ public class PlacesTests {
         mockedMobileCore.verifyNoInteractions();
     }
 
+    // ========================================================================================
+    // processLocation
+    // ========================================================================================
+
+    @Test
+    public void processLocation_should_dispatchPlacesRequestContentEvent() {
+        // setup
+        when(mockLocation.hasAccuracy()).thenReturn(true);
+        when(mockLocation.getAccuracy()).thenReturn(12.5f);
+
+        // test
+        Places.processLocation(mockLocation(22.22, -11.11));
+
+        // verify
+        mockedMobileCore.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()));
+        final Event dispatchedEvent = eventCaptor.getValue();
+        assertNotNull(dispatchedEvent);
+
+        // verify dispatched event details
+        assertEquals(
+                "event has correct name",
+                PlacesTestConstants.EventName.REQUEST_PROCESSLOCATION,
+                dispatchedEvent.getName());
+        assertEquals("event has correct event type", EventType.PLACES, dispatchedEvent.getType());
+        assertEquals(
+                "event has correct event source",
+                EventSource.REQUEST_CONTENT,
+                dispatchedEvent.getSource());
+
+        final Map<String, Object> eventData = dispatchedEvent.getEventData();
+        assertEquals(
+                "event has the correct request type",
+                PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE_PROCESS_LOCATION,
+                eventData.get(PlacesTestConstants.EventDataKeys.Places.REQUEST_TYPE));
+        assertEquals(
+                "event has the correct latitude",
+                22.22,
+                eventData.get(PlacesTestConstants.EventDataKeys.Places.LATITUDE));
+        assertEquals(
+                "event has the correct longitude",
+                -11.11,
+                eventData.get(PlacesTestConstants.EventDataKeys.Places.LONGITUDE));
+        assertEquals(
+                "event has the correct accuracy",
+                12.5,
+                eventData.get(PlacesTestConstants.EventDataKeys.Places.ACCURACY));
+    }
+
+    @Test
+    public void processLocation_when_noAccuracy() {
+        // test
+        Places.processLocation(mockLocation(22.22, -11.11));
+
+        // verify
+        mockedMobileCore.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()));
+        assertFalse(
+                eventCaptor
+                        .getValue()
+                        .getEventData()
+                        .containsKey(PlacesTestConstants.EventDataKeys.Places.ACCURACY));
+    }
+
+    @Test
+    public void processLocation_when_nullLocation() {
+        // test
+        Places.processLocation(null);
+
+        // verify no event is dispatched
+        mockedMobileCore.verifyNoInteractions();
+    }
+
     // ========================================================================================
     // setAuthorizationStatus
     // ========================================================================================
@@ -0,0 +1,230 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PlacesTileCacheTests {
+
+    private static final long TTL = 100;
+    private static final long MAX_BYTE_COUNT = 10000;
+
+    @Mock private NamedCollection dataStore;
+
+    private PlacesTileCache tileCache;
+
+    @Before
+    public void testSetup() {
+        tileCache = new PlacesTileCache(dataStore);
+    }
+
+    @Test
+    public void test_get_when_notCached() {
+        // test
+        final List<PlacesPOI> pois = tileCache.get("9q9k65", 1000, TTL);
+
+        // verify
+        assertNull(pois);
+        assertEquals(0, tileCache.getHitCount());
+        assertEquals(1, tileCache.getMissCount());
+    }
+
+    @Test
+    public void test_get_when_cached() {
+        // setup
+        final List<PlacesPOI> pois = createPOIs("poi");
+        pois.get(0).setUserIsWithin(true);
+        tileCache.put("9q9k65", pois, 1000, MAX_BYTE_COUNT);
+
+        // test
+        final List<PlacesPOI> cachedPOIs = tileCache.get("9q9k65", 1000 + TTL - 1, TTL);
+
+        // verify
+        assertEquals(2, cachedPOIs.size());
+        assertEquals("poi1", cachedPOIs.get(0).getIdentifier());
+        // the membership is not cached, and the provided POIs are left untouched
+        assertFalse(cachedPOIs.get(0).containsUser());
+        assertTrue(pois.get(0).containsUser());
+        assertEquals(1, tileCache.getHitCount());
+        assertEquals(0, tileCache.getMissCount());
+    }
+
+    @Test
+    public void test_get_when_expired() {
+        // setup
+        tileCache.put("9q9k65", createPOIs("poi"), 1000, MAX_BYTE_COUNT);
+
+        // test
+        final List<PlacesPOI> cachedPOIs = tileCache.get("9q9k65", 1000 + TTL, TTL);
+
+        // verify
+        assertNull(cachedPOIs);
+        assertEquals(0, tileCache.size());
+        assertEquals(0, tileCache.getByteCount());
+        assertEquals(1, tileCache.getMissCount());
+    }
+
+    @Test
+    public void test_put_evictsLeastRecentlyUsedTiles() {
+        // setup
+        tileCache.put("tile1", createPOIs("poi"), 1000, MAX_BYTE_COUNT);
+        tileCache.put("tile2", createPOIs("poi"), 1000, MAX_BYTE_COUNT);
+        final long tileByteCount = tileCache.getByteCount() / 2;
+
+        // tile1 becomes the most recently used one
+        assertNotNull(tileCache.get("tile1", 1000, TTL));
+
+        // test
+        tileCache.put("tile3", createPOIs("poi"), 1000, 2 * tileByteCount);
+
+        // verify
+        assertEquals(2, tileCache.size());
+        assertNull(tileCache.peek("tile2"));
+        assertNotNull(tileCache.peek("tile1"));
+        assertNotNull(tileCache.peek("tile3"));
+        assertEquals(2 * tileByteCount, tileCache.getByteCount());
+        assertEquals(1, tileCache.getEvictionCount());
+    }
+
+    @Test
+    public void test_put_keepsTileLargerThanBudget() {
+        // test
+        tileCache.put("tile1", createPOIs("poi"), 1000, 1);
+
+        // verify
+        assertEquals(1, tileCache.size());
+        assertEquals(0, tileCache.getEvictionCount());
+    }
+
+    @Test
+    public void test_persist_and_load() {
+        // setup
+        tileCache.put("tile1", createPOIs("first"), 1000, MAX_BYTE_COUNT);
+        tileCache.put("tile2", createPOIs("second"), 1000, MAX_BYTE_COUNT);
+        tileCache.get("tile1", 1000, TTL);
+        tileCache.get("tile3", 1000, TTL);
+
+        // test
+        tileCache.persist();
+
+        // verify
+        final ArgumentCaptor<String> cacheCaptor = ArgumentCaptor.forClass(String.class);
+        verify(dataStore, times(1))
+                .setString(
+                        eq(PlacesTestConstants.DataStoreKeys.TILE_CACHE), cacheCaptor.capture());
+
+        // test
+        when(dataStore.getString(PlacesTestConstants.DataStoreKeys.TILE_CACHE, null))
+                .thenReturn(cacheCaptor.getValue());
+        final PlacesTileCache loadedCache = new PlacesTileCache(dataStore);
+
+        // verify
+        assertEquals(2, loadedCache.size());
+        assertEquals(tileCache.getByteCount(), loadedCache.getByteCount());
+        assertEquals(1, loadedCache.getHitCount());
+        assertEquals(1, loadedCache.getMissCount());
+        assertEquals(createPOIs("second"), loadedCache.get("tile2", 1000, TTL));
+        assertNull(loadedCache.get("tile1", 1000 + TTL, TTL));
+    }
+
+    @Test
+    public void test_persist_when_unchanged() {
+        // setup
+        tileCache.put("tile1", createPOIs("poi"), 1000, MAX_BYTE_COUNT);
+        tileCache.persist();
+
+        // test
+        tileCache.get("tile1", 1000, TTL);
+        tileCache.persist();
+
+        // verify
+        verify(dataStore, times(1)).setString(anyString(), anyString());
+    }
+
+    @Test
+    public void test_load_when_malformed() {
+        // setup
+        when(dataStore.getString(PlacesTestConstants.DataStoreKeys.TILE_CACHE, null))
+                .thenReturn("{\"v\":1,\"tiles\":");
+
+        // test
+        final PlacesTileCache loadedCache = new PlacesTileCache(dataStore);
+
+        // verify
+        assertEquals(0, loadedCache.size());
+        verify(dataStore, times(1)).remove(PlacesTestConstants.DataStoreKeys.TILE_CACHE);
+    }
+
+    @Test
+    public void test_clear() {
+        // setup
+        tileCache.put("tile1", createPOIs("poi"), 1000, MAX_BYTE_COUNT);
+        tileCache.get("tile1", 1000, TTL);
+
+        // test
+        tileCache.clear();
+
+        // verify
+        assertEquals(0, tileCache.size());
+        assertEquals(0, tileCache.getByteCount());
+        assertEquals(0, tileCache.getHitCount());
+        verify(dataStore, times(1)).remove(PlacesTestConstants.DataStoreKeys.TILE_CACHE);
+    }
+
+    @Test
+    public void test_createTileQuery() {
+        // test
+        final Map<String, Object> tileQuery = PlacesTileCache.createTileQuery("9q9k65");
+
+        // verify that the query is made from the center of the tile
+        final double[] bounds = PlacesGeohash.decodeBounds("9q9k65");
+        assertEquals(
+                (bounds[0] + bounds[1]) / 2,
+                (double) tileQuery.get(PlacesTestConstants.EventDataKeys.Places.LATITUDE),
+                0);
+        assertEquals(
+                (bounds[2] + bounds[3]) / 2,
+                (double) tileQuery.get(PlacesTestConstants.EventDataKeys.Places.LONGITUDE),
+                0);
+        assertEquals(
+                PlacesConstants.TILE_POI_COUNT,
+                tileQuery.get(PlacesTestConstants.EventDataKeys.Places.PLACES_COUNT));
+    }
+
+    private List<PlacesPOI> createPOIs(final String prefix) {
+        final List<PlacesPOI> pois = new ArrayList<>();
+        pois.add(new PlacesPOI(prefix + "1", "name", 37.3309, -121.8939, 100, "lib", 1));
+        pois.add(new PlacesPOI(prefix + "2", "name", 37.3319, -121.8949, 150, "lib", 2));
+        return pois;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.places;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.ExtensionApi;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PlacesTracingTests {
+
+    @Mock private ExtensionApi extensionApi;
+
+    @Mock private NamedCollection dataStore;
+
+    private RecordingTracer tracer;
+
+    private static final class RecordingTracer implements PlacesTracer {
+
+        private final List<String> calls = new ArrayList<>();
+        private long cookies;
+
+        @Override
+        public synchronized long beginStage(final String stage) {
+            cookies++;
+            calls.add("begin " + stage + " " + cookies);
+            return cookies;
+        }
+
+        @Override
+        public synchronized void endStage(final String stage, final long cookie) {
+            calls.add("end " + stage + " " + cookie);
+        }
+
+        synchronized List<String> getCalls() {
+            return new ArrayList<>(calls);
+        }
+    }
+
+    @Before
+    public void testSetup() {
+        tracer = new RecordingTracer();
+    }
+
+    @After
+    public void testTeardown() {
+        PlacesTracing.setTracer(null);
+    }
+
+    @Test
+    public void test_getTracer_when_notSet() {
+        // test
+        final PlacesTracer noOpTracer = PlacesTracing.getTracer();
+
+        // verify
+        assertEquals(0, noOpTracer.beginStage(PlacesTracer.STAGE_DISPATCH));
+        noOpTracer.endStage(PlacesTracer.STAGE_DISPATCH, 0);
+    }
+
+    @Test
+    public void test_setTracer() {
+        // test
+        PlacesExtension.setTracer(tracer);
+
+        // verify
+        assertSame(tracer, PlacesTracing.getTracer());
+    }
+
+    @Test
+    public void test_setTracer_when_null() {
+        // setup
+        final PlacesTracer noOpTracer = PlacesTracing.getTracer();
+        PlacesTracing.setTracer(tracer);
+
+        // test
+        PlacesTracing.setTracer(null);
+
+        // verify
+        assertSame(noOpTracer, PlacesTracing.getTracer());
+    }
+
+    @Test
+    public void test_dispatchRegionEvent_tracesDispatch() {
+        // setup
+        PlacesTracing.setTracer(tracer);
+        final PlacesDispatcher dispatcher = new PlacesDispatcher(extensionApi);
+
+        // test
+        dispatcher.dispatchRegionEvent(createRegion());
+
+        // verify
+        assertEquals(
+                Arrays.asList("begin places.dispatch 1", "end places.dispatch 1"),
+                tracer.getCalls());
+    }
+
+    @Test
+    public void test_dispatchRegionEvent_when_dispatchThrows_endsDispatch() {
+        // setup
+        PlacesTracing.setTracer(tracer);
+        final PlacesDispatcher dispatcher = new PlacesDispatcher(extensionApi);
+        doThrow(new IllegalStateException()).when(extensionApi).dispatch(any(Event.class));
+
+        // test
+        try {
+            dispatcher.dispatchRegionEvent(createRegion());
+            fail("The dispatch exception should be thrown");
+        } catch (final IllegalStateException exception) {
+            // expected
+        }
+
+        // verify
+        assertEquals(
+                Arrays.asList("begin places.dispatch 1", "end places.dispatch 1"),
+                tracer.getCalls());
+    }
+
+    @Test
+    public void test_dispatchRegionEvent_when_nullRegion_doesNotTrace() {
+        // setup
+        PlacesTracing.setTracer(tracer);
+        final PlacesDispatcher dispatcher = new PlacesDispatcher(extensionApi);
+
+        // test
+        dispatcher.dispatchRegionEvent(null);
+
+        // verify
+        assertTrue(tracer.getCalls().isEmpty());
+    }
+
+    @Test
+    public void test_commit_tracesFlush() {
+        // setup
+        PlacesTracing.setTracer(tracer);
+        final PlacesPersister persister = new PlacesPersister(dataStore, 0, null);
+
+        // test
+        persister.commit();
+        persister.setString(PlacesTestConstants.DataStoreKeys.CURRENT_POI, "current");
+        persister.commit();
+
+        // verify that only the non empty batch is traced
+        assertEquals(
+                Arrays.asList("begin places.flush 1", "end places.flush 1"), tracer.getCalls());
+    }
+
+    private static PlacesRegion createRegion() {
+        final PlacesPOI poi = new PlacesPOI("poi1", "name", 12.34, 56.78, 100, "library", 1);
+        return new PlacesRegion(poi, PlacesRegion.PLACE_EVENT_ENTRY, 1234);
+    }
+}
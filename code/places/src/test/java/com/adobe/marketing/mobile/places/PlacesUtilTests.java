@@ -68,6 +68,16 @@ public class PlacesUtilTests {
         assertEquals("null", metaDataMap.get("nullKey"));
     }
 
+    @Test
+    public void test_distanceInMeters() {
+        // San Jose to New York City
+        assertEquals(
+                4101000, PlacesUtil.distanceInMeters(37.3382, -121.8863, 40.7128, -74.0060), 5000);
+        assertEquals(0, PlacesUtil.distanceInMeters(40.7128, -74.0060, 40.7128, -74.0060), 0);
+        // across the antimeridian
+        assertEquals(222, PlacesUtil.distanceInMeters(0, 179.999, 0, -179.999), 1);
+    }
+
     private static String metaDataAllString =
             "{\n"
                     + "  \"address\": \"Android Avenue\",\n"
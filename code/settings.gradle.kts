@@ -32,5 +32,6 @@ dependencyResolutionManagement {
 rootProject.name = "aepsdk-places-android"
 include (
          ":testapp",
-         ":places"
+         ":places",
+         ":benchmark"
 )
\ No newline at end of file
@@ -21,6 +21,8 @@ import android.widget.Toast;
 import com.adobe.marketing.mobile.AdobeCallback;
 import com.adobe.marketing.mobile.Places;
 import com.adobe.marketing.mobile.places.PlacesAuthorizationStatus;
+import com.adobe.marketing.mobile.places.PlacesGeofencePlan;
+import com.adobe.marketing.mobile.places.PlacesGeofencePlanner;
 import com.adobe.marketing.mobile.places.PlacesPOI;
 import com.adobe.marketing.mobile.places.PlacesRequestError;
 import com.google.android.gms.common.api.ApiException;
@@ -62,6 +64,7 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
 	private final String LOG_TAG = "Main Activity";
 	private final String FINE_LOCATION = Manifest.permission.ACCESS_FINE_LOCATION;
 	private static final int REQUEST_PERMISSIONS_REQUEST_CODE = 34;
+	private static final int MAX_MONITORED_FENCES = 20;
 
 	private FusedLocationProviderClient mFusedLocationClient;
 	private GeofencingClient mGeofencingClient;
@@ -78,6 +81,7 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
 	private Marker currentLocationMarker;
 	private Boolean isRequestingLocationUpdates = false;
 	private List<PlacesPOI> nearByPOIs;
+	private final PlacesGeofencePlanner geofencePlanner = new PlacesGeofencePlanner(MAX_MONITORED_FENCES);
 
 
 	private List<Circle> fenceCircles;
@@ -284,17 +288,24 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
 			circle.setFillColor(getColorWithAlpha(Color.RED, 0.15f));
 		}
 
-		List<Geofence> geofences = new ArrayList<>();
-
-		for (PlacesPOI poi : nearByPOIs) {
-			final Geofence fence = new Geofence.Builder()
-			.setRequestId(poi.getIdentifier())
-			.setCircularRegion(poi.getLatitude(), poi.getLongitude(), poi.getRadius())
-			.setExpirationDuration(Geofence.NEVER_EXPIRE)
-			.setTransitionTypes(Geofence.GEOFENCE_TRANSITION_ENTER |
-								Geofence.GEOFENCE_TRANSITION_EXIT)
-			.build();
-			geofences.add(fence);
+		if (currentLocation == null || !checkPermissions()) {
+			Log.d(LOG_TAG, "Cannot monitor the near by places without the current location and permissions");
+			return;
+		}
+
+		// only register the geofences that changed since the last refresh
+		final PlacesGeofencePlan plan = geofencePlanner.plan(currentLocation.getLatitude(),
+				currentLocation.getLongitude(), nearByPOIs);
+
+		if (!plan.getIdsToRemove().isEmpty()) {
+			mGeofencingClient.removeGeofences(plan.getIdsToRemove());
+		}
+
+		final List<Geofence> geofences = plan.getGeofencesToAdd();
+
+		if (geofences.isEmpty()) {
+			Log.d(LOG_TAG, "Monitored fences are up to date");
+			return;
 		}
 
 		GeofencingRequest.Builder builder = new GeofencingRequest.Builder();
@@ -315,16 +326,19 @@ public class MainActivity extends AppCompatActivity implements OnMapReadyCallbac
 					@Override
 					public void onFailure(@NonNull Exception e) {
 						Log.d(LOG_TAG, "Error in adding fences for monitoring " + e.getMessage());
+						geofencePlanner.reset();
 
 					}
 				});
 			}
 		} catch (SecurityException e) {
 			Log.e(LOG_TAG, "getDeviceLocation: SecurityException: " + e.getMessage());
+			geofencePlanner.reset();
 		}
 	}
 
 	private void stopMonitoringFences() {
+		geofencePlanner.reset();
 		mGeofencingClient.removeGeofences(getGeofencePendingIntent())
 		.addOnSuccessListener(this, new OnSuccessListener<Void>() {
 			@Override